@@ -1,19 +1,55 @@
 package com.stockmonitor.batch;
 
+import com.stockmonitor.model.ConstraintSet;
+import com.stockmonitor.model.Portfolio;
+import com.stockmonitor.model.Recommendation;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.model.Universe;
+import com.stockmonitor.repository.ConstraintSetRepository;
+import com.stockmonitor.repository.PortfolioRepository;
+import com.stockmonitor.repository.RecommendationRepository;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.repository.UniverseRepository;
+import com.stockmonitor.service.ChangeDetectionService;
+import com.stockmonitor.service.RecommendationEngine;
+import com.stockmonitor.service.ReportArtifactService;
+import com.stockmonitor.service.ReportRenderingService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.database.JpaItemWriter;
+import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
+import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
 /**
  * Spring Batch job for T finalization stage per FR-020, FR-022.
  *
@@ -28,6 +64,14 @@ import org.springframework.transaction.PlatformTransactionManager;
  * - Send high-priority completion notifications per FR-045
  *
  * This is the main execution job that produces final month-end recommendations.
+ *
+ * Steps 1-3 are partitioned by portfolio range ({@link PortfolioRangePartitioner}) and run as
+ * chunk-oriented worker steps on the finalization task executor, so large month-ends are
+ * processed in parallel and a failed run can be restarted without redoing completed partitions.
+ * Grid size, worker threads and chunk size are set under {@code app.batch.finalization}.
+ *
+ * Step 4 renders PDF reports in chunks on the report render pool, which is sized to the available
+ * cores, so report throughput scales with the machine rather than with the partition grid.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -35,15 +79,38 @@ import org.springframework.transaction.PlatformTransactionManager;
 @ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
 public class FinalizationBatchJob {
 
+    /** Runs that still need finalizing; the T scheduler may already have marked them FINALIZED. */
+    private static final Set<String> FINALIZABLE_STATUSES = Set.of("STAGED", "FINALIZED");
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final RecommendationRunRepository runRepository;
+    private final RecommendationRepository recommendationRepository;
+    private final UniverseRepository universeRepository;
+    private final ConstraintSetRepository constraintSetRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final RecommendationEngine recommendationEngine;
+    private final ChangeDetectionService changeDetectionService;
+    private final ReportArtifactService reportArtifactService;
+    private final ReportRenderingService reportRenderingService;
+
+    @Value("${app.batch.finalization.grid-size:8}")
+    private int gridSize;
+
+    @Value("${app.batch.finalization.chunk-size:10}")
+    private int chunkSize;
+
+    @Value("${app.reports.render.chunk-size:32}")
+    private int reportChunkSize;
 
     @Bean
-    public Job finalizationJob() {
+    public Job finalizationJob(
+            @Qualifier("finalizationTaskExecutor") TaskExecutor finalizationTaskExecutor) {
         return new JobBuilder("finalizationBatchJob", jobRepository)
-                .start(executeOptimizationStep())
-                .next(generateRecommendationsStep())
-                .next(calculateChangeIndicatorsStep())
+                .start(executeOptimizationStep(finalizationTaskExecutor))
+                .next(generateRecommendationsStep(finalizationTaskExecutor))
+                .next(calculateChangeIndicatorsStep(finalizationTaskExecutor))
                 .next(generateReportsStep())
                 .next(archivePreviousRunsStep())
                 .next(sendCompletionNotificationsStep())
@@ -52,65 +119,82 @@ public class FinalizationBatchJob {
 
     /**
      * Step 1: Execute portfolio optimization for all STAGED runs.
+     *
+     * Partitioned by portfolio range; see {@link #stagedRunReader}.
      */
     @Bean
-    public Step executeOptimizationStep() {
-        return new StepBuilder("executeOptimization", jobRepository)
-                .tasklet(executeOptimizationTasklet(), transactionManager)
-                .build();
+    public Step executeOptimizationStep(
+            @Qualifier("finalizationTaskExecutor") TaskExecutor finalizationTaskExecutor) {
+        return partitionedStep("executeOptimization", executeOptimizationProcessor(),
+                finalizationTaskExecutor);
     }
 
+    /**
+     * Run the recommendation engine for each STAGED run that has no recommendations yet.
+     * Runs that already have recommendations are skipped, so a restarted chunk does not
+     * optimize the same portfolio twice.
+     */
     @Bean
-    public Tasklet executeOptimizationTasklet() {
-        return (contribution, chunkContext) -> {
-            log.info("T Finalization: Executing portfolio optimization");
-
-            String monthEndDate = (String) chunkContext.getStepContext()
-                    .getJobParameters()
-                    .get("monthEndDate");
-
-            // TODO: Implement portfolio optimization logic
-            // 1. For each STAGED run, invoke RecommendationEngine
-            // 2. Run factor-based optimization with current constraints
-            // 3. Generate optimal portfolio weights
-            // 4. Calculate expected alpha, costs, edge/cost ratio
-            // 5. Handle optimization failures gracefully
-
-            log.info("Portfolio optimization complete for month-end {}", monthEndDate);
-            return RepeatStatus.FINISHED;
+    public ItemProcessor<RecommendationRun, RecommendationRun> executeOptimizationProcessor() {
+        return run -> {
+            if (!FINALIZABLE_STATUSES.contains(run.getStatus())
+                    || recommendationRepository.countByRunId(run.getId()) > 0) {
+                return null;
+            }
+
+            Universe universe = universeRepository.findById(run.getUniverseId())
+                    .orElseThrow(() -> new IllegalStateException("Universe not found: " + run.getUniverseId()));
+            ConstraintSet constraints = constraintSetRepository.findById(run.getConstraintSetId())
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Constraint set not found: " + run.getConstraintSetId()));
+            Portfolio portfolio = portfolioRepository.findById(run.getPortfolioId())
+                    .orElseThrow(() -> new IllegalStateException("Portfolio not found: " + run.getPortfolioId()));
+
+            run.setStartedAt(LocalDateTime.now());
+            recommendationEngine.generateRecommendations(run, universe, constraints, portfolio);
+            log.debug("Optimized run {} for portfolio {}", run.getId(), run.getPortfolioId());
+            return run;
         };
     }
 
     /**
      * Step 2: Generate recommendations with rankings.
+     *
+     * Rolls the optimized recommendations up into the run and marks it FINALIZED.
      */
     @Bean
-    public Step generateRecommendationsStep() {
-        return new StepBuilder("generateRecommendations", jobRepository)
-                .tasklet(generateRecommendationsTasklet(), transactionManager)
-                .build();
+    public Step generateRecommendationsStep(
+            @Qualifier("finalizationTaskExecutor") TaskExecutor finalizationTaskExecutor) {
+        return partitionedStep("generateRecommendations", generateRecommendationsProcessor(),
+                finalizationTaskExecutor);
     }
 
     @Bean
-    public Tasklet generateRecommendationsTasklet() {
-        return (contribution, chunkContext) -> {
-            log.info("T Finalization: Generating recommendations");
-
-            String monthEndDate = (String) chunkContext.getStepContext()
-                    .getJobParameters()
-                    .get("monthEndDate");
-
-            // TODO: Implement recommendation generation logic
-            // 1. Convert optimization results to Recommendation entities
-            // 2. Rank recommendations by expected alpha per FR-009
-            // 3. Calculate confidence scores per FR-010
-            // 4. Populate driver factors (top 3) per FR-012
-            // 5. Generate explanations per FR-013
-            // 6. Check constraint compliance per FR-016 to FR-019
-            // 7. Save recommendations to database
-
-            log.info("Recommendations generated for month-end {}", monthEndDate);
-            return RepeatStatus.FINISHED;
+    public ItemProcessor<RecommendationRun, RecommendationRun> generateRecommendationsProcessor() {
+        return run -> {
+            if (!FINALIZABLE_STATUSES.contains(run.getStatus())) {
+                return null;
+            }
+
+            List<Recommendation> recommendations = recommendationRepository.findByRunId(run.getId());
+            if ("FINALIZED".equals(run.getStatus())
+                    && run.getExpectedAlphaBps() != null
+                    && run.getRecommendationCount() == recommendations.size()) {
+                return null; // Already rolled up (restart)
+            }
+
+            run.setRecommendationCount(recommendations.size());
+            run.setExpectedAlphaBps(average(recommendations, Recommendation::getExpectedAlphaBps));
+            run.setEstimatedCostBps(average(recommendations, Recommendation::getExpectedCostBps));
+            run.setStatus("FINALIZED");
+            LocalDateTime now = LocalDateTime.now();
+            if (run.getCompletedAt() == null) {
+                run.setCompletedAt(now);
+            }
+            if (run.getStartedAt() != null) {
+                run.setExecutionDurationMs(Duration.between(run.getStartedAt(), now).toMillis());
+            }
+            return run;
         };
     }
 
@@ -118,62 +202,138 @@ public class FinalizationBatchJob {
      * Step 3: Calculate change indicators vs previous month.
      */
     @Bean
-    public Step calculateChangeIndicatorsStep() {
-        return new StepBuilder("calculateChangeIndicators", jobRepository)
-                .tasklet(calculateChangeIndicatorsTasklet(), transactionManager)
+    public Step calculateChangeIndicatorsStep(
+            @Qualifier("finalizationTaskExecutor") TaskExecutor finalizationTaskExecutor) {
+        return partitionedStep("calculateChangeIndicators", calculateChangeIndicatorsProcessor(),
+                finalizationTaskExecutor);
+    }
+
+    /**
+     * Populate change indicators per FR-027. ChangeDetectionService saves the recommendations
+     * itself and is idempotent, so the run is not passed on to the writer.
+     */
+    @Bean
+    public ItemProcessor<RecommendationRun, RecommendationRun> calculateChangeIndicatorsProcessor() {
+        return run -> {
+            if ("FINALIZED".equals(run.getStatus()) && run.getRecommendationCount() > 0) {
+                changeDetectionService.detectChanges(run.getId());
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Manager step that fans a chunk-oriented worker step out over portfolio ranges.
+     *
+     * Each partition runs on the finalization task executor with its own step execution, so on
+     * restart Spring Batch re-runs only the partitions that did not complete, and an incomplete
+     * partition resumes from its reader's last committed position.
+     */
+    private Step partitionedStep(String name,
+                                 ItemProcessor<RecommendationRun, RecommendationRun> processor,
+                                 TaskExecutor taskExecutor) {
+        Step worker = new StepBuilder(name + "Worker", jobRepository)
+                .<RecommendationRun, RecommendationRun>chunk(chunkSize, transactionManager)
+                .reader(stagedRunReader(null, null, null))
+                .processor(processor)
+                .writer(runWriter())
+                .build();
+
+        return new StepBuilder(name, jobRepository)
+                .partitioner(worker.getName(), portfolioRangePartitioner(null))
+                .step(worker)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
                 .build();
     }
 
     @Bean
-    public Tasklet calculateChangeIndicatorsTasklet() {
-        return (contribution, chunkContext) -> {
-            log.info("T Finalization: Calculating change indicators");
+    @StepScope
+    public PortfolioRangePartitioner portfolioRangePartitioner(
+            @Value("#{jobParameters['monthEndDate']}") String monthEndDate) {
+        return new PortfolioRangePartitioner(runRepository, LocalDate.parse(monthEndDate));
+    }
 
-            String monthEndDate = (String) chunkContext.getStepContext()
-                    .getJobParameters()
-                    .get("monthEndDate");
+    /**
+     * Reads one partition's runs in pages of {@code chunkSize}.
+     *
+     * The query does not filter on status, so pages stay stable while earlier chunks move runs
+     * from STAGED to FINALIZED; processors skip runs that are not eligible for their step.
+     */
+    @Bean
+    @StepScope
+    public JpaPagingItemReader<RecommendationRun> stagedRunReader(
+            @Value("#{stepExecutionContext['monthEndDate']}") String monthEndDate,
+            @Value("#{stepExecutionContext['minPortfolioId']}") String minPortfolioId,
+            @Value("#{stepExecutionContext['maxPortfolioId']}") String maxPortfolioId) {
+        return new JpaPagingItemReaderBuilder<RecommendationRun>()
+                .name("stagedRunReader")
+                .entityManagerFactory(entityManagerFactory)
+                .queryString("SELECT r FROM RecommendationRun r WHERE r.scheduledDate = :scheduledDate"
+                        + " AND r.portfolioId BETWEEN :minPortfolioId AND :maxPortfolioId"
+                        + " ORDER BY r.portfolioId, r.id")
+                .parameterValues(Map.of(
+                        "scheduledDate", LocalDate.parse(monthEndDate),
+                        "minPortfolioId", UUID.fromString(minPortfolioId),
+                        "maxPortfolioId", UUID.fromString(maxPortfolioId)))
+                .pageSize(chunkSize)
+                .build();
+    }
 
-            // TODO: Implement change indicator calculation per FR-027
-            // 1. Find previous month's FINALIZED run for each portfolio
-            // 2. Compare recommendations: NEW, INCREASED, DECREASED, UNCHANGED, REMOVED
-            // 3. Calculate weight changes for each stock
-            // 4. Populate changeIndicator field in Recommendation entities
-            // 5. Update recommendations in database
+    @Bean
+    public JpaItemWriter<RecommendationRun> runWriter() {
+        return new JpaItemWriterBuilder<RecommendationRun>()
+                .entityManagerFactory(entityManagerFactory)
+                .build();
+    }
 
-            log.info("Change indicators calculated for month-end {}", monthEndDate);
-            return RepeatStatus.FINISHED;
-        };
+    private static BigDecimal average(List<Recommendation> recommendations,
+                                      Function<Recommendation, BigDecimal> field) {
+        if (recommendations.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        return recommendations.stream()
+                .map(field)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(recommendations.size()), 2, RoundingMode.HALF_UP);
     }
 
     /**
      * Step 4: Generate reports for all finalized runs.
+     *
+     * Reads the month-end's FINALIZED runs in chunks of {@code app.reports.render.chunk-size}; each
+     * chunk is rendered in parallel on the report render pool and stored (see
+     * {@link ReportRenderWriter}). A run whose report fails is rendered on first download instead.
      */
     @Bean
     public Step generateReportsStep() {
         return new StepBuilder("generateReports", jobRepository)
-                .tasklet(generateReportsTasklet(), transactionManager)
+                .<RecommendationRun, RecommendationRun>chunk(reportChunkSize, transactionManager)
+                .reader(finalizedRunReader(null))
+                .writer(reportRenderWriter())
+                .listener(reportRenderWriter())
                 .build();
     }
 
     @Bean
-    public Tasklet generateReportsTasklet() {
-        return (contribution, chunkContext) -> {
-            log.info("T Finalization: Generating reports");
-
-            String monthEndDate = (String) chunkContext.getStepContext()
-                    .getJobParameters()
-                    .get("monthEndDate");
-
-            // TODO: Implement report generation per FR-041 to FR-044
-            // 1. For each finalized run, invoke ReportGenerationService
-            // 2. Generate HTML report with all sections
-            // 3. Generate PDF report with charts
-            // 4. Store reports (or cache report data for on-demand generation)
-            // 5. Log report generation success/failures
+    @StepScope
+    public JpaPagingItemReader<RecommendationRun> finalizedRunReader(
+            @Value("#{jobParameters['monthEndDate']}") String monthEndDate) {
+        return new JpaPagingItemReaderBuilder<RecommendationRun>()
+                .name("finalizedRunReader")
+                .entityManagerFactory(entityManagerFactory)
+                .queryString("SELECT r FROM RecommendationRun r WHERE r.scheduledDate = :scheduledDate"
+                        + " AND r.status = 'FINALIZED' ORDER BY r.id")
+                .parameterValues(Map.of("scheduledDate", LocalDate.parse(monthEndDate)))
+                .pageSize(reportChunkSize)
+                .build();
+    }
 
-            log.info("Reports generated for month-end {}", monthEndDate);
-            return RepeatStatus.FINISHED;
-        };
+    @Bean
+    @StepScope
+    public ReportRenderWriter reportRenderWriter() {
+        return new ReportRenderWriter(reportArtifactService, reportRenderingService);
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.stockmonitor.batch;
+
+import com.stockmonitor.repository.RecommendationRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Splits a month-end's recommendation runs into contiguous portfolio ID ranges.
+ *
+ * Portfolio IDs are listed in database order, so each partition can select its runs with a
+ * simple {@code portfolioId BETWEEN min AND max} range. Each range holds roughly the same number
+ * of portfolios. Partition names are stable for a given set of runs, so a restarted job re-runs
+ * only the partitions that did not complete.
+ */
+@Slf4j
+public class PortfolioRangePartitioner implements Partitioner {
+
+    public static final String MIN_PORTFOLIO_ID = "minPortfolioId";
+    public static final String MAX_PORTFOLIO_ID = "maxPortfolioId";
+    public static final String MONTH_END_DATE = "monthEndDate";
+
+    private final RecommendationRunRepository runRepository;
+    private final LocalDate monthEndDate;
+
+    public PortfolioRangePartitioner(RecommendationRunRepository runRepository, LocalDate monthEndDate) {
+        this.runRepository = runRepository;
+        this.monthEndDate = monthEndDate;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<UUID> portfolioIds = runRepository.findPortfolioIdsByScheduledDate(monthEndDate);
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (portfolioIds.isEmpty()) {
+            log.info("No runs scheduled for month-end {}, nothing to partition", monthEndDate);
+            return partitions;
+        }
+
+        int partitionCount = Math.max(1, Math.min(gridSize, portfolioIds.size()));
+        int perPartition = portfolioIds.size() / partitionCount;
+        int remainder = portfolioIds.size() % partitionCount;
+
+        int from = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            int to = from + perPartition + (i < remainder ? 1 : 0);
+            ExecutionContext context = new ExecutionContext();
+            context.putString(MIN_PORTFOLIO_ID, portfolioIds.get(from).toString());
+            context.putString(MAX_PORTFOLIO_ID, portfolioIds.get(to - 1).toString());
+            context.putString(MONTH_END_DATE, monthEndDate.toString());
+            partitions.put("partition" + i, context);
+            from = to;
+        }
+
+        log.info("Split {} portfolios for month-end {} into {} partitions",
+                portfolioIds.size(), monthEndDate, partitionCount);
+        return partitions;
+    }
+}
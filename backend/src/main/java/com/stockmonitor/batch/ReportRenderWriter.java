@@ -0,0 +1,69 @@
+package com.stockmonitor.batch;
+
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.service.ReportArtifactService;
+import com.stockmonitor.service.ReportArtifactService.BulkRenderResult;
+import com.stockmonitor.service.ReportRenderingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.ArrayList;
+
+/**
+ * Renders each chunk of finalized runs with {@link ReportArtifactService#renderAll} and reports the
+ * step's rendering throughput.
+ *
+ * Per-run failures do not fail the chunk: those reports are rendered on first download instead.
+ * After the step, rendered/skipped/failed counts and PDFs per second are logged, stored in the
+ * step execution context and published as the {@code report.render.batch.throughput} gauge.
+ */
+@Slf4j
+public class ReportRenderWriter implements ItemWriter<RecommendationRun>, StepExecutionListener {
+
+    public static final String RENDERED = "reportsRendered";
+    public static final String SKIPPED = "reportsSkipped";
+    public static final String FAILED = "reportsFailed";
+
+    private final ReportArtifactService reportArtifactService;
+    private final ReportRenderingService reportRenderingService;
+
+    private BulkRenderResult total = BulkRenderResult.EMPTY;
+
+    public ReportRenderWriter(ReportArtifactService reportArtifactService,
+                              ReportRenderingService reportRenderingService) {
+        this.reportArtifactService = reportArtifactService;
+        this.reportRenderingService = reportRenderingService;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        total = BulkRenderResult.EMPTY;
+    }
+
+    @Override
+    public void write(Chunk<? extends RecommendationRun> chunk) {
+        BulkRenderResult result = reportArtifactService.renderAll(new ArrayList<>(chunk.getItems()));
+        total = total.plus(result);
+        log.debug("Rendered report chunk: {} rendered, {} skipped, {} failed ({} PDFs/s)",
+                result.rendered(), result.skipped(), result.failed(),
+                String.format("%.1f", result.pdfsPerSecond()));
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        stepExecution.getExecutionContext().putInt(RENDERED, total.rendered());
+        stepExecution.getExecutionContext().putInt(SKIPPED, total.skipped());
+        stepExecution.getExecutionContext().putInt(FAILED, total.failed());
+        if (total.rendered() > 0) {
+            reportRenderingService.recordBatchThroughput(total.pdfsPerSecond());
+        }
+        log.info("Report rendering: {} rendered, {} already stored, {} failed in {} ms ({} PDFs/s)",
+                total.rendered(), total.skipped(), total.failed(), total.elapsedNanos() / 1_000_000,
+                String.format("%.1f", total.pdfsPerSecond()));
+        return stepExecution.getExitStatus();
+    }
+}
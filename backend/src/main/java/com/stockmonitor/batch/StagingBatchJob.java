@@ -1,7 +1,12 @@
 package com.stockmonitor.batch;
 
+import com.stockmonitor.dto.CacheCoverageReport;
+import com.stockmonitor.monitoring.AlertingService;
+import com.stockmonitor.service.CacheWarmupService;
+import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
@@ -36,6 +41,8 @@ public class StagingBatchJob {
 
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
+    private final CacheWarmupService cacheWarmupService;
+    private final AlertingService alertingService;
 
     @Bean
     public Job stagingJob() {
@@ -97,14 +104,23 @@ public class StagingBatchJob {
                     .getJobParameters()
                     .get("monthEndDate");
 
-            // TODO: Implement cached data validation
-            // 1. Verify all cached factor scores exist and are complete
-            // 2. Verify covariance matrices are cached
-            // 3. Verify sector/liquidity classifications are cached
-            // 4. Check cache hit rates (should be >95%)
-            // 5. Log any cache misses for investigation
-
-            log.info("Cached data validation complete for month-end {}", monthEndDate);
+            // Re-check prices, factor scores and classifications recorded at T-3
+            CacheCoverageReport coverage =
+                    cacheWarmupService.verifyCoverage(LocalDate.parse(monthEndDate));
+            long hitRatePct = Math.round(coverage.getHitRate() * 100);
+
+            if (coverage.getHitRate() < CacheWarmupService.MIN_HIT_RATE) {
+                log.warn("Cache hit rate {}% below {}% for month-end {}: {}", hitRatePct,
+                        Math.round(CacheWarmupService.MIN_HIT_RATE * 100), monthEndDate,
+                        coverage.getCachedByCategory());
+                alertingService.sendAlert("WARNING", String.format(
+                        "Month-end %s cache coverage %d%% (%d/%d entries)", monthEndDate,
+                        hitRatePct, coverage.getCachedEntries(), coverage.getExpectedEntries()));
+                contribution.setExitStatus(new ExitStatus("LOW_CACHE_COVERAGE"));
+            }
+
+            log.info("Cached data validation complete for month-end {} (hit rate {}%)",
+                    monthEndDate, hitRatePct);
             return RepeatStatus.FINISHED;
         };
     }
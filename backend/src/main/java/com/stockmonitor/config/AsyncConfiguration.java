@@ -2,6 +2,7 @@ package com.stockmonitor.config;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -37,4 +38,68 @@ public class AsyncConfiguration {
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Thread pool executor for refresh-ahead cache reloads.
+   *
+   * <p>Small and bounded: refreshes are best-effort, so when the queue is full the reload is
+   * rejected and retried on a later read of the same entry.
+   */
+  @Bean(name = "cacheRefreshExecutor")
+  public Executor cacheRefreshExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(4);
+    executor.setQueueCapacity(500);
+    executor.setThreadNamePrefix("cache-refresh-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Thread pool executor for PDF report rendering.
+   *
+   * <p>Rendering is CPU-bound, so the pool is sized to the available cores unless
+   * app.reports.render.threads is set; this also bounds how many documents are laid out in memory
+   * at once. The month-end report step feeds it in chunks; when the queue is full, on-demand
+   * renders are rejected rather than tying up request threads.
+   */
+  @Bean(name = "reportRenderExecutor")
+  public ThreadPoolTaskExecutor reportRenderExecutor(
+      @Value("${app.reports.render.threads:0}") int threads,
+      @Value("${app.reports.render.queue-capacity:500}") int queueCapacity) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("report-render-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Thread pool executor for async MVC requests, such as streaming downloads (see
+   * WebMvcAsyncConfig).
+   *
+   * <p>Bounded so a burst of slow downloads cannot start an unbounded number of threads: when the
+   * pool and queue are full, the request is rejected and answered with 503.
+   */
+  @Bean(name = "mvcAsyncExecutor")
+  public ThreadPoolTaskExecutor mvcAsyncExecutor(
+      @Value("${app.mvc.async.core-pool-size:8}") int corePoolSize,
+      @Value("${app.mvc.async.max-pool-size:32}") int maxPoolSize,
+      @Value("${app.mvc.async.queue-capacity:100}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(corePoolSize);
+    executor.setMaxPoolSize(maxPoolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("mvc-async-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+    return executor;
+  }
 }
@@ -1,18 +1,21 @@
 package com.stockmonitor.config;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
-import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
-import javax.sql.DataSource;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Spring Batch configuration for scheduled jobs and background processing.
@@ -25,9 +28,11 @@ import javax.sql.DataSource;
  *
  * Configuration:
  * - Job repository: PostgreSQL-backed for persistence (auto-configured by Spring Boot 3.x)
- * - Transaction manager: DataSource-based for ACID compliance
+ * - Transaction manager: JPA-based so chunk transactions cover both batch metadata and entity writes
  * - Job launcher: Async execution to avoid blocking
  * - Task executor: Simple async for parallel step execution
+ * - Finalization task executor: bounded pool for partitioned T finalization steps
+ * - Month-end executor: bounded pool for the scheduler's per-portfolio fan-out
  *
  * Note: @EnableBatchProcessing is NOT used in Spring Boot 3.x as it disables auto-configuration.
  * Spring Boot 3.x auto-configures JobRepository and schema initialization automatically.
@@ -37,16 +42,23 @@ import javax.sql.DataSource;
 @ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
 public class BatchConfig {
 
-    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.batch.finalization.worker-threads:4}")
+    private int finalizationWorkerThreads;
+
+    @Value("${app.batch.month-end.parallelism:8}")
+    private int monthEndParallelism;
 
     /**
      * Transaction manager for batch jobs.
-     * Uses the same data source as application for consistency.
+     * JPA-based (it also manages the underlying data source) so that chunk-oriented steps and
+     * the services they call share one transaction with the EntityManager.
      * Named 'transactionManager' for Spring Batch JobRepository compatibility.
      */
     @Bean(name = "transactionManager")
     public PlatformTransactionManager transactionManager() {
-        return new DataSourceTransactionManager(dataSource);
+        return new JpaTransactionManager(entityManagerFactory);
     }
 
     /**
@@ -60,6 +72,39 @@ public class BatchConfig {
         return taskExecutor;
     }
 
+    /**
+     * Task executor for partitioned finalization steps.
+     * One thread per concurrently processed portfolio partition; extra partitions queue.
+     */
+    @Bean(name = "finalizationTaskExecutor")
+    public ThreadPoolTaskExecutor finalizationTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(finalizationWorkerThreads);
+        executor.setMaxPoolSize(finalizationWorkerThreads);
+        executor.setThreadNamePrefix("finalization-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Task executor for the month-end scheduler's per-portfolio fan-out.
+     * Bounded to {@code app.batch.month-end.parallelism} threads; when the queue is full the
+     * scheduler thread processes the batch itself.
+     */
+    @Bean(name = "monthEndExecutor")
+    public ThreadPoolTaskExecutor monthEndExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(monthEndParallelism);
+        executor.setMaxPoolSize(monthEndParallelism);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("month-end-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Job launcher with async execution support.
      * Enables non-blocking job launches for scheduled tasks.
@@ -16,12 +16,14 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,12 +39,37 @@ import java.util.concurrent.TimeUnit;
  * - universeConstituents (6 hours): Universe membership data
  * - marketData (15 minutes): Real-time price/market data
  * - userSettings (30 minutes): User preferences and constraints
+ * - recommendations (24 hours): Finalized recommendation results
+ *
+ * Hot read paths (FX rates, factor scores) go through RefreshAheadCacheService instead of
+ * {@code @Cacheable}, which reuses the same TTLs but reloads entries before they expire.
  */
 @Configuration
 @EnableCaching
 @Slf4j
 public class CacheConfig {
 
+  /** Default TTL for caches without an explicit entry in {@link #CACHE_TTLS}. */
+  public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+  /** TTL per cache name, shared by the Redis cache manager and the refresh-ahead cache. */
+  public static final Map<String, Duration> CACHE_TTLS = cacheTtls();
+
+  private static Map<String, Duration> cacheTtls() {
+    Map<String, Duration> ttls = new LinkedHashMap<>();
+    ttls.put("factorScores", Duration.ofHours(1));
+    ttls.put("universeConstituents", Duration.ofHours(6));
+    ttls.put("marketData", Duration.ofMinutes(15));
+    ttls.put("userSettings", Duration.ofMinutes(30));
+    ttls.put("recommendations", Duration.ofHours(24));
+    return Map.copyOf(ttls);
+  }
+
+  /** TTL configured for a cache name. */
+  public static Duration ttlFor(String cacheName) {
+    return CACHE_TTLS.getOrDefault(cacheName, DEFAULT_TTL);
+  }
+
   /**
    * Composite cache manager with Redis primary and Caffeine fallback.
    * If Redis is unavailable, Caffeine provides local caching.
@@ -76,19 +103,11 @@ public class CacheConfig {
    */
   @Bean
   public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.registerModule(new JavaTimeModule());
-    objectMapper.activateDefaultTyping(
-        BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
-        ObjectMapper.DefaultTyping.NON_FINAL,
-        JsonTypeInfo.As.PROPERTY);
-
-    GenericJackson2JsonRedisSerializer serializer =
-        new GenericJackson2JsonRedisSerializer(objectMapper);
+    GenericJackson2JsonRedisSerializer serializer = redisValueSerializer();
 
     RedisCacheConfiguration defaultConfig =
         RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofHours(1))
+            .entryTtl(DEFAULT_TTL)
             .serializeKeysWith(
                 RedisSerializationContext.SerializationPair.fromSerializer(
                     new StringRedisSerializer()))
@@ -96,19 +115,39 @@ public class CacheConfig {
                 RedisSerializationContext.SerializationPair.fromSerializer(serializer))
             .disableCachingNullValues();
 
-    return RedisCacheManager.builder(connectionFactory)
-        .cacheDefaults(defaultConfig)
-        .withCacheConfiguration("factorScores",
-            defaultConfig.entryTtl(Duration.ofHours(1)))
-        .withCacheConfiguration("universeConstituents",
-            defaultConfig.entryTtl(Duration.ofHours(6)))
-        .withCacheConfiguration("marketData",
-            defaultConfig.entryTtl(Duration.ofMinutes(15)))
-        .withCacheConfiguration("userSettings",
-            defaultConfig.entryTtl(Duration.ofMinutes(30)))
-        .withCacheConfiguration("recommendations",
-            defaultConfig.entryTtl(Duration.ofHours(24)))
-        .build();
+    RedisCacheManager.RedisCacheManagerBuilder builder =
+        RedisCacheManager.builder(connectionFactory).cacheDefaults(defaultConfig);
+    CACHE_TTLS.forEach(
+        (name, ttl) -> builder.withCacheConfiguration(name, defaultConfig.entryTtl(ttl)));
+    return builder.build();
+  }
+
+  /**
+   * String-keyed Redis template used by DataFeedCacheService for direct cache access.
+   * Replaces Spring Boot's Object-keyed default and shares the cache manager's JSON encoding.
+   */
+  @Bean(name = "redisTemplate")
+  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    RedisTemplate<String, Object> template = new RedisTemplate<>();
+    template.setConnectionFactory(connectionFactory);
+    template.setKeySerializer(new StringRedisSerializer());
+    template.setHashKeySerializer(new StringRedisSerializer());
+    template.setValueSerializer(redisValueSerializer());
+    template.setHashValueSerializer(redisValueSerializer());
+    return template;
+  }
+
+  /**
+   * JSON value serializer with type information so cached DTOs round-trip.
+   */
+  private GenericJackson2JsonRedisSerializer redisValueSerializer() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+    objectMapper.activateDefaultTyping(
+        BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build(),
+        ObjectMapper.DefaultTyping.NON_FINAL,
+        JsonTypeInfo.As.PROPERTY);
+    return new GenericJackson2JsonRedisSerializer(objectMapper);
   }
 
   /**
@@ -118,13 +157,7 @@ public class CacheConfig {
   @Bean
   public CacheManager caffeineCacheManager() {
     CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-    cacheManager.setCacheNames(Arrays.asList(
-        "factorScores",
-        "universeConstituents",
-        "marketData",
-        "userSettings",
-        "recommendations"
-    ));
+    cacheManager.setCacheNames(CACHE_TTLS.keySet());
     cacheManager.setCaffeine(caffeineCacheBuilder());
     return cacheManager;
   }
@@ -1,5 +1,6 @@
 package com.stockmonitor.config;
 
+import com.stockmonitor.dto.CursorPage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +23,7 @@ public class CorsConfig {
     configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
     configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(Arrays.asList("*"));
+    configuration.setExposedHeaders(List.of(CursorPage.NEXT_CURSOR_HEADER));
     configuration.setAllowCredentials(true);
     configuration.setMaxAge(3600L);
 
@@ -111,4 +111,75 @@ public class MetricsConfig {
     public static final String MAX_DRAWDOWN = "backtest.max.drawdown";
     public static final String TOTAL_RETURN = "backtest.total.return";
   }
+
+  /**
+   * Custom metrics for the month-end scheduler stages (T-3, T-1, T)
+   *
+   * <p>Recorded by MonthEndFanOut, tagged with {@code stage}. Stage duration and item latency
+   * publish percentile histograms so month-end scaling can be compared across runs.
+   */
+  public static class MonthEndMetrics {
+    public static final String STAGE_DURATION = "monthend.stage.duration";
+    public static final String ITEM_LATENCY = "monthend.item.latency";
+    public static final String BATCH_WRITE = "monthend.batch.write";
+    public static final String ITEM_FAILURES = "monthend.item.failures";
+  }
+
+  /**
+   * Custom metrics for WebSocket sessions and the STOMP channels
+   *
+   * <p>Recorded by WebSocketSessionMetrics. Queue depth is the number of messages buffered across
+   * all client sessions waiting for a slow consumer; drops are tagged with {@code reason}
+   * (buffer-limit, closed), disconnects with {@code reason} (buffer-limit, send-time-limit).
+   * Channel gauges are tagged with {@code channel} (inbound, outbound).
+   */
+  public static class WebSocketMetrics {
+    public static final String SESSIONS_ACTIVE = "websocket.sessions.active";
+    public static final String SEND_QUEUE_DEPTH = "websocket.send.queue.depth";
+    public static final String SEND_QUEUE_MAX = "websocket.send.queue.max";
+    public static final String MESSAGES_DROPPED = "websocket.messages.dropped";
+    public static final String SESSIONS_DISCONNECTED = "websocket.sessions.disconnected";
+    public static final String CHANNEL_QUEUE_DEPTH = "websocket.channel.queue.depth";
+    public static final String CHANNEL_ACTIVE_THREADS = "websocket.channel.active.threads";
+  }
+
+  /**
+   * Custom metrics for PDF report rendering
+   *
+   * <p>Recorded by ReportRenderingService. Failures are tagged with {@code reason} (too-large,
+   * error). Batch throughput is the PDFs per second of the last month-end generateReports step.
+   */
+  public static class ReportMetrics {
+    public static final String RENDER_DURATION = "report.render.duration";
+    public static final String RENDER_FAILURES = "report.render.failures";
+    public static final String RENDER_QUEUE_DEPTH = "report.render.queue.depth";
+    public static final String RENDER_ACTIVE = "report.render.active";
+    public static final String BATCH_THROUGHPUT = "report.render.batch.throughput";
+  }
+
+  /**
+   * Custom metrics for request authentication
+   *
+   * <p>Recorded by JwtAuthenticationFilter for requests with a bearer token, tagged with {@code
+   * result} (authenticated, revoked, invalid). Requests rejected by RateLimitFilter are counted
+   * per {@code endpoint} class (standard, expensive).
+   */
+  public static class SecurityMetrics {
+    public static final String AUTH_FILTER_DURATION = "security.auth.filter.duration";
+    public static final String RATE_LIMIT_REJECTED = "security.rate.limit.rejected";
+  }
+
+  /**
+   * Custom metrics for the audit log writer
+   *
+   * <p>Recorded by AuditLogService: buffered events not yet written, time from event creation to
+   * insert, events written, and events dropped tagged with {@code reason} (buffer-full,
+   * write-failed).
+   */
+  public static class AuditMetrics {
+    public static final String BUFFER_DEPTH = "audit.buffer.depth";
+    public static final String WRITE_LAG = "audit.write.lag";
+    public static final String EVENTS_WRITTEN = "audit.events.written";
+    public static final String EVENTS_DROPPED = "audit.events.dropped";
+  }
 }
@@ -3,6 +3,7 @@ package com.stockmonitor.config;
 import com.stockmonitor.security.JwtAuthenticationFilter;
 import com.stockmonitor.security.ServiceApiKeyAuthFilter;
 import com.stockmonitor.security.ServiceRoleAccessFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -53,7 +54,12 @@ public class SecurityConfig {
                 .disable())
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers(
+                // Async dispatches complete streamed downloads whose request was already authorized
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers("/api/auth/change-password")
+                    .authenticated()
+                    .requestMatchers(
                         "/api/auth/**",
                         "/actuator/**",
                         "/swagger-ui/**",
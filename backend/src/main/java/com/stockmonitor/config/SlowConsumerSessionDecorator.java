@@ -0,0 +1,255 @@
+package com.stockmonitor.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+/**
+ * Bounded per-session send buffer with slow-consumer protection per FR-046, FR-047.
+ *
+ * <p>Takes the place of Spring's ConcurrentWebSocketSessionDecorator for client sessions. Only the
+ * thread holding the session's send lock writes to the socket; other outbound threads enqueue and
+ * return, so a slow client ties up at most one outbound channel thread. When the buffered backlog
+ * exceeds the byte limit, the overflow policy applies:
+ *
+ * <ul>
+ *   <li>DROP_SUPERSEDED: buffered run status frames (/topic/runs/{runId}/status) that have a later
+ *       frame for the same run are discarded, since each update carries the run's full state. Any
+ *       other frame, such as a notification, is never dropped: if the backlog still does not fit,
+ *       the session is disconnected
+ *   <li>DISCONNECT: the session is closed with SESSION_NOT_RELIABLE and the client reconnects
+ * </ul>
+ *
+ * A single send blocked for longer than the send time limit always disconnects: the client is not
+ * reading at all.
+ */
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+  public enum OverflowPolicy {
+    DROP_SUPERSEDED,
+    DISCONNECT;
+
+    /** Parse the app.websocket.transport.overflow-policy value (drop-superseded, disconnect). */
+    public static OverflowPolicy from(String value) {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+  }
+
+  static final String REASON_BUFFER_LIMIT = "buffer-limit";
+  static final String REASON_SEND_TIME_LIMIT = "send-time-limit";
+  static final String REASON_CLOSED = "closed";
+
+  private static final String RUN_STATUS_PREFIX = "/topic/runs/";
+  private static final String RUN_STATUS_SUFFIX = "/status";
+  private static final String DESTINATION_HEADER = "\ndestination:";
+
+  private final int sendTimeLimit;
+  private final int bufferSizeLimit;
+  private final OverflowPolicy overflowPolicy;
+  private final WebSocketSessionMetrics metrics;
+
+  private final Queue<Buffered> buffer = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger bufferSize = new AtomicInteger();
+  private final AtomicInteger bufferedCount = new AtomicInteger();
+  private final Lock flushLock = new ReentrantLock();
+  private final Lock overflowLock = new ReentrantLock();
+  private final AtomicBoolean closeInProgress = new AtomicBoolean();
+
+  private volatile long sendStartTime;
+  private volatile boolean closed;
+
+  /**
+   * @param delegate Session to send to
+   * @param sendTimeLimit Maximum time (ms) a single send may block before the session is closed
+   * @param bufferSizeLimit Maximum buffered bytes before the overflow policy applies
+   * @param overflowPolicy What to do when the buffer limit is exceeded
+   * @param metrics Receives drop and disconnect counts
+   */
+  public SlowConsumerSessionDecorator(
+      WebSocketSession delegate,
+      int sendTimeLimit,
+      int bufferSizeLimit,
+      OverflowPolicy overflowPolicy,
+      WebSocketSessionMetrics metrics) {
+    super(delegate);
+    this.sendTimeLimit = sendTimeLimit;
+    this.bufferSizeLimit = bufferSizeLimit;
+    this.overflowPolicy = overflowPolicy;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void sendMessage(WebSocketMessage<?> message) throws IOException {
+    if (closed) {
+      metrics.dropped(REASON_CLOSED, 1);
+      return;
+    }
+    buffer.add(new Buffered(message));
+    bufferSize.addAndGet(message.getPayloadLength());
+    bufferedCount.incrementAndGet();
+
+    do {
+      if (!flushLock.tryLock()) {
+        // Another thread is writing to this client and will pick the message up
+        checkLimits();
+        return;
+      }
+      try {
+        flush();
+      } finally {
+        flushLock.unlock();
+      }
+      // Messages enqueued after the last poll but before unlock are sent here
+    } while (!buffer.isEmpty() && !closed);
+  }
+
+  private void flush() throws IOException {
+    Buffered next;
+    while (!closed && (next = poll()) != null) {
+      sendStartTime = System.currentTimeMillis();
+      try {
+        getDelegate().sendMessage(next.message);
+      } finally {
+        sendStartTime = 0;
+      }
+    }
+  }
+
+  private Buffered poll() {
+    Buffered next = buffer.poll();
+    if (next != null) {
+      released(next);
+    }
+    return next;
+  }
+
+  private void released(Buffered removed) {
+    bufferSize.addAndGet(-removed.message.getPayloadLength());
+    bufferedCount.decrementAndGet();
+  }
+
+  private void checkLimits() {
+    if (closed || !overflowLock.tryLock()) {
+      return;
+    }
+    try {
+      long start = sendStartTime;
+      if (start > 0 && System.currentTimeMillis() - start > sendTimeLimit) {
+        disconnect(
+            REASON_SEND_TIME_LIMIT,
+            "Send time " + (System.currentTimeMillis() - start) + " (ms) for session '" + getId()
+                + "' exceeded the allowed limit " + sendTimeLimit);
+      } else if (bufferSize.get() > bufferSizeLimit) {
+        if (overflowPolicy == OverflowPolicy.DROP_SUPERSEDED) {
+          metrics.dropped(REASON_BUFFER_LIMIT, dropSuperseded());
+        }
+        if (bufferSize.get() > bufferSizeLimit) {
+          disconnect(
+              REASON_BUFFER_LIMIT,
+              "Buffer size " + bufferSize.get() + " bytes for session '" + getId()
+                  + "' exceeds the allowed limit " + bufferSizeLimit);
+        }
+      }
+    } finally {
+      overflowLock.unlock();
+    }
+  }
+
+  /**
+   * Remove run status frames followed by a later frame for the same run, newest first. The flush
+   * thread may poll concurrently: only frames this thread actually removed are counted.
+   */
+  private int dropSuperseded() {
+    List<Buffered> snapshot = new ArrayList<>(buffer);
+    Set<String> later = new HashSet<>();
+    int dropped = 0;
+    for (int i = snapshot.size() - 1; i >= 0; i--) {
+      Buffered candidate = snapshot.get(i);
+      String destination = candidate.runStatusDestination();
+      if (destination != null && !later.add(destination) && buffer.remove(candidate)) {
+        released(candidate);
+        dropped++;
+      }
+    }
+    return dropped;
+  }
+
+  /** Mark the session unusable; SubProtocolWebSocketHandler closes it on this exception. */
+  private void disconnect(String reason, String detail) {
+    closed = true;
+    metrics.disconnected(reason);
+    discardBuffer();
+    throw new SessionLimitExceededException(detail, CloseStatus.SESSION_NOT_RELIABLE);
+  }
+
+  private void discardBuffer() {
+    int dropped = 0;
+    while (poll() != null) {
+      dropped++;
+    }
+    metrics.dropped(REASON_CLOSED, dropped);
+  }
+
+  @Override
+  public void close(CloseStatus status) throws IOException {
+    if (!closeInProgress.compareAndSet(false, true)) {
+      return;
+    }
+    closed = true;
+    discardBuffer();
+    super.close(status);
+  }
+
+  /** Bytes waiting to be sent. */
+  public int getBufferSize() {
+    return bufferSize.get();
+  }
+
+  /** Messages waiting to be sent. */
+  public int getBufferedCount() {
+    return bufferedCount.get();
+  }
+
+  /** A queued message; compared by identity so removing one never removes an equal copy. */
+  private static final class Buffered {
+
+    private final WebSocketMessage<?> message;
+
+    private Buffered(WebSocketMessage<?> message) {
+      this.message = message;
+    }
+
+    /** Destination of a STOMP MESSAGE frame for run status, or null for any other frame. */
+    private String runStatusDestination() {
+      if (!(message instanceof TextMessage text)) {
+        return null;
+      }
+      String frame = text.getPayload();
+      int headersEnd = frame.indexOf("\n\n");
+      int start = frame.indexOf(DESTINATION_HEADER);
+      if (!frame.startsWith("MESSAGE\n") || start < 0 || start > headersEnd) {
+        return null;
+      }
+      start += DESTINATION_HEADER.length();
+      String destination = frame.substring(start, frame.indexOf('\n', start));
+      return destination.startsWith(RUN_STATUS_PREFIX) && destination.endsWith(RUN_STATUS_SUFFIX)
+          ? destination
+          : null;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.stockmonitor.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Async request processing for Spring MVC.
+ *
+ * <p>Streaming downloads (StreamingResponseBody, e.g. the exclusions CSV and report PDFs) are
+ * written on the bounded {@code mvcAsyncExecutor} pool (see AsyncConfiguration) instead of
+ * Spring's default executor, which starts a new thread per request. When the pool and its queue
+ * are full, new downloads are rejected with 503 rather than piling up threads. Each async request
+ * is cut off after {@code app.mvc.async.timeout}.
+ */
+@Configuration
+public class WebMvcAsyncConfig implements WebMvcConfigurer {
+
+  private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+  private final Duration timeout;
+
+  public WebMvcAsyncConfig(
+      @Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor,
+      @Value("${app.mvc.async.timeout:PT2M}") Duration timeout) {
+    this.mvcAsyncExecutor = mvcAsyncExecutor;
+    this.timeout = timeout;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(mvcAsyncExecutor);
+    configurer.setDefaultTimeout(timeout.toMillis());
+  }
+}
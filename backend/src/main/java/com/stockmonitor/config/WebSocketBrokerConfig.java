@@ -0,0 +1,121 @@
+package com.stockmonitor.config;
+
+import com.stockmonitor.config.MetricsConfig.WebSocketMetrics;
+import com.stockmonitor.config.SlowConsumerSessionDecorator.OverflowPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP message broker infrastructure with slow-consumer protection per FR-046, FR-047.
+ *
+ * <p>Replaces {@code @EnableWebSocketMessageBroker}: every WebSocketMessageBrokerConfigurer (see
+ * WebSocketConfig) is still applied, but client sessions are wrapped in
+ * SlowConsumerSessionDecorator instead of Spring's default send buffer, so the overflow policy
+ * (app.websocket.transport.overflow-policy: drop-superseded | disconnect) can be chosen and drops are
+ * counted. Session, send queue and channel executor load are exported as websocket.* metrics.
+ */
+@Configuration
+@Slf4j
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+  private final WebSocketSessionMetrics sessionMetrics;
+  private final OverflowPolicy overflowPolicy;
+
+  public WebSocketBrokerConfig(
+      WebSocketSessionMetrics sessionMetrics,
+      @Value("${app.websocket.transport.overflow-policy:drop-superseded}") String overflowPolicy) {
+    this.sessionMetrics = sessionMetrics;
+    this.overflowPolicy = OverflowPolicy.from(overflowPolicy);
+  }
+
+  @Bean
+  @Override
+  public WebSocketHandler subProtocolWebSocketHandler(
+      @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+      @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+    log.info("WebSocket slow-consumer overflow policy: {}", overflowPolicy);
+    return new SlowConsumerAwareWebSocketHandler(
+        clientInboundChannel, clientOutboundChannel, overflowPolicy, sessionMetrics);
+  }
+
+  /**
+   * Queue depth and busy threads of the inbound and outbound channel pools. The executors are
+   * declared as TaskExecutor, so they are looked up by that type and are ThreadPoolTaskExecutors.
+   */
+  @Bean
+  public MeterBinder webSocketChannelMetrics(
+      @Qualifier("clientInboundChannelExecutor") TaskExecutor inboundExecutor,
+      @Qualifier("clientOutboundChannelExecutor") TaskExecutor outboundExecutor) {
+    ThreadPoolTaskExecutor inbound = (ThreadPoolTaskExecutor) inboundExecutor;
+    ThreadPoolTaskExecutor outbound = (ThreadPoolTaskExecutor) outboundExecutor;
+    return registry -> {
+      Gauge.builder(WebSocketMetrics.CHANNEL_QUEUE_DEPTH, inbound, ThreadPoolTaskExecutor::getQueueSize)
+          .tag("channel", "inbound")
+          .register(registry);
+      Gauge.builder(WebSocketMetrics.CHANNEL_QUEUE_DEPTH, outbound, ThreadPoolTaskExecutor::getQueueSize)
+          .tag("channel", "outbound")
+          .register(registry);
+      Gauge.builder(WebSocketMetrics.CHANNEL_ACTIVE_THREADS, inbound, ThreadPoolTaskExecutor::getActiveCount)
+          .tag("channel", "inbound")
+          .register(registry);
+      Gauge.builder(WebSocketMetrics.CHANNEL_ACTIVE_THREADS, outbound, ThreadPoolTaskExecutor::getActiveCount)
+          .tag("channel", "outbound")
+          .register(registry);
+    };
+  }
+
+  /**
+   * SubProtocolWebSocketHandler that decorates sessions with the slow-consumer send buffer and
+   * tracks them for metrics. Send time and buffer limits come from app.websocket.transport via
+   * WebSocketConfig.configureWebSocketTransport.
+   */
+  static class SlowConsumerAwareWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final OverflowPolicy overflowPolicy;
+    private final WebSocketSessionMetrics sessionMetrics;
+
+    SlowConsumerAwareWebSocketHandler(
+        MessageChannel clientInboundChannel,
+        SubscribableChannel clientOutboundChannel,
+        OverflowPolicy overflowPolicy,
+        WebSocketSessionMetrics sessionMetrics) {
+      super(clientInboundChannel, clientOutboundChannel);
+      this.overflowPolicy = overflowPolicy;
+      this.sessionMetrics = sessionMetrics;
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+      SlowConsumerSessionDecorator decorated =
+          new SlowConsumerSessionDecorator(
+              session, getSendTimeLimit(), getSendBufferSizeLimit(), overflowPolicy, sessionMetrics);
+      sessionMetrics.opened(decorated);
+      return decorated;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus)
+        throws Exception {
+      try {
+        super.afterConnectionClosed(session, closeStatus);
+      } finally {
+        sessionMetrics.closed(session.getId());
+      }
+    }
+  }
+}
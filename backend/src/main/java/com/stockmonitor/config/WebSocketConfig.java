@@ -2,16 +2,25 @@ package com.stockmonitor.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stockmonitor.security.StompAuthChannelInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.util.MimeTypeUtils;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -19,25 +28,127 @@ import java.util.List;
  *
  * T115: Configures Spring WebSocket with STOMP for:
  * - Run status updates (/topic/runs/{runId}/status)
- * - User notifications (/user/{userId}/notifications)
+ * - User notifications (/user/queue/notifications, resolved per authenticated session)
  *
- * Uses STOMP over WebSocket protocol for bidirectional communication.
+ * Uses STOMP over WebSocket protocol for bidirectional communication. Clients authenticate with
+ * an Authorization: Bearer header on CONNECT (StompAuthChannelInterceptor); the session principal
+ * is the user id that WebSocketNotificationService addresses with convertAndSendToUser.
+ *
+ * Broker modes (app.websocket.broker.mode):
+ * - simple (default): in-memory broker; subscriptions and fan-out live in this JVM, so a message
+ *   published on one node only reaches clients connected to that node
+ * - relay: STOMP broker relay to an external broker (RabbitMQ STOMP plugin, ActiveMQ, ...);
+ *   subscriptions and fan-out move to the broker and every node sees every message. If the
+ *   broker is unreachable at startup and fallback-to-simple is set, the node starts with the
+ *   simple broker instead
+ *
+ * Inbound/outbound channel pools and per-session send buffers are bounded (app.websocket.channels,
+ * app.websocket.transport) so a burst or a slow client cannot grow queues without limit. The
+ * broker infrastructure itself is set up by WebSocketBrokerConfig, which applies this configurer.
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    enum BrokerMode { SIMPLE, RELAY }
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.fallback-to-simple:true}")
+    private boolean fallbackToSimple;
+
+    @Value("${app.websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${app.websocket.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${app.websocket.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${app.websocket.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${app.websocket.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${app.websocket.broker.relay.system-heartbeat-ms:10000}")
+    private long systemHeartbeatMs;
+
+    @Value("${app.websocket.broker.relay.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${app.websocket.channels.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.channels.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.channels.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.channels.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.channels.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.channels.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.transport.send-time-limit:PT10S}")
+    private Duration sendTimeLimit;
+
+    @Value("${app.websocket.transport.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     /**
      * Configure message broker for pub/sub messaging.
      *
      * - /topic: Broadcast to all subscribers
-     * - /user: Point-to-point messaging to specific users
+     * - /queue: Per-session queues that /user destinations resolve to
+     * - /user: Point-to-point prefix; /user/queue/notifications becomes
+     *   /queue/notifications-user{sessionId} for each session of the user, so only /topic and
+     *   /queue reach the broker (external brokers reject other destination prefixes)
      * - /app: Application destination prefix for messages from clients
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Enable simple in-memory broker for /topic and /user destinations
-        registry.enableSimpleBroker("/topic", "/user");
+        if (resolveBrokerMode() == BrokerMode.RELAY) {
+            // External broker owns subscriptions and fan-out; user destinations that cannot be
+            // resolved locally are broadcast so the node holding the session delivers them
+            var relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode)
+                    .setSystemHeartbeatSendInterval(systemHeartbeatMs)
+                    .setSystemHeartbeatReceiveInterval(systemHeartbeatMs)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+            log.info("WebSocket broker relay to {}:{}", relayHost, relayPort);
+        } else {
+            // Enable simple in-memory broker for /topic and resolved /user (/queue) destinations
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
 
         // Set application destination prefix for messages from clients
         registry.setApplicationDestinationPrefixes("/app");
@@ -46,6 +157,68 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setUserDestinationPrefix("/user");
     }
 
+    /**
+     * Pick the broker for this node. Relay mode falls back to the simple broker only when the
+     * relay broker cannot be reached at startup and fallback is enabled; otherwise the relay keeps
+     * reconnecting in the background.
+     */
+    BrokerMode resolveBrokerMode() {
+        if (!"relay".equalsIgnoreCase(brokerMode)) {
+            return BrokerMode.SIMPLE;
+        }
+        if (fallbackToSimple && !isReachable(relayHost, relayPort, connectTimeout)) {
+            log.warn("STOMP broker {}:{} unreachable, falling back to the simple in-memory broker; "
+                    + "messages will not fan out across nodes", relayHost, relayPort);
+            return BrokerMode.SIMPLE;
+        }
+        return BrokerMode.RELAY;
+    }
+
+    static boolean isReachable(String host, int port, Duration timeout) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bound the pool handling frames from clients (CONNECT, SUBSCRIBE, SEND to /app) and
+     * authenticate sessions on CONNECT.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    /**
+     * Bound the pool writing broker messages to client sessions.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    /**
+     * Cap per-session buffering: a client whose send blocks for send-time-limit is disconnected;
+     * a backlog over send-buffer-size-limit bytes drops superseded run status updates or
+     * disconnects, depending on overflow-policy (see SlowConsumerSessionDecorator).
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
     /**
      * Register STOMP endpoints for WebSocket connections.
      *
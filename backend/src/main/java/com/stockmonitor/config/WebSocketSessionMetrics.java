@@ -0,0 +1,73 @@
+package com.stockmonitor.config;
+
+import com.stockmonitor.config.MetricsConfig.WebSocketMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Session count, send queue depth, drop and disconnect metrics for WebSocket client sessions.
+ *
+ * <p>Sessions register when SubProtocolWebSocketHandler decorates them and leave when the
+ * connection closes; queue depth gauges are read from the live sessions' buffers on scrape.
+ */
+@Component
+public class WebSocketSessionMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+  public WebSocketSessionMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    Gauge.builder(WebSocketMetrics.SESSIONS_ACTIVE, sessions, Map::size)
+        .description("Open WebSocket client sessions")
+        .register(meterRegistry);
+    Gauge.builder(WebSocketMetrics.SEND_QUEUE_DEPTH, this, WebSocketSessionMetrics::queueDepth)
+        .description("Messages buffered for slow WebSocket clients, all sessions")
+        .register(meterRegistry);
+    Gauge.builder(WebSocketMetrics.SEND_QUEUE_MAX, this, WebSocketSessionMetrics::maxQueueDepth)
+        .description("Messages buffered for the slowest WebSocket client")
+        .register(meterRegistry);
+  }
+
+  void opened(SlowConsumerSessionDecorator session) {
+    sessions.put(session.getId(), session);
+  }
+
+  void closed(String sessionId) {
+    sessions.remove(sessionId);
+  }
+
+  void dropped(String reason, int count) {
+    if (count > 0) {
+      meterRegistry.counter(WebSocketMetrics.MESSAGES_DROPPED, "reason", reason).increment(count);
+    }
+  }
+
+  void disconnected(String reason) {
+    meterRegistry.counter(WebSocketMetrics.SESSIONS_DISCONNECTED, "reason", reason).increment();
+  }
+
+  public int activeSessions() {
+    return sessions.size();
+  }
+
+  public int queueDepth() {
+    return sessions.values().stream().mapToInt(SlowConsumerSessionDecorator::getBufferedCount).sum();
+  }
+
+  public int maxQueueDepth() {
+    return sessions.values().stream()
+        .mapToInt(SlowConsumerSessionDecorator::getBufferedCount)
+        .max()
+        .orElse(0);
+  }
+
+  public double droppedCount() {
+    return meterRegistry.find(WebSocketMetrics.MESSAGES_DROPPED).counters().stream()
+        .mapToDouble(counter -> counter.count())
+        .sum();
+  }
+}
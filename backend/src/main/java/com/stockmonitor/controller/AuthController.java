@@ -1,5 +1,6 @@
 package com.stockmonitor.controller;
 
+import com.stockmonitor.dto.ChangePasswordRequest;
 import com.stockmonitor.dto.LoginRequest;
 import com.stockmonitor.dto.LoginResponse;
 import com.stockmonitor.dto.RegisterRequest;
@@ -10,13 +11,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Authentication controller handling user registration and login.
  *
  * <p>Endpoints: - POST /api/auth/register - Register new user - POST /api/auth/login - Login with
- * email/password
+ * email/password - POST /api/auth/change-password - Change the authenticated user's password
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -39,4 +41,14 @@ public class AuthController {
     LoginResponse response = userService.login(request);
     return ResponseEntity.ok(response);
   }
+
+  /** Change the authenticated user's password; tokens issued before the change stop working. */
+  @PostMapping("/change-password")
+  public ResponseEntity<Void> changePassword(
+      @Valid @RequestBody ChangePasswordRequest request, Authentication authentication) {
+    log.info("Password change request received for email: {}", authentication.getName());
+    userService.changePassword(
+        authentication.getName(), request.getCurrentPassword(), request.getNewPassword());
+    return ResponseEntity.noContent().build();
+  }
 }
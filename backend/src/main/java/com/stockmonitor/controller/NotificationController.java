@@ -1,6 +1,8 @@
 package com.stockmonitor.controller;
 
+import com.stockmonitor.dto.CursorPage;
 import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.dto.PageCursor;
 import com.stockmonitor.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +18,7 @@ import java.util.UUID;
  * Controller for notification management per FR-045, FR-048.
  *
  * T105: Implements REST endpoints for:
- * - GET /api/notifications - Get all notifications for current user
+ * - GET /api/notifications - Get notifications for current user (keyset-paginated, ?after=&limit=)
  * - GET /api/notifications/unread - Get unread notifications
  * - GET /api/notifications/unread/count - Get unread count
  * - POST /api/notifications/{id}/read - Mark notification as read
@@ -31,19 +33,31 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     /**
-     * Get all notifications for current user.
+     * Get notifications for current user, newest first, one keyset page at a time.
      *
+     * @param after Cursor {@code <createdAt>,<id>} from the previous page's X-Next-Cursor header;
+     *              omit for the first page
+     * @param limit Page size (default 50, max 200)
      * @param authentication Current user authentication
-     * @return List of notifications
+     * @return Notifications of this page; X-Next-Cursor is set when more exist
      */
     @GetMapping
     @PreAuthorize("hasRole('OWNER') or hasRole('VIEWER')")
-    public ResponseEntity<List<NotificationDTO>> getNotifications(Authentication authentication) {
+    public ResponseEntity<List<NotificationDTO>> getNotifications(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+            Authentication authentication
+    ) {
         UUID userId = getUserIdFromAuth(authentication);
-        List<NotificationDTO> notifications = notificationService.getNotificationsForUser(userId);
-
-        log.debug("Retrieved {} notifications for user {}", notifications.size(), userId);
-        return ResponseEntity.ok(notifications);
+        CursorPage<NotificationDTO> page =
+                notificationService.getNotificationsForUser(userId, PageCursor.parse(after), limit);
+
+        log.debug("Retrieved {} notifications for user {}", page.items().size(), userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(page.items());
     }
 
     /**
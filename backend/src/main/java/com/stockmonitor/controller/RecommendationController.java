@@ -1,6 +1,8 @@
 package com.stockmonitor.controller;
 
+import com.stockmonitor.dto.CursorPage;
 import com.stockmonitor.dto.ExclusionDTO;
+import com.stockmonitor.dto.PageCursor;
 import com.stockmonitor.dto.RecommendationDTO;
 import com.stockmonitor.dto.RecommendationRunDTO;
 import com.stockmonitor.dto.TriggerRunRequest;
@@ -23,6 +25,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Recommendation controller handling recommendation generation and retrieval.
@@ -31,7 +34,7 @@ import org.springframework.web.bind.annotation.*;
  * - POST /api/runs - Trigger new recommendation run (OWNER only for manual runs)
  * - GET /api/runs/{id} - Get run details
  * - GET /api/runs/{id}/recommendations - Get recommendations for a run
- * - GET /api/users/{userId}/runs - Get all runs for a user
+ * - GET /api/users/{userId}/runs - Get a user's runs (keyset-paginated, ?after=&limit=)
  *
  * <p>Run Types per FR-028:
  * - SCHEDULED: Official month-end runs (SERVICE role only)
@@ -106,11 +109,23 @@ public class RecommendationController {
     return ResponseEntity.ok(recommendations);
   }
 
+  /**
+   * Get a user's runs, newest first, one keyset page at a time.
+   *
+   * @param userId User ID
+   * @param after Cursor {@code <createdAt>,<id>} from the previous page's {@code X-Next-Cursor}
+   *     header; omit for the first page
+   * @param limit Page size (default 50, max 200)
+   * @return Runs of this page; {@code X-Next-Cursor} is set when more runs exist
+   */
   @GetMapping("/api/users/{userId}/runs")
-  public ResponseEntity<List<RecommendationRunDTO>> getRunsForUser(@PathVariable UUID userId) {
-    log.info("Get all runs request for user: {}", userId);
-    List<RecommendationRunDTO> runs = recommendationService.getRecommendationRunsForUser(userId);
-    return ResponseEntity.ok(runs);
+  public ResponseEntity<List<RecommendationRunDTO>> getRunsForUser(
+      @PathVariable UUID userId,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+    log.info("Get runs request for user: {} (after={}, limit={})", userId, after, limit);
+    return page(
+        recommendationService.getRecommendationRunsForUser(userId, PageCursor.parse(after), limit));
   }
 
   /**
@@ -132,14 +147,19 @@ public class RecommendationController {
 
   /**
    * Get all runs, optionally filtered by run_type.
-   * Per FR-028, supports filtering by SCHEDULED or OFF_CYCLE.
+   * Per FR-028, supports filtering by SCHEDULED or OFF_CYCLE. Unfiltered history is
+   * keyset-paginated like {@code GET /api/users/{userId}/runs}.
    *
    * @param runType Optional filter: SCHEDULED or OFF_CYCLE
+   * @param after Cursor from the previous page's {@code X-Next-Cursor} header (unfiltered only)
+   * @param limit Page size (unfiltered only, default 50, max 200)
    * @return List of runs
    */
   @GetMapping("/api/runs")
   public ResponseEntity<List<RecommendationRunDTO>> getAllRuns(
-      @RequestParam(name = "run_type", required = false) String runType) {
+      @RequestParam(name = "run_type", required = false) String runType,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
     log.info("Get runs request with run_type filter: {}", runType);
 
     // Get authenticated user's ID
@@ -149,14 +169,12 @@ public class RecommendationController {
         .orElseThrow(() -> new IllegalStateException("User not found"))
         .getId();
 
-    List<RecommendationRunDTO> runs;
     if (runType != null && !runType.trim().isEmpty()) {
-      runs = recommendationService.getRunsByTypeForUser(userId, runType.toUpperCase());
-    } else {
-      runs = recommendationService.getRecommendationRunsForUser(userId);
+      return ResponseEntity.ok(
+          recommendationService.getRunsByTypeForUser(userId, runType.toUpperCase()));
     }
-
-    return ResponseEntity.ok(runs);
+    return page(
+        recommendationService.getRecommendationRunsForUser(userId, PageCursor.parse(after), limit));
   }
 
   /**
@@ -175,14 +193,24 @@ public class RecommendationController {
    */
   @GetMapping("/api/runs/{id}/exclusions/export")
   @PreAuthorize("hasRole('OWNER') or hasRole('VIEWER')")
-  public ResponseEntity<String> exportExclusions(@PathVariable UUID id) {
+  public ResponseEntity<StreamingResponseBody> exportExclusions(@PathVariable UUID id) {
     log.info("Export exclusions for run: {}", id);
-    String csv = exclusionExportService.exportToCsv(id);
 
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(MediaType.parseMediaType("text/csv"));
     headers.set("Content-Disposition", "attachment; filename=exclusions-" + id + ".csv");
 
+    // Rows are written to the response as they are read from the database
+    StreamingResponseBody csv = out -> exclusionExportService.writeCsv(id, out);
     return ResponseEntity.ok().headers(headers).body(csv);
   }
+
+  /** Page body with the next page cursor, if any, in the {@code X-Next-Cursor} header. */
+  private static <T> ResponseEntity<List<T>> page(CursorPage<T> page) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor().toString());
+    }
+    return response.body(page.items());
+  }
 }
@@ -1,9 +1,12 @@
 package com.stockmonitor.controller;
 
 import com.stockmonitor.dto.ReportDTO;
+import com.stockmonitor.service.ReportArtifactService;
+import com.stockmonitor.service.ReportArtifactService.ReportArtifact;
 import com.stockmonitor.service.ReportGenerationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -13,9 +16,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,6 +41,7 @@ import java.util.UUID;
 public class ReportController {
 
     private final ReportGenerationService reportGenerationService;
+    private final ReportArtifactService reportArtifactService;
 
     /**
      * Get report for a completed run.
@@ -64,32 +72,40 @@ public class ReportController {
     /**
      * Download PDF report for a completed run.
      *
+     * Finalized runs are streamed from the stored artifact with its content hash as ETag, so a
+     * request with a matching If-None-Match gets 304 Not Modified. Other runs are rendered per
+     * request and streamed to the client as the renderer writes them, so no Content-Length is sent.
+     *
      * @param id Run ID
-     * @return PDF bytes with appropriate headers
+     * @param request Current request, for the If-None-Match check
+     * @return PDF content with appropriate headers, or null once a 304 has been set
      */
     @GetMapping("/{id}/report/pdf")
     @PreAuthorize("hasRole('OWNER') or hasRole('VIEWER')")
-    public ResponseEntity<byte[]> downloadReportPDF(@PathVariable UUID id) {
+    public ResponseEntity<StreamingResponseBody> downloadReportPDF(@PathVariable UUID id, WebRequest request) {
         log.info("GET /api/runs/{}/report/pdf - Downloading PDF", id);
 
         try {
-            byte[] pdfBytes = reportGenerationService.generatePDF(id);
-
-            // Generate filename with timestamp
-            String filename = String.format(
-                    "recommendation-report-%s-%s.pdf",
-                    id.toString().substring(0, 8),
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
-            );
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
+            Optional<ReportArtifact> artifact = reportArtifactService.findOrRenderPdf(id);
+            if (artifact.isPresent()) {
+                ReportArtifact stored = artifact.get();
+                // Sets the ETag header, and the 304 status if the client's copy is current
+                if (request.checkNotModified(stored.etag())) {
+                    return null;
+                }
+                StreamingResponseBody pdf = out -> Files.copy(stored.path(), out);
+                return ResponseEntity.ok()
+                        .headers(pdfHeaders(id, stored.generatedAt(), stored.sizeBytes()))
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .body(pdf);
+            }
 
+            // Build the report first so a missing or incomplete run still maps to 404/400
+            ReportDTO report = reportGenerationService.generateReport(id);
+            StreamingResponseBody pdf = out -> reportGenerationService.writePDF(report, out);
             return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
+                    .headers(pdfHeaders(id, report.getGeneratedAt(), -1))
+                    .body(pdf);
         } catch (IllegalArgumentException e) {
             log.error("Run not found: {}", id);
             return ResponseEntity.notFound().build();
@@ -101,4 +117,22 @@ public class ReportController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /** PDF download headers; a negative content length (streamed PDF) is left unset. */
+    private static HttpHeaders pdfHeaders(UUID id, LocalDateTime generatedAt, long contentLength) {
+        // Generate filename with timestamp
+        String filename = String.format(
+                "recommendation-report-%s-%s.pdf",
+                id.toString().substring(0, 8),
+                generatedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+        );
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", filename);
+        if (contentLength >= 0) {
+            headers.setContentLength(contentLength);
+        }
+        return headers;
+    }
 }
@@ -0,0 +1,50 @@
+package com.stockmonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Coverage report for the month-end cache warm-up (T-3 pre-compute).
+ *
+ * <p>Written by the pre-compute job and read back at T-1 staging to verify cache hit rates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheCoverageReport {
+
+  /** Month-end date the caches were warmed for. */
+  private LocalDate monthEndDate;
+
+  /** When the report was recorded. */
+  private LocalDateTime recordedAt;
+
+  /** Union of active constituents across all active universes. */
+  private List<String> symbols;
+
+  /** Entries present per category (price, factors, sector, liquidity). */
+  private Map<String, Integer> cachedByCategory;
+
+  /** Total cache keys expected (symbols x categories). */
+  private Integer expectedEntries;
+
+  /** Total cache keys present. */
+  private Integer cachedEntries;
+
+  /** Fraction of expected keys present, 0.0 to 1.0. */
+  @JsonIgnore
+  public double getHitRate() {
+    if (expectedEntries == null || expectedEntries == 0) {
+      return 0.0;
+    }
+    return (double) (cachedEntries != null ? cachedEntries : 0) / expectedEntries;
+  }
+}
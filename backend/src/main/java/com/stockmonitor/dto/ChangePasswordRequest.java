@@ -0,0 +1,27 @@
+package com.stockmonitor.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangePasswordRequest {
+
+  @NotBlank(message = "Current password is required")
+  private String currentPassword;
+
+  @NotBlank(message = "New password is required")
+  @Size(min = 8, message = "Password must be at least 8 characters")
+  @Pattern(
+      regexp = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=!]).*$",
+      message =
+          "Password must contain at least one digit, one lowercase, one uppercase, and one special character")
+  private String newPassword;
+}
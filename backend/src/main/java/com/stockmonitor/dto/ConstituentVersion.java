@@ -0,0 +1,12 @@
+package com.stockmonitor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cheap fingerprint of the universe_constituent table: changes whenever a constituent is added,
+ * updated or removed.
+ *
+ * @param count Number of constituent rows
+ * @param lastUpdatedAt Latest update time, null if there are none
+ */
+public record ConstituentVersion(Long count, LocalDateTime lastUpdatedAt) {}
@@ -0,0 +1,49 @@
+package com.stockmonitor.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated history.
+ *
+ * @param items Rows of this page, newest first
+ * @param nextCursor Cursor for the following page, or null if this is the last page
+ */
+public record CursorPage<T>(List<T> items, PageCursor nextCursor) {
+
+  /** Response header carrying the next page cursor; the body stays a plain JSON array. */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  /** Default page size for history endpoints. */
+  public static final int DEFAULT_LIMIT = 50;
+
+  /** Largest page size a client may request. */
+  public static final int MAX_LIMIT = 200;
+
+  /**
+   * Clamp a requested page size to {@code [1, MAX_LIMIT]}.
+   *
+   * @param limit Requested page size
+   * @return Page size to query
+   */
+  public static int clampLimit(int limit) {
+    return Math.max(1, Math.min(limit, MAX_LIMIT));
+  }
+
+  /**
+   * Build a page from a query that fetched {@code limit + 1} rows; the extra row only signals
+   * that another page exists and is not returned.
+   *
+   * @param rows Rows fetched, at most {@code limit + 1}
+   * @param limit Page size
+   * @param cursorOf Cursor position of a row
+   * @return Page of at most {@code limit} rows
+   */
+  public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+    if (rows.size() <= limit) {
+      return new CursorPage<>(rows, null);
+    }
+    List<T> items = rows.subList(0, limit);
+    return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(limit - 1)));
+  }
+}
@@ -0,0 +1,10 @@
+package com.stockmonitor.dto;
+
+/**
+ * One exclusion as read for the CSV export, projected straight from the query so streamed rows are
+ * not tracked by the persistence context.
+ *
+ * @param symbol Excluded symbol
+ * @param exclusionReasonCode Reason code, see {@link ExclusionDTO.ReasonCode}
+ */
+public record ExclusionExportRow(String symbol, String exclusionReasonCode) {}
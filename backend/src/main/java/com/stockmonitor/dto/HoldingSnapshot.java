@@ -0,0 +1,22 @@
+package com.stockmonitor.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The fields of a current holding that a holdings upload is compared against.
+ *
+ * @param id Holding ID
+ * @param symbol Symbol, unique within the portfolio
+ * @param quantity Shares held
+ * @param costBasis Total cost basis
+ * @param currency Currency code
+ * @param currentMarketValue Current market value
+ */
+public record HoldingSnapshot(
+    UUID id,
+    String symbol,
+    BigDecimal quantity,
+    BigDecimal costBasis,
+    String currency,
+    BigDecimal currentMarketValue) {}
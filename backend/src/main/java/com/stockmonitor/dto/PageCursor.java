@@ -0,0 +1,50 @@
+package com.stockmonitor.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Keyset position in a history ordered by {@code createdAt DESC, id DESC}.
+ *
+ * <p>Encoded as {@code <createdAt>,<id>} (ISO-8601 local date-time, UUID), e.g. {@code
+ * ?after=2024-01-31T17:00:00.123456,3f2b...}. The next page holds rows strictly after this
+ * position, so pages stay stable while new rows are inserted at the head.
+ */
+public record PageCursor(LocalDateTime createdAt, UUID id) {
+
+  public PageCursor {
+    if (createdAt == null || id == null) {
+      throw new IllegalArgumentException("Cursor requires createdAt and id");
+    }
+  }
+
+  /**
+   * Parse a cursor from its request parameter form.
+   *
+   * @param value {@code <createdAt>,<id>}, or null/blank for the first page
+   * @return Cursor, or null for the first page
+   * @throws IllegalArgumentException if the value is malformed
+   */
+  public static PageCursor parse(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    int comma = value.lastIndexOf(',');
+    if (comma < 0) {
+      throw new IllegalArgumentException("Invalid cursor: expected <createdAt>,<id>");
+    }
+    try {
+      return new PageCursor(
+          LocalDateTime.parse(value.substring(0, comma).trim()),
+          UUID.fromString(value.substring(comma + 1).trim()));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return createdAt + "," + id;
+  }
+}
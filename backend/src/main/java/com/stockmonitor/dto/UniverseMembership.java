@@ -0,0 +1,11 @@
+package com.stockmonitor.dto;
+
+import java.util.UUID;
+
+/**
+ * An active constituent symbol of a universe, as loaded by the universe membership index.
+ *
+ * @param universeId Universe ID
+ * @param symbol Constituent symbol
+ */
+public record UniverseMembership(UUID universeId, String symbol) {}
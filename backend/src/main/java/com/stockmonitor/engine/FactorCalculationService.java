@@ -23,12 +23,23 @@ public class FactorCalculationService {
    * @return FactorScoreDTO with raw scores
    */
   public FactorScoreDTO calculateFactorScores(Holding holding) {
+    return calculateFactorScores(holding.getSymbol(), holding.getSector());
+  }
+
+  /**
+   * Calculate raw factor scores for a symbol, e.g. a universe constituent not held yet.
+   *
+   * @param symbol Ticker symbol
+   * @param sector Sector the symbol is classified in
+   * @return FactorScoreDTO with raw scores
+   */
+  public FactorScoreDTO calculateFactorScores(String symbol, String sector) {
     // TODO: Implement actual factor calculations based on fundamental data
     // For now, return stub data
 
     return FactorScoreDTO.builder()
-        .symbol(holding.getSymbol())
-        .sector(holding.getSector())
+        .symbol(symbol)
+        .sector(sector)
         .value(BigDecimal.valueOf(Math.random() * 2 - 1)) // Random between -1 and 1
         .momentum(BigDecimal.valueOf(Math.random() * 2 - 1))
         .quality(BigDecimal.valueOf(Math.random() * 2 - 1))
@@ -10,7 +10,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Type;
 
 @Entity
@@ -75,7 +74,14 @@ public class AuditLog {
   @Column(name = "execution_duration_ms")
   private Long executionDurationMs;
 
-  @CreationTimestamp
+  /** When the event happened; events written later from a buffer keep their original time. */
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
+
+  @PrePersist
+  void defaultCreatedAt() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
 }
@@ -0,0 +1,85 @@
+package com.stockmonitor.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Notification waiting for delivery (transactional outbox).
+ *
+ * <p>Rows are inserted in the sender's transaction and drained by the outbox dispatcher, which
+ * writes the in-app {@link Notification}, pushes it over WebSocket and, for e-mail eligible
+ * notifications, sends an e-mail. Per-channel flags make retries idempotent: a channel that
+ * already succeeded is not repeated. Delivered entries are deleted; entries that exhaust their
+ * attempts are kept with status FAILED for inspection.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "user_id", nullable = false)
+  private UUID userId;
+
+  @Column(nullable = false, length = 255)
+  private String title;
+
+  @Column(nullable = false, length = 2000)
+  private String message;
+
+  @Column(length = 50)
+  private String category;
+
+  @Column(length = 20)
+  private String priority;
+
+  @Column(name = "action_label", length = 50)
+  private String actionLabel;
+
+  @Column(name = "action_url", length = 500)
+  private String actionUrl;
+
+  /** PENDING or FAILED (attempts exhausted). */
+  @Builder.Default
+  @Column(nullable = false, length = 20)
+  private String status = "PENDING";
+
+  /** In-app notification written for this entry; null until the first dispatch. */
+  @Column(name = "notification_id")
+  private UUID notificationId;
+
+  @Builder.Default
+  @Column(name = "websocket_sent", nullable = false)
+  private Boolean webSocketSent = false;
+
+  @Builder.Default
+  @Column(name = "email_sent", nullable = false)
+  private Boolean emailSent = false;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  /** Not dispatched before this time; pushed forward while claimed and on retry back-off. */
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "last_error", length = 500)
+  private String lastError;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+}
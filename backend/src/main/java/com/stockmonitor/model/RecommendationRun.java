@@ -58,6 +58,14 @@ public class RecommendationRun {
   @Column(name = "completed_at")
   private LocalDateTime completedAt;
 
+  /** Node currently processing this run in a month-end stage (null when unclaimed). */
+  @Column(name = "lease_owner", length = 100)
+  private String leaseOwner;
+
+  /** When the lease expires and the run may be claimed by another node. */
+  @Column(name = "lease_expires_at")
+  private LocalDateTime leaseExpiresAt;
+
   @Column(name = "execution_duration_ms")
   private Long executionDurationMs;
 
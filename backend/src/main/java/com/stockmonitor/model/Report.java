@@ -47,6 +47,10 @@ public class Report {
   @Column(name = "file_size_bytes")
   private Long fileSizeBytes;
 
+  /** SHA-256 (hex) of the stored file; names the file and is served as its ETag. */
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
   @NotBlank
   @Column(name = "summary_text", nullable = false, length = 2000)
   private String summaryText;
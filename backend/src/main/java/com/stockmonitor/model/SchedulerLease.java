@@ -0,0 +1,39 @@
+package com.stockmonitor.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Named, time-limited lease used for leader election between backend nodes.
+ *
+ * <p>A node holds the lease while {@code expiresAt} is in the future; if it stops renewing (e.g.
+ * it crashed), any other node may take the lease over once it has expired.
+ */
+@Entity
+@Table(name = "scheduler_lease")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLease {
+
+  @Id
+  @Column(length = 100)
+  private String name;
+
+  @Column(nullable = false, length = 100)
+  private String owner;
+
+  @Column(name = "acquired_at", nullable = false)
+  private LocalDateTime acquiredAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+}
@@ -18,6 +18,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "service_api_keys", indexes = {
         @Index(name = "idx_service_api_keys_key_hash", columnList = "key_hash"),
+        @Index(name = "idx_service_api_keys_key_prefix", columnList = "key_prefix", unique = true),
         @Index(name = "idx_service_api_keys_is_active", columnList = "is_active")
 })
 @Data
@@ -36,6 +37,9 @@ public class ServiceApiKey {
     @Column(name = "key_hash", nullable = false, unique = true, length = 512)
     private String keyHash; // BCrypt hash of the API key
 
+    @Column(name = "key_prefix", unique = true, length = 16)
+    private String keyPrefix; // Public lookup part of the API key; null for keys issued without one
+
     @Column(name = "description")
     private String description;
 
@@ -10,6 +10,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -56,6 +57,15 @@ public class User {
   @Column(name = "role", nullable = false)
   private UserRole role = UserRole.OWNER;
 
+  /**
+   * Incremented when the role or password changes. Tokens carry the version they were issued for
+   * and are rejected once it is no longer current.
+   */
+  @Builder.Default
+  @ColumnDefault("0")
+  @Column(name = "token_version", nullable = false)
+  private Integer tokenVersion = 0;
+
   @Builder.Default
   @Column(name = "email_verified", nullable = false)
   private Boolean emailVerified = false;
@@ -86,6 +96,14 @@ public class User {
   @Column(name = "notification_preferences", columnDefinition = "TEXT")
   private String notificationPreferences = "{}";
 
+  /**
+   * Unread notification count, maintained by NotificationService with atomic UPDATEs. Not
+   * insertable or updatable through the entity, so saving a stale User never overwrites it.
+   */
+  @ColumnDefault("0")
+  @Column(name = "unread_notification_count", nullable = false, insertable = false, updatable = false)
+  private Integer unreadNotificationCount;
+
   public enum UserRole {
     OWNER,
     VIEWER,
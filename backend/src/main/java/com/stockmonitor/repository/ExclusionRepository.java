@@ -1,9 +1,15 @@
 package com.stockmonitor.repository;
 
+import com.stockmonitor.dto.ExclusionExportRow;
 import com.stockmonitor.model.Exclusion;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -14,4 +20,17 @@ public interface ExclusionRepository extends JpaRepository<Exclusion, UUID> {
   List<Exclusion> findByRunIdAndExclusionReasonCode(UUID runId, String exclusionReasonCode);
 
   void deleteByRunId(UUID runId);
+
+  /**
+   * Forward-only cursor over a run's exclusions for the CSV export, in symbol order (index
+   * idx_excl_run_symbol). Rows are fetched from the database in batches of 500 as the stream is
+   * consumed. Must be called in a read-only transaction and closed after use.
+   */
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+  @Query("SELECT new com.stockmonitor.dto.ExclusionExportRow(e.symbol, e.exclusionReasonCode) "
+      + "FROM Exclusion e WHERE e.runId = :runId ORDER BY e.symbol")
+  Stream<ExclusionExportRow> streamExportRowsByRunId(UUID runId);
 }
@@ -1,10 +1,14 @@
 package com.stockmonitor.repository;
 
+import com.stockmonitor.dto.HoldingSnapshot;
 import com.stockmonitor.model.Holding;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -19,4 +23,35 @@ public interface HoldingRepository extends JpaRepository<Holding, UUID> {
   List<Holding> findByPortfolioIdAndInUniverseTrue(UUID portfolioId);
 
   void deleteByPortfolioId(UUID portfolioId);
+
+  /** A portfolio's holdings as compared by a holdings upload (index idx_holding_portfolio). */
+  @Query(
+      "SELECT new com.stockmonitor.dto.HoldingSnapshot(h.id, h.symbol, h.quantity, h.costBasis, "
+          + "h.currency, h.currentMarketValue) FROM Holding h WHERE h.portfolioId = :portfolioId")
+  List<HoldingSnapshot> findSnapshotsByPortfolioId(UUID portfolioId);
+
+  /** Delete holdings by ID in one statement, without loading them; returns how many were deleted. */
+  @Modifying
+  @Query("DELETE FROM Holding h WHERE h.id IN :ids")
+  int deleteAllByIdIn(Collection<UUID> ids);
+
+  /** Symbols of a portfolio's holdings, one per holding. */
+  @Query("SELECT h.symbol FROM Holding h WHERE h.portfolioId = :portfolioId")
+  List<String> findSymbolsByPortfolioId(UUID portfolioId);
+
+  @Query("SELECT DISTINCT h.currency FROM Holding h WHERE h.currency IS NOT NULL")
+  List<String> findDistinctCurrencies();
+
+  /**
+   * Flag a portfolio's holdings as in or out of a universe in one statement.
+   *
+   * @param portfolioId Portfolio ID
+   * @param symbols Symbols of the holdings in the universe; all others are flagged out
+   * @return Number of holdings updated
+   */
+  @Modifying
+  @Query(
+      "UPDATE Holding h SET h.inUniverse = CASE WHEN h.symbol IN :symbols THEN true ELSE false END "
+          + "WHERE h.portfolioId = :portfolioId")
+  int updateInUniverse(UUID portfolioId, Collection<String> symbols);
 }
@@ -0,0 +1,31 @@
+package com.stockmonitor.repository;
+
+import com.stockmonitor.model.NotificationOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, UUID> {
+
+  /**
+   * Lock up to {@code page.getPageSize()} pending entries that are due, oldest first, skipping rows
+   * locked by other dispatchers ({@code SELECT ... FOR UPDATE SKIP LOCKED}).
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query(
+      "SELECT e FROM NotificationOutboxEntry e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now "
+          + "ORDER BY e.nextAttemptAt")
+  List<NotificationOutboxEntry> findDue(LocalDateTime now, Pageable page);
+
+  long countByStatus(String status);
+}
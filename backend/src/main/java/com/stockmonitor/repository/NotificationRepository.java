@@ -1,9 +1,14 @@
 package com.stockmonitor.repository;
 
+import com.stockmonitor.dto.NotificationDTO;
 import com.stockmonitor.model.Notification;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -22,4 +27,35 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
   long countByUserIdAndIsReadFalse(UUID userId);
 
   List<Notification> findByRunId(UUID runId);
+
+  /** First page of a user's notifications, newest first (index idx_notif_user_created). */
+  @Query(
+      "SELECT new com.stockmonitor.dto.NotificationDTO(n.id, n.userId, n.category, n.priority, "
+          + "COALESCE(n.title, n.subject), n.message, n.actionLabel, n.actionUrl, n.isRead, n.readAt, n.createdAt) "
+          + "FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+  List<NotificationDTO> findPageByUserId(UUID userId, Pageable page);
+
+  /** Page of a user's notifications strictly after the keyset position {@code (createdAt, id)}. */
+  @Query(
+      "SELECT new com.stockmonitor.dto.NotificationDTO(n.id, n.userId, n.category, n.priority, "
+          + "COALESCE(n.title, n.subject), n.message, n.actionLabel, n.actionUrl, n.isRead, n.readAt, n.createdAt) "
+          + "FROM Notification n WHERE n.userId = :userId "
+          + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+          + "ORDER BY n.createdAt DESC, n.id DESC")
+  List<NotificationDTO> findPageByUserIdAfter(
+      UUID userId, LocalDateTime createdAt, UUID id, Pageable page);
+
+  /** Mark one notification read; returns 0 if it was already read (or does not exist). */
+  @Modifying
+  @Query(
+      "UPDATE Notification n SET n.isRead = true, n.readAt = :readAt "
+          + "WHERE n.id = :id AND n.isRead = false")
+  int markRead(UUID id, LocalDateTime readAt);
+
+  /** Mark all of a user's unread notifications read; returns how many changed. */
+  @Modifying
+  @Query(
+      "UPDATE Notification n SET n.isRead = true, n.readAt = :readAt "
+          + "WHERE n.userId = :userId AND n.isRead = false")
+  int markAllRead(UUID userId, LocalDateTime readAt);
 }
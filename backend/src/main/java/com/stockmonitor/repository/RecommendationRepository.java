@@ -12,6 +12,8 @@ public interface RecommendationRepository extends JpaRepository<Recommendation,
 
   List<Recommendation> findByRunId(UUID runId);
 
+  long countByRunId(UUID runId);
+
   List<Recommendation> findByRunIdOrderByRankAsc(UUID runId);
 
   Optional<Recommendation> findByRunIdAndSymbol(UUID runId, String symbol);
@@ -1,19 +1,51 @@
 package com.stockmonitor.repository;
 
+import com.stockmonitor.dto.RecommendationRunDTO;
 import com.stockmonitor.model.RecommendationRun;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RecommendationRunRepository extends JpaRepository<RecommendationRun, UUID> {
 
+  /**
+   * Run history projection. Leaves out the (large) data freshness snapshot, which is served with
+   * the run itself by {@code GET /api/runs/{id}}.
+   */
+  String RUN_HISTORY_SELECT =
+      "SELECT new com.stockmonitor.dto.RecommendationRunDTO(r.id, r.userId, r.universeId, r.constraintSetId, "
+          + "r.portfolioId, r.runType, r.status, r.scheduledDate, r.startedAt, r.completedAt, "
+          + "r.executionDurationMs, r.recommendationCount, r.exclusionCount, r.expectedTurnoverPct, "
+          + "r.estimatedCostBps, r.expectedAlphaBps, r.decision, r.decisionReason, r.previousRunId, "
+          + "r.errorMessage, r.dataFreshnessCheckPassed, CAST(NULL AS String), "
+          + "r.constraintFeasibilityCheckPassed, r.createdAt, r.updatedAt) "
+          + "FROM RecommendationRun r WHERE r.userId = :userId ";
+
   List<RecommendationRun> findByUserIdOrderByCreatedAtDesc(UUID userId);
 
+  /** First page of a user's run history, newest first (index idx_run_user_created). */
+  @Query(RUN_HISTORY_SELECT + "ORDER BY r.createdAt DESC, r.id DESC")
+  List<RecommendationRunDTO> findPageByUserId(UUID userId, Pageable page);
+
+  /** Page of a user's run history strictly after the keyset position {@code (createdAt, id)}. */
+  @Query(
+      RUN_HISTORY_SELECT
+          + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+          + "ORDER BY r.createdAt DESC, r.id DESC")
+  List<RecommendationRunDTO> findPageByUserIdAfter(
+      UUID userId, LocalDateTime createdAt, UUID id, Pageable page);
+
   Optional<RecommendationRun> findFirstByUserIdAndStatusOrderByCompletedAtDesc(
       UUID userId, String status);
 
@@ -37,4 +69,26 @@ public interface RecommendationRunRepository extends JpaRepository<Recommendatio
   List<RecommendationRun> findByPortfolioIdAndRunTypeOrderByCreatedAtDesc(UUID portfolioId, String runType);
 
   List<RecommendationRun> findByUserIdAndRunTypeOrderByCreatedAtDesc(UUID userId, String runType);
+
+  /**
+   * Lock up to {@code page.getPageSize()} unclaimed (or lease-expired) runs, skipping rows that
+   * other nodes have locked ({@code SELECT ... FOR UPDATE SKIP LOCKED}).
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query(
+      "SELECT r FROM RecommendationRun r WHERE r.scheduledDate = :scheduledDate AND r.status = :status "
+          + "AND (r.leaseOwner IS NULL OR r.leaseExpiresAt < :now) ORDER BY r.id")
+  List<RecommendationRun> findClaimable(
+      LocalDate scheduledDate, String status, LocalDateTime now, Pageable page);
+
+  /** Runs still waiting in a stage, excluding those leased by {@code owner}. */
+  @Query(
+      "SELECT COUNT(r) FROM RecommendationRun r WHERE r.scheduledDate = :scheduledDate AND r.status = :status "
+          + "AND (r.leaseOwner IS NULL OR r.leaseOwner <> :owner)")
+  long countPendingExcludingOwner(LocalDate scheduledDate, String status, String owner);
+
+  @Query(
+      "SELECT DISTINCT r.portfolioId FROM RecommendationRun r WHERE r.scheduledDate = :scheduledDate ORDER BY r.portfolioId")
+  List<UUID> findPortfolioIdsByScheduledDate(LocalDate scheduledDate);
 }
@@ -0,0 +1,33 @@
+package com.stockmonitor.repository;
+
+import com.stockmonitor.model.SchedulerLease;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+  /** Renew a lease we hold, or take over one that has expired. */
+  @Modifying
+  @Query(
+      "UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt, "
+          + "l.acquiredAt = CASE WHEN l.owner = :owner THEN l.acquiredAt ELSE :now END "
+          + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+  int renewOrTakeOver(String name, String owner, LocalDateTime now, LocalDateTime expiresAt);
+
+  /** Create the lease row; fails with a constraint violation if another node created it first. */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO scheduler_lease (name, owner, acquired_at, expires_at) "
+              + "VALUES (:name, :owner, :now, :expiresAt)",
+      nativeQuery = true)
+  int insertLease(String name, String owner, LocalDateTime now, LocalDateTime expiresAt);
+
+  @Modifying
+  @Query("DELETE FROM SchedulerLease l WHERE l.name = :name AND l.owner = :owner")
+  int release(String name, String owner);
+}
@@ -2,8 +2,11 @@ package com.stockmonitor.repository;
 
 import com.stockmonitor.model.ServiceApiKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +17,15 @@ public interface ServiceApiKeyRepository extends JpaRepository<ServiceApiKey, UU
     Optional<ServiceApiKey> findByKeyHash(String keyHash);
 
     List<ServiceApiKey> findByIsActiveTrue();
+
+    Optional<ServiceApiKey> findByKeyPrefix(String keyPrefix);
+
+    /** Active keys issued before lookup prefixes, which can only be found by checking every hash. */
+    List<ServiceApiKey> findByIsActiveTrueAndKeyPrefixIsNull();
+
+    /** Move a key's last use forward; does not touch any other column. */
+    @Modifying
+    @Query("UPDATE ServiceApiKey k SET k.lastUsedAt = :lastUsedAt "
+            + "WHERE k.id = :id AND (k.lastUsedAt IS NULL OR k.lastUsedAt < :lastUsedAt)")
+    int updateLastUsedAt(UUID id, LocalDateTime lastUsedAt);
 }
@@ -1,10 +1,13 @@
 package com.stockmonitor.repository;
 
+import com.stockmonitor.dto.ConstituentVersion;
+import com.stockmonitor.dto.UniverseMembership;
 import com.stockmonitor.model.UniverseConstituent;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,4 +18,21 @@ public interface UniverseConstituentRepository extends JpaRepository<UniverseCon
   Optional<UniverseConstituent> findByUniverseIdAndSymbol(UUID universeId, String symbol);
 
   List<UniverseConstituent> findBySymbol(String symbol);
+
+  @Query(
+      "SELECT c FROM UniverseConstituent c WHERE c.isActive = true AND c.universeId IN "
+          + "(SELECT u.id FROM Universe u WHERE u.isActive = true) ORDER BY c.symbol")
+  List<UniverseConstituent> findActiveConstituentsOfActiveUniverses();
+
+  /** Active constituent symbols of all universes, in symbol order. */
+  @Query(
+      "SELECT new com.stockmonitor.dto.UniverseMembership(c.universeId, c.symbol) "
+          + "FROM UniverseConstituent c WHERE c.isActive = true ORDER BY c.symbol")
+  List<UniverseMembership> findActiveMemberships();
+
+  /** Fingerprint of all constituents, to detect changes without loading them. */
+  @Query(
+      "SELECT new com.stockmonitor.dto.ConstituentVersion(COUNT(c), MAX(c.updatedAt)) "
+          + "FROM UniverseConstituent c")
+  ConstituentVersion findVersion();
 }
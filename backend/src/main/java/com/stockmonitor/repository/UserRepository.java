@@ -1,9 +1,13 @@
 package com.stockmonitor.repository;
 
 import com.stockmonitor.model.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +16,32 @@ public interface UserRepository extends JpaRepository<User, UUID> {
   Optional<User> findByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  /** Columns needed to decide and address notification delivery, without loading full users. */
+  interface NotificationSettings {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getNotificationPreferences();
+  }
+
+  List<NotificationSettings> findNotificationSettingsByIdIn(Collection<UUID> ids);
+
+  /** Add {@code delta} (negative when notifications are read) to the user's unread count. */
+  @Modifying
+  @Query(
+      "UPDATE User u SET u.unreadNotificationCount = u.unreadNotificationCount + :delta "
+          + "WHERE u.id = :userId")
+  int adjustUnreadNotificationCount(UUID userId, int delta);
+
+  @Query("SELECT u.tokenVersion FROM User u WHERE u.email = :email")
+  Optional<Integer> findTokenVersionByEmail(String email);
+
+  @Query("SELECT u.id FROM User u WHERE u.email = :email")
+  Optional<UUID> findIdByEmail(String email);
+
+  @Query("SELECT u.unreadNotificationCount FROM User u WHERE u.id = :userId")
+  Optional<Integer> findUnreadNotificationCount(UUID userId);
 }
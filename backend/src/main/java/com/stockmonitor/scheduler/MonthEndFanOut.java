@@ -0,0 +1,212 @@
+package com.stockmonitor.scheduler;
+
+import com.stockmonitor.config.MetricsConfig.MonthEndMetrics;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded parallel fan-out for the month-end scheduler stages.
+ *
+ * Items are split into write batches that run concurrently on the month-end executor. Within a
+ * batch each item is prepared independently (one failing portfolio never affects another), the
+ * prepared runs are saved with a single {@code saveAll}, and follow-up work such as queueing
+ * notifications runs once per batch in the same transaction, so it commits only together with the
+ * runs. If a batch save or its follow-up fails, the batch is rolled back and retried one run at a
+ * time so only the offending run is lost.
+ *
+ * Metrics (tagged by stage):
+ * - {@code monthend.stage.duration}: wall time of the whole stage
+ * - {@code monthend.item.latency}: time to prepare one item
+ * - {@code monthend.batch.write}: time to save one batch
+ * - {@code monthend.item.failures}: items that failed to prepare or save
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
+public class MonthEndFanOut {
+
+    private final RecommendationRunRepository runRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public MonthEndFanOut(
+            RecommendationRunRepository runRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("monthEndExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${app.batch.month-end.write-batch-size:100}") int batchSize) {
+        this.runRepository = runRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Outcome of one stage.
+     *
+     * @param saved Runs prepared and saved
+     * @param failed Items that failed to prepare or save
+     * @param skipped Items for which {@code prepare} returned null
+     */
+    public record StageResult(int saved, int failed, int skipped) {
+
+        StageResult plus(StageResult other) {
+            return new StageResult(saved + other.saved, failed + other.failed, skipped + other.skipped);
+        }
+    }
+
+    /**
+     * Process all items of a stage in parallel batches.
+     *
+     * @param stage Stage name used in logs and metric tags
+     * @param items Portfolios or runs to process
+     * @param idOf Identifies an item in failure logs
+     * @param prepare Builds or updates the run to save for an item; null skips the item
+     * @param onFailure Optional; returns a run to save when {@code prepare} throws (e.g. marked FAILED)
+     * @param afterSave Called once per batch with the saved runs, in the transaction that saves them,
+     *     e.g. to queue notifications in bulk; if it throws, the runs are not saved
+     * @return Aggregated counts
+     */
+    public <T> StageResult process(
+            String stage,
+            List<T> items,
+            Function<T, UUID> idOf,
+            Function<T, RecommendationRun> prepare,
+            Function<T, RecommendationRun> onFailure,
+            Consumer<List<RecommendationRun>> afterSave) {
+        Timer.Sample stageSample = Timer.start(meterRegistry);
+
+        List<CompletableFuture<StageResult>> futures = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<T> batch = items.subList(from, Math.min(from + batchSize, items.size()));
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> processBatch(stage, batch, idOf, prepare, onFailure, afterSave), executor));
+        }
+
+        StageResult result = new StageResult(0, 0, 0);
+        for (CompletableFuture<StageResult> future : futures) {
+            try {
+                result = result.plus(future.join());
+            } catch (Exception e) {
+                // processBatch isolates item errors; this only covers unexpected batch-level failures
+                log.error("Month-end {} batch failed: {}", stage, e.getMessage(), e);
+            }
+        }
+
+        stageSample.stop(Timer.builder(MonthEndMetrics.STAGE_DURATION)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return result;
+    }
+
+    private <T> StageResult processBatch(
+            String stage,
+            List<T> batch,
+            Function<T, UUID> idOf,
+            Function<T, RecommendationRun> prepare,
+            Function<T, RecommendationRun> onFailure,
+            Consumer<List<RecommendationRun>> afterSave) {
+        Timer itemTimer = Timer.builder(MonthEndMetrics.ITEM_LATENCY)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        List<RecommendationRun> prepared = new ArrayList<>(batch.size());
+        List<RecommendationRun> failedRuns = new ArrayList<>();
+        int failed = 0;
+        int skipped = 0;
+
+        for (T item : batch) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                RecommendationRun run = prepare.apply(item);
+                if (run != null) {
+                    prepared.add(run);
+                } else {
+                    skipped++;
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Month-end {} failed for {}: {}", stage, idOf.apply(item), e.getMessage());
+                RecommendationRun failedRun = onFailure != null ? onFailure.apply(item) : null;
+                if (failedRun != null) {
+                    failedRuns.add(failedRun);
+                }
+            } finally {
+                sample.stop(itemTimer);
+            }
+        }
+
+        List<RecommendationRun> saved = saveBatch(stage, prepared, afterSave);
+        failed += prepared.size() - saved.size();
+        if (!failedRuns.isEmpty()) {
+            saveBatch(stage, failedRuns, runs -> { });
+        }
+
+        if (failed > 0) {
+            meterRegistry.counter(MonthEndMetrics.ITEM_FAILURES, "stage", stage).increment(failed);
+        }
+        return new StageResult(saved.size(), failed, skipped);
+    }
+
+    /**
+     * Save runs and run their follow-up in one transaction, so follow-up writes (e.g. outbox
+     * entries) commit only with the runs and a failed follow-up rolls the runs back. If the batch
+     * fails, each run is retried in its own transaction so only the offending run is lost.
+     *
+     * @return Runs saved with their follow-up committed
+     */
+    private List<RecommendationRun> saveBatch(
+            String stage, List<RecommendationRun> runs, Consumer<List<RecommendationRun>> afterSave) {
+        if (runs.isEmpty()) {
+            return runs;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return transactionTemplate.execute(status -> {
+                List<RecommendationRun> saved = runRepository.saveAll(runs);
+                afterSave.accept(saved);
+                return saved;
+            });
+        } catch (Exception e) {
+            log.warn("Batch save of {} runs failed in month-end {}, retrying individually: {}",
+                    runs.size(), stage, e.getMessage());
+            List<RecommendationRun> saved = new ArrayList<>(runs.size());
+            for (RecommendationRun run : runs) {
+                try {
+                    saved.add(transactionTemplate.execute(status -> {
+                        RecommendationRun savedRun = runRepository.save(run);
+                        afterSave.accept(List.of(savedRun));
+                        return savedRun;
+                    }));
+                } catch (Exception ex) {
+                    log.error("Failed to save run {} in month-end {}: {}", run.getId(), stage, ex.getMessage());
+                }
+            }
+            return saved;
+        } finally {
+            sample.stop(meterRegistry.timer(MonthEndMetrics.BATCH_WRITE, "stage", stage));
+        }
+    }
+}
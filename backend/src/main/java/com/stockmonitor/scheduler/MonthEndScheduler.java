@@ -4,7 +4,11 @@ import com.stockmonitor.model.Portfolio;
 import com.stockmonitor.model.RecommendationRun;
 import com.stockmonitor.repository.PortfolioRepository;
 import com.stockmonitor.repository.RecommendationRunRepository;
-import com.stockmonitor.service.NotificationService;
+import com.stockmonitor.scheduler.MonthEndFanOut.StageResult;
+import com.stockmonitor.service.LeaderElectionService;
+import com.stockmonitor.service.NotificationOutbox;
+import com.stockmonitor.service.NotificationService.NotificationMessage;
+import com.stockmonitor.service.RunLeaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -12,15 +16,19 @@ import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Month-End scheduler for automated recommendation runs per FR-020, FR-021, FR-022.
@@ -32,31 +40,64 @@ import java.util.UUID;
  *
  * Implements idempotency checks to prevent duplicate runs.
  * Sends notifications at each stage per FR-045.
+ *
+ * Each stage fans out over portfolios/runs with {@link MonthEndFanOut} (bounded parallelism,
+ * batched saves, per-item error isolation) and queues notifications on the
+ * {@link NotificationOutbox} instead of delivering them inline.
+ *
+ * With several backend nodes every node fires the crons:
+ * - T-3 run creation and batch job launches happen only on the leader ({@link LeaderElectionService})
+ * - T-1 and T runs are claimed in batches by all nodes ({@link RunLeaseService}); runs leased by
+ *   a crashed node are reclaimed once the lease expires
  */
 @Component
 @Slf4j
 @ConditionalOnProperty(name = "app.batch.enabled", havingValue = "true", matchIfMissing = true)
 public class MonthEndScheduler {
 
+    static final String LEADER_LEASE = "month-end-scheduler";
+    private static final long DRAIN_POLL_MS = 5_000;
+
     private final RecommendationRunRepository runRepository;
     private final PortfolioRepository portfolioRepository;
-    private final NotificationService notificationService;
+    private final NotificationOutbox notificationOutbox;
+    private final MonthEndFanOut fanOut;
+    private final LeaderElectionService leaderElectionService;
+    private final RunLeaseService runLeaseService;
     private final JobLauncher jobLauncher;
     private final Job preComputeBatchJob;
     private final Job stagingBatchJob;
     private final Job finalizationBatchJob;
 
+    @Value("${app.batch.month-end.leader-lease-ttl:PT30M}")
+    private Duration leaderLeaseTtl;
+
+    @Value("${app.batch.month-end.run-lease-ttl:PT5M}")
+    private Duration runLeaseTtl;
+
+    @Value("${app.batch.month-end.claim-batch-size:500}")
+    private int claimBatchSize;
+
+    @Value("${app.batch.month-end.drain-timeout:PT30M}")
+    private Duration drainTimeout;
+
     public MonthEndScheduler(
             RecommendationRunRepository runRepository,
             PortfolioRepository portfolioRepository,
-            NotificationService notificationService,
+            NotificationOutbox notificationOutbox,
+            MonthEndFanOut fanOut,
+            LeaderElectionService leaderElectionService,
+            RunLeaseService runLeaseService,
             @Qualifier("jobLauncher") JobLauncher jobLauncher,
             @Qualifier("preComputeJob") Job preComputeBatchJob,
             @Qualifier("stagingJob") Job stagingBatchJob,
             @Qualifier("finalizationJob") Job finalizationBatchJob) {
         this.runRepository = runRepository;
         this.portfolioRepository = portfolioRepository;
-        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
+        this.fanOut = fanOut;
+        this.leaderElectionService = leaderElectionService;
+        this.runLeaseService = runLeaseService;
         this.jobLauncher = jobLauncher;
         this.preComputeBatchJob = preComputeBatchJob;
         this.stagingBatchJob = stagingBatchJob;
@@ -75,6 +116,12 @@ public class MonthEndScheduler {
         LocalDate monthEndDate = getCurrentMonthEndDate();
         LocalDateTime scheduledFor = monthEndDate.atTime(1, 0);
 
+        // Only the leader creates runs; other nodes would race it and create duplicates
+        if (!leaderElectionService.tryAcquire(LEADER_LEASE, leaderLeaseTtl)) {
+            log.info("Node {} is not the month-end leader. Skipping T-3 pre-compute.", leaderElectionService.getNodeId());
+            return;
+        }
+
         // Check idempotency: Don't create duplicate runs for this month-end
         List<RecommendationRun> existingRuns = runRepository.findByScheduledDateAndRunType(monthEndDate, "SCHEDULED");
         if (!existingRuns.isEmpty()) {
@@ -85,47 +132,36 @@ public class MonthEndScheduler {
         // Create scheduled runs for all active portfolios
         List<Portfolio> portfolios = portfolioRepository.findAll();
         log.info("Found {} portfolios for month-end {}", portfolios.size(), monthEndDate);
-        int createdCount = 0;
-
-        for (Portfolio portfolio : portfolios) {
-            // Skip portfolios without active universe or constraint set
-            if (portfolio.getActiveUniverseId() == null || portfolio.getActiveConstraintSetId() == null) {
-                log.info("Skipping portfolio {} - no active universe ({}==null? {}) or constraint set ({}==null? {})",
-                        portfolio.getId(),
-                        portfolio.getActiveUniverseId(),
-                        portfolio.getActiveUniverseId() == null,
-                        portfolio.getActiveConstraintSetId(),
-                        portfolio.getActiveConstraintSetId() == null);
-                continue;
-            }
-
-            try {
-                RecommendationRun run = RecommendationRun.builder()
-                        .userId(portfolio.getUserId())
-                        .universeId(portfolio.getActiveUniverseId())
-                        .constraintSetId(portfolio.getActiveConstraintSetId())
-                        // TODO: Add factorModelVersionId to RecommendationRun model if needed
-                        .runType("SCHEDULED")
-                        .status("SCHEDULED")
-                        .scheduledDate(scheduledFor.toLocalDate())
-                        .dataFreshnessCheckPassed(false)
-                        .build();
-
-                run = runRepository.save(run);
-                createdCount++;
-
-                log.info("Created scheduled run {} for portfolio {} (user: {})", run.getId(), portfolio.getId(), portfolio.getUserId());
-
-                // Send T-3 notification to user
-                notificationService.sendT3PreComputeNotification(portfolio.getUserId(), run.getId());
-
-                log.info("Sent T-3 notification for run {}", run.getId());
-            } catch (Exception e) {
-                log.error("Failed to create scheduled run for portfolio {}: {}", portfolio.getId(), e.getMessage(), e);
-            }
-        }
 
-        log.info("T-3 pre-compute completed. Created {} scheduled runs for month-end {}", createdCount, monthEndDate);
+        StageResult result = fanOut.process("T-3", portfolios, Portfolio::getId,
+                portfolio -> {
+                    // Skip portfolios without active universe or constraint set
+                    if (portfolio.getActiveUniverseId() == null || portfolio.getActiveConstraintSetId() == null) {
+                        log.info("Skipping portfolio {} - no active universe ({}) or constraint set ({})",
+                                portfolio.getId(),
+                                portfolio.getActiveUniverseId(),
+                                portfolio.getActiveConstraintSetId());
+                        return null;
+                    }
+                    return RecommendationRun.builder()
+                            .userId(portfolio.getUserId())
+                            .portfolioId(portfolio.getId())
+                            .universeId(portfolio.getActiveUniverseId())
+                            .constraintSetId(portfolio.getActiveConstraintSetId())
+                            // TODO: Add factorModelVersionId to RecommendationRun model if needed
+                            .runType("SCHEDULED")
+                            .status("SCHEDULED")
+                            .scheduledDate(scheduledFor.toLocalDate())
+                            .dataFreshnessCheckPassed(false)
+                            .build();
+                },
+                null,
+                saved -> notificationOutbox.enqueueAll(saved.stream()
+                        .map(run -> NotificationMessage.t3PreCompute(run.getUserId(), run.getId()))
+                        .toList()));
+
+        log.info("T-3 pre-compute completed. Created {} scheduled runs for month-end {} ({} skipped, {} failures)",
+                result.saved(), monthEndDate, result.skipped(), result.failed());
 
         // Trigger Spring Batch job for pre-compute
         try {
@@ -152,49 +188,49 @@ public class MonthEndScheduler {
         LocalDate monthEndDate = getCurrentMonthEndDate();
         LocalDateTime scheduledFor = monthEndDate.atTime(1, 0);
 
-        // Find all SCHEDULED runs for this month-end
-        List<RecommendationRun> scheduledRuns = runRepository.findByScheduledDateAndStatus(monthEndDate, "SCHEDULED");
+        boolean leader = leaderElectionService.tryAcquire(LEADER_LEASE, leaderLeaseTtl);
 
-        if (scheduledRuns.isEmpty()) {
+        if (runLeaseService.countPendingElsewhere(monthEndDate, "SCHEDULED") == 0) {
             log.warn("No SCHEDULED runs found for month-end {}. T-3 pre-compute may have failed.", monthEndDate);
             return;
         }
 
-        int stagedCount = 0;
-        int failedCount = 0;
-
-        for (RecommendationRun run : scheduledRuns) {
-            try {
-                // Perform data freshness check per FR-025
-                boolean dataFresh = performDataFreshnessCheck(run);
-
-                // Update run status to STAGED
-                run.setStatus("STAGED");
-                run.setDataFreshnessCheckPassed(dataFresh);
-                // TODO: Add dataFreshnessSnapshot field to RecommendationRun model if needed
-                // run.setDataFreshnessSnapshot(createDataFreshnessSnapshot());
-
-                runRepository.save(run);
-                stagedCount++;
-
-                // Send T-1 notification
-                notificationService.sendT1StagedNotification(run.getUserId(), run.getId());
-
-                // If data is stale, send warning notification per FR-026
-                if (!dataFresh) {
-                    notificationService.sendDataStaleNotification(run.getUserId());
-                    log.warn("Data freshness check failed for run {}. Notification sent to user.", run.getId());
-                }
-
-                log.debug("Staged run {} for portfolio", run.getId());
-            } catch (Exception e) {
-                log.error("Failed to stage run {}: {}", run.getId(), e.getMessage());
-                failedCount++;
-            }
+        // Every node claims and stages batches of SCHEDULED runs
+        StageResult result = processClaimedRuns(monthEndDate, "SCHEDULED", leader, runs -> fanOut.process(
+                "T-1", runs, RecommendationRun::getId,
+                run -> {
+                    // Perform data freshness check per FR-025
+                    boolean dataFresh = performDataFreshnessCheck(run);
+
+                    // Update run status to STAGED
+                    run.setStatus("STAGED");
+                    run.setDataFreshnessCheckPassed(dataFresh);
+                    // TODO: Add dataFreshnessSnapshot field to RecommendationRun model if needed
+                    // run.setDataFreshnessSnapshot(createDataFreshnessSnapshot());
+                    return RunLeaseService.release(run);
+                },
+                null,
+                saved -> {
+                    List<NotificationMessage> messages = new ArrayList<>();
+                    for (RecommendationRun run : saved) {
+                        messages.add(NotificationMessage.t1Staged(run.getUserId(), run.getId()));
+
+                        // If data is stale, send warning notification per FR-026
+                        if (!Boolean.TRUE.equals(run.getDataFreshnessCheckPassed())) {
+                            messages.add(NotificationMessage.dataStale(run.getUserId()));
+                            log.warn("Data freshness check failed for run {}. Notification queued for user.", run.getId());
+                        }
+                    }
+                    notificationOutbox.enqueueAll(messages);
+                }));
+
+        log.info("T-1 staging completed on node {}. Staged {} runs, {} failures",
+                leaderElectionService.getNodeId(), result.saved(), result.failed());
+
+        if (!leader) {
+            return;
         }
 
-        log.info("T-1 staging completed. Staged {} runs, {} failures", stagedCount, failedCount);
-
         // Trigger Spring Batch job for staging
         try {
             JobParameters params = new JobParametersBuilder()
@@ -220,43 +256,38 @@ public class MonthEndScheduler {
         LocalDate monthEndDate = getCurrentMonthEndDate();
         LocalDateTime scheduledFor = monthEndDate.atTime(1, 0);
 
-        // Find all STAGED runs for this month-end
-        List<RecommendationRun> stagedRuns = runRepository.findByScheduledDateAndStatus(monthEndDate, "STAGED");
+        boolean leader = leaderElectionService.tryAcquire(LEADER_LEASE, leaderLeaseTtl);
 
-        if (stagedRuns.isEmpty()) {
+        if (runLeaseService.countPendingElsewhere(monthEndDate, "STAGED") == 0) {
             log.warn("No STAGED runs found for month-end {}. T-1 staging may have failed.", monthEndDate);
             return;
         }
 
-        int finalizedCount = 0;
-        int failedCount = 0;
-
-        for (RecommendationRun run : stagedRuns) {
-            try {
-                // Execute optimization and generate recommendations
-                // (Actual recommendation engine execution happens in batch job)
-
-                // Update run status to FINALIZED
-                run.setStatus("FINALIZED");
-                run.setCompletedAt(LocalDateTime.now());
-
-                runRepository.save(run);
-                finalizedCount++;
-
-                // Send T finalization notification (HIGH priority per FR-045)
-                notificationService.sendTFinalizedNotification(run.getUserId(), run.getId());
-
-                log.info("Finalized run {} for user {}", run.getId(), run.getUserId());
-            } catch (Exception e) {
-                log.error("Failed to finalize run {}: {}", run.getId(), e.getMessage());
-                run.setStatus("FAILED");
-                runRepository.save(run);
-                failedCount++;
-            }
+        // Every node claims and finalizes batches of STAGED runs
+        StageResult result = processClaimedRuns(monthEndDate, "STAGED", leader, runs -> fanOut.process(
+                "T", runs, RecommendationRun::getId,
+                run -> {
+                    // Optimization and recommendation generation happen in the finalization batch job
+                    run.setStatus("FINALIZED");
+                    run.setCompletedAt(LocalDateTime.now());
+                    return RunLeaseService.release(run);
+                },
+                run -> {
+                    run.setStatus("FAILED");
+                    return RunLeaseService.release(run);
+                },
+                // T finalization notification (HIGH priority per FR-045)
+                saved -> notificationOutbox.enqueueAll(saved.stream()
+                        .map(run -> NotificationMessage.tFinalized(run.getUserId(), run.getId()))
+                        .toList())));
+
+        log.info("T finalization completed on node {}. Finalized {} runs, {} failures",
+                leaderElectionService.getNodeId(), result.saved(), result.failed());
+
+        if (!leader) {
+            return;
         }
 
-        log.info("T finalization completed. Finalized {} runs, {} failures", finalizedCount, failedCount);
-
         // Trigger Spring Batch job for finalization
         try {
             JobParameters params = new JobParametersBuilder()
@@ -270,6 +301,58 @@ public class MonthEndScheduler {
         }
     }
 
+    /**
+     * Claim and process batches of runs in a stage until none are left.
+     *
+     * When nothing is claimable but runs are still leased by other nodes, waits and polls: if
+     * such a node crashed, its leases expire and the runs are claimed here. The leader renews
+     * its leadership between batches so it still holds it when launching the batch job.
+     *
+     * @param monthEndDate Month-end date
+     * @param status Status the stage picks up
+     * @param leader Whether this node is the month-end leader
+     * @param process Processes one claimed batch
+     * @return Aggregated result for the runs processed on this node
+     */
+    private StageResult processClaimedRuns(
+            LocalDate monthEndDate,
+            String status,
+            boolean leader,
+            Function<List<RecommendationRun>, StageResult> process) {
+        StageResult total = new StageResult(0, 0, 0);
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+
+        while (true) {
+            List<RecommendationRun> claimed =
+                    runLeaseService.claimBatch(monthEndDate, status, claimBatchSize, runLeaseTtl);
+            if (!claimed.isEmpty()) {
+                total = total.plus(process.apply(claimed));
+                if (leader) {
+                    leaderElectionService.tryAcquire(LEADER_LEASE, leaderLeaseTtl);
+                }
+                continue;
+            }
+
+            long pending = runLeaseService.countPendingElsewhere(monthEndDate, status);
+            if (pending == 0) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                log.warn("Gave up waiting for {} {} runs leased by other nodes for month-end {}",
+                        pending, status, monthEndDate);
+                break;
+            }
+            log.debug("Waiting for {} {} runs leased by other nodes", pending, status);
+            try {
+                Thread.sleep(DRAIN_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+
     /**
      * Get current month-end date.
      *
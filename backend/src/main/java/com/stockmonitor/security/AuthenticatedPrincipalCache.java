@@ -0,0 +1,123 @@
+package com.stockmonitor.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockmonitor.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Authenticated principals of JWT requests, cached by token subject and token version.
+ *
+ * <p>Tokens from {@link JwtService#generateToken(UserDetails, int)} carry the user's roles and
+ * token version. The first request with such a token only checks that the version is still current
+ * (one indexed single-column query) and builds the principal from the token's roles; later requests
+ * are served from the cache without touching the database. Tokens without a version are
+ * authenticated with a full user load, also cached.
+ *
+ * <p>{@code UserService} bumps the token version on role or password change and calls {@link
+ * #invalidate} after commit, so tokens issued before the change are rejected on this node
+ * immediately. Other nodes reject them once their entries expire ({@code
+ * app.security.principal-cache.ttl}).
+ */
+@Service
+@Slf4j
+public class AuthenticatedPrincipalCache {
+
+  private final UserRepository userRepository;
+  private final UserDetailsService userDetailsService;
+  private final Cache<PrincipalKey, UserDetails> principals;
+
+  public AuthenticatedPrincipalCache(
+      UserRepository userRepository,
+      UserDetailsService userDetailsService,
+      @Value("${app.security.principal-cache.ttl:PT1M}") Duration ttl,
+      @Value("${app.security.principal-cache.size:100000}") long maximumSize) {
+    this.userRepository = userRepository;
+    this.userDetailsService = userDetailsService;
+    this.principals = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+  }
+
+  /**
+   * Principal of a verified token.
+   *
+   * @param claims Claims of a token whose signature and expiry were checked
+   * @return Principal, or empty if the token was revoked by a role or password change
+   * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if a token
+   *     without a version names an unknown user
+   */
+  public Optional<UserDetails> get(Claims claims) {
+    Integer tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+    List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+    PrincipalKey key =
+        new PrincipalKey(claims.getSubject(), roles != null ? tokenVersion : null);
+
+    UserDetails principal = principals.getIfPresent(key);
+    if (principal == null) {
+      principal = key.tokenVersion() != null ? fromClaims(key, roles) : load(key.subject());
+      if (principal == null) {
+        return Optional.empty();
+      }
+      principals.put(key, principal);
+    }
+    return Optional.of(principal);
+  }
+
+  /**
+   * Drop a user's cached principals. Inside a transaction they are dropped again after commit, so
+   * a concurrent request cannot re-cache a principal for the old version.
+   *
+   * @param subject Token subject (e-mail address)
+   */
+  public void invalidate(String subject) {
+    principals.asMap().keySet().removeIf(key -> key.subject().equals(subject));
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              principals.asMap().keySet().removeIf(key -> key.subject().equals(subject));
+            }
+          });
+    }
+  }
+
+  private UserDetails fromClaims(PrincipalKey key, Collection<?> roles) {
+    Optional<Integer> currentVersion = userRepository.findTokenVersionByEmail(key.subject());
+    if (currentVersion.isEmpty() || !Objects.equals(currentVersion.get(), key.tokenVersion())) {
+      log.debug("Rejected token for {} with outdated version {}", key.subject(), key.tokenVersion());
+      return null;
+    }
+    return new User(
+        key.subject(),
+        "",
+        roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).toList());
+  }
+
+  private UserDetails load(String subject) {
+    UserDetails user = userDetailsService.loadUserByUsername(subject);
+    // Cache without the password hash
+    return new User(user.getUsername(), "", user.getAuthorities());
+  }
+
+  /**
+   * Cache key.
+   *
+   * @param subject Token subject (e-mail address)
+   * @param tokenVersion Token version claim, or null for tokens without roles and version
+   */
+  private record PrincipalKey(String subject, Integer tokenVersion) {}
+}
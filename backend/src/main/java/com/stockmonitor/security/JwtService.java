@@ -11,12 +11,19 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
 
+  /** Claim with the user's granted authorities, e.g. {@code ["ROLE_OWNER"]}. */
+  static final String ROLES_CLAIM = "roles";
+
+  /** Claim with the user's token version when the token was issued. */
+  static final String TOKEN_VERSION_CLAIM = "ver";
+
   @Value("${app.jwt.secret}")
   private String secretKey;
 
@@ -36,6 +43,23 @@ public class JwtService {
     return generateToken(new HashMap<>(), userDetails);
   }
 
+  /**
+   * Generate a token carrying the user's roles and token version, so requests can be authenticated
+   * without loading the user until the version changes.
+   *
+   * @param userDetails User with the authorities to embed
+   * @param tokenVersion Current token version of the user
+   * @return Signed token
+   */
+  public String generateToken(UserDetails userDetails, int tokenVersion) {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put(
+        ROLES_CLAIM,
+        userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
+    return generateToken(claims, userDetails);
+  }
+
   public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
     return buildToken(extraClaims, userDetails, jwtExpiration);
   }
@@ -56,6 +80,17 @@ public class JwtService {
     return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
   }
 
+  /**
+   * Verify a token's signature and expiry and return its claims.
+   *
+   * @param token Token from the request
+   * @return Claims of the token
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+   */
+  public Claims parseClaims(String token) {
+    return extractAllClaims(token);
+  }
+
   private boolean isTokenExpired(String token) {
     return extractExpiration(token).before(new Date());
   }
@@ -1,20 +1,258 @@
 package com.stockmonitor.security;
 
-import jakarta.servlet.*;
-import jakarta.servlet.http.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.stockmonitor.config.MetricsConfig.SecurityMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 
-/** Rate limiting filter (T229). */
+/**
+ * Rate limiting filter (T229).
+ *
+ * <p>Token bucket per caller and {@link EndpointClass}: a bucket holds up to one minute's worth of
+ * requests ({@code app.security.rate-limit.requests-per-minute}, or {@code
+ * expensive-requests-per-minute} for constraint previews, backtests and run triggers) and refills
+ * continuously. Callers are keyed by principal name once authenticated, by client address
+ * otherwise. A rejected request gets 429 with {@code Retry-After}.
+ *
+ * <p>Each bucket is kept as the single timestamp at which it will be full again (the generic cell
+ * rate algorithm form of a token bucket), so admitting a request is one compare-and-set:
+ *
+ * <ul>
+ *   <li>{@code local} mode: buckets live in a bounded Caffeine map that evicts idle buckets; they
+ *       are full again after a minute anyway. Limits are per node.
+ *   <li>{@code redis} mode: the same check runs as a Lua script on Redis, clocked by Redis {@code
+ *       TIME}, so limits hold across nodes. If Redis is unreachable the filter falls back to local
+ *       buckets for a while.
+ * </ul>
+ */
 @Component
 @Slf4j
-public class RateLimitFilter implements Filter {
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  static final Duration REDIS_RETRY_AFTER = Duration.ofSeconds(30);
+
+  private static final String REDIS_PREFIX = "rate-limit:";
+  private static final long PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  /**
+   * Admits a request against a bucket stored as its full-again time (microseconds, Redis clock).
+   * ARGV: emission interval, burst tolerance (both microseconds). Returns 0 if admitted, otherwise
+   * the microseconds until a request would be admitted.
+   */
+  private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT =
+      new DefaultRedisScript<>(
+          "local time = redis.call('TIME') "
+              + "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) "
+              + "local interval = tonumber(ARGV[1]) "
+              + "local tolerance = tonumber(ARGV[2]) "
+              + "local full = tonumber(redis.call('GET', KEYS[1]) or now) "
+              + "if full < now then full = now end "
+              + "local wait = full - tolerance - now "
+              + "if wait > 0 then return wait end "
+              + "full = full + interval "
+              + "redis.call('SET', KEYS[1], full, 'PX', math.floor((full - now) / 1000) + 1) "
+              + "return 0",
+          Long.class);
+
+  /** Endpoint classes with separate buckets and limits. */
+  enum EndpointClass {
+    STANDARD,
+    EXPENSIVE
+  }
+
+  private final boolean enabled;
+  private final boolean redisMode;
+  private final Limit standard;
+  private final Limit expensive;
+  private final Cache<String, AtomicLong> buckets;
+  private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+  private final MeterRegistry meterRegistry;
+  private final Ticker ticker;
+  private volatile long redisRetryAtNanos;
+
+  @Autowired
+  public RateLimitFilter(
+      @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+      @Value("${app.security.rate-limit.mode:local}") String mode,
+      @Value("${app.security.rate-limit.requests-per-minute:60}") int requestsPerMinute,
+      @Value("${app.security.rate-limit.expensive-requests-per-minute:10}") int expensiveRequestsPerMinute,
+      @Value("${app.security.rate-limit.max-buckets:100000}") long maxBuckets,
+      ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+      MeterRegistry meterRegistry) {
+    this(enabled, mode, requestsPerMinute, expensiveRequestsPerMinute, maxBuckets,
+        redisTemplateProvider, meterRegistry, Ticker.systemTicker());
+  }
+
+  RateLimitFilter(
+      boolean enabled,
+      String mode,
+      int requestsPerMinute,
+      int expensiveRequestsPerMinute,
+      long maxBuckets,
+      ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+      MeterRegistry meterRegistry,
+      Ticker ticker) {
+    this.enabled = enabled;
+    this.redisMode = "redis".equals(mode.toLowerCase(Locale.ROOT));
+    this.standard = new Limit(requestsPerMinute);
+    this.expensive = new Limit(expensiveRequestsPerMinute);
+    this.buckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(Duration.ofNanos(PERIOD_NANOS))
+            .ticker(ticker)
+            .build();
+    this.redisTemplateProvider = redisTemplateProvider;
+    this.meterRegistry = meterRegistry;
+    this.ticker = ticker;
+    this.redisRetryAtNanos = ticker.read();
+  }
 
   @Override
-  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-      throws IOException, ServletException {
-    // TODO: Implement rate limiting
-    chain.doFilter(request, response);
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    EndpointClass endpointClass = classify(request.getMethod(), request.getRequestURI());
+    long waitNanos = tryAcquire(callerKey(request), endpointClass);
+
+    if (waitNanos > 0) {
+      long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+      meterRegistry
+          .counter(SecurityMetrics.RATE_LIMIT_REJECTED, "endpoint", endpointClass.name().toLowerCase(Locale.ROOT))
+          .increment();
+      response.setStatus(429);
+      response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+      response.setContentType("application/json");
+      response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded\"}");
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * Take one request from a caller's bucket.
+   *
+   * @param caller Caller key (principal or client address)
+   * @param endpointClass Endpoint class of the request
+   * @return 0 if admitted, otherwise nanoseconds until a request would be admitted
+   */
+  long tryAcquire(String caller, EndpointClass endpointClass) {
+    Limit limit = endpointClass == EndpointClass.EXPENSIVE ? expensive : standard;
+    String key = endpointClass.name() + ':' + caller;
+
+    if (redisMode) {
+      Long waitNanos = tryAcquireRedis(key, limit);
+      if (waitNanos != null) {
+        return waitNanos;
+      }
+    }
+    return tryAcquireLocal(key, limit);
+  }
+
+  private long tryAcquireLocal(String key, Limit limit) {
+    AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(ticker.read()));
+    while (true) {
+      long now = ticker.read();
+      long current = fullAt.get();
+      long full = current - now < 0 ? now : current;
+      long wait = full - limit.toleranceNanos - now;
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, full + limit.intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Redis variant of {@link #tryAcquireLocal}; null if Redis is not available. */
+  private Long tryAcquireRedis(String key, Limit limit) {
+    StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+    if (redis == null || ticker.read() - redisRetryAtNanos < 0) {
+      return null;
+    }
+    try {
+      Long waitMicros =
+          redis.execute(
+              ACQUIRE_SCRIPT,
+              List.of(REDIS_PREFIX + key),
+              Long.toString(limit.intervalNanos / 1000),
+              Long.toString(limit.toleranceNanos / 1000));
+      return waitMicros == null ? null : TimeUnit.MICROSECONDS.toNanos(waitMicros);
+    } catch (Exception e) {
+      redisRetryAtNanos = ticker.read() + REDIS_RETRY_AFTER.toNanos();
+      log.warn("Redis unavailable for rate limiting, using local buckets for {}s: {}",
+          REDIS_RETRY_AFTER.toSeconds(), e.getMessage());
+      return null;
+    }
+  }
+
+  private static String callerKey(HttpServletRequest request) {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth != null && auth.isAuthenticated() && auth.getName() != null) {
+      return "user:" + auth.getName();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  /** Constraint previews, backtests and run triggers are expensive; everything else is standard. */
+  static EndpointClass classify(String method, String path) {
+    if ("POST".equals(method)
+        && ((path.startsWith("/api/portfolios/") && path.endsWith("/constraints/preview"))
+            || path.equals("/api/backtests")
+            || path.equals("/api/runs"))) {
+      return EndpointClass.EXPENSIVE;
+    }
+    return EndpointClass.STANDARD;
+  }
+
+  /**
+   * Bucket parameters for a per-minute limit.
+   *
+   * <p>One request is admitted every {@code intervalNanos} on average, with bursts of up to the
+   * full limit: a request is admitted while the bucket's full-again time is at most {@code
+   * toleranceNanos} ahead.
+   */
+  private static final class Limit {
+    final long intervalNanos;
+    final long toleranceNanos;
+
+    Limit(int requestsPerMinute) {
+      if (requestsPerMinute < 1) {
+        throw new IllegalArgumentException("Rate limit must be at least 1 request per minute");
+      }
+      this.intervalNanos = PERIOD_NANOS / requestsPerMinute;
+      this.toleranceNanos = intervalNanos * (requestsPerMinute - 1);
+    }
   }
 }
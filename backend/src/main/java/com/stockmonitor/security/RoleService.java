@@ -1,14 +1,11 @@
 package com.stockmonitor.security;
 
 import com.stockmonitor.model.User;
-import com.stockmonitor.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -19,14 +16,16 @@ import java.util.UUID;
  * - ROLE_VIEWER: Read-only access to portfolio
  * - ROLE_SERVICE: Scheduled jobs only (limited write access)
  *
- * Used with @PreAuthorize annotations on controller methods.
+ * Used with @PreAuthorize annotations on controller methods. Roles are read from the authenticated
+ * principal's authorities, which come from the token (see {@link AuthenticatedPrincipalCache}), so a
+ * check does not load the user.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RoleService {
 
-    private final UserRepository userRepository;
+    private static final String OWNER = "ROLE_" + User.UserRole.OWNER.name();
+    private static final String VIEWER = "ROLE_" + User.UserRole.VIEWER.name();
 
     /**
      * Check if current user has OWNER role for the specified portfolio.
@@ -41,17 +40,9 @@ public class RoleService {
             return false;
         }
 
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null) {
-            log.warn("User not found: {}", email);
-            return false;
-        }
-
         // Check if user has OWNER role
-        if (user.getRole() == null || user.getRole() != User.UserRole.OWNER) {
-            log.warn("User {} does not have OWNER role", email);
+        if (!hasAuthority(auth, OWNER)) {
+            log.warn("User {} does not have OWNER role", auth.getName());
             return false;
         }
 
@@ -72,15 +63,7 @@ public class RoleService {
             return false;
         }
 
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null) {
-            return false;
-        }
-
-        User.UserRole userRole = user.getRole();
-        return userRole != null && (userRole == User.UserRole.VIEWER || userRole == User.UserRole.OWNER);
+        return hasAuthority(auth, VIEWER) || hasAuthority(auth, OWNER);
     }
 
     /**
@@ -95,8 +78,7 @@ public class RoleService {
             return false;
         }
 
-        return auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_SERVICE"));
+        return hasAuthority(auth, "ROLE_SERVICE");
     }
 
     /**
@@ -111,13 +93,11 @@ public class RoleService {
             return false;
         }
 
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null) {
-            return false;
-        }
+        return hasAuthority(auth, OWNER);
+    }
 
-        return user.getRole() != null && user.getRole() == User.UserRole.OWNER;
+    private static boolean hasAuthority(Authentication auth, String authority) {
+        return auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals(authority));
     }
 }
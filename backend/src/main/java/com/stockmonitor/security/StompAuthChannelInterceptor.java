@@ -0,0 +1,86 @@
+package com.stockmonitor.security;
+
+import com.stockmonitor.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions with a bearer JWT in the CONNECT frame.
+ *
+ * <p>The {@code /ws} handshake is not filtered by {@link JwtAuthenticationFilter}, so clients send
+ * {@code Authorization: Bearer <token>} as a STOMP CONNECT header instead. The token is verified
+ * like an HTTP request's (signature, expiry and token version via {@link
+ * AuthenticatedPrincipalCache}) and the session principal is named by the user's id, which is what
+ * {@code convertAndSendToUser(userId, ...)} resolves {@code /user/queue/...} subscriptions against.
+ * Connections without a token stay anonymous: they can follow public {@code /topic} destinations
+ * but receive no user destinations. A present but invalid or revoked token rejects the CONNECT.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+  private static final String AUTHORIZATION_HEADER = "Authorization";
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final JwtService jwtService;
+  private final AuthenticatedPrincipalCache principalCache;
+  private final UserRepository userRepository;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+      return message;
+    }
+
+    String authHeader = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+    if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+      return message;
+    }
+    accessor.setUser(authenticate(authHeader.substring(BEARER_PREFIX.length())));
+    return message;
+  }
+
+  private UsernamePasswordAuthenticationToken authenticate(String jwt) {
+    Claims claims;
+    try {
+      claims = jwtService.parseClaims(jwt);
+    } catch (JwtException | IllegalArgumentException e) {
+      log.debug("Rejected STOMP bearer token: {}", e.getMessage());
+      throw new MessageDeliveryException("Invalid bearer token");
+    }
+    if (claims.getSubject() == null) {
+      throw new MessageDeliveryException("Invalid bearer token");
+    }
+
+    Optional<UserDetails> principal;
+    try {
+      principal = principalCache.get(claims);
+    } catch (UsernameNotFoundException e) {
+      throw new MessageDeliveryException("Unknown user");
+    }
+    Optional<UUID> userId = principal.flatMap(p -> userRepository.findIdByEmail(p.getUsername()));
+    if (userId.isEmpty()) {
+      throw new MessageDeliveryException("Revoked bearer token");
+    }
+    return new UsernamePasswordAuthenticationToken(
+        userId.get().toString(), null, principal.get().getAuthorities());
+  }
+}
@@ -1,15 +1,245 @@
 package com.stockmonitor.service;
 
+import com.stockmonitor.config.MetricsConfig.AuditMetrics;
+import com.stockmonitor.model.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-/** Audit logging service (T232). */
+/**
+ * Audit logging service (T232).
+ *
+ * <p>Callers publish events into a bounded lock-free ring buffer ({@code app.audit.buffer-size})
+ * and return without touching the database. A background writer drains the buffer every {@code
+ * app.audit.flush-interval-ms} in batches of {@code app.audit.batch-size}, each written as JDBC
+ * batch inserts in one transaction; the remainder is written on shutdown. A batch that fails is
+ * retried on the next flush, up to {@code app.audit.max-attempts} times.
+ *
+ * <p>What happens when the buffer is full is set by {@code app.audit.overflow-policy}:
+ * - write-through: the caller writes its event synchronously (default; nothing is lost)
+ * - block: the caller waits up to {@code app.audit.block-timeout} for space, then drops the event
+ * - drop: the event is dropped immediately, so callers are never slowed down
+ *
+ * <p>Events still in the buffer are lost if the node dies. Buffer depth, write lag (event creation
+ * to insert) and drops are exported as {@link AuditMetrics}.
+ */
 @Service
 @Slf4j
 public class AuditLogService {
 
+  /** Behaviour of {@link #publish} when the buffer is full. */
+  public enum OverflowPolicy {
+    WRITE_THROUGH,
+    BLOCK,
+    DROP
+  }
+
+  /** Entity type of events from {@link #logSecurityEvent}. */
+  static final String SECURITY_ENTITY_TYPE = "SECURITY";
+
+  private static final UUID NO_ENTITY = new UUID(0, 0);
+
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final AuditRingBuffer<AuditLog> buffer;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final OverflowPolicy overflowPolicy;
+  private final Duration blockTimeout;
+  private final ReentrantLock writerLock = new ReentrantLock();
+  private final Counter written;
+  private final Counter droppedFull;
+  private final Counter droppedFailed;
+  private final Timer lag;
+
+  // Batch whose write failed, retried before draining more (writer thread only)
+  private List<AuditLog> failedBatch = List.of();
+  private int failedAttempts;
+
+  public AuditLogService(
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.audit.buffer-size:65536}") int bufferSize,
+      @Value("${app.audit.batch-size:500}") int batchSize,
+      @Value("${app.audit.max-attempts:3}") int maxAttempts,
+      @Value("${app.audit.overflow-policy:write-through}") String overflowPolicy,
+      @Value("${app.audit.block-timeout:PT1S}") Duration blockTimeout) {
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // Write-through inserts must neither join nor poison the caller's transaction
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.buffer = new AuditRingBuffer<>(bufferSize);
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.replace('-', '_').toUpperCase(Locale.ROOT));
+    this.blockTimeout = blockTimeout;
+    this.written = meterRegistry.counter(AuditMetrics.EVENTS_WRITTEN);
+    this.droppedFull = meterRegistry.counter(AuditMetrics.EVENTS_DROPPED, "reason", "buffer-full");
+    this.droppedFailed = meterRegistry.counter(AuditMetrics.EVENTS_DROPPED, "reason", "write-failed");
+    this.lag = meterRegistry.timer(AuditMetrics.WRITE_LAG);
+    meterRegistry.gauge(AuditMetrics.BUFFER_DEPTH, buffer, AuditRingBuffer::size);
+  }
+
   public void logSecurityEvent(String userId, String action, String details) {
     log.info("AUDIT: user={}, action={}, details={}", userId, action, details);
-    // TODO: Persist to audit log table
+
+    UUID userUuid = parseUuid(userId);
+    String detail = userUuid != null || userId == null ? details : userId + ": " + details;
+    publish(
+        AuditLog.builder()
+            .userId(userUuid)
+            .entityType(SECURITY_ENTITY_TYPE)
+            .entityId(userUuid != null ? userUuid : NO_ENTITY)
+            .action(truncate(action, 20))
+            .actionDetail(truncate(detail, 200))
+            .beforeState("{}")
+            .afterState("{}")
+            .success(true)
+            .build());
+  }
+
+  /**
+   * Queue an audit event for writing. Its creation time is set now if missing.
+   *
+   * @param event Event to write; must not be modified afterwards
+   */
+  public void publish(AuditLog event) {
+    if (event.getCreatedAt() == null) {
+      event.setCreatedAt(LocalDateTime.now());
+    }
+    if (buffer.offer(event)) {
+      return;
+    }
+
+    switch (overflowPolicy) {
+      case WRITE_THROUGH -> {
+        if (!write(List.of(event))) {
+          droppedFailed.increment();
+        }
+      }
+      case BLOCK -> {
+        long deadline = System.nanoTime() + blockTimeout.toNanos();
+        while (!buffer.offer(event)) {
+          if (System.nanoTime() - deadline >= 0) {
+            droppedFull.increment();
+            return;
+          }
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+      }
+      case DROP -> droppedFull.increment();
+    }
+  }
+
+  /**
+   * Write buffered events, batch by batch, until the buffer is empty.
+   *
+   * @return Number of events written
+   */
+  @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:200}")
+  public int flush() {
+    if (!writerLock.tryLock()) {
+      return 0; // Another flush is running
+    }
+    try {
+      int total = 0;
+      while (true) {
+        List<AuditLog> batch = failedBatch;
+        if (batch.isEmpty()) {
+          batch = new ArrayList<>(batchSize);
+          buffer.drainTo(batch, batchSize);
+          if (batch.isEmpty()) {
+            return total;
+          }
+        }
+
+        if (!write(batch)) {
+          if (++failedAttempts >= maxAttempts) {
+            log.error("Dropping {} audit events after {} failed writes", batch.size(), failedAttempts);
+            droppedFailed.increment(batch.size());
+            failedBatch = List.of();
+            failedAttempts = 0;
+          } else {
+            failedBatch = batch;
+          }
+          return total;
+        }
+        failedBatch = List.of();
+        failedAttempts = 0;
+        total += batch.size();
+        if (batch.size() < batchSize) {
+          return total;
+        }
+      }
+    } finally {
+      writerLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void flushOnShutdown() {
+    flush();
+  }
+
+  /** Insert events as JDBC batches in one transaction. */
+  private boolean write(List<AuditLog> events) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (AuditLog event : events) {
+              entityManager.persist(event);
+            }
+            entityManager.flush();
+            entityManager.clear();
+          });
+    } catch (RuntimeException e) {
+      log.warn("Failed to write {} audit events: {}", events.size(), e.getMessage());
+      // Let a retry insert them again under new IDs
+      events.forEach(event -> event.setId(null));
+      return false;
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    for (AuditLog event : events) {
+      lag.record(Duration.between(event.getCreatedAt(), now));
+    }
+    written.increment(events.size());
+    return true;
+  }
+
+  private static UUID parseUuid(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return UUID.fromString(value);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
   }
 }
@@ -0,0 +1,91 @@
+package com.stockmonitor.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and one consumer.
+ *
+ * <p>Each slot carries a sequence number telling whose turn it is: a producer claims the next
+ * position with one compare-and-set on the tail and publishes by advancing the slot's sequence; the
+ * consumer takes slots in order once published. Offering to a full buffer fails immediately.
+ *
+ * @param <E> Element type
+ */
+class AuditRingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * @param capacity Maximum number of elements, rounded up to a power of two
+   */
+  AuditRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    this.mask = size - 1;
+    this.elements = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Add an element.
+   *
+   * @return False if the buffer is full
+   */
+  boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int slot = (int) position & mask;
+      long difference = sequences.get(slot) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.set(slot, element);
+          sequences.set(slot, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        return false;
+      }
+      // Another producer claimed this position; retry with the new tail
+    }
+  }
+
+  /**
+   * Move up to {@code max} elements into {@code into}. Only one thread may drain at a time.
+   *
+   * @return Number of elements moved
+   */
+  int drainTo(List<E> into, int max) {
+    int drained = 0;
+    long position = head.get();
+    while (drained < max) {
+      int slot = (int) position & mask;
+      if (sequences.get(slot) != position + 1) {
+        break; // Empty, or the producer of this slot has not published yet
+      }
+      into.add(elements.getAndSet(slot, null));
+      sequences.set(slot, position + mask + 1);
+      position++;
+      drained++;
+    }
+    head.set(position);
+    return drained;
+  }
+
+  /** Number of claimed slots not yet drained. */
+  int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
@@ -0,0 +1,253 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.CacheCoverageReport;
+import com.stockmonitor.integration.AlphaVantageClient;
+import com.stockmonitor.integration.DataFeedRetryHandler;
+import com.stockmonitor.model.UniverseConstituent;
+import com.stockmonitor.repository.HoldingRepository;
+import com.stockmonitor.repository.UniverseConstituentRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Month-end cache warm-up driven by the T-3 pre-compute job.
+ *
+ * <p>Loads prices, factor scores, sector classifications and liquidity tiers for the union of
+ * constituents across all active universes and writes them to Redis in pipelined batches with a
+ * 7-day TTL, so T-1 staging and T finalization start warm. Factor scores and FX rates are written
+ * into the refresh-ahead caches FactorService and FxRateService read from, under their keys; the
+ * other categories are stored under {@code precompute:<monthEnd>:<category>:<symbol>}. A coverage
+ * report is stored alongside so staging can verify the hit rate before finalization.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmupService {
+
+  public static final Duration WARMUP_TTL = Duration.ofDays(7);
+  public static final double MIN_HIT_RATE = 0.95;
+
+  static final String CATEGORY_PRICE = "price";
+  static final String CATEGORY_FACTORS = "factors";
+  static final String CATEGORY_SECTOR = "sector";
+  static final String CATEGORY_LIQUIDITY = "liquidity";
+  static final List<String> CATEGORIES =
+      List.of(CATEGORY_PRICE, CATEGORY_FACTORS, CATEGORY_SECTOR, CATEGORY_LIQUIDITY);
+
+  /** Categories stored under precompute keys; factor scores are in FactorService's cache. */
+  private static final List<String> PRECOMPUTED_CATEGORIES =
+      List.of(CATEGORY_PRICE, CATEGORY_SECTOR, CATEGORY_LIQUIDITY);
+
+  private static final int PRICE_FETCH_RETRIES = 3;
+
+  private final UniverseConstituentRepository constituentRepository;
+  private final HoldingRepository holdingRepository;
+  private final AlphaVantageClient priceClient;
+  private final DataFeedRetryHandler retryHandler;
+  private final DataFeedCacheService cacheService;
+  private final RefreshAheadCacheService refreshAheadCache;
+  private final FactorService factorService;
+  private final FxRateService fxRateService;
+
+  /**
+   * Union of active constituents across all active universes, one per symbol.
+   *
+   * @return Constituents keyed by symbol, in symbol order
+   */
+  @Transactional(readOnly = true)
+  public Map<String, UniverseConstituent> getActiveConstituents() {
+    Map<String, UniverseConstituent> bySymbol = new LinkedHashMap<>();
+    for (UniverseConstituent constituent :
+        constituentRepository.findActiveConstituentsOfActiveUniverses()) {
+      bySymbol.putIfAbsent(constituent.getSymbol(), constituent);
+    }
+    return bySymbol;
+  }
+
+  /**
+   * Fetch and cache latest prices for all active constituents. The price feed has no batch
+   * endpoint, so symbols are fetched one at a time and only the cache writes are batched.
+   *
+   * @param monthEndDate Month-end the cache is warmed for
+   * @return Number of prices cached
+   */
+  public int warmPrices(LocalDate monthEndDate) {
+    Map<String, Object> entries = new HashMap<>();
+    int failures = 0;
+    for (String symbol : getActiveConstituents().keySet()) {
+      try {
+        BigDecimal price =
+            retryHandler.executeWithRetry(
+                () -> priceClient.getPrice(symbol, monthEndDate), PRICE_FETCH_RETRIES);
+        if (price != null) {
+          entries.put(cacheKey(monthEndDate, CATEGORY_PRICE, symbol), price);
+        }
+      } catch (RuntimeException e) {
+        failures++;
+        log.warn("Price pre-fetch failed for {}: {}", symbol, e.getMessage());
+      }
+    }
+    cacheService.cacheAll(entries, WARMUP_TTL);
+    log.info("Warmed {} prices for month-end {} ({} failures)", entries.size(), monthEndDate,
+        failures);
+    return entries.size();
+  }
+
+  /**
+   * Calculate raw factor scores for active constituents into FactorService's cache.
+   *
+   * @param monthEndDate Month-end the cache is warmed for
+   * @return Number of symbols with factor scores cached
+   */
+  @Transactional(readOnly = true)
+  public int warmFactorScores(LocalDate monthEndDate) {
+    Map<String, String> sectorBySymbol = new LinkedHashMap<>();
+    getActiveConstituents().forEach((symbol, constituent) ->
+        sectorBySymbol.put(symbol, constituent.getSector()));
+    int cached = factorService.warmRawFactorScores(sectorBySymbol, WARMUP_TTL);
+    log.info("Warmed factor scores for {} symbols for month-end {}", cached, monthEndDate);
+    return cached;
+  }
+
+  /**
+   * Load the month-end FX rates of every held currency into base currency into FxRateService's
+   * cache. FX rates are per currency, not per constituent, so they are not part of the coverage
+   * report.
+   *
+   * @param monthEndDate Month-end the cache is warmed for, and the date rates are taken at
+   * @return Number of rates cached
+   */
+  @Transactional(readOnly = true)
+  public int warmFxRates(LocalDate monthEndDate) {
+    int cached = fxRateService.warmRatesToBaseCurrency(
+        holdingRepository.findDistinctCurrencies(), monthEndDate, WARMUP_TTL);
+    log.info("Warmed {} FX rates for month-end {}", cached, monthEndDate);
+    return cached;
+  }
+
+  /**
+   * Cache sector classifications and liquidity tiers for active constituents.
+   *
+   * @param monthEndDate Month-end the cache is warmed for
+   * @return Number of cache entries written
+   */
+  @Transactional(readOnly = true)
+  public int warmClassifications(LocalDate monthEndDate) {
+    Map<String, Object> entries = new HashMap<>();
+    getActiveConstituents()
+        .forEach(
+            (symbol, constituent) -> {
+              entries.put(cacheKey(monthEndDate, CATEGORY_SECTOR, symbol), constituent.getSector());
+              entries.put(
+                  cacheKey(monthEndDate, CATEGORY_LIQUIDITY, symbol),
+                  constituent.getLiquidityTier());
+            });
+    cacheService.cacheAll(entries, WARMUP_TTL);
+    log.info("Warmed {} classification entries for month-end {}", entries.size(), monthEndDate);
+    return entries.size();
+  }
+
+  /**
+   * Measure what is in the cache now and store it as the month-end coverage report.
+   *
+   * @param monthEndDate Month-end the cache was warmed for
+   * @return Recorded coverage report
+   */
+  public CacheCoverageReport recordCoverageReport(LocalDate monthEndDate) {
+    List<String> symbols = new ArrayList<>(getActiveConstituents().keySet());
+    CacheCoverageReport report = measureCoverage(monthEndDate, symbols);
+    cacheService.cache(reportKey(monthEndDate), report, WARMUP_TTL);
+    log.info("Cache coverage for month-end {}: {}/{} entries ({}%)", monthEndDate,
+        report.getCachedEntries(), report.getExpectedEntries(),
+        Math.round(report.getHitRate() * 100));
+    return report;
+  }
+
+  /**
+   * Re-check the symbols from the recorded coverage report against the live cache.
+   *
+   * @param monthEndDate Month-end the cache was warmed for
+   * @return Current coverage, or an empty report if pre-compute never recorded one
+   */
+  public CacheCoverageReport verifyCoverage(LocalDate monthEndDate) {
+    Object recorded = cacheService.get(reportKey(monthEndDate));
+    if (!(recorded instanceof CacheCoverageReport report) || report.getSymbols() == null) {
+      log.warn("No cache coverage report recorded for month-end {}", monthEndDate);
+      return CacheCoverageReport.builder()
+          .monthEndDate(monthEndDate)
+          .recordedAt(LocalDateTime.now())
+          .symbols(List.of())
+          .cachedByCategory(Map.of())
+          .expectedEntries(0)
+          .cachedEntries(0)
+          .build();
+    }
+    return measureCoverage(monthEndDate, report.getSymbols());
+  }
+
+  private CacheCoverageReport measureCoverage(LocalDate monthEndDate, List<String> symbols) {
+    List<String> keys = new ArrayList<>(symbols.size() * PRECOMPUTED_CATEGORIES.size());
+    for (String category : PRECOMPUTED_CATEGORIES) {
+      for (String symbol : symbols) {
+        keys.add(cacheKey(monthEndDate, category, symbol));
+      }
+    }
+
+    List<Object> values = cacheService.getAll(keys);
+    Map<String, Integer> cachedByCategory = new LinkedHashMap<>();
+    int cached = 0;
+    for (int c = 0; c < PRECOMPUTED_CATEGORIES.size(); c++) {
+      int hits = 0;
+      for (int i = c * symbols.size(); i < (c + 1) * symbols.size(); i++) {
+        if (values.get(i) != null) {
+          hits++;
+        }
+      }
+      cachedByCategory.put(PRECOMPUTED_CATEGORIES.get(c), hits);
+      cached += hits;
+    }
+
+    // Factor scores live in FactorService's cache, keyed by symbol and sector; a symbol that has
+    // left every active universe has no sector to look up and counts as missing
+    Map<String, UniverseConstituent> constituents = getActiveConstituents();
+    List<String> factorKeys = new ArrayList<>(symbols.size());
+    for (String symbol : symbols) {
+      UniverseConstituent constituent = constituents.get(symbol);
+      if (constituent != null) {
+        factorKeys.add(FactorService.rawScoresKey(symbol, constituent.getSector()));
+      }
+    }
+    int factorHits = (int) refreshAheadCache.countCached(FactorService.CACHE_NAME, factorKeys);
+    cachedByCategory.put(CATEGORY_FACTORS, factorHits);
+    cached += factorHits;
+
+    return CacheCoverageReport.builder()
+        .monthEndDate(monthEndDate)
+        .recordedAt(LocalDateTime.now())
+        .symbols(symbols)
+        .cachedByCategory(cachedByCategory)
+        .expectedEntries(symbols.size() * CATEGORIES.size())
+        .cachedEntries(cached)
+        .build();
+  }
+
+  /** Cache key for a pre-computed month-end entry. */
+  public static String cacheKey(LocalDate monthEndDate, String category, String symbol) {
+    return "precompute:" + monthEndDate + ":" + category + ":" + symbol;
+  }
+
+  private static String reportKey(LocalDate monthEndDate) {
+    return "precompute:" + monthEndDate + ":coverage";
+  }
+}
@@ -88,15 +88,19 @@ public class ConstraintPreviewService {
     return buildPreviewDTO(
         currentConstraints,
         modifiedConstraints,
-        lastRecommendations.size(),
+        lastRecommendations,
         simulationResult,
         lastRun);
   }
 
   /**
-   * Simulate optimizer with new constraints using last run's factor scores
+   * Simulate optimizer with new constraints using last run's factor scores.
+   *
+   * <p>Picks are added in rank order and trimmed from the end to meet the turnover cap. Sector
+   * counts and the turnover inputs are kept in a {@link Selection} that is updated as picks are
+   * added or removed, so each step costs O(1) instead of recomputing turnover from scratch.
    */
-  private SimulationResult simulateWithNewConstraints(
+  static SimulationResult simulateWithNewConstraints(
       List<Recommendation> lastRecommendations,
       List<Holding> currentHoldings,
       ConstraintSetDTO newConstraints,
@@ -108,33 +112,24 @@ public class ConstraintPreviewService {
             .sorted(Comparator.comparingInt(Recommendation::getRank))
             .collect(Collectors.toList());
 
-    // Apply new constraints
-    List<String> selectedSymbols = new ArrayList<>();
-    Map<String, Integer> sectorCounts = new HashMap<>();
-    BigDecimal totalWeight = BigDecimal.ZERO;
+    // Caps in the units of the checks below: weights in 1/10000 %, sector exposure in 1/100 %
+    long maxNameWeight = floorUnits(newConstraints.getMaxNameWeightLargeCapPct(), 4);
+    long maxSectorExposure = floorUnits(newConstraints.getMaxSectorExposurePct(), 2);
     int maxPicks = 50; // Maximum possible picks
 
+    Selection selection = new Selection(currentHoldings, portfolio);
     for (Recommendation rec : rankedByFactors) {
-      if (selectedSymbols.size() >= maxPicks) break;
+      int picks = selection.size();
+      if (picks >= maxPicks) break;
 
-      // Check position size constraint (using large cap limit as proxy)
-      BigDecimal proposedWeight = calculateProposedWeight(selectedSymbols.size() + 1);
-      if (newConstraints.getMaxNameWeightLargeCapPct() != null
-          && proposedWeight.compareTo(newConstraints.getMaxNameWeightLargeCapPct()) > 0) {
+      // Check position size constraint (using large cap limit as proxy): 100% / (picks + 1)
+      if (roundHalfUp(1_000_000L, picks + 1) > maxNameWeight) {
         continue; // Skip this stock
       }
 
-      // Check sector exposure constraint
-      String sector = rec.getSector();
-      int sectorCount = sectorCounts.getOrDefault(sector, 0);
-      BigDecimal sectorExposure =
-          BigDecimal.valueOf(sectorCount + 1)
-              .divide(
-                  BigDecimal.valueOf(selectedSymbols.size() + 1), 4, RoundingMode.HALF_UP)
-              .multiply(BigDecimal.valueOf(100));
-
-      if (newConstraints.getMaxSectorExposurePct() != null
-          && sectorExposure.compareTo(newConstraints.getMaxSectorExposurePct()) > 0) {
+      // Check sector exposure constraint: (sector picks + 1) / (picks + 1), 4 decimals
+      if (roundHalfUp(10_000L * (selection.sectorCount(rec.getSector()) + 1), picks + 1)
+          > maxSectorExposure) {
         continue; // Skip due to sector cap
       }
 
@@ -144,90 +139,119 @@ public class ConstraintPreviewService {
         // For simulation, assume stocks passed if they were in last run
       }
 
-      // Add to selected
-      selectedSymbols.add(rec.getSymbol());
-      sectorCounts.put(sector, sectorCount + 1);
-      totalWeight = totalWeight.add(proposedWeight);
+      selection.add(rec);
     }
 
-    // Calculate turnover
-    BigDecimal turnover = calculateTurnover(selectedSymbols, currentHoldings, portfolio);
-
-    // Apply turnover constraint
-    if (newConstraints.getTurnoverCapPct() != null
-        && turnover.compareTo(newConstraints.getTurnoverCapPct()) > 0) {
-      // Reduce picks to stay within turnover cap
-      while (turnover.compareTo(newConstraints.getTurnoverCapPct()) > 0
-          && selectedSymbols.size() > 10) {
-        selectedSymbols.remove(selectedSymbols.size() - 1);
-        turnover = calculateTurnover(selectedSymbols, currentHoldings, portfolio);
+    // Apply turnover constraint: reduce picks to stay within turnover cap
+    BigDecimal turnover = selection.turnoverPct();
+    if (newConstraints.getTurnoverCapPct() != null) {
+      while (turnover.compareTo(newConstraints.getTurnoverCapPct()) > 0 && selection.size() > 10) {
+        selection.removeLast();
+        turnover = selection.turnoverPct();
       }
     }
 
-    return new SimulationResult(selectedSymbols, turnover);
+    return new SimulationResult(selection.symbols(), turnover);
   }
 
-  /**
-   * Calculate proposed weight for a position
-   */
-  private BigDecimal calculateProposedWeight(int numberOfPicks) {
-    if (numberOfPicks == 0) return BigDecimal.ZERO;
-    return BigDecimal.valueOf(100.0)
-        .divide(BigDecimal.valueOf(numberOfPicks), 4, RoundingMode.HALF_UP);
+  /** {@code value} in units of 10^-scale, rounded down; no cap if null. */
+  private static long floorUnits(BigDecimal value, int scale) {
+    if (value == null) {
+      return Long.MAX_VALUE;
+    }
+    return value.movePointRight(scale).setScale(0, RoundingMode.FLOOR).longValueExact();
+  }
+
+  /** {@code dividend / divisor} rounded half up, for non-negative operands. */
+  private static long roundHalfUp(long dividend, long divisor) {
+    return (2 * dividend + divisor) / (2 * divisor);
   }
 
   /**
-   * Calculate turnover from current holdings to new recommendations
+   * Picks of a simulation with the running state needed for constraint checks and turnover.
+   *
+   * <p>Turnover is (value of holdings sold + value bought) / portfolio value, where holdings are
+   * sold if not picked and each pick not already held is bought at an equal share of the
+   * portfolio. The sold value and the number of buys are kept as running totals.
    */
-  private BigDecimal calculateTurnover(
-      List<String> newSymbols, List<Holding> currentHoldings, Portfolio portfolio) {
-
-    Set<String> currentSymbols =
-        currentHoldings.stream().map(Holding::getSymbol).collect(Collectors.toSet());
-
-    Set<String> newSymbolSet = new HashSet<>(newSymbols);
-
-    // Symbols to sell (in current but not in new)
-    Set<String> toSell = new HashSet<>(currentSymbols);
-    toSell.removeAll(newSymbolSet);
+  private static final class Selection {
+
+    private final List<Recommendation> picks = new ArrayList<>();
+    private final Map<String, int[]> sectorCounts = new HashMap<>();
+    private final Map<String, int[]> symbolCounts = new HashMap<>();
+    private final Map<String, BigDecimal> heldValues = new HashMap<>();
+    private final BigDecimal totalPortfolioValue;
+    private BigDecimal sellValue = BigDecimal.ZERO;
+    private int buys;
+
+    Selection(List<Holding> currentHoldings, Portfolio portfolio) {
+      for (Holding holding : currentHoldings) {
+        BigDecimal value =
+            holding.getCurrentMarketValue() != null ? holding.getCurrentMarketValue() : BigDecimal.ZERO;
+        if (heldValues.putIfAbsent(holding.getSymbol(), value) == null) {
+          sellValue = sellValue.add(value); // Sold until picked
+        }
+      }
+      this.totalPortfolioValue = portfolio.getTotalMarketValue().add(portfolio.getCashBalance());
+    }
 
-    // Symbols to buy (in new but not in current)
-    Set<String> toBuy = new HashSet<>(newSymbolSet);
-    toBuy.removeAll(currentSymbols);
+    int size() {
+      return picks.size();
+    }
 
-    // Handle edge case: no new symbols selected
-    if (newSymbols.isEmpty()) {
-      return BigDecimal.ZERO;
+    int sectorCount(String sector) {
+      int[] count = sectorCounts.get(sector);
+      return count != null ? count[0] : 0;
     }
 
-    // Turnover = (sum of sells + sum of buys) / 2 / portfolio value
-    BigDecimal totalPortfolioValue =
-        portfolio.getTotalMarketValue().add(portfolio.getCashBalance());
-
-    BigDecimal sellValue = BigDecimal.ZERO;
-    for (String symbol : toSell) {
-      Holding holding =
-          currentHoldings.stream()
-              .filter(h -> h.getSymbol().equals(symbol))
-              .findFirst()
-              .orElse(null);
-      if (holding != null) {
-        sellValue = sellValue.add(holding.getCurrentMarketValue());
+    void add(Recommendation rec) {
+      picks.add(rec);
+      sectorCounts.computeIfAbsent(rec.getSector(), s -> new int[1])[0]++;
+      if (symbolCounts.computeIfAbsent(rec.getSymbol(), s -> new int[1])[0]++ == 0) {
+        BigDecimal held = heldValues.get(rec.getSymbol());
+        if (held != null) {
+          sellValue = sellValue.subtract(held);
+        } else {
+          buys++;
+        }
       }
     }
 
-    BigDecimal buyValue =
-        BigDecimal.valueOf(toBuy.size())
-            .multiply(totalPortfolioValue)
-            .divide(BigDecimal.valueOf(newSymbols.size()), 4, RoundingMode.HALF_UP);
+    void removeLast() {
+      Recommendation rec = picks.remove(picks.size() - 1);
+      sectorCounts.get(rec.getSector())[0]--;
+      if (--symbolCounts.get(rec.getSymbol())[0] == 0) {
+        BigDecimal held = heldValues.get(rec.getSymbol());
+        if (held != null) {
+          sellValue = sellValue.add(held);
+        } else {
+          buys--;
+        }
+      }
+    }
 
-    BigDecimal totalTurnover = sellValue.add(buyValue);
-    BigDecimal turnoverPct =
-        totalTurnover
-            .divide(totalPortfolioValue, 4, RoundingMode.HALF_UP)
-            .multiply(BigDecimal.valueOf(100));
+    BigDecimal turnoverPct() {
+      // Handle edge case: no new symbols selected
+      if (picks.isEmpty()) {
+        return BigDecimal.ZERO;
+      }
+      BigDecimal buyValue =
+          BigDecimal.valueOf(buys)
+              .multiply(totalPortfolioValue)
+              .divide(BigDecimal.valueOf(picks.size()), 4, RoundingMode.HALF_UP);
+      return sellValue
+          .add(buyValue)
+          .divide(totalPortfolioValue, 4, RoundingMode.HALF_UP)
+          .multiply(BigDecimal.valueOf(100));
+    }
 
-    return turnoverPct;
+    List<String> symbols() {
+      List<String> symbols = new ArrayList<>(picks.size());
+      for (Recommendation rec : picks) {
+        symbols.add(rec.getSymbol());
+      }
+      return symbols;
+    }
   }
 
   /**
@@ -236,7 +260,7 @@ public class ConstraintPreviewService {
   private ConstraintPreviewDTO buildPreviewDTO(
       ConstraintSet currentConstraints,
       ConstraintSetDTO newConstraints,
-      int lastRunPickCount,
+      List<Recommendation> lastRecommendations,
       SimulationResult simulation,
       RecommendationRun lastRun) {
 
@@ -263,18 +287,18 @@ public class ConstraintPreviewService {
 
     // Identify dropped and added symbols
     List<String> lastRunSymbols =
-        recommendationRepository.findByRunId(lastRun.getId()).stream()
-            .map(Recommendation::getSymbol)
-            .collect(Collectors.toList());
+        lastRecommendations.stream().map(Recommendation::getSymbol).collect(Collectors.toList());
+    Set<String> lastRunSymbolSet = new HashSet<>(lastRunSymbols);
+    Set<String> selectedSymbolSet = new HashSet<>(simulation.selectedSymbols);
 
     List<String> droppedSymbols =
         lastRunSymbols.stream()
-            .filter(s -> !simulation.selectedSymbols.contains(s))
+            .filter(s -> !selectedSymbolSet.contains(s))
             .collect(Collectors.toList());
 
     List<String> addedSymbols =
         simulation.selectedSymbols.stream()
-            .filter(s -> !lastRunSymbols.contains(s))
+            .filter(s -> !lastRunSymbolSet.contains(s))
             .collect(Collectors.toList());
 
     // Build changes summary
@@ -356,7 +380,7 @@ public class ConstraintPreviewService {
   /**
    * Result of simulation with new constraints
    */
-  private static class SimulationResult {
+  static class SimulationResult {
     final List<String> selectedSymbols;
     final BigDecimal turnover;
 
@@ -1,19 +1,51 @@
 package com.stockmonitor.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
-/** Redis cache service for data feeds (T219, T220). */
+/**
+ * Redis cache service for data feeds (T219, T220).
+ *
+ * <p>Invalidation never uses {@code KEYS}: matching keys are walked with cursor-based {@code SCAN}
+ * in bounded pages and removed with pipelined {@code UNLINK} batches, so other clients are not
+ * stalled while millions of market-data keys are cleared.
+ *
+ * <p>For bulk invalidation, callers can store entries under a versioned namespace instead. Keys
+ * are prefixed with the namespace's current generation, and {@link #invalidateNamespace} simply
+ * bumps the generation (O(1)); entries from older generations are never read again and age out
+ * through their TTL.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@ConditionalOnBean(RedisTemplate.class)
 public class DataFeedCacheService {
 
+  /** COUNT hint passed to each SCAN call. */
+  static final int SCAN_PAGE_SIZE = 1000;
+
+  /** Keys per UNLINK command. */
+  static final int UNLINK_BATCH_SIZE = 500;
+
+  /** UNLINK commands sent per pipeline round-trip. */
+  static final int PIPELINE_DEPTH = 8;
+
+  /** SET commands per pipeline round-trip, and keys per MGET. */
+  static final int WRITE_BATCH_SIZE = 500;
+
+  static final String NAMESPACE_VERSION_PREFIX = "cache:ns-version:";
+
   private final RedisTemplate<String, Object> redisTemplate;
 
   public void cache(String key, Object value, Duration ttl) {
@@ -25,8 +57,143 @@ public class DataFeedCacheService {
     return redisTemplate.opsForValue().get(key);
   }
 
-  public void invalidate(String pattern) {
-    redisTemplate.delete(redisTemplate.keys(pattern));
-    log.info("Invalidated cache: {}", pattern);
+  /**
+   * Write many entries with the same TTL using pipelined SET commands.
+   *
+   * @param entries key/value pairs to cache
+   * @param ttl time-to-live applied to every entry
+   */
+  public void cacheAll(Map<String, ?> entries, Duration ttl) {
+    List<Map.Entry<String, ?>> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+    for (Map.Entry<String, ?> entry : entries.entrySet()) {
+      batch.add(entry);
+      if (batch.size() >= WRITE_BATCH_SIZE) {
+        setPipelined(batch, ttl);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      setPipelined(batch, ttl);
+    }
+    log.debug("Cached {} entries", entries.size());
+  }
+
+  /**
+   * Read many keys with batched MGET commands.
+   *
+   * @return values in key order, with null for missing keys
+   */
+  public List<Object> getAll(List<String> keys) {
+    List<Object> values = new ArrayList<>(keys.size());
+    for (int from = 0; from < keys.size(); from += WRITE_BATCH_SIZE) {
+      List<Object> page =
+          redisTemplate.opsForValue().multiGet(
+              keys.subList(from, Math.min(from + WRITE_BATCH_SIZE, keys.size())));
+      values.addAll(page != null ? page : Collections.nCopies(
+          Math.min(WRITE_BATCH_SIZE, keys.size() - from), null));
+    }
+    return values;
+  }
+
+  /**
+   * Remove every key matching the glob pattern.
+   *
+   * @param pattern Redis glob pattern (e.g. {@code marketData::AAPL*})
+   * @return number of keys removed
+   */
+  public long invalidate(String pattern) {
+    ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_PAGE_SIZE).build();
+    int flushThreshold = UNLINK_BATCH_SIZE * PIPELINE_DEPTH;
+
+    long removed = 0;
+    List<String> pending = new ArrayList<>(flushThreshold);
+    try (Cursor<String> cursor = redisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        pending.add(cursor.next());
+        if (pending.size() >= flushThreshold) {
+          removed += unlinkPipelined(pending);
+          pending.clear();
+        }
+      }
+    }
+    if (!pending.isEmpty()) {
+      removed += unlinkPipelined(pending);
+    }
+
+    log.info("Invalidated cache: {} ({} keys)", pattern, removed);
+    return removed;
+  }
+
+  /** Cache a value under the current generation of a namespace. */
+  public void cacheNamespaced(String namespace, String key, Object value, Duration ttl) {
+    cache(namespacedKey(namespace, key), value, ttl);
+  }
+
+  /** Read a value from the current generation of a namespace. */
+  public Object getNamespaced(String namespace, String key) {
+    return get(namespacedKey(namespace, key));
+  }
+
+  /**
+   * Invalidate every entry in a namespace by advancing its generation.
+   *
+   * @return the new generation number
+   */
+  public long invalidateNamespace(String namespace) {
+    Long version = redisTemplate.opsForValue().increment(NAMESPACE_VERSION_PREFIX + namespace);
+    log.info("Invalidated cache namespace: {} (now v{})", namespace, version);
+    return version != null ? version : 0L;
+  }
+
+  /** Resolve the physical key for a namespaced entry. */
+  public String namespacedKey(String namespace, String key) {
+    return namespace + ":v" + namespaceVersion(namespace) + ":" + key;
+  }
+
+  private long namespaceVersion(String namespace) {
+    // INCRBY 0 reads the counter without going through the value serializer
+    Long version = redisTemplate.opsForValue().increment(NAMESPACE_VERSION_PREFIX + namespace, 0);
+    return version != null ? version : 0L;
+  }
+
+  private void setPipelined(List<Map.Entry<String, ?>> batch, Duration ttl) {
+    redisTemplate.executePipelined(
+        new SessionCallback<Object>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K, V> Object execute(RedisOperations<K, V> operations)
+              throws DataAccessException {
+            RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+            for (Map.Entry<String, ?> entry : batch) {
+              ops.opsForValue().set(entry.getKey(), entry.getValue(), ttl);
+            }
+            return null;
+          }
+        });
+  }
+
+  private long unlinkPipelined(List<String> keys) {
+    List<Object> results =
+        redisTemplate.executePipelined(
+            new SessionCallback<Object>() {
+              @Override
+              @SuppressWarnings("unchecked")
+              public <K, V> Object execute(RedisOperations<K, V> operations)
+                  throws DataAccessException {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (int from = 0; from < keys.size(); from += UNLINK_BATCH_SIZE) {
+                  ops.unlink(keys.subList(from, Math.min(from + UNLINK_BATCH_SIZE, keys.size())));
+                }
+                return null;
+              }
+            });
+
+    long removed = 0;
+    for (Object result : results) {
+      if (result instanceof Number count) {
+        removed += count.longValue();
+      }
+    }
+    return removed;
   }
 }
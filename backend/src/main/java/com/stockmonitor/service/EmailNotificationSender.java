@@ -0,0 +1,78 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.model.NotificationOutboxEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+/**
+ * E-mail channel for outbox notifications.
+ *
+ * Only HIGH priority notifications (month-end results, data staleness, run failures) are
+ * e-mailed; everything else stays in-app. Disabled unless {@code app.notifications.email.enabled}
+ * is set and a mail sender is configured.
+ */
+@Service
+@Slf4j
+public class EmailNotificationSender {
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final boolean enabled;
+    private final String from;
+    private final String baseUrl;
+
+    public EmailNotificationSender(
+            ObjectProvider<JavaMailSender> mailSender,
+            @Value("${app.notifications.email.enabled:false}") boolean enabled,
+            @Value("${app.notifications.email.from:no-reply@stockmonitor.local}") String from,
+            @Value("${app.notifications.email.base-url:http://localhost:3000}") String baseUrl) {
+        this.mailSender = mailSender;
+        this.enabled = enabled;
+        this.from = from;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Whether the entry should also be delivered by e-mail.
+     *
+     * @param entry Outbox entry
+     * @return True if e-mail is enabled and the notification is HIGH priority
+     */
+    public boolean isRequired(NotificationOutboxEntry entry) {
+        return enabled && "HIGH".equals(entry.getPriority());
+    }
+
+    /**
+     * Send the notification to the given address.
+     *
+     * @param to Recipient e-mail address
+     * @param entry Outbox entry
+     * @throws IllegalStateException if no mail sender is configured
+     */
+    public void send(String to, NotificationOutboxEntry entry) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            throw new IllegalStateException("No mail sender configured");
+        }
+
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(to);
+        mail.setSubject(entry.getTitle());
+        StringBuilder body = new StringBuilder(entry.getMessage());
+        if (entry.getActionUrl() != null) {
+            body.append("\n\n")
+                    .append(entry.getActionLabel() != null ? entry.getActionLabel() : "Open")
+                    .append(": ")
+                    .append(baseUrl)
+                    .append(entry.getActionUrl());
+        }
+        mail.setText(body.toString());
+
+        sender.send(mail);
+        log.debug("E-mailed {} notification {} to user {}", entry.getCategory(), entry.getId(), entry.getUserId());
+    }
+}
@@ -1,42 +1,106 @@
 package com.stockmonitor.service;
 
-import com.stockmonitor.dto.ExclusionDTO;
-import java.io.StringWriter;
-import java.util.List;
+import com.stockmonitor.dto.ExclusionExportRow;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.ExclusionRepository;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service for exporting exclusions to CSV (T196, FR-032).
+ *
+ * The CSV is written row by row to the response while exclusions are read through a forward-only
+ * cursor, so memory per download stays constant however many exclusions a run has.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExclusionExportService {
 
-  private final ExclusionReasonService exclusionReasonService;
+  static final String HEADER = "symbol,company_name,exclusion_reason_code,explanation,run_date\r\n";
+
+  private static final int BUFFER_CHARS = 16 * 1024;
 
-  public String exportToCsv(UUID runId) {
-    List<ExclusionDTO> exclusions = exclusionReasonService.getExclusionsForRun(runId);
+  private final ExclusionRepository exclusionRepository;
+  private final RecommendationRunRepository recommendationRunRepository;
+  private final ExclusionReasonService exclusionReasonService;
 
-    StringWriter writer = new StringWriter();
-    writer.append("symbol,company_name,exclusion_reason_code,explanation,run_date\r\n");
+  /**
+   * Write a run's exclusions as UTF-8 CSV.
+   *
+   * @param runId Run ID
+   * @param out Destination, flushed but not closed
+   * @return Number of exclusion rows written
+   */
+  @Transactional(readOnly = true)
+  public long writeCsv(UUID runId, OutputStream out) {
+    String runDate = recommendationRunRepository.findById(runId)
+        .map(RecommendationRun::getScheduledDate)
+        .map(Object::toString)
+        .orElse(null);
+    // A handful of reason codes, so each explanation is built once per export
+    Map<String, String> explanations = new HashMap<>();
+    long rows = 0;
 
-    for (ExclusionDTO exclusion : exclusions) {
-      writer.append(quoteCsvField(exclusion.getSymbol())).append(",");
-      writer.append(quoteCsvField(exclusion.getCompanyName())).append(",");
-      writer.append(quoteCsvField(exclusion.getExclusionReasonCode())).append(",");
-      writer.append(quoteCsvField(exclusion.getExplanation())).append(",");
-      writer.append(quoteCsvField(exclusion.getRunDate() != null ? exclusion.getRunDate().toString() : "")).append("\r\n");
+    try (Stream<ExclusionExportRow> exclusions = exclusionRepository.streamExportRowsByRunId(runId)) {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+      writer.write(HEADER);
+      Iterator<ExclusionExportRow> iterator = exclusions.iterator();
+      while (iterator.hasNext()) {
+        ExclusionExportRow exclusion = iterator.next();
+        String explanation = explanations.computeIfAbsent(
+            exclusion.exclusionReasonCode(), exclusionReasonService::generateExplanation);
+        writeField(writer, exclusion.symbol());
+        writer.write(',');
+        // Company name not stored in Exclusion, using symbol for now
+        writeField(writer, exclusion.symbol());
+        writer.write(',');
+        writeField(writer, exclusion.exclusionReasonCode());
+        writer.write(',');
+        writeField(writer, explanation);
+        writer.write(',');
+        writeField(writer, runDate);
+        writer.write("\r\n");
+        rows++;
+      }
+      writer.flush();
+    } catch (IOException e) {
+      // Usually the client went away mid-download
+      throw new UncheckedIOException("Failed to write exclusions CSV for run " + runId, e);
     }
 
-    return writer.toString();
+    log.debug("Exported {} exclusions for run {}", rows, runId);
+    return rows;
   }
 
-  private String quoteCsvField(String value) {
-    if (value == null) return "\"\"";
-    return "\"" + value.replace("\"", "\"\"") + "\"";
+  /** Write a value as a quoted CSV field, doubling embedded quotes. */
+  private static void writeField(Writer writer, String value) throws IOException {
+    writer.write('"');
+    if (value != null) {
+      int start = 0;
+      int quote;
+      while ((quote = value.indexOf('"', start)) >= 0) {
+        writer.write(value, start, quote + 1 - start);
+        writer.write('"');
+        start = quote + 1;
+      }
+      writer.write(value, start, value.length() - start);
+    }
+    writer.write('"');
   }
 }
@@ -0,0 +1,338 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.model.FactorScore;
+import com.stockmonitor.service.ExplanationService.FactorDriver;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Precompiled renderer for recommendation explanations.
+ *
+ * <p>The explanation formats are parsed once into literal and argument segments and rendered into
+ * a per-thread reusable StringBuilder, with fixed-decimal numbers written digit by digit instead of
+ * going through {@link java.util.Formatter}. Output is identical to {@code String.format} with the
+ * same patterns: BigDecimal arguments are rounded HALF_UP, and digits and the decimal separator
+ * follow the default FORMAT locale.
+ */
+final class ExplanationRenderer {
+
+  static final CompiledFormat RANK = CompiledFormat.compile("Ranked #%d. ");
+  static final CompiledFormat DRIVER = CompiledFormat.compile("%s %s (%.2f)");
+  static final CompiledFormat PERCENTILE = CompiledFormat.compile("%s in top %.0f%% of universe");
+
+  private static final int MAX_DRIVERS = 3;
+  private static final int MAX_RETAINED_CAPACITY = 4096;
+  private static final BigDecimal TOP_PERCENTILE_THRESHOLD = BigDecimal.valueOf(80);
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+  // Strength bands are exact powers of two, so for scores of at most 15 significant digits
+  // comparing the BigDecimal gives the same band as comparing score.doubleValue()
+  private static final int EXACT_COMPARE_MAX_PRECISION = 15;
+  private static final BigDecimal VERY_STRONG = BigDecimal.valueOf(2);
+  private static final BigDecimal STRONG = BigDecimal.ONE;
+  private static final BigDecimal MODERATE = new BigDecimal("0.5");
+  private static final BigDecimal NEUTRAL = new BigDecimal("-0.5");
+  private static final BigDecimal WEAK = BigDecimal.ONE.negate();
+
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private static volatile NumberSymbols symbols = NumberSymbols.of(formatLocale());
+
+  /** See {@link ExplanationService#generateExplanation}. */
+  String render(
+      int rank,
+      Map<String, FactorScore> factorScores,
+      List<FactorDriver> topDrivers,
+      String constraintNotes) {
+    NumberSymbols numberSymbols = currentSymbols();
+    StringBuilder out = BUFFER.get();
+    out.setLength(0);
+
+    RANK.appendTo(out, numberSymbols, rank);
+
+    if (!topDrivers.isEmpty()) {
+      out.append("Primary drivers: ");
+      Iterator<FactorDriver> drivers = topDrivers.iterator();
+      for (int i = 0; i < MAX_DRIVERS && drivers.hasNext(); i++) {
+        FactorDriver driver = drivers.next();
+        if (i > 0) {
+          out.append(", ");
+        }
+        DRIVER.appendTo(
+            out, numberSymbols, strengthDescription(driver.score()), driver.factorName(), driver.score());
+      }
+      out.append(". ");
+    }
+
+    boolean anyPercentile = false;
+    for (Map.Entry<String, FactorScore> entry : factorScores.entrySet()) {
+      BigDecimal percentile = entry.getValue().getPercentileRankUniverse();
+      if (percentile.compareTo(TOP_PERCENTILE_THRESHOLD) > 0) {
+        if (anyPercentile) {
+          out.append(", ");
+        }
+        PERCENTILE.appendTo(out, numberSymbols, entry.getKey(), HUNDRED.subtract(percentile));
+        anyPercentile = true;
+      }
+    }
+    if (anyPercentile) {
+      out.append(". ");
+    }
+
+    if (constraintNotes != null && !constraintNotes.isEmpty()) {
+      out.append("Note: ").append(constraintNotes);
+    }
+
+    String explanation = trimmed(out);
+    if (out.capacity() > MAX_RETAINED_CAPACITY) {
+      // An unusually long note should not pin a large buffer to the thread
+      BUFFER.remove();
+    }
+    return explanation;
+  }
+
+  static String strengthDescription(BigDecimal score) {
+    if (score.precision() > EXACT_COMPARE_MAX_PRECISION) {
+      return strengthDescription(score.doubleValue());
+    }
+    if (score.compareTo(VERY_STRONG) > 0) {
+      return "Very strong";
+    } else if (score.compareTo(STRONG) > 0) {
+      return "Strong";
+    } else if (score.compareTo(MODERATE) > 0) {
+      return "Moderate";
+    } else if (score.compareTo(NEUTRAL) > 0) {
+      return "Neutral";
+    } else if (score.compareTo(WEAK) > 0) {
+      return "Weak";
+    } else {
+      return "Very weak";
+    }
+  }
+
+  private static String strengthDescription(double scoreValue) {
+    if (scoreValue > 2.0) {
+      return "Very strong";
+    } else if (scoreValue > 1.0) {
+      return "Strong";
+    } else if (scoreValue > 0.5) {
+      return "Moderate";
+    } else if (scoreValue > -0.5) {
+      return "Neutral";
+    } else if (scoreValue > -1.0) {
+      return "Weak";
+    } else {
+      return "Very weak";
+    }
+  }
+
+  /** Same as {@code out.toString().trim()}, without the intermediate copy. */
+  private static String trimmed(StringBuilder out) {
+    int start = 0;
+    int end = out.length();
+    while (start < end && out.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && out.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return out.substring(start, end);
+  }
+
+  private static Locale formatLocale() {
+    return Locale.getDefault(Locale.Category.FORMAT);
+  }
+
+  private static NumberSymbols currentSymbols() {
+    NumberSymbols current = symbols;
+    Locale locale = formatLocale();
+    if (!current.locale().equals(locale)) {
+      current = NumberSymbols.of(locale);
+      symbols = current;
+    }
+    return current;
+  }
+
+  /** Zero digit and decimal separator used by {@link java.util.Formatter} for a locale. */
+  record NumberSymbols(Locale locale, char zeroDigit, char decimalSeparator) {
+
+    static NumberSymbols of(Locale locale) {
+      DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+      char separator = Locale.US.equals(locale) ? '.' : dfs.getDecimalSeparator();
+      return new NumberSymbols(locale, dfs.getZeroDigit(), separator);
+    }
+  }
+
+  /**
+   * A format pattern parsed once into segments. Supports the subset of {@link java.util.Formatter}
+   * syntax the explanations use: {@code %s}, {@code %d}, {@code %.Nf} and {@code %%}.
+   */
+  static final class CompiledFormat {
+
+    private static final int LITERAL = -1;
+    private static final int STRING = -2;
+    private static final int INTEGER = -3;
+
+    private final String[] literals;
+    // LITERAL, STRING, INTEGER, or the number of decimals of a %.Nf segment
+    private final int[] kinds;
+
+    private CompiledFormat(String[] literals, int[] kinds) {
+      this.literals = literals;
+      this.kinds = kinds;
+    }
+
+    static CompiledFormat compile(String pattern) {
+      List<String> literals = new ArrayList<>();
+      List<Integer> kinds = new ArrayList<>();
+      StringBuilder literal = new StringBuilder();
+      int i = 0;
+      while (i < pattern.length()) {
+        char c = pattern.charAt(i++);
+        if (c != '%') {
+          literal.append(c);
+          continue;
+        }
+        if (i >= pattern.length()) {
+          throw new IllegalArgumentException("Dangling % in pattern: " + pattern);
+        }
+        char conversion = pattern.charAt(i++);
+        if (conversion == '%') {
+          literal.append('%');
+          continue;
+        }
+        int kind;
+        if (conversion == 's') {
+          kind = STRING;
+        } else if (conversion == 'd') {
+          kind = INTEGER;
+        } else if (conversion == '.') {
+          int digitsStart = i;
+          while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+            i++;
+          }
+          if (i == digitsStart || i >= pattern.length() || pattern.charAt(i) != 'f') {
+            throw new IllegalArgumentException("Unsupported conversion in pattern: " + pattern);
+          }
+          kind = Integer.parseInt(pattern.substring(digitsStart, i++));
+        } else {
+          throw new IllegalArgumentException("Unsupported conversion in pattern: " + pattern);
+        }
+        if (!literal.isEmpty()) {
+          literals.add(literal.toString());
+          kinds.add(LITERAL);
+          literal.setLength(0);
+        }
+        literals.add(null);
+        kinds.add(kind);
+      }
+      if (!literal.isEmpty()) {
+        literals.add(literal.toString());
+        kinds.add(LITERAL);
+      }
+      return new CompiledFormat(
+          literals.toArray(new String[0]), kinds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** Render with the current default FORMAT locale, like {@code String.format(pattern, args)}. */
+    String format(Object... args) {
+      StringBuilder out = new StringBuilder();
+      appendTo(out, currentSymbols(), args);
+      return out.toString();
+    }
+
+    void appendTo(StringBuilder out, NumberSymbols numberSymbols, Object... args) {
+      int arg = 0;
+      for (int i = 0; i < kinds.length; i++) {
+        int kind = kinds[i];
+        if (kind == LITERAL) {
+          out.append(literals[i]);
+        } else if (kind == STRING) {
+          out.append(args[arg++]);
+        } else if (kind == INTEGER) {
+          appendInteger(out, numberSymbols, ((Number) args[arg++]).longValue());
+        } else {
+          appendFixed(out, numberSymbols, (BigDecimal) args[arg++], kind);
+        }
+      }
+    }
+
+    private static void appendInteger(StringBuilder out, NumberSymbols numberSymbols, long value) {
+      if (value < 0) {
+        out.append('-');
+      }
+      // Long.MIN_VALUE stays negative; its digits are written from the negated remainders
+      appendDigits(out, numberSymbols.zeroDigit(), value < 0 ? value : -value);
+    }
+
+    /** Writes the digits of {@code -negativeValue}. */
+    private static void appendDigits(StringBuilder out, char zeroDigit, long negativeValue) {
+      int start = out.length();
+      do {
+        out.append((char) (zeroDigit - (int) (negativeValue % 10)));
+        negativeValue /= 10;
+      } while (negativeValue != 0);
+      reverse(out, start, out.length() - 1);
+    }
+
+    /** {@code %.Nf} of a BigDecimal: sign, HALF_UP rounding to N decimals, localized digits. */
+    private static void appendFixed(
+        StringBuilder out, NumberSymbols numberSymbols, BigDecimal value, int decimals) {
+      if (value == null) {
+        // Formatter applies the precision to "null" as a string
+        out.append("null", 0, Math.min(decimals, 4));
+        return;
+      }
+      if (value.signum() < 0) {
+        out.append('-');
+      }
+      BigDecimal rounded = value.abs().setScale(decimals, RoundingMode.HALF_UP);
+      if (rounded.precision() > 18) {
+        appendLocalized(out, numberSymbols, rounded.toPlainString());
+        return;
+      }
+
+      long unscaled = rounded.unscaledValue().longValue();
+      int start = out.length();
+      char zero = numberSymbols.zeroDigit();
+      for (int d = 0; d < decimals; d++) {
+        out.append((char) (zero + (int) (unscaled % 10)));
+        unscaled /= 10;
+      }
+      if (decimals > 0) {
+        out.append(numberSymbols.decimalSeparator());
+      }
+      do {
+        out.append((char) (zero + (int) (unscaled % 10)));
+        unscaled /= 10;
+      } while (unscaled != 0);
+      reverse(out, start, out.length() - 1);
+    }
+
+    private static void appendLocalized(StringBuilder out, NumberSymbols numberSymbols, String plain) {
+      for (int i = 0; i < plain.length(); i++) {
+        char c = plain.charAt(i);
+        if (c == '.') {
+          out.append(numberSymbols.decimalSeparator());
+        } else {
+          out.append((char) (numberSymbols.zeroDigit() + (c - '0')));
+        }
+      }
+    }
+
+    private static void reverse(StringBuilder out, int from, int to) {
+      while (from < to) {
+        char c = out.charAt(from);
+        out.setCharAt(from++, out.charAt(to));
+        out.setCharAt(to--, c);
+      }
+    }
+  }
+}
@@ -12,12 +12,15 @@ import org.springframework.stereotype.Service;
  * Service for generating human-readable explanations for recommendations.
  *
  * <p>Creates explanations based on factor scores, constraint violations, and ranking drivers.
+ * Explanations are rendered by ExplanationRenderer, which runs once per recommendation in every run.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ExplanationService {
 
+  private final ExplanationRenderer renderer = new ExplanationRenderer();
+
   /**
    * Generate explanation for a recommendation.
    *
@@ -34,55 +37,7 @@ public class ExplanationService {
       Map<String, FactorScore> factorScores,
       List<FactorDriver> topDrivers,
       String constraintNotes) {
-
-    StringBuilder explanation = new StringBuilder();
-
-    // Rank context
-    explanation.append(String.format("Ranked #%d. ", rank));
-
-    // Top drivers explanation
-    if (!topDrivers.isEmpty()) {
-      explanation.append("Primary drivers: ");
-      List<String> driverDescriptions = new ArrayList<>();
-
-      for (FactorDriver driver : topDrivers.subList(0, Math.min(3, topDrivers.size()))) {
-        String strength = getStrengthDescription(driver.score());
-        driverDescriptions.add(
-            String.format("%s %s (%.2f)", strength, driver.factorName(), driver.score()));
-      }
-
-      explanation.append(String.join(", ", driverDescriptions));
-      explanation.append(". ");
-    }
-
-    // Factor percentile context
-    if (!factorScores.isEmpty()) {
-      List<String> percentileNotes = new ArrayList<>();
-
-      for (Map.Entry<String, FactorScore> entry : factorScores.entrySet()) {
-        FactorScore score = entry.getValue();
-        BigDecimal percentile = score.getPercentileRankUniverse();
-
-        if (percentile.compareTo(BigDecimal.valueOf(80)) > 0) {
-          percentileNotes.add(
-              String.format(
-                  "%s in top %.0f%% of universe",
-                  entry.getKey(), BigDecimal.valueOf(100).subtract(percentile)));
-        }
-      }
-
-      if (!percentileNotes.isEmpty()) {
-        explanation.append(String.join(", ", percentileNotes));
-        explanation.append(". ");
-      }
-    }
-
-    // Constraint notes
-    if (constraintNotes != null && !constraintNotes.isEmpty()) {
-      explanation.append("Note: ").append(constraintNotes);
-    }
-
-    return explanation.toString().trim();
+    return renderer.render(rank, factorScores, topDrivers, constraintNotes);
   }
 
   /**
@@ -104,24 +59,6 @@ public class ExplanationService {
         .collect(Collectors.toList());
   }
 
-  private String getStrengthDescription(BigDecimal score) {
-    double scoreValue = score.doubleValue();
-
-    if (scoreValue > 2.0) {
-      return "Very strong";
-    } else if (scoreValue > 1.0) {
-      return "Strong";
-    } else if (scoreValue > 0.5) {
-      return "Moderate";
-    } else if (scoreValue > -0.5) {
-      return "Neutral";
-    } else if (scoreValue > -1.0) {
-      return "Weak";
-    } else {
-      return "Very weak";
-    }
-  }
-
   private String formatFactorName(String factorType) {
     return switch (factorType.toUpperCase()) {
       case "VALUE" -> "Value";
@@ -5,6 +5,7 @@ import com.stockmonitor.engine.FactorCalculationService;
 import com.stockmonitor.model.Holding;
 import com.stockmonitor.repository.HoldingRepository;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,8 +25,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class FactorService {
 
+  static final String CACHE_NAME = "factorScores";
+
   private final HoldingRepository holdingRepository;
   private final FactorCalculationService factorCalculationService;
+  private final RefreshAheadCacheService refreshAheadCache;
 
   /**
    * Get factor scores for all holdings in a portfolio (FR-034).
@@ -84,7 +88,7 @@ public class FactorService {
          holding.getSector());
 
     // Calculate raw scores
-    FactorScoreDTO rawScores = factorCalculationService.calculateFactorScores(holding);
+    FactorScoreDTO rawScores = getRawFactorScores(holding);
 
     // Normalize and add percentiles
     FactorScoreDTO normalizedScores =
@@ -93,6 +97,42 @@ public class FactorService {
     return normalizedScores;
   }
 
+  /**
+   * Raw factor scores for a holding, cached per symbol and sector with refresh-ahead.
+   *
+   * @param holding Holding to score
+   * @return Raw (un-normalized) factor scores
+   */
+  private FactorScoreDTO getRawFactorScores(Holding holding) {
+    String key = rawScoresKey(holding.getSymbol(), holding.getSector());
+    return refreshAheadCache.get(CACHE_NAME, key, FactorScoreDTO.class,
+        () -> factorCalculationService.calculateFactorScores(holding));
+  }
+
+  /**
+   * Calculate raw factor scores ahead of the month-end run and cache them where
+   * {@link #getRawFactorScores} reads them (T-3 pre-compute).
+   *
+   * @param sectorBySymbol Sector of each symbol to warm
+   * @param ttl Lifetime of the warmed entries
+   * @return Number of symbols cached
+   */
+  public int warmRawFactorScores(Map<String, String> sectorBySymbol, Duration ttl) {
+    Map<String, FactorScoreDTO> entries = new HashMap<>();
+    sectorBySymbol.forEach(
+        (symbol, sector) ->
+            entries.put(
+                rawScoresKey(symbol, sector),
+                factorCalculationService.calculateFactorScores(symbol, sector)));
+    refreshAheadCache.putAll(CACHE_NAME, entries, ttl);
+    return entries.size();
+  }
+
+  /** Cache key of a symbol's raw factor scores within {@link #CACHE_NAME}. */
+  static String rawScoresKey(String symbol, String sector) {
+    return "raw:" + symbol + ":" + sector;
+  }
+
   /**
    * Calculate and normalize factor scores for all holdings in a sector (T155, FR-036).
    *
@@ -109,7 +149,7 @@ public class FactorService {
     // Step 1: Calculate raw scores for all holdings
     List<FactorScoreDTO> rawScores =
         holdings.stream()
-            .map(factorCalculationService::calculateFactorScores)
+            .map(this::getRawFactorScores)
             .collect(Collectors.toList());
 
     // Step 2: Calculate sector statistics (mean, std dev) for each factor
@@ -167,7 +207,7 @@ public class FactorService {
     // Calculate raw scores for all sector peers
     List<FactorScoreDTO> allRawScores =
         sectorHoldings.stream()
-            .map(factorCalculationService::calculateFactorScores)
+            .map(this::getRawFactorScores)
             .collect(Collectors.toList());
 
     SectorStatistics stats = calculateSectorStatistics(allRawScores);
@@ -2,12 +2,13 @@ package com.stockmonitor.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,7 +17,7 @@ import java.util.Map;
  *
  * Features:
  * - Convert between currencies at specific dates
- * - Cache FX rates for performance (1 hour TTL)
+ * - Cache FX rates with refresh-ahead (marketData TTL) via RefreshAheadCacheService
  * - Fallback to latest rate if historical rate unavailable
  * - Support for major currencies (USD, EUR, GBP, JPY, CHF, CAD, AUD, etc.)
  *
@@ -32,6 +33,9 @@ public class FxRateService {
 
     private static final String BASE_CURRENCY = "USD";
     private static final int SCALE = 6; // 6 decimal places for FX rates
+    static final String CACHE_NAME = "marketData";
+
+    private final RefreshAheadCacheService refreshAheadCache;
 
     /**
      * Convert amount from source currency to target currency.
@@ -69,19 +73,49 @@ public class FxRateService {
 
     /**
      * Get FX rate from source to target currency.
-     * Cached for 1 hour to reduce API calls.
+     * Cached and refreshed ahead of expiry so hot pairs never reload on the request path.
      *
      * @param fromCurrency Source currency
      * @param toCurrency Target currency
      * @param asOfDate Date for rate (null for latest)
      * @return FX rate
      */
-    @Cacheable(value = "marketData", key = "#fromCurrency + '-' + #toCurrency + '-' + #asOfDate")
     public BigDecimal getRate(String fromCurrency, String toCurrency, LocalDate asOfDate) {
         if (fromCurrency.equals(toCurrency)) {
             return BigDecimal.ONE;
         }
 
+        String key = rateKey(fromCurrency, toCurrency, asOfDate);
+        return refreshAheadCache.get(CACHE_NAME, key, BigDecimal.class,
+                () -> loadRate(fromCurrency, toCurrency, asOfDate));
+    }
+
+    /**
+     * Load rates into base currency ahead of the month-end run and cache them where
+     * {@link #getRate} reads them (T-3 pre-compute).
+     *
+     * @param currencies Source currencies, e.g. the currencies of all holdings
+     * @param asOfDate Date the run converts at
+     * @param ttl Lifetime of the warmed entries
+     * @return Number of rates cached
+     */
+    public int warmRatesToBaseCurrency(Collection<String> currencies, LocalDate asOfDate, Duration ttl) {
+        Map<String, BigDecimal> entries = new HashMap<>();
+        for (String currency : currencies) {
+            if (!currency.equals(BASE_CURRENCY)) {
+                entries.put(rateKey(currency, BASE_CURRENCY, asOfDate),
+                        loadRate(currency, BASE_CURRENCY, asOfDate));
+            }
+        }
+        refreshAheadCache.putAll(CACHE_NAME, entries, ttl);
+        return entries.size();
+    }
+
+    static String rateKey(String fromCurrency, String toCurrency, LocalDate asOfDate) {
+        return "fx:" + fromCurrency + "-" + toCurrency + "-" + asOfDate;
+    }
+
+    private BigDecimal loadRate(String fromCurrency, String toCurrency, LocalDate asOfDate) {
         // TODO: Integrate with real FX data provider
         // For now, use stub rates
         BigDecimal rate = getStubRate(fromCurrency, toCurrency);
@@ -2,13 +2,16 @@ package com.stockmonitor.service;
 
 import com.stockmonitor.dto.HoldingsUploadRequest;
 import com.stockmonitor.dto.HoldingsUploadResponse.ValidationError;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -19,250 +22,438 @@ import org.springframework.stereotype.Service;
  *
  * <p>Validation rules: - ticker: required, non-empty - quantity: required, positive number -
  * cost_basis: required, positive number - currency: required, 3-letter code
+ *
+ * <p>Files are read in a single pass as UTF-8 RFC 4180 CSV: fields may be quoted, and quoted
+ * fields may contain commas, doubled quotes and line breaks. Column positions are resolved from
+ * the header once, and each valid row is handed to the caller as soon as it is parsed, so uploads
+ * of any size are parsed in constant memory. At most {@link #MAX_ERRORS} validation errors are
+ * reported; their messages are only built for errors that are reported.
  */
 @Service
 @Slf4j
 public class HoldingsCsvParser {
 
+  /** Validation errors reported per file; further errors are only counted. */
+  public static final int MAX_ERRORS = 1000;
+
   private static final List<String> REQUIRED_COLUMNS =
       Arrays.asList("ticker", "quantity", "cost_basis", "currency");
 
+  /**
+   * Parse a holdings file into a list.
+   *
+   * @param inputStream CSV content
+   * @return All valid holdings and validation errors
+   * @throws IllegalArgumentException if the file is empty, unreadable or lacks required columns
+   */
   public ParseResult parse(InputStream inputStream) {
     List<HoldingsUploadRequest> holdings = new ArrayList<>();
-    List<ValidationError> errors = new ArrayList<>();
+    ParseResult result = parse(inputStream, holdings::add, true);
+    return new ParseResult(holdings, result.getErrors(), result.getValidRows());
+  }
+
+  /**
+   * Parse a holdings file, passing each valid row to {@code sink} as it is read.
+   *
+   * <p>Once a row fails validation the upload will be rejected, so later valid rows are counted
+   * but no longer passed to the sink.
+   *
+   * @param inputStream CSV content
+   * @param sink Receives valid holdings in file order
+   * @return Validation errors and the number of valid rows; the holdings list is empty
+   * @throws IllegalArgumentException if the file is empty, unreadable or lacks required columns
+   */
+  public ParseResult parse(InputStream inputStream, Consumer<HoldingsUploadRequest> sink) {
+    return parse(inputStream, sink, false);
+  }
+
+  private ParseResult parse(
+      InputStream inputStream, Consumer<HoldingsUploadRequest> sink, boolean sinkAfterErrors) {
+    ErrorCollector errors = new ErrorCollector(MAX_ERRORS);
+    int validRows = 0;
 
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-      String headerLine = reader.readLine();
+    try (CsvRecordReader reader =
+        new CsvRecordReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      List<String> record = new ArrayList<>();
 
-      if (headerLine == null || headerLine.trim().isEmpty()) {
+      if (!reader.next(record) || reader.isBlank(record)) {
         throw new IllegalArgumentException("CSV file is empty");
       }
-
-      // Parse header
-      List<String> headers = Arrays.asList(headerLine.toLowerCase().split(","));
-      validateHeaders(headers);
+      Columns columns = Columns.resolve(record);
 
       int rowNumber = 1; // Start from 1 (header is row 0)
-      String line;
-
-      while ((line = reader.readLine()) != null) {
+      while (reader.next(record)) {
         rowNumber++;
 
-        if (line.trim().isEmpty()) {
+        if (reader.isBlank(record)) {
           continue; // Skip empty lines
         }
 
-        String[] values = line.split(",", -1); // -1 to include trailing empty strings
-
-        if (values.length != headers.size()) {
-          errors.add(
-              ValidationError.builder()
-                  .row(rowNumber)
-                  .column("all")
-                  .errorCode("COLUMN_MISMATCH")
-                  .message(
-                      String.format(
-                          "Row %d: Expected %d columns, found %d",
-                          rowNumber, headers.size(), values.length))
-                  .build());
+        int row = rowNumber;
+        if (reader.unterminatedQuote()) {
+          errors.add(row, "all", "MALFORMED_ROW",
+              () -> "Row " + row + ": Quoted field is not closed");
+          continue;
+        }
+        if (record.size() != columns.count) {
+          int found = record.size();
+          errors.add(row, "all", "COLUMN_MISMATCH",
+              () -> "Row " + row + ": Expected " + columns.count + " columns, found " + found);
           continue;
         }
 
-        ValidationResult result = parseRow(values, headers, rowNumber);
-        if (result.hasErrors()) {
-          errors.addAll(result.getErrors());
-        } else {
-          holdings.add(result.getHolding());
+        HoldingsUploadRequest holding = parseRow(record, columns, row, errors);
+        if (holding != null) {
+          validRows++;
+          if (sinkAfterErrors || errors.isEmpty()) {
+            sink.accept(holding);
+          }
         }
       }
 
-      log.info("Parsed {} holdings with {} validation errors", holdings.size(), errors.size());
+      log.info("Parsed {} holdings with {} validation errors", validRows, errors.total);
 
     } catch (IOException e) {
       log.error("Error reading CSV file", e);
       throw new IllegalArgumentException("Failed to read CSV file: " + e.getMessage());
     }
 
-    return new ParseResult(holdings, errors);
+    return new ParseResult(List.of(), errors.toList(), validRows);
   }
 
-  private void validateHeaders(List<String> headers) {
-    List<String> missingColumns = new ArrayList<>();
+  /** Validate one row; returns null and records errors if it is invalid. */
+  private HoldingsUploadRequest parseRow(
+      List<String> values, Columns columns, int rowNumber, ErrorCollector errors) {
+    int errorsBefore = errors.total;
+
+    String ticker = values.get(columns.ticker).trim();
+    String quantityStr = values.get(columns.quantity).trim();
+    String costBasisStr = values.get(columns.costBasis).trim();
+    String currency = values.get(columns.currency).trim();
+
+    // Validate ticker
+    if (ticker.isEmpty()) {
+      errors.add(rowNumber, "ticker", "MISSING_DATA",
+          () -> "Row " + rowNumber + ": Ticker is required");
+    } else if (!isValidTicker(ticker)) {
+      errors.add(rowNumber, "ticker", "INVALID_SYMBOL",
+          () -> "Row " + rowNumber + ": Invalid ticker symbol '" + ticker
+              + "' (must start with letter, 1-10 chars)");
+    }
+
+    // Validate quantity
+    double quantity = parsePositive(quantityStr, rowNumber, "quantity", "Quantity", errors);
+
+    // Validate cost basis
+    double costBasis = parsePositive(costBasisStr, rowNumber, "cost_basis", "Cost basis", errors);
+
+    // Validate currency
+    if (currency.isEmpty()) {
+      errors.add(rowNumber, "currency", "MISSING_DATA",
+          () -> "Row " + rowNumber + ": Currency is required");
+    } else if (!isValidCurrency(currency)) {
+      errors.add(rowNumber, "currency", "INVALID_CURRENCY",
+          () -> "Row " + rowNumber + ": Invalid currency '" + currency
+              + "' (must be 3-letter code like USD)");
+    }
+
+    if (errors.total != errorsBefore) {
+      return null;
+    }
+
+    return HoldingsUploadRequest.builder()
+        .ticker(ticker)
+        .quantity(quantity)
+        .costBasis(costBasis)
+        .currency(currency)
+        .build();
+  }
 
-    for (String required : REQUIRED_COLUMNS) {
-      if (!headers.contains(required)) {
-        missingColumns.add(required);
+  /** Parse a required positive number; returns NaN and records an error if it is not one. */
+  private static double parsePositive(
+      String value, int rowNumber, String column, String label, ErrorCollector errors) {
+    if (value.isEmpty()) {
+      errors.add(rowNumber, column, "MISSING_DATA",
+          () -> "Row " + rowNumber + ": " + label + " is required");
+      return Double.NaN;
+    }
+    double number = parseDouble(value);
+    if (!Double.isFinite(number)) {
+      errors.add(rowNumber, column, "INVALID_NUMBER",
+          () -> "Row " + rowNumber + ": Invalid " + label.toLowerCase() + " '" + value + "'");
+      return Double.NaN;
+    }
+    if (number <= 0) {
+      if ("quantity".equals(column)) {
+        errors.add(rowNumber, column, "NEGATIVE_QUANTITY",
+            () -> String.format(
+                "Row %d: Quantity cannot be negative or zero (%.2f shares)", rowNumber, number));
+      } else {
+        errors.add(rowNumber, column, "INVALID_COST_BASIS",
+            () -> String.format("Row %d: Cost basis must be positive (%.2f)", rowNumber, number));
       }
+      return Double.NaN;
     }
+    return number;
+  }
 
-    if (!missingColumns.isEmpty()) {
-      throw new IllegalArgumentException(
-          "Missing required columns: " + String.join(", ", missingColumns));
+  /** Double.parseDouble, with NaN for text that is not a number. */
+  private static double parseDouble(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      return Double.NaN;
     }
   }
 
-  private ValidationResult parseRow(String[] values, List<String> headers, int rowNumber) {
-    List<ValidationError> errors = new ArrayList<>();
+  /**
+   * International ticker formats: a capital letter followed by up to nine capitals, digits, dots
+   * or hyphens (AAPL, BRK.B, VOD.L, SAP.DE).
+   */
+  static boolean isValidTicker(String ticker) {
+    int length = ticker.length();
+    if (length > 10 || !isUpperAscii(ticker.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < length; i++) {
+      char c = ticker.charAt(i);
+      if (!isUpperAscii(c) && (c < '0' || c > '9') && c != '.' && c != '-') {
+        return false;
+      }
+    }
+    return true;
+  }
 
-    String ticker = getColumnValue(values, headers, "ticker");
-    String quantityStr = getColumnValue(values, headers, "quantity");
-    String costBasisStr = getColumnValue(values, headers, "cost_basis");
-    String currency = getColumnValue(values, headers, "currency");
+  /** Three capital letters, e.g. USD. */
+  static boolean isValidCurrency(String currency) {
+    return currency.length() == 3
+        && isUpperAscii(currency.charAt(0))
+        && isUpperAscii(currency.charAt(1))
+        && isUpperAscii(currency.charAt(2));
+  }
 
-    // Validate ticker
-    if (ticker == null || ticker.trim().isEmpty()) {
-      errors.add(
-          ValidationError.builder()
-              .row(rowNumber)
-              .column("ticker")
-              .errorCode("MISSING_DATA")
-              .message(String.format("Row %d: Ticker is required", rowNumber))
-              .build());
-    } else {
-      // Trim whitespace from ticker
-      ticker = ticker.trim();
-
-      // Allow international ticker formats: letters, numbers, dots, hyphens
-      // Examples: AAPL, BRK.B, VOD.L, SAP.DE
-      if (!ticker.matches("^[A-Z][A-Z0-9.\\-]{0,9}$")) {
+  private static boolean isUpperAscii(char c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  /** Positions of the required columns, resolved once from the header. */
+  private static final class Columns {
+    private final int count;
+    private final int ticker;
+    private final int quantity;
+    private final int costBasis;
+    private final int currency;
+
+    private Columns(List<String> headers) {
+      this.count = headers.size();
+      this.ticker = headers.indexOf("ticker");
+      this.quantity = headers.indexOf("quantity");
+      this.costBasis = headers.indexOf("cost_basis");
+      this.currency = headers.indexOf("currency");
+    }
+
+    static Columns resolve(List<String> header) {
+      List<String> headers = new ArrayList<>(header.size());
+      for (String name : header) {
+        headers.add(name.trim().toLowerCase());
+      }
+
+      List<String> missingColumns = new ArrayList<>();
+      for (String required : REQUIRED_COLUMNS) {
+        if (!headers.contains(required)) {
+          missingColumns.add(required);
+        }
+      }
+      if (!missingColumns.isEmpty()) {
+        throw new IllegalArgumentException(
+            "Missing required columns: " + String.join(", ", missingColumns));
+      }
+      return new Columns(headers);
+    }
+  }
+
+  /** Keeps the first {@code limit} errors and counts the rest. */
+  private static final class ErrorCollector {
+    private final int limit;
+    private final List<ValidationError> errors = new ArrayList<>();
+    private int total;
+    private int lastRow;
+
+    ErrorCollector(int limit) {
+      this.limit = limit;
+    }
+
+    void add(int row, String column, String errorCode, Supplier<String> message) {
+      total++;
+      lastRow = row;
+      if (errors.size() < limit) {
         errors.add(
             ValidationError.builder()
-                .row(rowNumber)
-                .column("ticker")
-                .errorCode("INVALID_SYMBOL")
-                .message(
-                    String.format(
-                        "Row %d: Invalid ticker symbol '%s' (must start with letter, 1-10 chars)",
-                        rowNumber, ticker))
+                .row(row)
+                .column(column)
+                .errorCode(errorCode)
+                .message(message.get())
                 .build());
       }
     }
 
-    // Validate quantity
-    Double quantity = null;
-    if (quantityStr == null || quantityStr.trim().isEmpty()) {
-      errors.add(
-          ValidationError.builder()
-              .row(rowNumber)
-              .column("quantity")
-              .errorCode("MISSING_DATA")
-              .message(String.format("Row %d: Quantity is required", rowNumber))
-              .build());
-    } else {
-      try {
-        quantity = Double.parseDouble(quantityStr.trim());
-        if (quantity <= 0) {
-          errors.add(
-              ValidationError.builder()
-                  .row(rowNumber)
-                  .column("quantity")
-                  .errorCode("NEGATIVE_QUANTITY")
-                  .message(
-                      String.format(
-                          "Row %d: Quantity cannot be negative or zero (%.2f shares)",
-                          rowNumber, quantity))
-                  .build());
-        }
-      } catch (NumberFormatException e) {
+    boolean isEmpty() {
+      return total == 0;
+    }
+
+    List<ValidationError> toList() {
+      if (total > errors.size()) {
+        int omitted = total - errors.size();
         errors.add(
             ValidationError.builder()
-                .row(rowNumber)
-                .column("quantity")
-                .errorCode("INVALID_NUMBER")
-                .message(
-                    String.format("Row %d: Invalid quantity '%s'", rowNumber, quantityStr))
+                .row(lastRow)
+                .column("all")
+                .errorCode("TOO_MANY_ERRORS")
+                .message(omitted + " more validation errors not shown (first " + limit + " listed)")
                 .build());
       }
+      return errors;
     }
+  }
 
-    // Validate cost basis
-    Double costBasis = null;
-    if (costBasisStr == null || costBasisStr.trim().isEmpty()) {
-      errors.add(
-          ValidationError.builder()
-              .row(rowNumber)
-              .column("cost_basis")
-              .errorCode("MISSING_DATA")
-              .message(String.format("Row %d: Cost basis is required", rowNumber))
-              .build());
-    } else {
-      try {
-        costBasis = Double.parseDouble(costBasisStr.trim());
-        if (costBasis <= 0) {
-          errors.add(
-              ValidationError.builder()
-                  .row(rowNumber)
-                  .column("cost_basis")
-                  .errorCode("INVALID_COST_BASIS")
-                  .message(
-                      String.format(
-                          "Row %d: Cost basis must be positive (%.2f)", rowNumber, costBasis))
-                  .build());
+  /**
+   * Single-pass RFC 4180 record reader. Accepts LF, CRLF or CR line endings and a leading UTF-8
+   * byte order mark; characters after a closing quote are kept as part of the field.
+   */
+  static final class CsvRecordReader implements AutoCloseable {
+    private final Reader reader;
+    private final char[] buffer = new char[16 * 1024];
+    private final StringBuilder field = new StringBuilder(32);
+    private int position;
+    private int limit;
+    private boolean started;
+    private boolean quotedRecord;
+    private boolean unterminatedQuote;
+
+    CsvRecordReader(Reader reader) {
+      this.reader = reader;
+    }
+
+    /**
+     * Read the next record into {@code record}, replacing its contents.
+     *
+     * @return false at end of input
+     */
+    boolean next(List<String> record) throws IOException {
+      record.clear();
+      quotedRecord = false;
+      unterminatedQuote = false;
+      int c = read();
+      if (c < 0) {
+        return false;
+      }
+      if (!started) {
+        started = true;
+        if (c == '\uFEFF') {
+          c = read();
+          if (c < 0) {
+            return false;
+          }
         }
-      } catch (NumberFormatException e) {
-        errors.add(
-            ValidationError.builder()
-                .row(rowNumber)
-                .column("cost_basis")
-                .errorCode("INVALID_NUMBER")
-                .message(
-                    String.format("Row %d: Invalid cost basis '%s'", rowNumber, costBasisStr))
-                .build());
       }
+
+      field.setLength(0);
+      boolean inQuotes = false;
+      while (true) {
+        if (inQuotes) {
+          if (c < 0) {
+            unterminatedQuote = true;
+            record.add(field.toString());
+            return true;
+          }
+          if (c == '"') {
+            int following = read();
+            if (following == '"') {
+              field.append('"');
+            } else {
+              inQuotes = false;
+              c = following;
+              continue;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == ',') {
+          record.add(field.toString());
+          field.setLength(0);
+        } else if (c == '\n' || c < 0) {
+          break;
+        } else if (c == '\r') {
+          int following = read();
+          if (following != '\n' && following >= 0) {
+            position--; // Bare CR ends the record; keep the next character
+          }
+          break;
+        } else if (c == '"' && isBlankSoFar()) {
+          inQuotes = true;
+          quotedRecord = true;
+          field.setLength(0);
+        } else {
+          field.append((char) c);
+        }
+        c = read();
+      }
+      record.add(field.toString());
+      return true;
     }
 
-    // Validate currency
-    if (currency == null || currency.trim().isEmpty()) {
-      errors.add(
-          ValidationError.builder()
-              .row(rowNumber)
-              .column("currency")
-              .errorCode("MISSING_DATA")
-              .message(String.format("Row %d: Currency is required", rowNumber))
-              .build());
-    } else if (!currency.matches("^[A-Z]{3}$")) {
-      errors.add(
-          ValidationError.builder()
-              .row(rowNumber)
-              .column("currency")
-              .errorCode("INVALID_CURRENCY")
-              .message(
-                  String.format(
-                      "Row %d: Invalid currency '%s' (must be 3-letter code like USD)",
-                      rowNumber, currency))
-              .build());
+    /** True for a line with nothing on it (whitespace only, no separators or quotes). */
+    boolean isBlank(List<String> record) {
+      return record.size() == 1 && !quotedRecord && record.get(0).isBlank();
     }
 
-    if (!errors.isEmpty()) {
-      return new ValidationResult(null, errors);
+    /** True if the last record ended inside a quoted field. */
+    boolean unterminatedQuote() {
+      return unterminatedQuote;
     }
 
-    HoldingsUploadRequest holding =
-        HoldingsUploadRequest.builder()
-            .ticker(ticker.toUpperCase().trim())
-            .quantity(quantity)
-            .costBasis(costBasis)
-            .currency(currency.toUpperCase().trim())
-            .build();
+    /** A quote only opens a quoted field at its start, allowing leading spaces. */
+    private boolean isBlankSoFar() {
+      for (int i = 0; i < field.length(); i++) {
+        if (field.charAt(i) != ' ') {
+          return false;
+        }
+      }
+      return true;
+    }
 
-    return new ValidationResult(holding, errors);
-  }
+    private int read() throws IOException {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position++];
+    }
 
-  private String getColumnValue(String[] values, List<String> headers, String columnName) {
-    int index = headers.indexOf(columnName);
-    if (index >= 0 && index < values.length) {
-      return values[index].trim();
+    @Override
+    public void close() throws IOException {
+      reader.close();
     }
-    return null;
   }
 
   public static class ParseResult {
     private final List<HoldingsUploadRequest> holdings;
     private final List<ValidationError> errors;
+    private final int validRows;
 
     public ParseResult(List<HoldingsUploadRequest> holdings, List<ValidationError> errors) {
+      this(holdings, errors, holdings.size());
+    }
+
+    public ParseResult(
+        List<HoldingsUploadRequest> holdings, List<ValidationError> errors, int validRows) {
       this.holdings = holdings;
       this.errors = errors;
+      this.validRows = validRows;
     }
 
     public List<HoldingsUploadRequest> getHoldings() {
@@ -273,26 +464,9 @@ public class HoldingsCsvParser {
       return errors;
     }
 
-    public boolean hasErrors() {
-      return !errors.isEmpty();
-    }
-  }
-
-  private static class ValidationResult {
-    private final HoldingsUploadRequest holding;
-    private final List<ValidationError> errors;
-
-    public ValidationResult(HoldingsUploadRequest holding, List<ValidationError> errors) {
-      this.holding = holding;
-      this.errors = errors;
-    }
-
-    public HoldingsUploadRequest getHolding() {
-      return holding;
-    }
-
-    public List<ValidationError> getErrors() {
-      return errors;
+    /** Rows that passed validation, including any not passed to the sink. */
+    public int getValidRows() {
+      return validRows;
     }
 
     public boolean hasErrors() {
@@ -0,0 +1,92 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.repository.SchedulerLeaseRepository;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Database-backed leader election between backend nodes.
+ *
+ * <p>Leadership is a row in {@code scheduler_lease}. A node becomes leader by inserting the row or
+ * by taking over an expired one, and stays leader by renewing it before it expires. A crashed
+ * leader simply stops renewing, so another node takes over after at most one TTL. Lease
+ * timestamps come from each node's clock, so nodes are expected to be NTP-synchronized.
+ */
+@Service
+@Slf4j
+public class LeaderElectionService {
+
+  private final SchedulerLeaseRepository leaseRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final String nodeId;
+
+  public LeaderElectionService(
+      SchedulerLeaseRepository leaseRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.cluster.node-id:}") String nodeId) {
+    this.leaseRepository = leaseRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    log.info("Cluster node ID: {}", this.nodeId);
+  }
+
+  /** Identifier of this node, recorded as the owner of leases it holds. */
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Acquire or renew a lease.
+   *
+   * @param leaseName Lease to acquire (one per leadership role)
+   * @param ttl How long the lease is held without renewal
+   * @return True if this node holds the lease until {@code now + ttl}
+   */
+  public boolean tryAcquire(String leaseName, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime expiresAt = now.plus(ttl);
+
+    Integer renewed =
+        transactionTemplate.execute(
+            status -> leaseRepository.renewOrTakeOver(leaseName, nodeId, now, expiresAt));
+    if (renewed != null && renewed > 0) {
+      return true;
+    }
+
+    try {
+      transactionTemplate.execute(
+          status -> leaseRepository.insertLease(leaseName, nodeId, now, expiresAt));
+      log.info("Node {} acquired lease {}", nodeId, leaseName);
+      return true;
+    } catch (DataIntegrityViolationException e) {
+      // Row exists and is held by another node
+      return false;
+    }
+  }
+
+  /** Give up a lease held by this node so another node can take over immediately. */
+  public void release(String leaseName) {
+    transactionTemplate.executeWithoutResult(status -> leaseRepository.release(leaseName, nodeId));
+  }
+
+  private static String defaultNodeId() {
+    String host = System.getenv("HOSTNAME");
+    if (host == null || host.isBlank()) {
+      try {
+        host = InetAddress.getLocalHost().getHostName();
+      } catch (Exception e) {
+        host = "node";
+      }
+    }
+    // Suffix keeps IDs unique across restarts of the same host
+    return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+  }
+}
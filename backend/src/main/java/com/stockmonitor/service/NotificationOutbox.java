@@ -0,0 +1,325 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.model.Notification;
+import com.stockmonitor.model.NotificationOutboxEntry;
+import com.stockmonitor.repository.NotificationOutboxRepository;
+import com.stockmonitor.repository.NotificationRepository;
+import com.stockmonitor.service.NotificationPreferenceCache.Snapshot;
+import com.stockmonitor.service.NotificationService.NotificationMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for notifications.
+ *
+ * Bulk senders such as the month-end scheduler enqueue messages here instead of calling
+ * {@link NotificationService} per run. Enqueueing is a single batched insert into
+ * {@code notification_outbox} that joins the caller's transaction, so when it is called from the
+ * transaction that does the work (as {@code MonthEndFanOut} does when saving runs), a notification is
+ * only queued if that work commits, and a failed enqueue rolls the work back.
+ *
+ * A background dispatcher drains the outbox in batches:
+ * 1. Claim due entries ({@code FOR UPDATE SKIP LOCKED}, safe with several nodes), look up their
+ *    recipients' preferences in bulk, write the in-app notifications with one {@code saveAll} and push the
+ *    claimed entries' next attempt past a claim timeout; commit.
+ * 2. Outside any transaction, deliver over WebSocket and, for HIGH priority, e-mail.
+ * 3. Delete delivered entries; schedule the rest for retry with exponential back-off, or mark
+ *    them FAILED once {@code max-attempts} is reached.
+ *
+ * Delivery is at-least-once: if a node dies after claiming, the entries become due again once
+ * the claim timeout passes. Channels that already succeeded are recorded on the entry and are
+ * not repeated on retry.
+ */
+@Service
+@Slf4j
+public class NotificationOutbox {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationPreferenceCache preferenceCache;
+    private final WebSocketNotificationService webSocketService;
+    private final EmailNotificationSender emailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    public NotificationOutbox(
+            NotificationOutboxRepository outboxRepository,
+            NotificationService notificationService,
+            NotificationRepository notificationRepository,
+            NotificationPreferenceCache preferenceCache,
+            WebSocketNotificationService webSocketService,
+            EmailNotificationSender emailSender,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.outbox.batch-size:200}") int batchSize,
+            @Value("${app.notifications.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.notifications.outbox.retry-backoff:PT30S}") Duration retryBackoff,
+            @Value("${app.notifications.outbox.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${app.notifications.outbox.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.notificationRepository = notificationRepository;
+        this.preferenceCache = preferenceCache;
+        this.webSocketService = webSocketService;
+        this.emailSender = emailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Queue a notification for asynchronous delivery.
+     *
+     * @param message Notification to deliver
+     */
+    @Transactional
+    public void enqueue(NotificationMessage message) {
+        outboxRepository.save(toEntry(message, LocalDateTime.now()));
+    }
+
+    /**
+     * Queue several notifications for asynchronous delivery with one batched insert.
+     *
+     * @param messages Notifications to deliver
+     */
+    @Transactional
+    public void enqueueAll(Collection<NotificationMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.saveAll(messages.stream().map(message -> toEntry(message, now)).toList());
+    }
+
+    /**
+     * Number of notifications waiting for delivery (including those waiting for a retry).
+     */
+    public long pending() {
+        return outboxRepository.countByStatus("PENDING");
+    }
+
+    /**
+     * Deliver due outbox entries in batches until none are left.
+     *
+     * @return Number of notifications delivered on all required channels
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.dispatch-interval-ms:500}")
+    public int dispatch() {
+        int delivered = 0;
+        while (true) {
+            List<Delivery> claimed = transactionTemplate.execute(status -> claimBatch());
+            if (claimed == null || claimed.isEmpty()) {
+                break;
+            }
+
+            claimed.forEach(this::deliver);
+            delivered += transactionTemplate.execute(status -> complete(claimed));
+
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+        if (delivered > 0) {
+            log.debug("Dispatched {} outbox notifications", delivered);
+        }
+        return delivered;
+    }
+
+    /**
+     * Claim one batch of due entries and write their in-app notifications.
+     */
+    private List<Delivery> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntry> entries = outboxRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> userIds = entries.stream().map(NotificationOutboxEntry::getUserId).collect(Collectors.toSet());
+        Map<UUID, Snapshot> recipients = preferenceCache.getAll(userIds);
+
+        // First attempt: write the in-app notifications in one batch
+        List<NotificationOutboxEntry> fresh = entries.stream()
+                .filter(entry -> entry.getNotificationId() == null)
+                .toList();
+        List<Notification> created = notificationService.createNotifications(
+                fresh.stream().map(NotificationOutbox::toMessage).toList(), recipients);
+        Set<NotificationOutboxEntry> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < fresh.size(); i++) {
+            Notification notification = created.get(i);
+            if (notification == null) {
+                dropped.add(fresh.get(i)); // Unknown user or opted out
+            } else {
+                fresh.get(i).setNotificationId(notification.getId());
+            }
+        }
+
+        // Retries: reload notifications written by an earlier attempt
+        Set<UUID> notificationIds = entries.stream()
+                .map(NotificationOutboxEntry::getNotificationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Notification> notifications = new HashMap<>();
+        created.stream().filter(Objects::nonNull).forEach(n -> notifications.put(n.getId(), n));
+        notificationIds.removeAll(notifications.keySet());
+        notificationRepository.findAllById(notificationIds).forEach(n -> notifications.put(n.getId(), n));
+
+        List<Delivery> deliveries = new ArrayList<>(entries.size());
+        for (NotificationOutboxEntry entry : entries) {
+            if (dropped.contains(entry)) {
+                continue;
+            }
+            Notification notification = notifications.get(entry.getNotificationId());
+            if (notification == null) {
+                dropped.add(entry); // Deleted since the last attempt
+                continue;
+            }
+            Snapshot recipient = recipients.get(entry.getUserId());
+            entry.setNextAttemptAt(now.plus(claimTimeout));
+            deliveries.add(new Delivery(entry, notificationService.toDTO(notification),
+                    recipient != null ? recipient.email() : null));
+        }
+
+        outboxRepository.deleteAll(dropped);
+        return deliveries;
+    }
+
+    /**
+     * Deliver a claimed entry on each channel it still needs, recording the first error.
+     */
+    private void deliver(Delivery delivery) {
+        NotificationOutboxEntry entry = delivery.entry;
+
+        if (!entry.getWebSocketSent()) {
+            try {
+                webSocketService.broadcastNotification(entry.getUserId(), delivery.dto);
+                entry.setWebSocketSent(true);
+            } catch (Exception e) {
+                delivery.error = "websocket: " + e.getMessage();
+            }
+        }
+
+        if (!entry.getEmailSent() && emailSender.isRequired(entry) && delivery.email != null) {
+            try {
+                emailSender.send(delivery.email, entry);
+                entry.setEmailSent(true);
+            } catch (Exception e) {
+                if (delivery.error == null) {
+                    delivery.error = "email: " + e.getMessage();
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete delivered entries and schedule the rest for retry.
+     */
+    private int complete(List<Delivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntry> delivered = new ArrayList<>();
+        List<NotificationOutboxEntry> retries = new ArrayList<>();
+
+        for (Delivery delivery : deliveries) {
+            NotificationOutboxEntry entry = delivery.entry;
+            if (delivery.error == null) {
+                delivered.add(entry);
+                continue;
+            }
+
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(delivery.error.length() > 500 ? delivery.error.substring(0, 500) : delivery.error);
+            if (attempts >= maxAttempts) {
+                entry.setStatus("FAILED");
+                log.error("Giving up on {} notification {} for user {} after {} attempts: {}",
+                        entry.getCategory(), entry.getId(), entry.getUserId(), attempts, delivery.error);
+            } else {
+                entry.setNextAttemptAt(now.plus(backoff(attempts)));
+                log.warn("Delivery of {} notification {} failed (attempt {}), retrying at {}: {}",
+                        entry.getCategory(), entry.getId(), attempts, entry.getNextAttemptAt(), delivery.error);
+            }
+            retries.add(entry);
+        }
+
+        outboxRepository.deleteAllByIdInBatch(delivered.stream().map(NotificationOutboxEntry::getId).toList());
+        outboxRepository.saveAll(retries);
+        return delivered.size();
+    }
+
+    /**
+     * Delay before the given retry: {@code retry-backoff * 2^(attempts - 1)}, capped at {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static NotificationOutboxEntry toEntry(NotificationMessage message, LocalDateTime now) {
+        return NotificationOutboxEntry.builder()
+                .userId(message.userId())
+                .title(message.title())
+                .message(message.message())
+                .category(message.category())
+                .priority(message.priority())
+                .actionLabel(message.actionLabel())
+                .actionUrl(message.actionUrl())
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    private static NotificationMessage toMessage(NotificationOutboxEntry entry) {
+        return new NotificationMessage(
+                entry.getUserId(),
+                entry.getTitle(),
+                entry.getMessage(),
+                entry.getCategory(),
+                entry.getPriority(),
+                entry.getActionLabel(),
+                entry.getActionUrl()
+        );
+    }
+
+    /**
+     * A claimed entry with everything needed to deliver it outside the claim transaction.
+     */
+    private static final class Delivery {
+        private final NotificationOutboxEntry entry;
+        private final NotificationDTO dto;
+        private final String email;
+        private String error;
+
+        private Delivery(NotificationOutboxEntry entry, NotificationDTO dto, String email) {
+            this.entry = entry;
+            this.dto = dto;
+            this.email = email;
+        }
+    }
+}
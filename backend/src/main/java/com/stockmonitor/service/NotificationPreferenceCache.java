@@ -0,0 +1,173 @@
+package com.stockmonitor.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockmonitor.repository.UserRepository;
+import com.stockmonitor.repository.UserRepository.NotificationSettings;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-user cache of parsed notification preferences per FR-049.
+ *
+ * <p>The preferences JSON is parsed once into a {@link Snapshot} holding a bitset of disabled
+ * categories, so checking a notification is a bit test instead of a user load plus JSON parse.
+ * Misses are loaded with a projection query ({@code id, email, notification_preferences}); bulk
+ * senders use {@link #getAll} to load every missing user of a batch in one query.
+ *
+ * <p>{@link UserService#updateNotificationPreferences} invalidates the local entry after commit.
+ * Other nodes pick up the change when their entry expires ({@code
+ * app.notifications.preferences.cache-ttl}).
+ */
+@Service
+@Slf4j
+public class NotificationPreferenceCache {
+
+  /** Known categories per FR-045, each mapped to a bit in {@link Snapshot#disabled()}. */
+  static final List<String> CATEGORIES =
+      List.of("T-3_PRECOMPUTE", "T-1_STAGED", "T_FINALIZED", "DATA_STALE", "RUN_FAILED", "CONSTRAINT_VIOLATED");
+
+  private static final Map<String, Integer> CATEGORY_BITS = categoryBits();
+  private static final TypeReference<Map<String, Boolean>> PREFERENCES_TYPE = new TypeReference<>() {};
+
+  private static Map<String, Integer> categoryBits() {
+    Map<String, Integer> bits = new HashMap<>();
+    for (int i = 0; i < CATEGORIES.size(); i++) {
+      bits.put(CATEGORIES.get(i), i);
+    }
+    return Map.copyOf(bits);
+  }
+
+  private final UserRepository userRepository;
+  private final ObjectMapper objectMapper;
+  private final Cache<UUID, Snapshot> cache;
+
+  public NotificationPreferenceCache(
+      UserRepository userRepository,
+      ObjectMapper objectMapper,
+      @Value("${app.notifications.preferences.cache-ttl:PT5M}") Duration ttl,
+      @Value("${app.notifications.preferences.cache-size:100000}") long maximumSize) {
+    this.userRepository = userRepository;
+    this.objectMapper = objectMapper;
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+  }
+
+  /**
+   * Notification preferences of a user.
+   *
+   * @param userId User ID
+   * @return Snapshot, or null if the user does not exist
+   */
+  public Snapshot get(UUID userId) {
+    return cache.get(userId, id -> loadAll(Set.of(id)).get(id));
+  }
+
+  /**
+   * Notification preferences of many users, loading all misses with one query.
+   *
+   * @param userIds User IDs
+   * @return Snapshot by user ID; users that do not exist are absent
+   */
+  public Map<UUID, Snapshot> getAll(Collection<UUID> userIds) {
+    return cache.getAll(userIds, this::loadAll);
+  }
+
+  /**
+   * Drop a user's cached preferences. Inside a transaction the entry is dropped after commit, so
+   * a concurrent load cannot re-cache the old value.
+   *
+   * @param userId User ID
+   */
+  public void invalidate(UUID userId) {
+    cache.invalidate(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              cache.invalidate(userId);
+            }
+          });
+    }
+  }
+
+  private Map<UUID, Snapshot> loadAll(Set<? extends UUID> userIds) {
+    return userRepository.findNotificationSettingsByIdIn(Set.copyOf(userIds)).stream()
+        .collect(Collectors.toMap(NotificationSettings::getId, this::parse));
+  }
+
+  /**
+   * Parse a user's preferences JSON into a snapshot. Missing or unreadable preferences enable
+   * every category.
+   */
+  Snapshot parse(NotificationSettings settings) {
+    String json = settings.getNotificationPreferences();
+    long disabled = 0;
+    Set<String> disabledOther = new HashSet<>();
+
+    if (json != null && !json.isBlank() && !json.equals("{}")) {
+      try {
+        Map<String, Boolean> preferences = objectMapper.readValue(json, PREFERENCES_TYPE);
+        for (Map.Entry<String, Boolean> preference : preferences.entrySet()) {
+          if (!Boolean.FALSE.equals(preference.getValue())) {
+            continue;
+          }
+          Integer bit = CATEGORY_BITS.get(preference.getKey());
+          if (bit != null) {
+            disabled |= 1L << bit;
+          } else {
+            disabledOther.add(preference.getKey());
+          }
+        }
+      } catch (Exception e) {
+        log.error("Failed to parse notification preferences for user {}: {}", settings.getId(), e.getMessage());
+      }
+    }
+
+    return new Snapshot(settings.getId(), settings.getEmail(), disabled, Set.copyOf(disabledOther));
+  }
+
+  /**
+   * Parsed notification preferences of one user.
+   *
+   * @param userId User ID
+   * @param email E-mail address for the e-mail channel
+   * @param disabled Bit {@code i} set if the user opted out of {@code CATEGORIES.get(i)}
+   * @param disabledOther Opted-out categories outside the known set (normally empty)
+   */
+  public record Snapshot(UUID userId, String email, long disabled, Set<String> disabledOther) {
+
+    /** Snapshot for a user who has not opted out of anything. */
+    public static Snapshot allEnabled(UUID userId, String email) {
+      return new Snapshot(userId, email, 0, Set.of());
+    }
+
+    /**
+     * Whether the user wants notifications of a category. Categories default to enabled.
+     *
+     * @param category Notification category
+     * @return True unless the user opted out
+     */
+    public boolean allows(String category) {
+      Integer bit = CATEGORY_BITS.get(category);
+      if (bit != null) {
+        return (disabled & (1L << bit)) == 0;
+      }
+      return !disabledOther.contains(category);
+    }
+  }
+}
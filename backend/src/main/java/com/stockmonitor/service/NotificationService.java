@@ -1,20 +1,23 @@
 package com.stockmonitor.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmonitor.dto.CursorPage;
 import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.dto.PageCursor;
 import com.stockmonitor.model.Notification;
-import com.stockmonitor.model.User;
 import com.stockmonitor.repository.NotificationRepository;
 import com.stockmonitor.repository.UserRepository;
+import com.stockmonitor.service.NotificationPreferenceCache.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,7 +29,7 @@ import java.util.stream.Collectors;
  * Features:
  * - Create and send notifications with categories and priorities
  * - Broadcast notifications via WebSocket
- * - Track read status per FR-048
+ * - Track read status per FR-048, with the unread count kept on the user row
  * - Respect user preferences for opt-out per category per FR-049
  * - Support multiple notification types per FR-045
  */
@@ -37,8 +40,8 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NotificationPreferenceCache preferenceCache;
     private final WebSocketNotificationService webSocketService;
-    private final ObjectMapper objectMapper;
 
     /**
      * Create and send notification to user.
@@ -63,31 +66,19 @@ public class NotificationService {
             String actionUrl
     ) {
         // Check user preferences per FR-049
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        Snapshot preferences = preferenceCache.get(userId);
+        if (preferences == null) {
+            throw new IllegalArgumentException("User not found: " + userId);
+        }
 
-        if (!shouldSendNotification(user, category)) {
+        if (!preferences.allows(category)) {
             log.debug("User {} opted out of {} notifications. Skipping.", userId, category);
             return null;
         }
 
-        // Create notification entity
-        Notification notification = Notification.builder()
-                .userId(userId)
-                .category(category)
-                .priority(priority)
-                .title(title)
-                .subject(title) // Use title as subject for backwards compatibility
-                .message(message)
-                .actionLabel(actionLabel)
-                .actionUrl(actionUrl)
-                .notificationType(category) // Map category to notificationType
-                .isRead(false)
-                .sentAt(LocalDateTime.now())
-                .deliveryStatus("SENT")
-                .build();
-
-        notification = notificationRepository.save(notification);
+        Notification notification = notificationRepository.save(buildNotification(
+                new NotificationMessage(userId, title, message, category, priority, actionLabel, actionUrl)));
+        userRepository.adjustUnreadNotificationCount(userId, 1);
 
         // Convert to DTO
         NotificationDTO dto = toDTO(notification);
@@ -105,16 +96,62 @@ public class NotificationService {
     }
 
     /**
-     * Get all notifications for user, ordered by created date descending.
+     * Write in-app notifications for a batch of messages with a single {@code saveAll}.
+     *
+     * Unlike {@link #createNotification}, nothing is broadcast; delivery is left to
+     * {@link NotificationOutbox}.
+     *
+     * @param messages Notifications to write
+     * @param preferences Recipients' preferences by user ID, from {@link NotificationPreferenceCache#getAll}
+     * @return Saved notification per message in input order; null where the user is unknown or opted out
+     */
+    @Transactional
+    public List<Notification> createNotifications(List<NotificationMessage> messages, Map<UUID, Snapshot> preferences) {
+        List<Notification> result = new ArrayList<>(messages.size());
+        List<Notification> toSave = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            Snapshot recipient = preferences.get(message.userId());
+            if (recipient == null) {
+                log.warn("Dropping {} notification for unknown user {}", message.category(), message.userId());
+                result.add(null);
+            } else if (!recipient.allows(message.category())) {
+                log.debug("User {} opted out of {} notifications. Skipping.", message.userId(), message.category());
+                result.add(null);
+            } else {
+                Notification notification = buildNotification(message);
+                result.add(notification);
+                toSave.add(notification);
+            }
+        }
+
+        notificationRepository.saveAll(toSave);
+
+        // One counter update per recipient, in a fixed order so concurrent dispatchers cannot deadlock
+        Map<UUID, Integer> unreadByUser = new TreeMap<>();
+        toSave.forEach(notification -> unreadByUser.merge(notification.getUserId(), 1, Integer::sum));
+        unreadByUser.forEach(userRepository::adjustUnreadNotificationCount);
+        return result;
+    }
+
+    /**
+     * Get one page of a user's notifications, ordered by created date descending.
+     *
+     * Keyset-paginated on (createdAt, id): each page is a bounded index range scan, however
+     * long the history, and rows are projected straight into DTOs.
      *
      * @param userId User ID
-     * @return List of notifications
+     * @param after Position of the last row of the previous page, or null for the first page
+     * @param limit Page size, clamped to {@link CursorPage#MAX_LIMIT}
+     * @return Page of notifications with the cursor of the next page
      */
-    public List<NotificationDTO> getNotificationsForUser(UUID userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return notifications.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getNotificationsForUser(UUID userId, PageCursor after, int limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageRequest fetch = PageRequest.ofSize(pageSize + 1);
+        List<NotificationDTO> rows = after == null
+                ? notificationRepository.findPageByUserId(userId, fetch)
+                : notificationRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), fetch);
+        return CursorPage.of(rows, pageSize, dto -> new PageCursor(dto.getCreatedAt(), dto.getId()));
     }
 
     /**
@@ -140,9 +177,10 @@ public class NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found: " + notificationId));
 
-        notification.setIsRead(true);
-        notification.setReadAt(LocalDateTime.now());
-        notificationRepository.save(notification);
+        // Conditional update: only the call that flips the flag decrements the counter
+        if (notificationRepository.markRead(notificationId, LocalDateTime.now()) > 0) {
+            userRepository.adjustUnreadNotificationCount(notification.getUserId(), -1);
+        }
 
         log.debug("Marked notification {} as read", notificationId);
     }
@@ -154,26 +192,45 @@ public class NotificationService {
      */
     @Transactional
     public void markAllAsRead(UUID userId) {
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadFalse(userId);
-
-        LocalDateTime now = LocalDateTime.now();
-        for (Notification notification : unreadNotifications) {
-            notification.setIsRead(true);
-            notification.setReadAt(now);
+        int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        if (updated > 0) {
+            // Subtract rather than reset: notifications inserted concurrently stay counted
+            userRepository.adjustUnreadNotificationCount(userId, -updated);
         }
 
-        notificationRepository.saveAll(unreadNotifications);
-        log.info("Marked {} notifications as read for user {}", unreadNotifications.size(), userId);
+        log.info("Marked {} notifications as read for user {}", updated, userId);
     }
 
     /**
      * Get unread notification count for user.
      *
+     * Reads the counter maintained on the user row (a primary-key lookup), so polling this
+     * never touches the notification table.
+     *
      * @param userId User ID
      * @return Unread count
      */
     public long getUnreadCount(UUID userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return userRepository.findUnreadNotificationCount(userId).orElse(0);
+    }
+
+    /**
+     * Create and send a prepared notification message.
+     *
+     * @param message Notification content and recipient
+     * @return Created notification DTO, or null if user opted out
+     */
+    @Transactional
+    public NotificationDTO send(NotificationMessage message) {
+        return createNotification(
+                message.userId(),
+                message.title(),
+                message.message(),
+                message.category(),
+                message.priority(),
+                message.actionLabel(),
+                message.actionUrl()
+        );
     }
 
     /**
@@ -183,15 +240,7 @@ public class NotificationService {
      * @param runId Run ID
      */
     public void sendT3PreComputeNotification(UUID userId, UUID runId) {
-        createNotification(
-                userId,
-                "Month-End Recommendations: T-3 Pre-Compute Started",
-                "Pre-compute job has started for your month-end recommendations. Data is being prepared for optimization.",
-                "T-3_PRECOMPUTE",
-                "MEDIUM",
-                "View Status",
-                "/runs/" + runId
-        );
+        send(NotificationMessage.t3PreCompute(userId, runId));
     }
 
     /**
@@ -201,15 +250,7 @@ public class NotificationService {
      * @param runId Run ID
      */
     public void sendT1StagedNotification(UUID userId, UUID runId) {
-        createNotification(
-                userId,
-                "Month-End Recommendations: T-1 Staging Complete",
-                "Data freshness checks completed. Your recommendations are staged and ready for finalization.",
-                "T-1_STAGED",
-                "MEDIUM",
-                "View Status",
-                "/runs/" + runId
-        );
+        send(NotificationMessage.t1Staged(userId, runId));
     }
 
     /**
@@ -219,15 +260,7 @@ public class NotificationService {
      * @param runId Run ID
      */
     public void sendTFinalizedNotification(UUID userId, UUID runId) {
-        createNotification(
-                userId,
-                "Month-End Recommendations Ready!",
-                "Your month-end portfolio recommendations are now available. Review your personalized picks and download your report.",
-                "T_FINALIZED",
-                "HIGH",
-                "View Recommendations",
-                "/recommendations?runId=" + runId
-        );
+        send(NotificationMessage.tFinalized(userId, runId));
     }
 
     /**
@@ -236,15 +269,7 @@ public class NotificationService {
      * @param userId User ID
      */
     public void sendDataStaleNotification(UUID userId) {
-        createNotification(
-                userId,
-                "Data Freshness Warning",
-                "Some data used for your recommendations is older than 48 hours. Recommendations may be less accurate. Please review data sources.",
-                "DATA_STALE",
-                "HIGH",
-                "Review Data",
-                "/settings/data-sources"
-        );
+        send(NotificationMessage.dataStale(userId));
     }
 
     /**
@@ -255,45 +280,31 @@ public class NotificationService {
      * @param errorMessage Error message
      */
     public void sendRunFailedNotification(UUID userId, UUID runId, String errorMessage) {
-        createNotification(
-                userId,
-                "Recommendation Run Failed",
-                "Your recommendation run failed: " + errorMessage + ". Please contact support if this issue persists.",
-                "RUN_FAILED",
-                "HIGH",
-                "View Details",
-                "/runs/" + runId
-        );
+        send(NotificationMessage.runFailed(userId, runId, errorMessage));
     }
 
     /**
-     * Check if notification should be sent based on user preferences per FR-049.
+     * Build an unsaved notification entity from a message.
      *
-     * @param user User entity
-     * @param category Notification category
-     * @return True if notification should be sent
+     * @param message Notification content and recipient
+     * @return Notification entity
      */
-    private boolean shouldSendNotification(User user, String category) {
-        String preferencesJson = user.getNotificationPreferences();
-
-        if (preferencesJson == null || preferencesJson.isEmpty()) {
-            // Default: all categories enabled
-            return true;
-        }
-
-        try {
-            Map<String, Boolean> preferences = objectMapper.readValue(
-                    preferencesJson,
-                    new TypeReference<Map<String, Boolean>>() {}
-            );
-
-            // Check if user opted out of this category
-            return preferences.getOrDefault(category, true);
-        } catch (Exception e) {
-            log.error("Failed to parse notification preferences for user {}: {}", user.getId(), e.getMessage());
-            // Default to sending notification if preferences can't be parsed
-            return true;
-        }
+    private Notification buildNotification(NotificationMessage message) {
+        return Notification.builder()
+                .userId(message.userId())
+                .category(message.category())
+                .priority(message.priority())
+                .title(message.title())
+                .subject(message.title()) // Use title as subject for backwards compatibility
+                .message(message.message())
+                .actionLabel(message.actionLabel())
+                .actionUrl(message.actionUrl())
+                .notificationType(message.category()) // Map category to notificationType
+                .channel("IN_APP") // Entity field default is not applied by the builder
+                .isRead(false)
+                .sentAt(LocalDateTime.now())
+                .deliveryStatus("SENT")
+                .build();
     }
 
     /**
@@ -302,7 +313,7 @@ public class NotificationService {
      * @param notification Notification entity
      * @return Notification DTO
      */
-    private NotificationDTO toDTO(Notification notification) {
+    NotificationDTO toDTO(Notification notification) {
         return NotificationDTO.builder()
                 .id(notification.getId())
                 .userId(notification.getUserId())
@@ -317,4 +328,79 @@ public class NotificationService {
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
+
+    /**
+     * Notification content and recipient, built before delivery so it can be queued
+     * (see {@link NotificationOutbox}).
+     */
+    public record NotificationMessage(
+            UUID userId,
+            String title,
+            String message,
+            String category,
+            String priority,
+            String actionLabel,
+            String actionUrl
+    ) {
+
+        public static NotificationMessage t3PreCompute(UUID userId, UUID runId) {
+            return new NotificationMessage(
+                    userId,
+                    "Month-End Recommendations: T-3 Pre-Compute Started",
+                    "Pre-compute job has started for your month-end recommendations. Data is being prepared for optimization.",
+                    "T-3_PRECOMPUTE",
+                    "MEDIUM",
+                    "View Status",
+                    "/runs/" + runId
+            );
+        }
+
+        public static NotificationMessage t1Staged(UUID userId, UUID runId) {
+            return new NotificationMessage(
+                    userId,
+                    "Month-End Recommendations: T-1 Staging Complete",
+                    "Data freshness checks completed. Your recommendations are staged and ready for finalization.",
+                    "T-1_STAGED",
+                    "MEDIUM",
+                    "View Status",
+                    "/runs/" + runId
+            );
+        }
+
+        public static NotificationMessage tFinalized(UUID userId, UUID runId) {
+            return new NotificationMessage(
+                    userId,
+                    "Month-End Recommendations Ready!",
+                    "Your month-end portfolio recommendations are now available. Review your personalized picks and download your report.",
+                    "T_FINALIZED",
+                    "HIGH",
+                    "View Recommendations",
+                    "/recommendations?runId=" + runId
+            );
+        }
+
+        public static NotificationMessage dataStale(UUID userId) {
+            return new NotificationMessage(
+                    userId,
+                    "Data Freshness Warning",
+                    "Some data used for your recommendations is older than 48 hours. Recommendations may be less accurate. Please review data sources.",
+                    "DATA_STALE",
+                    "HIGH",
+                    "Review Data",
+                    "/settings/data-sources"
+            );
+        }
+
+        public static NotificationMessage runFailed(UUID userId, UUID runId, String errorMessage) {
+            return new NotificationMessage(
+                    userId,
+                    "Recommendation Run Failed",
+                    "Your recommendation run failed: " + errorMessage + ". Please contact support if this issue persists.",
+                    "RUN_FAILED",
+                    "HIGH",
+                    "View Details",
+                    "/runs/" + runId
+            );
+        }
+    }
 }
@@ -1,6 +1,9 @@
 package com.stockmonitor.service;
 
+import com.stockmonitor.dto.HoldingsUploadRequest;
+import com.stockmonitor.dto.HoldingSnapshot;
 import com.stockmonitor.dto.HoldingsUploadResponse;
+import com.stockmonitor.dto.HoldingsUploadResponse.ValidationError;
 import com.stockmonitor.dto.PortfolioDTO;
 import com.stockmonitor.model.Holding;
 import com.stockmonitor.model.Portfolio;
@@ -9,11 +12,19 @@ import com.stockmonitor.repository.HoldingRepository;
 import com.stockmonitor.repository.PortfolioRepository;
 import com.stockmonitor.repository.UserRepository;
 import com.stockmonitor.service.HoldingsCsvParser.ParseResult;
+import jakarta.persistence.EntityManager;
 import java.io.IOException;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,10 +37,18 @@ import org.springframework.web.multipart.MultipartFile;
 @Slf4j
 public class PortfolioService {
 
+  /** Holdings upload writes are flushed, and deletes issued, this many holdings at a time. */
+  private static final int UPLOAD_FLUSH_ROWS = 500;
+
+  /** Scales of the holding quantity and money columns. */
+  private static final int QUANTITY_SCALE = 6;
+  private static final int MONEY_SCALE = 4;
+
   private final PortfolioRepository portfolioRepository;
   private final HoldingRepository holdingRepository;
   private final UserRepository userRepository;
   private final HoldingsCsvParser csvParser;
+  private final EntityManager entityManager;
 
   @Transactional
   public PortfolioDTO getOrCreatePortfolio(UUID userId) {
@@ -81,70 +100,201 @@ public class PortfolioService {
                   return portfolioRepository.save(newPortfolio);
                 });
 
-    // Parse CSV
-    ParseResult parseResult = csvParser.parse(csvFile);
+    // Parse CSV; lots of the same symbol are combined into one holding
+    Map<String, UploadedHolding> uploaded = new LinkedHashMap<>();
+    Set<String> mixedCurrencies = new TreeSet<>();
+    ParseResult parseResult =
+        csvParser.parse(
+            csvFile,
+            lot ->
+                uploaded.merge(
+                    lot.getTicker(),
+                    UploadedHolding.of(lot),
+                    (first, next) -> {
+                      if (!first.currency().equals(next.currency())) {
+                        mixedCurrencies.add(lot.getTicker());
+                      }
+                      return first.plus(next);
+                    }));
+
+    List<ValidationError> errors = new ArrayList<>(parseResult.getErrors());
+    for (String symbol : mixedCurrencies) {
+      errors.add(
+          ValidationError.builder()
+              .column("currency")
+              .errorCode("MIXED_CURRENCY")
+              .message("Lots of " + symbol + " have different currencies")
+              .build());
+    }
 
     // If there are validation errors, return them without saving
-    if (parseResult.hasErrors()) {
-      log.warn("Validation errors found in CSV: {}", parseResult.getErrors().size());
+    if (!errors.isEmpty()) {
+      log.warn("Validation errors found in CSV: {}", errors.size());
       return HoldingsUploadResponse.builder()
           .totalHoldings(0)
-          .marketValue(java.math.BigDecimal.ZERO)
+          .marketValue(BigDecimal.ZERO)
           .uploadedAt(LocalDateTime.now())
-          .validationErrors(parseResult.getErrors())
+          .validationErrors(errors)
           .build();
     }
 
-    // Clear existing holdings
-    holdingRepository.deleteByPortfolioId(portfolioId);
-    log.info("Cleared existing holdings for portfolio: {}", portfolioId);
-
-    // Create new holdings
-    java.math.BigDecimal totalMarketValue = java.math.BigDecimal.ZERO;
-
-    for (var holdingRequest : parseResult.getHoldings()) {
-      java.math.BigDecimal quantity =
-          java.math.BigDecimal.valueOf(holdingRequest.getQuantity());
-      java.math.BigDecimal costBasisPerShare =
-          java.math.BigDecimal.valueOf(holdingRequest.getCostBasis());
-      java.math.BigDecimal totalCostBasis = quantity.multiply(costBasisPerShare);
-
-      Holding holding =
-          Holding.builder()
-              .portfolioId(portfolioId)
-              .symbol(holdingRequest.getTicker())
-              .quantity(quantity)
-              .costBasis(totalCostBasis)
-              .costBasisPerShare(costBasisPerShare)
-              .currentPrice(costBasisPerShare) // Initially use cost basis as current price
-              .currentMarketValue(totalCostBasis)
-              .acquisitionDate(LocalDate.now())
-              .currency(holdingRequest.getCurrency())
-              .build();
-
-      holdingRepository.save(holding);
-      totalMarketValue = totalMarketValue.add(holding.getCurrentMarketValue());
-    }
+    int totalHoldings = uploaded.size();
+    UploadTotals totals = replaceHoldings(portfolioId, uploaded);
 
     // Update portfolio totals
-    portfolio.setTotalMarketValue(totalMarketValue);
-    portfolio.setTotalCostBasis(totalMarketValue);
+    portfolio.setTotalMarketValue(totals.marketValue());
+    portfolio.setTotalCostBasis(totals.costBasis());
     portfolio.setLastCalculatedAt(LocalDateTime.now());
     portfolioRepository.save(portfolio);
 
     log.info(
         "Successfully uploaded {} holdings with total market value: {}",
-        parseResult.getHoldings().size(),
-        totalMarketValue);
+        totalHoldings,
+        totals.marketValue());
 
     return HoldingsUploadResponse.builder()
-        .totalHoldings(parseResult.getHoldings().size())
-        .marketValue(totalMarketValue)
+        .totalHoldings(totalHoldings)
+        .marketValue(totals.marketValue())
         .uploadedAt(LocalDateTime.now())
         .validationErrors(List.of())
         .build();
   }
 
+  /**
+   * Make a portfolio's holdings match an upload, diffing by symbol.
+   *
+   * <p>Holdings whose symbol is not uploaded are deleted by ID in bulk statements. Changed holdings
+   * are updated in place and new symbols inserted, both as JDBC batches. Unchanged holdings are
+   * not written and keep their ID, prices and enrichment. Totals are accumulated in the same pass;
+   * inserted and updated holdings are valued at cost until they are next priced.
+   *
+   * @param uploaded Uploaded holdings by symbol; consumed by this call
+   */
+  private UploadTotals replaceHoldings(UUID portfolioId, Map<String, UploadedHolding> uploaded) {
+    BigDecimal marketValue = BigDecimal.ZERO;
+    BigDecimal costBasis = BigDecimal.ZERO;
+    List<UUID> removed = new ArrayList<>();
+    Map<UUID, UploadedHolding> changed = new LinkedHashMap<>();
+    int unchanged = 0;
+
+    for (HoldingSnapshot current : holdingRepository.findSnapshotsByPortfolioId(portfolioId)) {
+      UploadedHolding upload = uploaded.remove(current.symbol());
+      if (upload == null) {
+        removed.add(current.id());
+      } else if (upload.matches(current)) {
+        unchanged++;
+        marketValue = marketValue.add(current.currentMarketValue());
+        costBasis = costBasis.add(upload.costBasis());
+      } else {
+        changed.put(current.id(), upload);
+        marketValue = marketValue.add(upload.costBasis());
+        costBasis = costBasis.add(upload.costBasis());
+      }
+    }
+
+    for (List<UUID> ids : chunks(removed)) {
+      holdingRepository.deleteAllByIdIn(ids);
+    }
+
+    for (List<UUID> ids : chunks(new ArrayList<>(changed.keySet()))) {
+      List<Holding> holdings = holdingRepository.findAllById(ids);
+      for (Holding holding : holdings) {
+        changed.get(holding.getId()).applyTo(holding);
+      }
+      flushAndDetach(holdings);
+    }
+
+    List<Holding> inserts = new ArrayList<>(UPLOAD_FLUSH_ROWS);
+    for (Map.Entry<String, UploadedHolding> entry : uploaded.entrySet()) {
+      Holding holding = Holding.builder().portfolioId(portfolioId).symbol(entry.getKey()).build();
+      entry.getValue().applyTo(holding);
+      holding.setAcquisitionDate(LocalDate.now());
+      inserts.add(holding);
+      marketValue = marketValue.add(holding.getCurrentMarketValue());
+      costBasis = costBasis.add(holding.getCostBasis());
+      if (inserts.size() == UPLOAD_FLUSH_ROWS) {
+        holdingRepository.saveAll(inserts);
+        flushAndDetach(inserts);
+        inserts.clear();
+      }
+    }
+    holdingRepository.saveAll(inserts);
+    flushAndDetach(inserts);
+
+    log.info(
+        "Holdings upload for portfolio {}: {} inserted, {} updated, {} deleted, {} unchanged",
+        portfolioId,
+        uploaded.size(),
+        changed.size(),
+        removed.size(),
+        unchanged);
+    return new UploadTotals(marketValue, costBasis);
+  }
+
+  /** Flush pending writes as JDBC batches and stop tracking the written holdings. */
+  private void flushAndDetach(List<Holding> holdings) {
+    entityManager.flush();
+    holdings.forEach(entityManager::detach);
+  }
+
+  private static <T> List<List<T>> chunks(List<T> items) {
+    List<List<T>> chunks = new ArrayList<>();
+    for (int from = 0; from < items.size(); from += UPLOAD_FLUSH_ROWS) {
+      chunks.add(items.subList(from, Math.min(from + UPLOAD_FLUSH_ROWS, items.size())));
+    }
+    return chunks;
+  }
+
+  /** Portfolio totals after an upload. */
+  private record UploadTotals(BigDecimal marketValue, BigDecimal costBasis) {}
+
+  /**
+   * One uploaded symbol: the sum of its lots, at the holding columns' scales.
+   *
+   * @param currency Currency of the lots
+   * @param quantity Total shares
+   * @param costBasis Total cost basis
+   */
+  private record UploadedHolding(String currency, BigDecimal quantity, BigDecimal costBasis) {
+
+    static UploadedHolding of(HoldingsUploadRequest lot) {
+      BigDecimal quantity = BigDecimal.valueOf(lot.getQuantity());
+      BigDecimal costBasis = quantity.multiply(BigDecimal.valueOf(lot.getCostBasis()));
+      return new UploadedHolding(
+          lot.getCurrency(),
+          quantity.setScale(QUANTITY_SCALE, RoundingMode.HALF_UP),
+          costBasis.setScale(MONEY_SCALE, RoundingMode.HALF_UP));
+    }
+
+    UploadedHolding plus(UploadedHolding lot) {
+      return new UploadedHolding(
+          currency, quantity.add(lot.quantity), costBasis.add(lot.costBasis));
+    }
+
+    BigDecimal costBasisPerShare() {
+      return costBasis.divide(quantity, MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+
+    boolean matches(HoldingSnapshot holding) {
+      return quantity.compareTo(holding.quantity()) == 0
+          && costBasis.compareTo(holding.costBasis()) == 0
+          && currency.equals(holding.currency());
+    }
+
+    /** Set the uploaded position, valued at cost as a freshly uploaded holding is. */
+    void applyTo(Holding holding) {
+      BigDecimal costBasisPerShare = costBasisPerShare();
+      holding.setQuantity(quantity);
+      holding.setCostBasis(costBasis);
+      holding.setCostBasisPerShare(costBasisPerShare);
+      holding.setCurrency(currency);
+      holding.setCurrentPrice(costBasisPerShare); // Initially use cost basis as current price
+      holding.setCurrentMarketValue(costBasis);
+      holding.setUnrealizedPnl(BigDecimal.ZERO);
+      holding.setUnrealizedPnlPct(BigDecimal.ZERO);
+    }
+  }
+
   public static class PortfolioNotFoundException extends RuntimeException {
     public PortfolioNotFoundException(String message) {
       super(message);
@@ -32,7 +32,7 @@ public class RecommendationEngine {
   private final UniverseConstituentRepository universeConstituentRepository;
   private final HoldingRepository holdingRepository;
   private final RecommendationRepository recommendationRepository;
-  private final com.stockmonitor.controller.RunStatusWebSocketController runStatusWebSocketController;
+  private final RunProgressPublisher runProgressPublisher;
 
   /**
    * Generate recommendations for a portfolio.
@@ -54,7 +54,7 @@ public class RecommendationEngine {
         constraints.getName());
 
     // Progress: Starting (0%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 0, "Starting recommendation generation");
 
     // 1. Get universe constituents
@@ -63,7 +63,7 @@ public class RecommendationEngine {
     log.info("Universe contains {} active constituents", constituents.size());
 
     // Progress: Universe loaded (10%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 10, "Loaded " + constituents.size() + " universe constituents");
 
     // 2. Calculate factor scores for all constituents
@@ -82,7 +82,7 @@ public class RecommendationEngine {
     }
 
     // Progress: Factor scores calculated (40%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 40, "Calculated factor scores for all stocks");
 
     // 3. Calculate composite scores (equal-weighted factors)
@@ -98,7 +98,7 @@ public class RecommendationEngine {
     }
 
     // Progress: Composite scores calculated (50%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 50, "Calculated composite scores");
 
     // 4. Rank stocks by composite score
@@ -108,7 +108,7 @@ public class RecommendationEngine {
             .collect(Collectors.toList());
 
     // Progress: Stocks ranked (60%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 60, "Ranked " + rankedStocks.size() + " stocks by composite score");
 
     // 5. Get current holdings
@@ -121,7 +121,7 @@ public class RecommendationEngine {
     BigDecimal targetWeightPerPosition = BigDecimal.valueOf(100.0 / targetHoldings);
 
     // Progress: Starting recommendation generation (70%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 70, "Generating recommendations for top " + targetHoldings + " stocks");
 
     for (int i = 0; i < Math.min(targetHoldings, rankedStocks.size()); i++) {
@@ -216,7 +216,7 @@ public class RecommendationEngine {
     }
 
     // Progress: Recommendations completed (100%)
-    runStatusWebSocketController.sendStatusUpdate(
+    runProgressPublisher.publish(
         run.getId(), "RUNNING", 100, "Generated " + recommendations.size() + " recommendations successfully");
 
     log.info("Generated {} recommendations for run {}", recommendations.size(), run.getId());
@@ -2,6 +2,8 @@ package com.stockmonitor.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmonitor.dto.CursorPage;
+import com.stockmonitor.dto.PageCursor;
 import com.stockmonitor.dto.RecommendationDTO;
 import com.stockmonitor.dto.RecommendationRunDTO;
 import com.stockmonitor.model.*;
@@ -15,6 +17,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +39,7 @@ public class RecommendationService {
   private final ConstraintSetRepository constraintSetRepository;
   private final PortfolioRepository portfolioRepository;
   private final ObjectMapper objectMapper;
+  private final RunProgressPublisher runProgressPublisher;
 
   /**
    * Trigger a new recommendation run for a portfolio.
@@ -146,6 +150,7 @@ public class RecommendationService {
       savedRun.setDecision("PENDING"); // User needs to review
 
       recommendationRunRepository.save(savedRun);
+      runProgressPublisher.publish(savedRun.getId(), "COMPLETED", 100, "Run completed");
 
       log.info(
           "Recommendation run {} completed successfully with {} recommendations",
@@ -158,6 +163,7 @@ public class RecommendationService {
       savedRun.setErrorMessage(e.getMessage());
       savedRun.setCompletedAt(LocalDateTime.now());
       recommendationRunRepository.save(savedRun);
+      runProgressPublisher.publishError(savedRun.getId(), e.getMessage());
       throw new RuntimeException("Failed to generate recommendations", e);
     }
 
@@ -201,17 +207,28 @@ public class RecommendationService {
   }
 
   /**
-   * Get all recommendation runs for a user.
+   * Get one page of a user's recommendation runs, ordered by created date descending.
+   *
+   * <p>Keyset-paginated on (createdAt, id) and projected straight into DTOs, so the cost of a
+   * page does not grow with the user's history.
    *
    * @param userId User ID
-   * @return List of runs ordered by created date descending
+   * @param after Position of the last run of the previous page, or null for the first page
+   * @param limit Page size, clamped to {@link CursorPage#MAX_LIMIT}
+   * @return Page of runs with the cursor of the next page
    */
   @Transactional(readOnly = true)
-  public List<RecommendationRunDTO> getRecommendationRunsForUser(UUID userId) {
-    log.info("Fetching recommendation runs for user {}", userId);
-    return recommendationRunRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-        .map(RecommendationRunDTO::from)
-        .collect(Collectors.toList());
+  public CursorPage<RecommendationRunDTO> getRecommendationRunsForUser(
+      UUID userId, PageCursor after, int limit) {
+    log.info("Fetching recommendation runs for user {} after {}", userId, after);
+    int pageSize = CursorPage.clampLimit(limit);
+    PageRequest fetch = PageRequest.ofSize(pageSize + 1);
+    List<RecommendationRunDTO> rows =
+        after == null
+            ? recommendationRunRepository.findPageByUserId(userId, fetch)
+            : recommendationRunRepository.findPageByUserIdAfter(
+                userId, after.createdAt(), after.id(), fetch);
+    return CursorPage.of(rows, pageSize, dto -> new PageCursor(dto.getCreatedAt(), dto.getId()));
   }
 
   /**
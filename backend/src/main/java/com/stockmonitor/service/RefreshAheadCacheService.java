@@ -0,0 +1,432 @@
+package com.stockmonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.stockmonitor.config.CacheConfig;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Two-level cache with refresh-ahead and stampede protection for hot read paths.
+ *
+ * <p>Uses the TTLs configured in {@link CacheConfig}. Features:
+ * - Local Caffeine tier per cache name, shared Redis tier across nodes
+ * - Refresh-ahead: once an entry is past 80% of its TTL, the next read schedules an asynchronous
+ *   reload and keeps serving the current value until the new one is in place
+ * - Stampede protection on cold misses: concurrent callers on one node wait for a single load
+ *   (a per-key future, so waiting never blocks other keys), and a short Redis lock ensures only
+ *   one node runs the loader; the others pick up its result
+ * - Local fallback: if Redis is unreachable the shared tier and lock are skipped for a while and
+ *   each node loads on its own
+ * - Warm-up: entries can be written ahead of their first read (see CacheWarmupService)
+ */
+@Service
+@Slf4j
+public class RefreshAheadCacheService {
+
+  static final double REFRESH_AHEAD_RATIO = 0.8;
+  static final long MAX_LOCAL_ENTRIES = 10_000;
+  static final Duration LOCK_TTL = Duration.ofSeconds(10);
+  static final Duration LOCK_WAIT = Duration.ofSeconds(5);
+  static final long LOCK_POLL_MS = 50;
+  static final Duration REDIS_RETRY_AFTER = Duration.ofSeconds(30);
+
+  private static final String SHARED_PREFIX = "refresh-ahead:";
+  private static final String LOCK_PREFIX = "refresh-ahead-lock:";
+
+  /** Deletes the lock only if this node still owns it. */
+  private static final DefaultRedisScript<Long> UNLOCK_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+              + "else return 0 end",
+          Long.class);
+
+  private final ObjectMapper objectMapper;
+  private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+  private final Executor refreshExecutor;
+  private final Ticker ticker;
+
+  private final Map<String, Cache<String, Entry>> caches = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<Entry>> loadsInFlight = new ConcurrentHashMap<>();
+  private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+  private volatile long redisRetryAtNanos;
+
+  @Autowired
+  public RefreshAheadCacheService(
+      ObjectMapper objectMapper,
+      ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+      @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+    this(objectMapper, redisTemplateProvider, refreshExecutor, Ticker.systemTicker());
+  }
+
+  RefreshAheadCacheService(
+      ObjectMapper objectMapper,
+      ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+      Executor refreshExecutor,
+      Ticker ticker) {
+    this.objectMapper = objectMapper;
+    this.redisTemplateProvider = redisTemplateProvider;
+    this.refreshExecutor = refreshExecutor;
+    this.ticker = ticker;
+    this.redisRetryAtNanos = ticker.read();
+  }
+
+  /**
+   * Get a cached value, loading it on a miss and refreshing it ahead of expiry.
+   *
+   * @param cacheName Cache name from {@link CacheConfig} (determines TTL)
+   * @param key Key within the cache
+   * @param type Value type, used to deserialize the shared Redis tier
+   * @param loader Computes the value; must be safe to call from a background thread
+   * @return Cached or freshly loaded value (null if the loader returned null)
+   */
+  public <T> T get(String cacheName, String key, Class<T> type, Supplier<T> loader) {
+    Duration ttl = CacheConfig.ttlFor(cacheName);
+    Cache<String, Entry> cache = localCache(cacheName);
+
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      if (ticker.read() >= entry.refreshAtNanos) {
+        scheduleRefresh(cacheName, key, ttl, loader);
+      }
+      return type.cast(entry.value);
+    }
+
+    // One load per key on this node; concurrent callers wait on its future. The wait happens
+    // outside any cache or map lock, so a slow load never holds up other keys.
+    String loadKey = cacheName + "::" + key;
+    CompletableFuture<Entry> load = new CompletableFuture<>();
+    CompletableFuture<Entry> inFlight = loadsInFlight.putIfAbsent(loadKey, load);
+    if (inFlight != null) {
+      Entry loaded = await(inFlight);
+      return loaded != null ? type.cast(loaded.value) : null;
+    }
+
+    try {
+      Entry loaded = cache.getIfPresent(key); // A load may have finished since the first check
+      if (loaded == null) {
+        loaded = loadOnMiss(cacheName, key, ttl, type, loader);
+        if (loaded != null) {
+          cache.put(key, loaded);
+        }
+      }
+      load.complete(loaded);
+      return loaded != null ? type.cast(loaded.value) : null;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loadsInFlight.remove(loadKey, load);
+    }
+  }
+
+  /**
+   * Write entries ahead of their first read, in both tiers (Redis writes are pipelined).
+   *
+   * <p>Each entry lives for {@code ttl} instead of the cache's own TTL and is refreshed ahead once
+   * 80% of that has passed. Nodes that pick the entry up from Redis refresh it on the cache's own
+   * schedule, serving the warm value until the reload is in place.
+   *
+   * @param cacheName Cache name from {@link CacheConfig}
+   * @param entries Values by key within the cache
+   * @param ttl Lifetime of the written entries
+   */
+  public void putAll(String cacheName, Map<String, ?> entries, Duration ttl) {
+    Cache<String, Entry> cache = localCache(cacheName);
+    entries.forEach((key, value) -> cache.put(key, newEntry(value, ttl)));
+    withRedis(
+        redis -> {
+          List<Map.Entry<String, String>> serialized = new ArrayList<>(entries.size());
+          for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            serialized.add(Map.entry(sharedKey(cacheName, entry.getKey()),
+                objectMapper.writeValueAsString(entry.getValue())));
+          }
+          return redis.executePipelined(
+              new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations)
+                    throws DataAccessException {
+                  RedisOperations<String, String> ops =
+                      (RedisOperations<String, String>) operations;
+                  for (Map.Entry<String, String> entry : serialized) {
+                    ops.opsForValue().set(entry.getKey(), entry.getValue(), ttl);
+                  }
+                  return null;
+                }
+              });
+        },
+        null);
+  }
+
+  /**
+   * Count keys with a live entry in either tier, without loading anything.
+   *
+   * @param cacheName Cache name from {@link CacheConfig}
+   * @param keys Keys within the cache
+   * @return Number of keys cached on this node or in the shared tier
+   */
+  public long countCached(String cacheName, Collection<String> keys) {
+    Cache<String, Entry> cache = localCache(cacheName);
+    List<String> sharedKeys = new ArrayList<>();
+    long cached = 0;
+    for (String key : keys) {
+      if (cache.getIfPresent(key) != null) {
+        cached++;
+      } else {
+        sharedKeys.add(sharedKey(cacheName, key));
+      }
+    }
+    if (!sharedKeys.isEmpty()) {
+      Long shared = withRedis(redis -> redis.countExistingKeys(sharedKeys), 0L);
+      cached += shared != null ? shared : 0;
+    }
+    return cached;
+  }
+
+  /** Drop an entry from both tiers. */
+  public void evict(String cacheName, String key) {
+    localCache(cacheName).invalidate(key);
+    withRedis(redis -> redis.delete(sharedKey(cacheName, key)), null);
+  }
+
+  private Entry loadOnMiss(
+      String cacheName, String key, Duration ttl, Class<?> type, Supplier<?> loader) {
+    Entry shared = readShared(cacheName, key, ttl, type);
+    if (shared != null) {
+      return shared;
+    }
+
+    String lockToken = tryLock(cacheName, key);
+    if (lockToken == null && redisAvailable()) {
+      // Another node is loading this key: wait for its result rather than piling on
+      for (long waited = 0; waited < LOCK_WAIT.toMillis(); waited += LOCK_POLL_MS) {
+        if (!sleep(LOCK_POLL_MS)) {
+          break;
+        }
+        shared = readShared(cacheName, key, ttl, type);
+        if (shared != null) {
+          return shared;
+        }
+      }
+      log.debug("Timed out waiting for shared load of {}::{}, loading locally", cacheName, key);
+    }
+
+    try {
+      Object value = loader.get();
+      if (value == null) {
+        return null;
+      }
+      writeShared(cacheName, key, value, ttl);
+      return newEntry(value, ttl);
+    } finally {
+      if (lockToken != null) {
+        unlock(cacheName, key, lockToken);
+      }
+    }
+  }
+
+  private void scheduleRefresh(String cacheName, String key, Duration ttl, Supplier<?> loader) {
+    String refreshKey = cacheName + "::" + key;
+    if (!refreshesInFlight.add(refreshKey)) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(
+          () -> {
+            String lockToken = tryLock(cacheName, key);
+            try {
+              if (lockToken == null && redisAvailable()) {
+                return; // Another node is refreshing; its result reaches us on our next miss
+              }
+              Object value = loader.get();
+              if (value != null) {
+                writeShared(cacheName, key, value, ttl);
+                localCache(cacheName).put(key, newEntry(value, ttl));
+                log.debug("Refreshed ahead of expiry: {}", refreshKey);
+              }
+            } catch (RuntimeException e) {
+              log.warn("Refresh-ahead failed for {}: {}", refreshKey, e.getMessage());
+            } finally {
+              if (lockToken != null) {
+                unlock(cacheName, key, lockToken);
+              }
+              refreshesInFlight.remove(refreshKey);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      refreshesInFlight.remove(refreshKey);
+      log.debug("Refresh executor saturated, skipping refresh of {}", refreshKey);
+    }
+  }
+
+  private Cache<String, Entry> localCache(String cacheName) {
+    return caches.computeIfAbsent(
+        cacheName,
+        name ->
+            Caffeine.newBuilder()
+                .maximumSize(MAX_LOCAL_ENTRIES)
+                .expireAfter(new EntryExpiry())
+                .ticker(ticker)
+                .recordStats()
+                .build());
+  }
+
+  private Entry newEntry(Object value, Duration ttl) {
+    long now = ticker.read();
+    long ttlNanos = ttl.toNanos();
+    return new Entry(value, now + (long) (ttlNanos * REFRESH_AHEAD_RATIO), now + ttlNanos);
+  }
+
+  private Entry readShared(String cacheName, String key, Duration ttl, Class<?> type) {
+    return withRedis(
+        redis -> {
+          String sharedKey = sharedKey(cacheName, key);
+          String json = redis.opsForValue().get(sharedKey);
+          if (json == null) {
+            return null;
+          }
+          Long remainingMs = redis.getExpire(sharedKey, TimeUnit.MILLISECONDS);
+          long remaining = remainingMs != null && remainingMs > 0 ? remainingMs : ttl.toMillis();
+          Object value = objectMapper.readValue(json, type);
+          // Preserve the shared entry's age so refresh-ahead fires on schedule
+          long now = ticker.read();
+          long ttlNanos = ttl.toNanos();
+          long ageNanos = Math.max(0, ttlNanos - TimeUnit.MILLISECONDS.toNanos(remaining));
+          return new Entry(
+              value,
+              now + (long) (ttlNanos * REFRESH_AHEAD_RATIO) - ageNanos,
+              now + TimeUnit.MILLISECONDS.toNanos(remaining));
+        },
+        null);
+  }
+
+  private void writeShared(String cacheName, String key, Object value, Duration ttl) {
+    withRedis(
+        redis -> {
+          redis.opsForValue().set(sharedKey(cacheName, key), objectMapper.writeValueAsString(value),
+              ttl);
+          return null;
+        },
+        null);
+  }
+
+  private String tryLock(String cacheName, String key) {
+    String token = UUID.randomUUID().toString();
+    Boolean acquired =
+        withRedis(
+            redis -> redis.opsForValue().setIfAbsent(lockKey(cacheName, key), token, LOCK_TTL),
+            null);
+    return Boolean.TRUE.equals(acquired) ? token : null;
+  }
+
+  private void unlock(String cacheName, String key, String token) {
+    withRedis(
+        redis -> redis.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey(cacheName, key)),
+            token),
+        null);
+  }
+
+  private boolean redisAvailable() {
+    return redisTemplateProvider.getIfAvailable() != null && ticker.read() >= redisRetryAtNanos;
+  }
+
+  private <R> R withRedis(RedisCall<R> call, R fallback) {
+    StringRedisTemplate redis = redisTemplateProvider.getIfAvailable();
+    if (redis == null || ticker.read() < redisRetryAtNanos) {
+      return fallback;
+    }
+    try {
+      return call.apply(redis);
+    } catch (Exception e) {
+      redisRetryAtNanos = ticker.read() + REDIS_RETRY_AFTER.toNanos();
+      log.warn("Redis unavailable for refresh-ahead cache, using local tier only for {}s: {}",
+          REDIS_RETRY_AFTER.toSeconds(), e.getMessage());
+      return fallback;
+    }
+  }
+
+  /** Result of another caller's load, rethrowing its failure. */
+  private static Entry await(CompletableFuture<Entry> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static String sharedKey(String cacheName, String key) {
+    return SHARED_PREFIX + cacheName + "::" + key;
+  }
+
+  private static String lockKey(String cacheName, String key) {
+    return LOCK_PREFIX + cacheName + "::" + key;
+  }
+
+  @FunctionalInterface
+  private interface RedisCall<R> {
+    R apply(StringRedisTemplate redis) throws Exception;
+  }
+
+  /** Cached value with its refresh and expiry deadlines (ticker nanos). */
+  private record Entry(Object value, long refreshAtNanos, long expiresAtNanos) {}
+
+  /** Expires each entry at its own deadline so shared entries keep their remaining TTL. */
+  private static class EntryExpiry implements Expiry<String, Entry> {
+    @Override
+    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+      return Math.max(0, entry.expiresAtNanos - currentTime);
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Entry entry, long currentTime,
+        long currentDuration) {
+      return Math.max(0, entry.expiresAtNanos - currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Entry entry, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
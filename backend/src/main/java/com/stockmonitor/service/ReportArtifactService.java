@@ -0,0 +1,340 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ReportDTO;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.model.Report;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.repository.ReportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-rendered PDF reports for finalized runs per FR-041 to FR-044.
+ *
+ * A FINALIZED run's report no longer changes, so its PDF is rendered once - by the finalization
+ * job's generateReports step or on first download - and written to the report storage directory
+ * under its SHA-256 content hash. The Report row records path, size and hash; later downloads
+ * stream the stored file and use the hash as ETag, so clients revalidate with a 304 instead of
+ * re-downloading. Concurrent first requests for the same run share one render. The month-end job
+ * renders finalized runs in chunks with {@link #renderAll}, in parallel on the render pool.
+ *
+ * Runs that are not yet finalized (e.g. COMPLETED ad-hoc runs) are not cached and are rendered
+ * on every request by ReportGenerationService.
+ */
+@Service
+@Slf4j
+public class ReportArtifactService {
+
+    /** Statuses whose report content is final. */
+    private static final Set<String> CACHEABLE_STATUSES = Set.of("FINALIZED", "ARCHIVED");
+
+    private static final String REPORT_TYPE = "MONTH_END";
+    private static final String FORMAT_PDF = "PDF";
+    private static final int MAX_SUMMARY_LENGTH = 2000;
+    private static final int MAX_DISCLAIMER_LENGTH = 5000;
+
+    private final ReportGenerationService reportGenerationService;
+    private final ReportRenderingService reportRenderingService;
+    private final RecommendationRunRepository runRepository;
+    private final ReportRepository reportRepository;
+    private final Path storageDir;
+
+    private final Map<UUID, CompletableFuture<ReportArtifact>> inFlight = new ConcurrentHashMap<>();
+
+    public ReportArtifactService(
+            ReportGenerationService reportGenerationService,
+            ReportRenderingService reportRenderingService,
+            RecommendationRunRepository runRepository,
+            ReportRepository reportRepository,
+            @Value("${app.reports.storage-dir:${java.io.tmpdir}/stockmonitor/reports}") String storageDir) {
+        this.reportGenerationService = reportGenerationService;
+        this.reportRenderingService = reportRenderingService;
+        this.runRepository = runRepository;
+        this.reportRepository = reportRepository;
+        this.storageDir = Path.of(storageDir);
+    }
+
+    /**
+     * Stored PDF for a run, rendering and storing it first if needed.
+     *
+     * @param runId Run ID
+     * @return The stored artifact, or empty if the run is not finalized and must be rendered per request
+     * @throws IllegalArgumentException if run not found
+     * @throws IllegalStateException if the run's report cannot be generated
+     */
+    public Optional<ReportArtifact> findOrRenderPdf(UUID runId) {
+        RecommendationRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Run not found: " + runId));
+        if (!CACHEABLE_STATUSES.contains(run.getStatus())) {
+            return Optional.empty();
+        }
+
+        Optional<ReportArtifact> stored = findStored(runId);
+        if (stored.isPresent()) {
+            return stored;
+        }
+
+        CompletableFuture<ReportArtifact> render = new CompletableFuture<>();
+        CompletableFuture<ReportArtifact> existing = inFlight.putIfAbsent(runId, render);
+        if (existing != null) {
+            // Another request is rendering this run; wait for its result
+            return Optional.of(await(existing));
+        }
+        try {
+            render.complete(findStored(runId).orElseGet(() -> renderAndStore(run)));
+        } catch (RuntimeException e) {
+            render.completeExceptionally(e);
+        } finally {
+            inFlight.remove(runId, render);
+        }
+        return Optional.of(await(render));
+    }
+
+    private Optional<ReportArtifact> findStored(UUID runId) {
+        return reportRepository.findByRunId(runId)
+                .filter(report -> report.getContentHash() != null && report.getFilePath() != null)
+                .map(ReportArtifactService::toArtifact)
+                .filter(artifact -> Files.isRegularFile(artifact.path()));
+    }
+
+    /**
+     * Render and store the PDFs of a chunk of finalized runs in parallel on the render pool.
+     *
+     * Report content is built on the calling thread, renders are queued together, and results are
+     * stored as they are collected, so at most one chunk of PDFs is held in memory. Runs already
+     * stored or being rendered by a concurrent request are skipped; a failed run is counted and
+     * left for on-demand rendering.
+     *
+     * @param runs FINALIZED runs
+     * @return Counts and elapsed time for the chunk
+     */
+    public BulkRenderResult renderAll(List<RecommendationRun> runs) {
+        long start = System.nanoTime();
+        int skipped = 0;
+        int failed = 0;
+        List<PendingRender> pending = new ArrayList<>(runs.size());
+        for (RecommendationRun run : runs) {
+            if (findStored(run.getId()).isPresent()) {
+                skipped++;
+                continue;
+            }
+            CompletableFuture<ReportArtifact> claim = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(run.getId(), claim) != null) {
+                skipped++;
+                continue;
+            }
+            try {
+                ReportDTO dto = reportGenerationService.generateReport(run.getId());
+                pending.add(new PendingRender(run, dto, claim, reportRenderingService.renderAsync(dto)));
+            } catch (RuntimeException e) {
+                failed++;
+                fail(run, claim, e);
+            }
+        }
+
+        int rendered = 0;
+        for (PendingRender render : pending) {
+            try {
+                ReportArtifact artifact = store(render.run(), render.dto(), await(render.pdf()));
+                render.claim().complete(artifact);
+                rendered++;
+            } catch (RuntimeException e) {
+                failed++;
+                fail(render.run(), render.claim(), e);
+            } finally {
+                inFlight.remove(render.run().getId(), render.claim());
+            }
+        }
+        return new BulkRenderResult(rendered, skipped, failed, System.nanoTime() - start);
+    }
+
+    private void fail(RecommendationRun run, CompletableFuture<ReportArtifact> claim, RuntimeException e) {
+        log.warn("Failed to pre-render report for run {}: {}", run.getId(), e.getMessage());
+        claim.completeExceptionally(e);
+        inFlight.remove(run.getId(), claim);
+    }
+
+    private ReportArtifact renderAndStore(RecommendationRun run) {
+        ReportDTO dto = reportGenerationService.generateReport(run.getId());
+        return store(run, dto, reportRenderingService.renderPDF(dto));
+    }
+
+    private ReportArtifact store(RecommendationRun run, ReportDTO dto, byte[] pdf) {
+        String contentHash = sha256(pdf);
+        Path path = write(contentHash, pdf);
+
+        Report report = reportRepository.findByRunId(run.getId()).orElseGet(Report::new);
+        report.setRunId(run.getId());
+        report.setUserId(run.getUserId());
+        report.setReportType(REPORT_TYPE);
+        report.setFormat(FORMAT_PDF);
+        report.setFilePath(path.toString());
+        report.setFileSizeBytes((long) pdf.length);
+        report.setContentHash(contentHash);
+        report.setSummaryText(truncate(summaryText(dto), MAX_SUMMARY_LENGTH));
+        report.setRecommendationCount(dto.getSummary() != null
+                ? Objects.requireNonNullElse(dto.getSummary().getTotalRecommendations(), 0) : 0);
+        report.setExclusionCount(dto.getExclusions() != null ? dto.getExclusions().size() : 0);
+        if (report.getConstraintSnapshot() == null) {
+            report.setConstraintSnapshot("{}");
+        }
+        report.setDisclaimerText(truncate(disclaimerText(dto), MAX_DISCLAIMER_LENGTH));
+        report.setDisclaimerVersion(Objects.requireNonNullElse(dto.getReportVersion(), "1.0"));
+        report.setGenerationTimestamp(dto.getGeneratedAt() != null ? dto.getGeneratedAt() : LocalDateTime.now());
+        if (report.getDownloadCount() == null) {
+            report.setDownloadCount(0);
+        }
+
+        try {
+            report = reportRepository.save(report);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored this run's report first; serve that one
+            log.info("Report for run {} was stored concurrently, using the stored artifact", run.getId());
+            return findStored(run.getId()).orElseThrow(() -> e);
+        }
+
+        log.debug("Stored PDF report for run {} ({} bytes)", run.getId(), pdf.length);
+        return toArtifact(report);
+    }
+
+    /** Write the file under its content hash; identical content is written once. */
+    private Path write(String contentHash, byte[] pdf) {
+        Path target = storageDir.resolve(contentHash + ".pdf");
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        try {
+            Files.createDirectories(storageDir);
+            Path temp = Files.createTempFile(storageDir, contentHash, ".tmp");
+            try {
+                Files.write(temp, pdf);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store report " + target, e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ReportArtifact toArtifact(Report report) {
+        return new ReportArtifact(
+                report.getRunId(),
+                report.getContentHash(),
+                report.getFileSizeBytes() != null ? report.getFileSizeBytes() : 0L,
+                report.getGenerationTimestamp(),
+                Path.of(report.getFilePath()));
+    }
+
+    private static String summaryText(ReportDTO dto) {
+        ReportDTO.SummarySection summary = dto.getSummary();
+        if (summary == null) {
+            return "Report for run " + dto.getRunId();
+        }
+        return String.format("%d recommendations (%d buy, %d sell, %d hold)",
+                summary.getTotalRecommendations(), summary.getBuyCount(),
+                summary.getSellCount(), summary.getHoldCount());
+    }
+
+    private static String disclaimerText(ReportDTO dto) {
+        List<String> disclaimers = dto.getDisclaimers();
+        return disclaimers == null || disclaimers.isEmpty() ? "-" : String.join("\n", disclaimers);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record PendingRender(
+            RecommendationRun run, ReportDTO dto, CompletableFuture<ReportArtifact> claim,
+            CompletableFuture<byte[]> pdf) {
+    }
+
+    /**
+     * Outcome of rendering a chunk of runs.
+     *
+     * @param rendered PDFs rendered and stored
+     * @param skipped Runs already stored or rendered concurrently
+     * @param failed Runs whose report could not be rendered
+     * @param elapsedNanos Wall-clock time
+     */
+    public record BulkRenderResult(int rendered, int skipped, int failed, long elapsedNanos) {
+
+        public static final BulkRenderResult EMPTY = new BulkRenderResult(0, 0, 0, 0);
+
+        public BulkRenderResult plus(BulkRenderResult other) {
+            return new BulkRenderResult(rendered + other.rendered, skipped + other.skipped,
+                    failed + other.failed, elapsedNanos + other.elapsedNanos);
+        }
+
+        /** Rendered PDFs per second of wall-clock time. */
+        public double pdfsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rendered * 1_000_000_000d / elapsedNanos;
+        }
+    }
+
+    /**
+     * A stored report file.
+     *
+     * @param runId Run the report belongs to
+     * @param contentHash SHA-256 (hex) of the file content
+     * @param sizeBytes File size
+     * @param generatedAt When the report was rendered
+     * @param path Location in the report storage directory
+     */
+    public record ReportArtifact(
+            UUID runId, String contentHash, long sizeBytes, LocalDateTime generatedAt, Path path) {
+
+        /** Strong ETag value (unquoted) for the file. */
+        public String etag() {
+            return contentHash;
+        }
+    }
+}
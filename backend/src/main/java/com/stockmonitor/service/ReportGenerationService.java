@@ -8,11 +8,8 @@ import com.stockmonitor.repository.RecommendationRunRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-import org.xhtmlrenderer.pdf.ITextRenderer;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -24,7 +21,8 @@ import java.util.stream.Collectors;
  *
  * T109: Generates HTML and PDF reports for recommendation runs.
  *
- * Uses Thymeleaf for HTML templating and Flying Saucer (OpenHTMLtoPDF) for PDF generation.
+ * Builds the report content; PDF rendering (Thymeleaf template, Flying Saucer) is done by
+ * ReportRenderingService.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,7 +31,7 @@ public class ReportGenerationService {
 
     private final RecommendationRunRepository runRepository;
     private final RecommendationRepository recommendationRepository;
-    private final TemplateEngine templateEngine;
+    private final ReportRenderingService reportRenderingService;
 
     /**
      * Generate report DTO for a completed run.
@@ -86,41 +84,30 @@ public class ReportGenerationService {
      */
     public byte[] generatePDF(UUID runId) {
         log.info("Generating PDF for run {}", runId);
-
-        // Generate report DTO
-        ReportDTO report = generateReport(runId);
-
-        // Generate HTML from Thymeleaf template
-        String html = generateHTML(report);
-
-        // Convert HTML to PDF using Flying Saucer
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            ITextRenderer renderer = new ITextRenderer();
-            renderer.setDocumentFromString(html);
-            renderer.layout();
-            renderer.createPDF(outputStream);
-
-            byte[] pdfBytes = outputStream.toByteArray();
-            log.info("Generated PDF for run {} ({} bytes)", runId, pdfBytes.length);
-            return pdfBytes;
-        } catch (Exception e) {
-            log.error("Failed to generate PDF for run {}: {}", runId, e.getMessage(), e);
-            throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
-        }
+        return renderPDF(generateReport(runId));
     }
 
     /**
-     * Generate HTML from report DTO using Thymeleaf template.
+     * Render a report DTO to PDF bytes.
      *
      * @param report Report DTO
-     * @return HTML string
+     * @return PDF bytes
      */
-    private String generateHTML(ReportDTO report) {
-        Context context = new Context();
-        context.setVariable("report", report);
-        context.setVariable("generatedDate", LocalDateTime.now());
+    public byte[] renderPDF(ReportDTO report) {
+        byte[] pdfBytes = reportRenderingService.renderPDF(report);
+        log.info("Generated PDF for run {} ({} bytes)", report.getRunId(), pdfBytes.length);
+        return pdfBytes;
+    }
 
-        return templateEngine.process("report", context);
+    /**
+     * Render a report DTO to PDF, streaming it to {@code out}.
+     *
+     * @param report Report DTO
+     * @param out Destination, flushed but not closed
+     */
+    public void writePDF(ReportDTO report, OutputStream out) {
+        long bytes = reportRenderingService.renderPDF(report, out);
+        log.info("Streamed PDF for run {} ({} bytes)", report.getRunId(), bytes);
     }
 
     /**
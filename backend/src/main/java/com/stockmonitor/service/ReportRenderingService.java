@@ -0,0 +1,349 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.config.MetricsConfig.ReportMetrics;
+import com.stockmonitor.dto.ReportDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PDF rendering for recommendation reports per FR-041 to FR-044.
+ *
+ * All renders run on the bounded report render pool (see AsyncConfiguration), which keeps
+ * CPU-bound layout off request threads and caps how many documents are held in memory at once.
+ * Each pool thread keeps its own ITextRenderer, so the font resolver, user agent and CSS state are
+ * built once per worker instead of once per PDF; the report template is parsed once and cached by
+ * the template engine. On startup every worker renders a sample report (app.reports.render.preload),
+ * so the first month-end PDFs do not pay for class loading, template parsing and font setup.
+ *
+ * Per-render memory is bounded by app.reports.render.max-html-chars (template output) and
+ * max-pdf-bytes (PDF output); a report over either limit fails with ReportTooLargeException.
+ * Downloads use {@link #renderPDF(ReportDTO, OutputStream)}, which writes the PDF to the response
+ * as the renderer produces it instead of buffering the whole document.
+ */
+@Service
+@Slf4j
+public class ReportRenderingService {
+
+    /** A worker drops its renderer after a document this large instead of keeping its layout. */
+    private static final int MAX_RETAINED_HTML_CHARS = 200_000;
+
+    private static final ThreadLocal<ITextRenderer> RENDERER = new ThreadLocal<>();
+
+    private final TemplateEngine templateEngine;
+    private final Executor renderExecutor;
+    private final int maxHtmlChars;
+    private final long maxPdfBytes;
+    private final boolean preload;
+    private final Timer renderTimer;
+    private final Counter tooLargeCounter;
+    private final Counter errorCounter;
+    private final AtomicLong batchThroughputBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    public ReportRenderingService(
+            TemplateEngine templateEngine,
+            @Qualifier("reportRenderExecutor") Executor renderExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.reports.render.max-html-chars:2000000}") int maxHtmlChars,
+            @Value("${app.reports.render.max-pdf-bytes:20971520}") long maxPdfBytes,
+            @Value("${app.reports.render.preload:true}") boolean preload) {
+        this.templateEngine = templateEngine;
+        this.renderExecutor = renderExecutor;
+        this.maxHtmlChars = maxHtmlChars;
+        this.maxPdfBytes = maxPdfBytes;
+        this.preload = preload;
+        this.renderTimer = Timer.builder(ReportMetrics.RENDER_DURATION)
+                .description("Time to render one report PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tooLargeCounter = meterRegistry.counter(ReportMetrics.RENDER_FAILURES, "reason", "too-large");
+        this.errorCounter = meterRegistry.counter(ReportMetrics.RENDER_FAILURES, "reason", "error");
+        Gauge.builder(ReportMetrics.BATCH_THROUGHPUT, batchThroughputBits,
+                        bits -> Double.longBitsToDouble(bits.get()))
+                .description("PDFs per second rendered by the last month-end report step")
+                .register(meterRegistry);
+        if (renderExecutor instanceof ThreadPoolTaskExecutor pool) {
+            Gauge.builder(ReportMetrics.RENDER_QUEUE_DEPTH, pool, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("Report renders waiting for a worker")
+                    .register(meterRegistry);
+            Gauge.builder(ReportMetrics.RENDER_ACTIVE, pool, ThreadPoolTaskExecutor::getActiveCount)
+                    .description("Report renders in progress")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Render a report to PDF on the render pool and wait for the result.
+     *
+     * @param report Report DTO
+     * @return PDF bytes
+     * @throws ReportTooLargeException if the report exceeds the per-render limits
+     */
+    public byte[] renderPDF(ReportDTO report) {
+        return join(renderAsync(report));
+    }
+
+    /**
+     * Render a report to PDF on the render pool, writing it to {@code out} as it is produced, and
+     * wait until it is complete.
+     *
+     * The HTML limit is checked before anything is written. If the PDF limit is hit or rendering
+     * fails part way, {@code out} has already received part of the document.
+     *
+     * @param report Report DTO
+     * @param out Destination, flushed but not closed
+     * @return Number of PDF bytes written
+     * @throws ReportTooLargeException if the report exceeds the per-render limits
+     */
+    public long renderPDF(ReportDTO report, OutputStream out) {
+        return join(CompletableFuture.supplyAsync(() -> render(report, out), renderExecutor));
+    }
+
+    /**
+     * Queue a report for rendering on the render pool.
+     *
+     * @param report Report DTO
+     * @return Future completing with the PDF bytes
+     * @throws org.springframework.core.task.TaskRejectedException if the render queue is full
+     */
+    public CompletableFuture<byte[]> renderAsync(ReportDTO report) {
+        return CompletableFuture.supplyAsync(() -> render(report), renderExecutor);
+    }
+
+    /** Publish the rendering throughput of a finished month-end report step. */
+    public void recordBatchThroughput(double pdfsPerSecond) {
+        batchThroughputBits.set(Double.doubleToLongBits(pdfsPerSecond));
+    }
+
+    /** Warm every render worker with a sample report. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!preload || !(renderExecutor instanceof ThreadPoolTaskExecutor pool)) {
+            return;
+        }
+        int workers = pool.getMaxPoolSize();
+        // Each warm-up waits for the others to start, so every worker renders one
+        CountDownLatch started = new CountDownLatch(workers);
+        long start = System.currentTimeMillis();
+        CompletableFuture<?>[] warmups = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            warmups[i] = CompletableFuture.runAsync(() -> {
+                started.countDown();
+                try {
+                    started.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                render(sampleReport());
+            }, pool);
+        }
+        CompletableFuture.allOf(warmups).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("Report renderer preload failed: {}", error.getMessage());
+            } else {
+                log.info("Preloaded {} report render workers in {} ms", workers, System.currentTimeMillis() - start);
+            }
+        });
+    }
+
+    /** Render on the current thread with its cached renderer. */
+    byte[] render(ReportDTO report) {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(64 * 1024);
+        render(report, pdf);
+        return pdf.toByteArray();
+    }
+
+    /** Render on the current thread with its cached renderer, writing the PDF to {@code out}. */
+    long render(ReportDTO report, OutputStream out) {
+        long start = System.nanoTime();
+        String html = generateHTML(report);
+        if (html.length() > maxHtmlChars) {
+            tooLargeCounter.increment();
+            throw new ReportTooLargeException(String.format(
+                    "Report for run %s is %d characters of HTML, limit is %d",
+                    report.getRunId(), html.length(), maxHtmlChars));
+        }
+
+        ITextRenderer renderer = RENDERER.get();
+        if (renderer == null) {
+            renderer = new ITextRenderer();
+            RENDERER.set(renderer);
+        }
+        LimitedOutputStream outputStream = new LimitedOutputStream(out, maxPdfBytes);
+        try {
+            renderer.setDocumentFromString(html);
+            renderer.layout();
+            renderer.createPDF(outputStream);
+            outputStream.flush();
+
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("Rendered PDF for run {} ({} bytes)", report.getRunId(), outputStream.count);
+            return outputStream.count;
+        } catch (Exception e) {
+            // The renderer may be left mid-document; start the next render with a fresh one
+            RENDERER.remove();
+            if (outputStream.exceeded) {
+                tooLargeCounter.increment();
+                throw new ReportTooLargeException(String.format(
+                        "PDF for run %s exceeds the %d byte limit", report.getRunId(), maxPdfBytes));
+            }
+            errorCounter.increment();
+            log.error("Failed to generate PDF for run {}: {}", report.getRunId(), e.getMessage(), e);
+            throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
+        } finally {
+            if (html.length() > MAX_RETAINED_HTML_CHARS) {
+                // Do not keep an unusually large document's layout pinned to the worker
+                RENDERER.remove();
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Generate HTML from report DTO using Thymeleaf template.
+     *
+     * @param report Report DTO
+     * @return HTML string
+     */
+    private String generateHTML(ReportDTO report) {
+        Context context = new Context();
+        context.setVariable("report", report);
+        context.setVariable("generatedDate", LocalDateTime.now());
+
+        return templateEngine.process("report", context);
+    }
+
+    /** A report with every template section populated, used to warm up the workers. */
+    static ReportDTO sampleReport() {
+        ReportDTO.RecommendationSummary pick = ReportDTO.RecommendationSummary.builder()
+                .rank(1)
+                .symbol("SAMPLE")
+                .action("BUY")
+                .targetWeightPct(BigDecimal.ONE)
+                .currentWeightPct(BigDecimal.ZERO)
+                .weightChangePct(BigDecimal.ONE)
+                .confidenceScore(50)
+                .expectedAlphaBps(BigDecimal.ZERO)
+                .sector("Sample")
+                .marketCapTier("LARGE")
+                .liquidityTier(1)
+                .explanation("Sample")
+                .factorScores(Map.of("VALUE", BigDecimal.ZERO))
+                .changeIndicator("NEW")
+                .build();
+        return ReportDTO.builder()
+                .runId(new UUID(0, 0))
+                .reportVersion("1.0")
+                .generatedAt(LocalDateTime.now())
+                .runDate(LocalDate.now())
+                .portfolioName("Sample")
+                .universeName("Sample")
+                .dataAsOfDate(LocalDate.now())
+                .summary(ReportDTO.SummarySection.builder()
+                        .totalRecommendations(1)
+                        .buyCount(1)
+                        .sellCount(0)
+                        .holdCount(0)
+                        .expectedAlphaBps(BigDecimal.ZERO)
+                        .expectedCostBps(BigDecimal.ZERO)
+                        .edgeOverCostBps(BigDecimal.ZERO)
+                        .constraintViolations(0)
+                        .build())
+                .topPicks(List.of(pick))
+                .exclusions(List.of())
+                .disclaimers(List.of("Sample"))
+                .constraintCompliance(ReportDTO.ConstraintComplianceSection.builder()
+                        .allConstraintsMet(true)
+                        .violations(List.of())
+                        .constraintSummary(Map.of("Sample", "OK"))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Output that fails the render once the PDF grows past the limit. Closing only flushes, since
+     * the renderer closes its output when the document is finished.
+     */
+    private static class LimitedOutputStream extends FilterOutputStream {
+
+        private final long limit;
+        private long count;
+        private volatile boolean exceeded;
+
+        LimitedOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkLimit(1);
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkLimit(len);
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void checkLimit(int len) {
+            if (count + len > limit) {
+                exceeded = true;
+                throw new IllegalStateException("PDF output limit exceeded");
+            }
+        }
+    }
+
+    /** A report exceeded the per-render memory limits. */
+    public static class ReportTooLargeException extends RuntimeException {
+        public ReportTooLargeException(String message) {
+            super(message);
+        }
+    }
+}
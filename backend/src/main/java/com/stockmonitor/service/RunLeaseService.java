@@ -0,0 +1,73 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lease-based claiming of recommendation runs for month-end stages.
+ *
+ * <p>Every node claims batches of runs with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so nodes
+ * never block on or double-process each other's rows. A claimed run carries the claiming node and
+ * a lease expiry; the lease is cleared when the run is saved in its next state. If a node dies
+ * mid-batch its leases expire and the runs become claimable again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RunLeaseService {
+
+  private final RecommendationRunRepository runRepository;
+  private final LeaderElectionService leaderElectionService;
+
+  /**
+   * Claim up to {@code limit} unclaimed or lease-expired runs in a stage.
+   *
+   * @param scheduledDate Month-end date
+   * @param status Status the stage picks up (e.g. SCHEDULED for T-1)
+   * @param limit Maximum runs to claim
+   * @param ttl Lease duration; must cover processing of the whole batch
+   * @return Claimed runs, leased to this node
+   */
+  @Transactional
+  public List<RecommendationRun> claimBatch(
+      LocalDate scheduledDate, String status, int limit, Duration ttl) {
+    LocalDateTime now = LocalDateTime.now();
+    List<RecommendationRun> runs =
+        runRepository.findClaimable(scheduledDate, status, now, PageRequest.of(0, limit));
+    for (RecommendationRun run : runs) {
+      if (run.getLeaseOwner() != null) {
+        log.info("Reclaiming run {} from expired lease held by {}", run.getId(),
+            run.getLeaseOwner());
+      }
+      run.setLeaseOwner(leaderElectionService.getNodeId());
+      run.setLeaseExpiresAt(now.plus(ttl));
+    }
+    return runs;
+  }
+
+  /**
+   * Runs still waiting in a stage that this node is not working on: unclaimed, or leased by
+   * another (possibly crashed) node.
+   */
+  @Transactional(readOnly = true)
+  public long countPendingElsewhere(LocalDate scheduledDate, String status) {
+    return runRepository.countPendingExcludingOwner(
+        scheduledDate, status, leaderElectionService.getNodeId());
+  }
+
+  /** Clear the lease; call before saving the run in its next state. */
+  public static RecommendationRun release(RecommendationRun run) {
+    run.setLeaseOwner(null);
+    run.setLeaseExpiresAt(null);
+    return run;
+  }
+}
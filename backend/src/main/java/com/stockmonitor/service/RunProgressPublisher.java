@@ -0,0 +1,172 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.controller.RunStatusWebSocketController;
+import com.stockmonitor.dto.RunStatusUpdateDTO;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Coalescing, rate-limited publisher for run progress per FR-046, FR-047.
+ *
+ * <p>{@link #publish} only records the latest update of a run and returns, so the engine never
+ * waits on JSON conversion or the broker. A single flusher thread sends the pending update of each
+ * run to {@code /topic/runs/{runId}/status} once per {@code
+ * app.websocket.run-status.flush-interval}; intermediate updates of the same run in between are
+ * dropped. Terminal states (COMPLETED, FINALIZED, FAILED, ARCHIVED) are flushed right away, or
+ * right after the surrounding transaction completes. A success state published in a transaction
+ * that rolls back is replaced by FAILED, so clients never see a run complete that did not commit.
+ *
+ * <p>All sends happen on the flusher thread, so updates of a run reach subscribers in the order
+ * they were published and a terminal state is always the last one sent.
+ */
+@Service
+@Slf4j
+public class RunProgressPublisher {
+
+  static final String FAILED = "FAILED";
+  static final Set<String> TERMINAL_STATES = Set.of("COMPLETED", "FINALIZED", FAILED, "ARCHIVED");
+
+  private final RunStatusWebSocketController runStatusWebSocketController;
+  private final Map<UUID, RunStatusUpdateDTO> pending = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService flusher;
+
+  public RunProgressPublisher(
+      RunStatusWebSocketController runStatusWebSocketController,
+      @Value("${app.websocket.run-status.flush-interval:250ms}") Duration flushInterval) {
+    this.runStatusWebSocketController = runStatusWebSocketController;
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              Thread thread = new Thread(task, "run-status-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalMs = flushInterval.toMillis();
+    flusher.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Record a run's progress. Replaces any update of the same run that has not been sent yet.
+   *
+   * @param runId Run ID
+   * @param status Run status
+   * @param progress Progress percentage (0-100)
+   * @param stage Current stage description
+   */
+  public void publish(UUID runId, String status, int progress, String stage) {
+    publish(
+        RunStatusUpdateDTO.builder()
+            .runId(runId)
+            .status(status)
+            .progress(progress)
+            .stage(stage)
+            .timestamp(LocalDateTime.now())
+            .build());
+  }
+
+  /**
+   * Record a run failure; sent without waiting for the next flush.
+   *
+   * @param runId Run ID
+   * @param errorMessage Error message
+   */
+  public void publishError(UUID runId, String errorMessage) {
+    publish(
+        RunStatusUpdateDTO.builder()
+            .runId(runId)
+            .status(FAILED)
+            .progress(0)
+            .stage("Run failed")
+            .errorMessage(errorMessage)
+            .timestamp(LocalDateTime.now())
+            .build());
+  }
+
+  void publish(RunStatusUpdateDTO update) {
+    if (!TERMINAL_STATES.contains(update.getStatus())) {
+      pending.put(update.getRunId(), update);
+      return;
+    }
+    // Inside a transaction, announce the terminal state once the run row is committed (or rolled
+    // back), so clients reacting to it read the final run. Success only counts if it committed.
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status == STATUS_COMMITTED || FAILED.equals(update.getStatus())) {
+                publishNow(update);
+              } else {
+                publishNow(rolledBack(update));
+              }
+            }
+          });
+    } else {
+      publishNow(update);
+    }
+  }
+
+  private static RunStatusUpdateDTO rolledBack(RunStatusUpdateDTO update) {
+    return RunStatusUpdateDTO.builder()
+        .runId(update.getRunId())
+        .status(FAILED)
+        .progress(0)
+        .stage("Run failed")
+        .errorMessage("Run was rolled back")
+        .timestamp(LocalDateTime.now())
+        .build();
+  }
+
+  private void publishNow(RunStatusUpdateDTO update) {
+    pending.put(update.getRunId(), update);
+    try {
+      flusher.execute(() -> flush(update.getRunId()));
+    } catch (Exception e) {
+      // Shutting down: the final flush in shutdown() picks it up
+      log.debug("Run status flusher rejected immediate flush for run {}", update.getRunId());
+    }
+  }
+
+  /** Send the pending update of every run. Runs on the flusher thread. */
+  void flush() {
+    for (UUID runId : pending.keySet()) {
+      flush(runId);
+    }
+  }
+
+  private void flush(UUID runId) {
+    RunStatusUpdateDTO update = pending.remove(runId);
+    if (update != null) {
+      runStatusWebSocketController.broadcastRunStatus(runId, update);
+    }
+  }
+
+  /** Number of runs with an update waiting to be sent. */
+  int pendingCount() {
+    return pending.size();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+}
@@ -1,32 +1,64 @@
 package com.stockmonitor.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.stockmonitor.model.ServiceApiKey;
 import com.stockmonitor.repository.ServiceApiKeyRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Service for managing service API keys for scheduled jobs and background processes.
  * Keys are stored encrypted at rest with last_used_at tracking.
+ *
+ * A key has the form {@code smk_<lookup>.<secret>}. The public {@code smk_<lookup>} part is stored
+ * in the indexed {@code key_prefix} column, so verifying a key checks one BCrypt hash instead of
+ * every active key. Keys issued before prefixes existed are still accepted by checking the hashes of
+ * the remaining unprefixed keys.
+ *
+ * Successful verifications are cached for {@code app.security.service-api-key.cache-ttl}, keyed by
+ * a SHA-256 digest of the key so plaintext keys are not kept in memory. Revoking a key drops its
+ * entries on this node; other nodes accept it until their entries expire.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ServiceApiKeyService {
 
+    static final String KEY_PREFIX_MARKER = "smk_";
+    private static final char PREFIX_SEPARATOR = '.';
+    private static final int LOOKUP_BYTES = 9; // 12 base64url characters
+
     private final ServiceApiKeyRepository serviceApiKeyRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache<String, VerifiedKey> verifiedKeys;
     private static final SecureRandom secureRandom = new SecureRandom();
 
+    public ServiceApiKeyService(
+            ServiceApiKeyRepository serviceApiKeyRepository,
+            PasswordEncoder passwordEncoder,
+            @Value("${app.security.service-api-key.cache-ttl:PT1M}") Duration cacheTtl,
+            @Value("${app.security.service-api-key.cache-size:10000}") long cacheSize) {
+        this.serviceApiKeyRepository = serviceApiKeyRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.verifiedKeys = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(cacheTtl).build();
+    }
+
     /**
      * Generate a new service API key.
      *
@@ -38,10 +70,9 @@ public class ServiceApiKeyService {
      */
     @Transactional
     public ApiKeyResponse generate(String name, String description, Integer expiresInDays, String createdBy) {
-        // Generate secure random API key (32 bytes = 256 bits)
-        byte[] keyBytes = new byte[32];
-        secureRandom.nextBytes(keyBytes);
-        String plaintextKey = Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes);
+        // Generate secure random API key (32 bytes = 256 bits) behind a random public lookup prefix
+        String keyPrefix = KEY_PREFIX_MARKER + randomBase64(LOOKUP_BYTES);
+        String plaintextKey = keyPrefix + PREFIX_SEPARATOR + randomBase64(32);
 
         // Hash the key for storage
         String keyHash = passwordEncoder.encode(plaintextKey);
@@ -56,6 +87,7 @@ public class ServiceApiKeyService {
                 .name(name)
                 .description(description)
                 .keyHash(keyHash)
+                .keyPrefix(keyPrefix)
                 .isActive(true)
                 .expiresAt(expiresAt)
                 .createdBy(createdBy)
@@ -103,9 +135,86 @@ public class ServiceApiKeyService {
 
         key.setIsActive(false);
         serviceApiKeyRepository.save(key);
+        evictVerified(keyId);
         log.info("Revoked service API key: {}", key.getName());
     }
 
+    /**
+     * Verify a presented API key.
+     *
+     * @param apiKey Plaintext key from the request
+     * @return The key if it exists, is active and has not expired
+     */
+    public Optional<VerifiedKey> verify(String apiKey) {
+        String digest = digest(apiKey);
+        VerifiedKey verified = verifiedKeys.getIfPresent(digest);
+
+        if (verified == null) {
+            Optional<ServiceApiKey> matchingKey = findMatchingKey(apiKey);
+            if (matchingKey.isEmpty()) {
+                log.warn("Invalid service API key provided");
+                return Optional.empty();
+            }
+            ServiceApiKey serviceKey = matchingKey.get();
+            if (!serviceKey.isValid()) {
+                log.warn("Service API key is invalid (expired or inactive): {}", serviceKey.getName());
+                return Optional.empty();
+            }
+            verified = new VerifiedKey(serviceKey.getId(), serviceKey.getName(), serviceKey.getExpiresAt());
+            verifiedKeys.put(digest, verified);
+        } else if (verified.isExpired()) {
+            verifiedKeys.invalidate(digest);
+            log.warn("Service API key is invalid (expired or inactive): {}", verified.name());
+            return Optional.empty();
+        }
+
+        return Optional.of(verified);
+    }
+
+    private Optional<ServiceApiKey> findMatchingKey(String apiKey) {
+        int separator = apiKey.indexOf(PREFIX_SEPARATOR);
+        if (apiKey.startsWith(KEY_PREFIX_MARKER) && separator > 0) {
+            return serviceApiKeyRepository.findByKeyPrefix(apiKey.substring(0, separator))
+                    .filter(key -> passwordEncoder.matches(apiKey, key.getKeyHash()));
+        }
+        return serviceApiKeyRepository.findByIsActiveTrueAndKeyPrefixIsNull()
+                .stream()
+                .filter(key -> passwordEncoder.matches(apiKey, key.getKeyHash()))
+                .findFirst();
+    }
+
+    /**
+     * Drop cached verifications of a key. Inside a transaction they are dropped again after commit,
+     * so a concurrent verification cannot re-cache the key.
+     */
+    private void evictVerified(UUID keyId) {
+        verifiedKeys.asMap().values().removeIf(verified -> verified.id().equals(keyId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            verifiedKeys.asMap().values().removeIf(verified -> verified.id().equals(keyId));
+                        }
+                    });
+        }
+    }
+
+    private static String randomBase64(int bytes) {
+        byte[] random = new byte[bytes];
+        secureRandom.nextBytes(random);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    }
+
+    private static String digest(String apiKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * List all active service API keys.
      *
@@ -120,4 +229,18 @@ public class ServiceApiKeyService {
      * Plaintext key is only returned once at creation time.
      */
     public record ApiKeyResponse(UUID id, String plaintextKey, LocalDateTime expiresAt) {}
+
+    /**
+     * A verified API key, as cached between requests.
+     *
+     * @param id Key ID
+     * @param name Friendly name of the key
+     * @param expiresAt Expiration, or null if the key does not expire
+     */
+    public record VerifiedKey(UUID id, String name, LocalDateTime expiresAt) {
+
+        public boolean isExpired() {
+            return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.repository.ServiceApiKeyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records when service API keys were last used without a database write per request.
+ *
+ * Authentication only notes the time of each key's latest use in memory. Every
+ * {@code app.security.service-api-key.last-used-flush-interval-ms} the pending times are written in
+ * one transaction, one {@code last_used_at} update per key used since the last flush, and the
+ * remainder is written on shutdown. {@code last_used_at} therefore lags by up to one interval, and
+ * uses since the last flush are lost if the node dies.
+ */
+@Service
+@Slf4j
+public class ServiceApiKeyUsageTracker {
+
+    private final ServiceApiKeyRepository serviceApiKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public ServiceApiKeyUsageTracker(
+            ServiceApiKeyRepository serviceApiKeyRepository,
+            PlatformTransactionManager transactionManager) {
+        this.serviceApiKeyRepository = serviceApiKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Note that a key was used now.
+     *
+     * @param keyId Key ID
+     */
+    public void recordUse(UUID keyId) {
+        pending.merge(keyId, LocalDateTime.now(), ServiceApiKeyUsageTracker::latest);
+    }
+
+    /**
+     * Write pending last-use times. Times that fail to write are kept for the next flush.
+     *
+     * @return Number of keys written
+     */
+    @Scheduled(fixedDelayString = "${app.security.service-api-key.last-used-flush-interval-ms:5000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, LocalDateTime> batch = new HashMap<>();
+        for (UUID keyId : pending.keySet()) {
+            LocalDateTime lastUsedAt = pending.remove(keyId);
+            if (lastUsedAt != null) {
+                batch.put(keyId, lastUsedAt);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(serviceApiKeyRepository::updateLastUsedAt));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record last use of {} service API keys: {}", batch.size(), e.getMessage());
+            batch.forEach((keyId, lastUsedAt) -> pending.merge(keyId, lastUsedAt, ServiceApiKeyUsageTracker::latest));
+            return 0;
+        }
+
+        log.debug("Recorded last use of {} service API keys", batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
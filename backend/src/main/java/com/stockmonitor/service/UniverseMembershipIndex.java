@@ -0,0 +1,138 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ConstituentVersion;
+import com.stockmonitor.dto.UniverseMembership;
+import com.stockmonitor.repository.UniverseConstituentRepository;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of universe membership.
+ *
+ * <p>Every symbol that is an active constituent of some universe gets a dense int ID (in symbol
+ * order), and each universe is a bitmap over those IDs. Membership and coverage questions are then
+ * answered with bitmap operations instead of constituent queries.
+ *
+ * <p>The index is rebuilt from one projection query whenever the constituent table's fingerprint
+ * ({@link ConstituentVersion}) changes, so writes from any node or from data loads are picked up on
+ * the next lookup. Checking the fingerprint is a single aggregate query.
+ */
+@Service
+@Slf4j
+public class UniverseMembershipIndex {
+
+  private final UniverseConstituentRepository constituentRepository;
+  private volatile Snapshot snapshot = new Snapshot(null, Map.of(), new String[0], Map.of());
+
+  public UniverseMembershipIndex(UniverseConstituentRepository constituentRepository) {
+    this.constituentRepository = constituentRepository;
+  }
+
+  /**
+   * Current membership, rebuilt first if constituents changed since the last build.
+   *
+   * @return Immutable snapshot
+   */
+  public Snapshot current() {
+    ConstituentVersion version = constituentRepository.findVersion();
+    Snapshot current = snapshot;
+    if (!Objects.equals(current.version, version)) {
+      synchronized (this) {
+        current = snapshot;
+        if (!Objects.equals(current.version, version)) {
+          current = build(version);
+          snapshot = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  private Snapshot build(ConstituentVersion version) {
+    Map<String, Integer> symbolIds = new HashMap<>();
+    List<String> symbols = new ArrayList<>();
+    Map<UUID, BitSet> universes = new HashMap<>();
+
+    for (UniverseMembership membership : constituentRepository.findActiveMemberships()) {
+      Integer id = symbolIds.get(membership.symbol());
+      if (id == null) {
+        id = symbols.size();
+        symbolIds.put(membership.symbol(), id);
+        symbols.add(membership.symbol());
+      }
+      universes.computeIfAbsent(membership.universeId(), u -> new BitSet()).set(id);
+    }
+
+    log.info("Built universe membership index: {} universes, {} symbols", universes.size(),
+        symbols.size());
+    return new Snapshot(version, symbolIds, symbols.toArray(new String[0]), universes);
+  }
+
+  /** Universe membership at one point in time. */
+  public static final class Snapshot {
+
+    private final ConstituentVersion version;
+    private final Map<String, Integer> symbolIds;
+    private final String[] symbols;
+    private final Map<UUID, BitSet> universes;
+
+    private Snapshot(
+        ConstituentVersion version,
+        Map<String, Integer> symbolIds,
+        String[] symbols,
+        Map<UUID, BitSet> universes) {
+      this.version = version;
+      this.symbolIds = symbolIds;
+      this.symbols = symbols;
+      this.universes = universes;
+    }
+
+    /**
+     * Active constituent symbols of a universe.
+     *
+     * @return Symbols in alphabetical order, empty for unknown universes
+     */
+    public List<String> symbols(UUID universeId) {
+      return toSymbols(universes.getOrDefault(universeId, new BitSet()));
+    }
+
+    /**
+     * The given symbols that are active constituents of a universe.
+     *
+     * @param universeId Universe ID
+     * @param candidates Symbols to check, e.g. a portfolio's holdings
+     * @return Symbols in both, in alphabetical order
+     */
+    public List<String> intersect(UUID universeId, Collection<String> candidates) {
+      BitSet universe = universes.get(universeId);
+      if (universe == null) {
+        return List.of();
+      }
+      BitSet matched = new BitSet(symbols.length);
+      for (String candidate : candidates) {
+        Integer id = symbolIds.get(candidate);
+        if (id != null) {
+          matched.set(id);
+        }
+      }
+      matched.and(universe);
+      return toSymbols(matched);
+    }
+
+    private List<String> toSymbols(BitSet bitmap) {
+      List<String> result = new ArrayList<>(bitmap.cardinality());
+      for (int id = bitmap.nextSetBit(0); id >= 0; id = bitmap.nextSetBit(id + 1)) {
+        result.add(symbols[id]);
+      }
+      return result;
+    }
+  }
+}
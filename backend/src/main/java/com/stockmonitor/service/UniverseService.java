@@ -2,18 +2,14 @@ package com.stockmonitor.service;
 
 import com.stockmonitor.dto.UniverseDTO;
 import com.stockmonitor.dto.UniverseSelectionResponse;
-import com.stockmonitor.model.Holding;
 import com.stockmonitor.model.Portfolio;
 import com.stockmonitor.model.Universe;
-import com.stockmonitor.model.UniverseConstituent;
 import com.stockmonitor.repository.HoldingRepository;
 import com.stockmonitor.repository.PortfolioRepository;
-import com.stockmonitor.repository.UniverseConstituentRepository;
 import com.stockmonitor.repository.UniverseRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -27,15 +23,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class UniverseService {
 
   private final UniverseRepository universeRepository;
-  private final UniverseConstituentRepository universeConstituentRepository;
   private final PortfolioRepository portfolioRepository;
   private final HoldingRepository holdingRepository;
+  private final UniverseMembershipIndex membershipIndex;
 
   @Transactional(readOnly = true)
   public List<UniverseDTO> getAllUniverses() {
     log.info("Fetching all active universes");
+    UniverseMembershipIndex.Snapshot membership = membershipIndex.current();
     return universeRepository.findByIsActiveTrue().stream()
-        .map(this::convertToDTO)
+        .map(universe -> convertToDTO(universe, membership))
         .collect(Collectors.toList());
   }
 
@@ -46,7 +43,7 @@ public class UniverseService {
         universeRepository
             .findById(universeId)
             .orElseThrow(() -> new NotFoundException("Universe not found"));
-    return convertToDTO(universe);
+    return convertToDTO(universe, membershipIndex.current());
   }
 
   @Transactional
@@ -64,29 +61,14 @@ public class UniverseService {
             .findById(universeId)
             .orElseThrow(() -> new NotFoundException("Universe not found"));
 
-    // Get all holdings for the portfolio
-    List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
-
-    // Get universe constituents
-    List<UniverseConstituent> constituents =
-        universeConstituentRepository.findByUniverseIdAndIsActiveTrue(universeId);
-    Set<String> universeSymbols =
-        constituents.stream().map(UniverseConstituent::getSymbol).collect(Collectors.toSet());
-
-    // Calculate coverage
-    int totalHoldings = holdings.size();
-    int holdingsInUniverse = 0;
+    // Coverage is the intersection of the holdings' symbols with the universe bitmap
+    List<String> holdingSymbols = holdingRepository.findSymbolsByPortfolioId(portfolioId);
+    List<String> coveredSymbols = membershipIndex.current().intersect(universeId, holdingSymbols);
+    int totalHoldings = holdingSymbols.size();
+    int holdingsInUniverse = coveredSymbols.size();
 
     if (totalHoldings > 0) {
-      for (Holding holding : holdings) {
-        if (universeSymbols.contains(holding.getSymbol())) {
-          holding.setInUniverse(true);
-          holdingsInUniverse++;
-        } else {
-          holding.setInUniverse(false);
-        }
-        holdingRepository.save(holding);
-      }
+      holdingRepository.updateInUniverse(portfolioId, coveredSymbols);
     }
 
     BigDecimal coveragePercentage = BigDecimal.ZERO;
@@ -115,14 +97,9 @@ public class UniverseService {
         .build();
   }
 
-  private UniverseDTO convertToDTO(Universe universe) {
-    List<String> tickers =
-        universeConstituentRepository.findByUniverseIdAndIsActiveTrue(universe.getId()).stream()
-            .map(UniverseConstituent::getSymbol)
-            .collect(Collectors.toList());
-
+  private UniverseDTO convertToDTO(Universe universe, UniverseMembershipIndex.Snapshot membership) {
     UniverseDTO dto = UniverseDTO.from(universe);
-    dto.setTickerList(tickers);
+    dto.setTickerList(membership.symbols(universe.getId()));
     return dto;
   }
 
@@ -6,6 +6,7 @@ import com.stockmonitor.dto.RegisterRequest;
 import com.stockmonitor.dto.UserDTO;
 import com.stockmonitor.model.User;
 import com.stockmonitor.repository.UserRepository;
+import com.stockmonitor.security.AuthenticatedPrincipalCache;
 import com.stockmonitor.security.JwtService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -31,6 +32,8 @@ public class UserService {
   private final PasswordEncoder passwordEncoder;
   private final JwtService jwtService;
   private final ObjectMapper objectMapper;
+  private final NotificationPreferenceCache notificationPreferenceCache;
+  private final AuthenticatedPrincipalCache principalCache;
 
   @Transactional
   public UserDTO register(RegisterRequest request) {
@@ -88,7 +91,7 @@ public class UserService {
             .roles(user.getRole().name())
             .build();
 
-    String token = jwtService.generateToken(userDetails);
+    String token = jwtService.generateToken(userDetails, user.getTokenVersion());
 
     log.info("User logged in successfully: {}", user.getEmail());
 
@@ -99,6 +102,55 @@ public class UserService {
         .build();
   }
 
+  /**
+   * Change a user's password (POST /api/auth/change-password). Tokens issued before the change stop
+   * working.
+   *
+   * @param email Email of the authenticated user
+   * @param currentPassword Current plaintext password, checked before the change
+   * @param newPassword New plaintext password
+   * @throws BadCredentialsException if the current password does not match
+   */
+  @Transactional
+  public void changePassword(String email, String currentPassword, String newPassword) {
+    User user = userRepository.findByEmail(email)
+        .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
+
+    if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+      throw new BadCredentialsException("Current password does not match");
+    }
+
+    user.setPasswordHash(passwordEncoder.encode(newPassword));
+    revokeTokens(user);
+    log.info("Changed password for user {}", user.getId());
+  }
+
+  /**
+   * Change a user's role. Tokens issued before the change, which carry the old role, stop working.
+   *
+   * <p>Not exposed over the API yet: no role may manage other users, so there is nobody to
+   * authorize a role change. The user-management endpoint that comes with an administrator role
+   * (PUT /api/users/{id}/role) should call this rather than updating the role directly.
+   *
+   * @param userId User ID
+   * @param role New role
+   */
+  @Transactional
+  public void changeRole(UUID userId, User.UserRole role) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+
+    user.setRole(role);
+    revokeTokens(user);
+    log.info("Changed role of user {} to {}", userId, role);
+  }
+
+  private void revokeTokens(User user) {
+    user.setTokenVersion(user.getTokenVersion() + 1);
+    userRepository.save(user);
+    principalCache.invalidate(user.getEmail());
+  }
+
   /**
    * Get notification preferences for user per FR-049.
    *
@@ -147,6 +199,7 @@ public class UserService {
       String preferencesJson = objectMapper.writeValueAsString(preferences);
       user.setNotificationPreferences(preferencesJson);
       userRepository.save(user);
+      notificationPreferenceCache.invalidate(userId);
 
       log.info("Updated notification preferences for user {}: {}", userId, preferencesJson);
     } catch (JsonProcessingException e) {
@@ -11,13 +11,16 @@ import java.util.UUID;
 /**
  * WebSocket notification broadcasting service per FR-046, FR-047.
  *
- * Broadcasts notifications to users via WebSocket connections.
+ * Broadcasts notifications to users via WebSocket connections. Each notification goes to
+ * /user/queue/notifications of every session authenticated as the user.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketNotificationService {
 
+    static final String NOTIFICATIONS_DESTINATION = "/queue/notifications";
+
     private final SimpMessagingTemplate messagingTemplate;
 
     /**
@@ -27,11 +30,9 @@ public class WebSocketNotificationService {
      * @param notification Notification DTO
      */
     public void broadcastNotification(UUID userId, NotificationDTO notification) {
-        String destination = "/user/" + userId + "/notifications";
-
         try {
-            messagingTemplate.convertAndSend(destination, notification);
-            log.debug("Broadcast notification {} to user {} at {}", notification.getId(), userId, destination);
+            messagingTemplate.convertAndSendToUser(userId.toString(), NOTIFICATIONS_DESTINATION, notification);
+            log.debug("Broadcast notification {} to user {}", notification.getId(), userId);
         } catch (Exception e) {
             log.error("Failed to broadcast notification to user {}: {}", userId, e.getMessage());
             throw e;
@@ -24,6 +24,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -170,4 +171,29 @@ public abstract class BaseIntegrationTest {
     stompClient.setMessageConverter(messageConverter);
     return stompClient;
   }
+
+  /**
+   * Create a test user for WebSocket tests and return its id.
+   *
+   * <p>The id is the STOMP session principal of connections made with {@link
+   * #stompAuthHeaders(String)}, i.e. the user that convertAndSendToUser addresses.
+   *
+   * @param username the user email
+   * @return the user's id
+   */
+  protected java.util.UUID createTestUserId(String username) {
+    return testDataHelper.createTestUser(username).getId();
+  }
+
+  /**
+   * Create STOMP CONNECT headers with Bearer token authentication.
+   *
+   * @param username the username for token generation
+   * @return StompHeaders with Authorization header
+   */
+  protected StompHeaders stompAuthHeaders(String username) {
+    StompHeaders headers = new StompHeaders();
+    headers.set("Authorization", "Bearer " + generateTestToken(username));
+    return headers;
+  }
 }
@@ -0,0 +1,81 @@
+package com.stockmonitor.batch;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for PortfolioRangePartitioner.
+ *
+ * Tests:
+ * - Portfolios are split into contiguous, non-overlapping ranges of similar size
+ * - Grid size is capped at the number of portfolios
+ * - No partitions when nothing is scheduled
+ */
+public class PortfolioRangePartitionerTest extends BaseUnitTest {
+
+    private static final LocalDate MONTH_END = LocalDate.of(2026, 10, 31);
+
+    @Mock
+    private RecommendationRunRepository runRepository;
+
+    @Test
+    public void testSplitsPortfoliosIntoContiguousRanges() {
+        List<UUID> portfolioIds = portfolioIds(10);
+        when(runRepository.findPortfolioIdsByScheduledDate(MONTH_END)).thenReturn(portfolioIds);
+
+        Map<String, ExecutionContext> partitions =
+                new PortfolioRangePartitioner(runRepository, MONTH_END).partition(3);
+
+        assertThat(partitions).containsOnlyKeys("partition0", "partition1", "partition2");
+        // 10 portfolios over 3 partitions: 4, 3, 3
+        assertRange(partitions.get("partition0"), portfolioIds.get(0), portfolioIds.get(3));
+        assertRange(partitions.get("partition1"), portfolioIds.get(4), portfolioIds.get(6));
+        assertRange(partitions.get("partition2"), portfolioIds.get(7), portfolioIds.get(9));
+        assertThat(partitions.get("partition0").getString(PortfolioRangePartitioner.MONTH_END_DATE))
+                .isEqualTo("2026-10-31");
+    }
+
+    @Test
+    public void testGridSizeCappedAtPortfolioCount() {
+        List<UUID> portfolioIds = portfolioIds(2);
+        when(runRepository.findPortfolioIdsByScheduledDate(MONTH_END)).thenReturn(portfolioIds);
+
+        Map<String, ExecutionContext> partitions =
+                new PortfolioRangePartitioner(runRepository, MONTH_END).partition(8);
+
+        assertThat(partitions).hasSize(2);
+        assertRange(partitions.get("partition1"), portfolioIds.get(1), portfolioIds.get(1));
+    }
+
+    @Test
+    public void testNoPartitionsWhenNothingScheduled() {
+        when(runRepository.findPortfolioIdsByScheduledDate(MONTH_END)).thenReturn(List.of());
+
+        assertThat(new PortfolioRangePartitioner(runRepository, MONTH_END).partition(8)).isEmpty();
+    }
+
+    private static void assertRange(ExecutionContext context, UUID min, UUID max) {
+        assertThat(context.getString(PortfolioRangePartitioner.MIN_PORTFOLIO_ID)).isEqualTo(min.toString());
+        assertThat(context.getString(PortfolioRangePartitioner.MAX_PORTFOLIO_ID)).isEqualTo(max.toString());
+    }
+
+    private static List<UUID> portfolioIds(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(0, i));
+        }
+        return ids;
+    }
+}
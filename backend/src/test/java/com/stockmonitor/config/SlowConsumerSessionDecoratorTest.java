@@ -0,0 +1,237 @@
+package com.stockmonitor.config;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.MetricsConfig.WebSocketMetrics;
+import com.stockmonitor.config.SlowConsumerSessionDecorator.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for SlowConsumerSessionDecorator.
+ *
+ * Tests:
+ * - A client that keeps up receives every message in order
+ * - drop-superseded discards run status frames that have a later frame for the same run
+ * - drop-superseded never drops other frames: the session is disconnected instead
+ * - disconnect closes the session once the buffer limit is exceeded
+ * - A send blocked past the send time limit disconnects regardless of policy
+ */
+public class SlowConsumerSessionDecoratorTest extends BaseUnitTest {
+
+    private static final int BUFFER_LIMIT = 100; // ten 10-byte messages
+
+    @Mock
+    private WebSocketSession delegate;
+
+    private SimpleMeterRegistry registry;
+    private WebSocketSessionMetrics metrics;
+    private ExecutorService sender;
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new WebSocketSessionMetrics(registry);
+        sender = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseFirstSend.countDown();
+        sender.shutdownNow();
+    }
+
+    @Test
+    public void testFastConsumerReceivesEverythingInOrder() throws Exception {
+        recordSends(false);
+        SlowConsumerSessionDecorator session = decorate(OverflowPolicy.DROP_SUPERSEDED, 10_000);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            session.sendMessage(new TextMessage(payload(i)));
+            expected.add(payload(i));
+        }
+
+        assertThat(sent).containsExactlyElementsOf(expected);
+        assertThat(session.getBufferedCount()).isZero();
+        assertThat(metrics.droppedCount()).isZero();
+    }
+
+    @Test
+    public void testDropSupersededKeepsLatestRunStatusAndEveryNotification() throws Exception {
+        recordSends(true);
+        String otherRun = statusFrame(UUID.randomUUID(), 1);
+        UUID runId = UUID.randomUUID();
+        List<String> queued = List.of(
+                otherRun,
+                statusFrame(runId, 1),
+                notificationFrame(1),
+                statusFrame(runId, 2),
+                notificationFrame(2),
+                statusFrame(runId, 3));
+        // Room for the other run, both notifications and the latest status of this run
+        int limit = otherRun.length() + 2 * notificationFrame(1).length() + statusFrame(runId, 3).length();
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(
+                delegate, 10_000, limit, OverflowPolicy.DROP_SUPERSEDED, metrics);
+        Future<?> blocked = sendInBackground(session, payload(0));
+
+        for (String frame : queued) {
+            session.sendMessage(new TextMessage(frame));
+        }
+
+        // Progress 1 and 2 of the run were superseded while queued
+        assertThat(session.getBufferedCount()).isEqualTo(4);
+        assertThat(dropped(SlowConsumerSessionDecorator.REASON_BUFFER_LIMIT)).isEqualTo(2);
+
+        releaseFirstSend.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+
+        assertThat(sent).containsExactly(
+                payload(0), otherRun, notificationFrame(1), notificationFrame(2), statusFrame(runId, 3));
+        verify(delegate, never()).close(any());
+    }
+
+    @Test
+    public void testDropSupersededDisconnectsWhenNothingIsSuperseded() throws Exception {
+        recordSends(true);
+        String latestStatus = statusFrame(UUID.randomUUID(), 100);
+        SlowConsumerSessionDecorator session = new SlowConsumerSessionDecorator(
+                delegate, 10_000, latestStatus.length(), OverflowPolicy.DROP_SUPERSEDED, metrics);
+        Future<?> blocked = sendInBackground(session, payload(0));
+
+        // Neither the only status of its run nor a notification may be dropped
+        session.sendMessage(new TextMessage(latestStatus));
+        assertThatThrownBy(() -> session.sendMessage(new TextMessage(notificationFrame(1))))
+                .isInstanceOf(SessionLimitExceededException.class)
+                .extracting(e -> ((SessionLimitExceededException) e).getStatus())
+                .isEqualTo(CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(disconnected(SlowConsumerSessionDecorator.REASON_BUFFER_LIMIT)).isEqualTo(1);
+        assertThat(dropped(SlowConsumerSessionDecorator.REASON_BUFFER_LIMIT)).isZero();
+
+        releaseFirstSend.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactly(payload(0));
+    }
+
+    @Test
+    public void testDisconnectPolicyClosesOnOverflow() throws Exception {
+        recordSends(true);
+        SlowConsumerSessionDecorator session = decorate(OverflowPolicy.DISCONNECT, 10_000);
+        Future<?> blocked = sendInBackground(session, payload(0));
+
+        for (int i = 1; i <= 10; i++) {
+            session.sendMessage(new TextMessage(payload(i)));
+        }
+        assertThatThrownBy(() -> session.sendMessage(new TextMessage(payload(11))))
+                .isInstanceOf(SessionLimitExceededException.class)
+                .extracting(e -> ((SessionLimitExceededException) e).getStatus())
+                .isEqualTo(CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(disconnected(SlowConsumerSessionDecorator.REASON_BUFFER_LIMIT)).isEqualTo(1);
+        assertThat(session.getBufferedCount()).isZero();
+
+        // Later messages are discarded without another disconnect
+        session.sendMessage(new TextMessage(payload(12)));
+        assertThat(dropped(SlowConsumerSessionDecorator.REASON_CLOSED)).isEqualTo(12);
+
+        releaseFirstSend.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertThat(sent).containsExactly(payload(0));
+    }
+
+    @Test
+    public void testBlockedSendDisconnectsAfterSendTimeLimit() throws Exception {
+        recordSends(true);
+        SlowConsumerSessionDecorator session = decorate(OverflowPolicy.DROP_SUPERSEDED, 50);
+        sendInBackground(session, payload(0));
+
+        Thread.sleep(150);
+
+        assertThatThrownBy(() -> session.sendMessage(new TextMessage(payload(1))))
+                .isInstanceOf(SessionLimitExceededException.class);
+        assertThat(disconnected(SlowConsumerSessionDecorator.REASON_SEND_TIME_LIMIT)).isEqualTo(1);
+    }
+
+    private SlowConsumerSessionDecorator decorate(OverflowPolicy policy, int sendTimeLimit) {
+        return new SlowConsumerSessionDecorator(delegate, sendTimeLimit, BUFFER_LIMIT, policy, metrics);
+    }
+
+    /** Record payloads sent to the delegate; optionally block the first send until released. */
+    private void recordSends(boolean blockFirst) throws Exception {
+        doAnswer(invocation -> {
+            TextMessage message = invocation.getArgument(0);
+            if (blockFirst && sent.isEmpty()) {
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(message.getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    private Future<?> sendInBackground(SlowConsumerSessionDecorator session, String payload)
+            throws InterruptedException {
+        Future<?> future = sender.submit(() -> {
+            session.sendMessage(new TextMessage(payload));
+            return null;
+        });
+        assertThat(firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return future;
+    }
+
+    private double dropped(String reason) {
+        return registry.counter(WebSocketMetrics.MESSAGES_DROPPED, "reason", reason).count();
+    }
+
+    private double disconnected(String reason) {
+        return registry.counter(WebSocketMetrics.SESSIONS_DISCONNECTED, "reason", reason).count();
+    }
+
+    private static String payload(int i) {
+        return String.format("msg-%06d", i);
+    }
+
+    private static String statusFrame(UUID runId, int progress) {
+        return frame("/topic/runs/" + runId + "/status",
+                String.format("{\"status\":\"RUNNING\",\"progress\":%03d}", progress));
+    }
+
+    private static String notificationFrame(int i) {
+        return frame("/user/queue/notifications", String.format("{\"title\":\"n-%03d\"}", i));
+    }
+
+    /** A STOMP MESSAGE frame as StompEncoder writes it. */
+    private static String frame(String destination, String body) {
+        return "MESSAGE\ndestination:" + destination + "\ncontent-type:application/json"
+                + "\nsubscription:0\nmessage-id:" + UUID.nameUUIDFromBytes(body.getBytes())
+                + "\ncontent-length:" + body.length() + "\n\n" + body + "\0";
+    }
+}
@@ -1,6 +1,7 @@
 package com.stockmonitor.config;
 
 import com.stockmonitor.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -36,6 +37,8 @@ public class TestSecurityConfig {
     http
         .csrf(AbstractHttpConfigurer::disable)
         .authorizeHttpRequests(auth -> auth
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            .requestMatchers("/api/auth/change-password").authenticated()
             .requestMatchers("/api/auth/**", "/actuator/**", "/ws/**").permitAll()
             .anyRequest().authenticated()
         )
@@ -0,0 +1,74 @@
+package com.stockmonitor.config;
+
+import com.stockmonitor.BaseUnitTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for WebMvcAsyncConfig.
+ *
+ * Tests:
+ * - Async requests use the bounded executor and the configured timeout
+ * - The executor rejects work once its threads and queue are full
+ */
+public class WebMvcAsyncConfigTest extends BaseUnitTest {
+
+    private final ThreadPoolTaskExecutor executor = new AsyncConfiguration().mvcAsyncExecutor(1, 1, 1);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testUsesBoundedExecutorAndTimeout() {
+        CapturingConfigurer configurer = new CapturingConfigurer();
+
+        new WebMvcAsyncConfig(executor, Duration.ofSeconds(45)).configureAsyncSupport(configurer);
+
+        assertThat(configurer.executor()).isSameAs(executor);
+        assertThat(configurer.timeout()).isEqualTo(45_000L);
+    }
+
+    @Test
+    public void testRejectsWhenThreadsAndQueueAreFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            executor.execute(blocked); // Runs on the only thread
+            executor.execute(blocked); // Fills the queue
+
+            assertThatThrownBy(() -> executor.execute(blocked)).isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /** Exposes what WebMvcAsyncConfig configured. */
+    private static class CapturingConfigurer extends AsyncSupportConfigurer {
+
+        AsyncTaskExecutor executor() {
+            return getTaskExecutor();
+        }
+
+        Long timeout() {
+            return getTimeout();
+        }
+    }
+}
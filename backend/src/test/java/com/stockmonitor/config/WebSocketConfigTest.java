@@ -0,0 +1,57 @@
+package com.stockmonitor.config;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.WebSocketConfig.BrokerMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for WebSocketConfig broker selection.
+ *
+ * Tests:
+ * - Simple mode never probes the relay
+ * - Relay mode is used when the broker is reachable
+ * - Unreachable broker falls back to the simple broker only when fallback is enabled
+ */
+public class WebSocketConfigTest extends BaseUnitTest {
+
+    @Test
+    public void testSimpleModeIsDefault() {
+        assertThat(config("simple", 1, true).resolveBrokerMode()).isEqualTo(BrokerMode.SIMPLE);
+    }
+
+    @Test
+    public void testRelayWhenBrokerReachable() throws IOException {
+        try (ServerSocket broker = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            assertThat(config("relay", broker.getLocalPort(), true).resolveBrokerMode()).isEqualTo(BrokerMode.RELAY);
+        }
+    }
+
+    @Test
+    public void testUnreachableBrokerFallsBackOnlyWhenEnabled() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+
+        assertThat(config("relay", closedPort, true).resolveBrokerMode()).isEqualTo(BrokerMode.SIMPLE);
+        assertThat(config("relay", closedPort, false).resolveBrokerMode()).isEqualTo(BrokerMode.RELAY);
+    }
+
+    private static WebSocketConfig config(String mode, int port, boolean fallback) {
+        WebSocketConfig config = new WebSocketConfig();
+        ReflectionTestUtils.setField(config, "brokerMode", mode);
+        ReflectionTestUtils.setField(config, "fallbackToSimple", fallback);
+        ReflectionTestUtils.setField(config, "relayHost", "127.0.0.1");
+        ReflectionTestUtils.setField(config, "relayPort", port);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofMillis(500));
+        return config;
+    }
+}
@@ -1,10 +1,13 @@
 package com.stockmonitor.contract;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.model.User;
+import com.stockmonitor.service.UserService;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
@@ -18,10 +21,14 @@ import org.springframework.http.MediaType;
  * <p>Tests verify API contracts per specs/001-month-end-analyst/contracts/rest-api.yaml
  *
  * <p>T036: POST /api/auth/register T037: POST /api/auth/login
+ *
+ * <p>Also checks that a role change or password change (POST /api/auth/change-password) revokes
+ * previously issued tokens.
  */
 class AuthContractTest extends BaseIntegrationTest {
 
   @Autowired private ObjectMapper objectMapper;
+  @Autowired private UserService userService;
 
   @AfterEach
   void cleanupTestData() {
@@ -144,6 +151,122 @@ class AuthContractTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.role").value("OWNER"));
   }
 
+  @Test
+  void testLoginToken_RevokedByRoleChange() throws Exception {
+    // Given - a logged-in user whose token works
+    Map<String, Object> registerRequest = new HashMap<>();
+    registerRequest.put("email", "revoked@example.com");
+    registerRequest.put("password", "SecurePassword123!");
+    registerRequest.put("firstName", "Revoked");
+    registerRequest.put("lastName", "Test");
+    mockMvc
+        .perform(
+            post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+        .andExpect(status().isCreated());
+    String token = login("revoked@example.com", "SecurePassword123!");
+    mockMvc
+        .perform(get("/api/notifications").header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+
+    // When - the role changes
+    User user = userRepository.findByEmail("revoked@example.com").orElseThrow();
+    userService.changeRole(user.getId(), User.UserRole.VIEWER);
+
+    // Then - the old token is rejected and a new login works
+    mockMvc
+        .perform(get("/api/notifications").header("Authorization", "Bearer " + token))
+        .andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(
+            get("/api/notifications")
+                .header("Authorization", "Bearer " + login("revoked@example.com", "SecurePassword123!")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void testChangePassword_RequiresCurrentPasswordAndRevokesTokens() throws Exception {
+    // Given - a logged-in user
+    Map<String, Object> registerRequest = new HashMap<>();
+    registerRequest.put("email", "changepw@example.com");
+    registerRequest.put("password", "SecurePassword123!");
+    mockMvc
+        .perform(
+            post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+        .andExpect(status().isCreated());
+    String token = login("changepw@example.com", "SecurePassword123!");
+
+    Map<String, Object> wrongCurrent = new HashMap<>();
+    wrongCurrent.put("currentPassword", "WrongPassword123!");
+    wrongCurrent.put("newPassword", "NewSecurePassword456!");
+    Map<String, Object> changeRequest = new HashMap<>();
+    changeRequest.put("currentPassword", "SecurePassword123!");
+    changeRequest.put("newPassword", "NewSecurePassword456!");
+
+    // Then - the endpoint needs a token and the current password
+    mockMvc
+        .perform(
+            post("/api/auth/change-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changeRequest)))
+        .andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(
+            post("/api/auth/change-password")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(wrongCurrent)))
+        .andExpect(status().isUnauthorized());
+
+    // When - the password changes
+    mockMvc
+        .perform(
+            post("/api/auth/change-password")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changeRequest)))
+        .andExpect(status().isNoContent());
+
+    // Then - the old token is rejected and only the new password logs in
+    mockMvc
+        .perform(get("/api/notifications").header("Authorization", "Bearer " + token))
+        .andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(
+            get("/api/notifications")
+                .header("Authorization", "Bearer " + login("changepw@example.com", "NewSecurePassword456!")))
+        .andExpect(status().isOk());
+    Map<String, Object> oldLogin = new HashMap<>();
+    oldLogin.put("email", "changepw@example.com");
+    oldLogin.put("password", "SecurePassword123!");
+    mockMvc
+        .perform(
+            post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(oldLogin)))
+        .andExpect(status().isUnauthorized());
+  }
+
+  private String login(String email, String password) throws Exception {
+    Map<String, Object> loginRequest = new HashMap<>();
+    loginRequest.put("email", email);
+    loginRequest.put("password", password);
+    String response =
+        mockMvc
+            .perform(
+                post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(loginRequest)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(response).get("token").asText();
+  }
+
   @Test
   void testLoginEndpoint_InvalidCredentials() throws Exception {
     // Given
@@ -1,6 +1,8 @@
 package com.stockmonitor.contract;
 import com.stockmonitor.BaseIntegrationTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -10,15 +12,21 @@ import com.stockmonitor.model.RecommendationRun;
 import com.stockmonitor.repository.ExclusionRepository;
 import com.stockmonitor.repository.RecommendationRunRepository;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 /**
  * Contract test for exclusions endpoint (T190, FR-031, FR-032).
@@ -31,6 +39,10 @@ public class ExclusionContractTest extends BaseIntegrationTest {
   @Autowired
   private ExclusionRepository exclusionRepository;
 
+  @Autowired
+  @Qualifier("mvcAsyncExecutor")
+  private ThreadPoolTaskExecutor mvcAsyncExecutor;
+
   private UUID testRunId;
 
   @BeforeEach
@@ -49,7 +61,7 @@ public class ExclusionContractTest extends BaseIntegrationTest {
         .recommendationCount(10)
         .exclusionCount(2)
         .build();
-    recommendationRunRepository.save(run);
+    testRunId = recommendationRunRepository.save(run).getId();
 
     // Create test exclusions
     Exclusion exclusion1 = Exclusion.builder()
@@ -93,10 +105,71 @@ public class ExclusionContractTest extends BaseIntegrationTest {
   @Test
   @WithMockUser(roles = "OWNER")
   public void testExportExclusions() throws Exception {
-    mockMvc
+    MvcResult result = mockMvc
         .perform(get("/api/runs/{id}/exclusions/export", testRunId))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
         .andExpect(status().isOk())
         .andExpect(header().string("Content-Type", "text/csv"))
         .andExpect(header().exists("Content-Disposition"));
   }
+
+  @Test
+  @WithMockUser(roles = "OWNER")
+  public void testExportExclusions_StreamsEveryRowInSymbolOrder() throws Exception {
+    // More rows than one cursor fetch (500)
+    List<Exclusion> exclusions = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      exclusions.add(Exclusion.builder()
+          .runId(testRunId)
+          .symbol(String.format("S%04d", i))
+          .exclusionReasonCode(ExclusionDTO.ReasonCode.SPREAD_THRESHOLD)
+          .exclusionReasonText("Bid-ask spread exceeds threshold")
+          .sector("Financials")
+          .marketCapTier("SMALL_CAP")
+          .liquidityTier(4)
+          .currentPrice(BigDecimal.TEN)
+          .build());
+    }
+    exclusionRepository.saveAll(exclusions);
+
+    MvcResult result = mockMvc
+        .perform(get("/api/runs/{id}/exclusions/export", testRunId))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String csv = mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString(StandardCharsets.UTF_8);
+
+    String[] lines = csv.split("\r\n");
+    assertThat(lines).hasSize(1 + 1202);
+    assertThat(lines[0]).isEqualTo("symbol,company_name,exclusion_reason_code,explanation,run_date");
+    assertThat(lines[1]).isEqualTo("\"AAPL\",\"AAPL\",\"LIQUIDITY_FLOOR\","
+        + "\"Liquidity tier below minimum threshold\",\"" + LocalDate.now() + "\"");
+    assertThat(lines[2]).startsWith("\"S0000\",\"S0000\",\"SPREAD_THRESHOLD\",\"Bid-ask spread exceeds threshold\"");
+    assertThat(lines[1201]).startsWith("\"S1199\",");
+    assertThat(lines[1202]).startsWith("\"TSLA\",");
+  }
+
+  @Test
+  @WithMockUser(roles = "OWNER")
+  public void testExportExclusions_StreamsOnBoundedExecutorWithTimeout() throws Exception {
+    long completedBefore = mvcAsyncExecutor.getThreadPoolExecutor().getCompletedTaskCount();
+
+    MvcResult result = mockMvc
+        .perform(get("/api/runs/{id}/exclusions/export", testRunId))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+    // app.mvc.async.timeout in application-test.yml
+    assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(30_000L);
+    assertThat(mvcAsyncExecutor.getThreadPoolExecutor().getCompletedTaskCount()).isGreaterThan(completedBefore);
+  }
 }
@@ -1,12 +1,16 @@
 package com.stockmonitor.contract;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.model.Holding;
 import com.stockmonitor.repository.HoldingRepository;
 import com.stockmonitor.repository.PortfolioRepository;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -127,6 +131,120 @@ class PortfolioContractTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.validationErrors[0].errorCode").exists());
   }
 
+  @Test
+  void testUploadHoldings_InvalidRowKeepsExistingHoldings() throws Exception {
+    // Given - a valid row before the invalid one
+    String csvContent =
+        "ticker,quantity,cost_basis,currency\n"
+            + "TSLA,10,200.00,USD\n"
+            + "NVDA,-5,450.00,USD";
+
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "holdings.csv", "text/csv", csvContent.getBytes());
+
+    // When & Then
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.multipart("/api/portfolios/" + portfolioId + "/holdings/upload")
+                .file(file)
+                .header("Authorization", "Bearer " + authToken))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.validationErrors[0].errorCode").value("NEGATIVE_QUANTITY"));
+
+    assertThat(holdingRepository.findByPortfolioId(testPortfolioUuid))
+        .extracting("symbol")
+        .containsExactlyInAnyOrder("AAPL", "MSFT", "GOOGL");
+  }
+
+  @Test
+  void testUploadHoldings_ReuploadDiffsBySymbol() throws Exception {
+    // Given - AAPL unchanged, MSFT resized, GOOGL dropped, NVDA new in two lots
+    Holding aapl = holdingRepository.findByPortfolioIdAndSymbol(testPortfolioUuid, "AAPL").orElseThrow();
+    Holding msft = holdingRepository.findByPortfolioIdAndSymbol(testPortfolioUuid, "MSFT").orElseThrow();
+    String csvContent =
+        "ticker,quantity,cost_basis,currency\n"
+            + "AAPL,100,1.50,USD\n"
+            + "MSFT,60,6.00,USD\n"
+            + "NVDA,4,45.00,USD\n"
+            + "NVDA,6,45.00,USD";
+
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "holdings.csv", "text/csv", csvContent.getBytes());
+
+    // When & Then - AAPL keeps its price (165), MSFT and NVDA are valued at cost (360 + 450)
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.multipart("/api/portfolios/" + portfolioId + "/holdings/upload")
+                .file(file)
+                .header("Authorization", "Bearer " + authToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalHoldings").value(3))
+        .andExpect(jsonPath("$.marketValue").value(975.0));
+
+    Map<String, Holding> holdings = holdingRepository.findByPortfolioId(testPortfolioUuid).stream()
+        .collect(Collectors.toMap(Holding::getSymbol, holding -> holding));
+    assertThat(holdings).containsOnlyKeys("AAPL", "MSFT", "NVDA");
+    assertThat(holdings.get("AAPL").getId()).isEqualTo(aapl.getId());
+    assertThat(holdings.get("AAPL").getCurrentPrice()).isEqualByComparingTo(aapl.getCurrentPrice());
+    assertThat(holdings.get("MSFT").getId()).isEqualTo(msft.getId());
+    assertThat(holdings.get("MSFT").getQuantity()).isEqualByComparingTo("60");
+    assertThat(holdings.get("MSFT").getCostBasis()).isEqualByComparingTo("360");
+    assertThat(holdings.get("MSFT").getSector()).isEqualTo("Technology");
+    assertThat(holdings.get("NVDA").getQuantity()).isEqualByComparingTo("10");
+    assertThat(holdings.get("NVDA").getCostBasisPerShare()).isEqualByComparingTo("45");
+  }
+
+  @Test
+  void testUploadHoldings_MixedCurrencyLotsRejected() throws Exception {
+    // Given
+    String csvContent =
+        "ticker,quantity,cost_basis,currency\n"
+            + "SAP,10,120.00,EUR\n"
+            + "SAP,5,130.00,USD";
+
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "holdings.csv", "text/csv", csvContent.getBytes());
+
+    // When & Then
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.multipart("/api/portfolios/" + portfolioId + "/holdings/upload")
+                .file(file)
+                .header("Authorization", "Bearer " + authToken))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.validationErrors[0].errorCode").value("MIXED_CURRENCY"));
+
+    assertThat(holdingRepository.findByPortfolioId(testPortfolioUuid)).hasSize(3);
+  }
+
+  @Test
+  void testUploadHoldings_LargeQuotedFile() throws Exception {
+    // Given - more rows than one flush batch, with quoted fields
+    StringBuilder csvContent = new StringBuilder("\"ticker\",\"quantity\",\"cost_basis\",\"currency\"\r\n");
+    for (int i = 0; i < 1200; i++) {
+      csvContent.append(String.format("\"T%04d\",\"10\",\"2.50\",USD\r\n", i));
+    }
+
+    MockMultipartFile file =
+        new MockMultipartFile(
+            "file", "holdings.csv", "text/csv", csvContent.toString().getBytes());
+
+    // When & Then
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.multipart("/api/portfolios/" + portfolioId + "/holdings/upload")
+                .file(file)
+                .header("Authorization", "Bearer " + authToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalHoldings").value(1200))
+        .andExpect(jsonPath("$.marketValue").value(30000.0));
+
+    assertThat(holdingRepository.findByPortfolioId(testPortfolioUuid)).hasSize(1200);
+  }
+
   @Test
   void testUploadHoldings_MissingRequiredColumns() throws Exception {
     // Given - CSV missing required columns
@@ -4,20 +4,27 @@ import com.stockmonitor.BaseIntegrationTest;
 import com.stockmonitor.dto.ReportDTO;
 import com.stockmonitor.model.RecommendationRun;
 import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.repository.ReportRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,6 +36,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Report structure includes summary, recommendations, explanations, disclaimers
  * - PDF download functionality
  * - Report sections: top picks, exclusions, factor scores, constraint compliance
+ * - Finalized run PDFs served from storage with ETag and conditional GET
+ * - PDF downloads rejected with 503 when the streaming pool is full
  *
  * Test-First: This test should FAIL until ReportController and ReportGenerationService are implemented.
  */
@@ -39,6 +48,13 @@ public class ReportContractTest extends BaseIntegrationTest {
     @Autowired
     private RecommendationRunRepository runRepository;
 
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    @Qualifier("mvcAsyncExecutor")
+    private ThreadPoolTaskExecutor mvcAsyncExecutor;
+
     private UUID testRunId;
 
     @BeforeEach
@@ -63,6 +79,7 @@ public class ReportContractTest extends BaseIntegrationTest {
 
     @AfterEach
     public void cleanupTestData() {
+        reportRepository.deleteAll();
         runRepository.deleteAll();
     }
 
@@ -289,6 +306,100 @@ public class ReportContractTest extends BaseIntegrationTest {
         assertThat(pdfHeader).startsWith("%PDF-");
     }
 
+    @Test
+    public void testDownloadReportPDF_RejectedWith503WhenStreamingPoolFull() throws InterruptedException {
+        HttpEntity<Void> request = createAuthEntity("test@example.com");
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ResponseEntity<String> response;
+        try {
+            // Occupy both threads, then both queue slots, of the test pool (app.mvc.async)
+            mvcAsyncExecutor.execute(blocker);
+            mvcAsyncExecutor.execute(blocker);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            mvcAsyncExecutor.execute(blocker);
+            mvcAsyncExecutor.execute(blocker);
+
+            response = testRestTemplate.exchange(
+                    url("/api/runs/{id}/report/pdf"),
+                    HttpMethod.GET,
+                    request,
+                    String.class,
+                    testRunId
+            );
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void testDownloadReportPDF_FinalizedRun_ServesStoredArtifactWithETag() {
+        // Arrange
+        RecommendationRun finalizedRun = runRepository.save(RecommendationRun.builder()
+                .userId(UUID.randomUUID())
+                .portfolioId(UUID.randomUUID())
+                .universeId(UUID.randomUUID())
+                .constraintSetId(UUID.randomUUID())
+                .runType("SCHEDULED")
+                .status("FINALIZED")
+                .scheduledDate(LocalDate.now())
+                .completedAt(LocalDateTime.now())
+                .dataFreshnessCheckPassed(true)
+                .build());
+        HttpHeaders headers = createAuthHeaders("test@example.com");
+
+        // Act - first download renders and stores the PDF
+        ResponseEntity<byte[]> first = testRestTemplate.exchange(
+                url("/api/runs/{id}/report/pdf"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class,
+                finalizedRun.getId()
+        );
+
+        // Assert
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getContentType().toString()).contains("application/pdf");
+        assertThat(new String(first.getBody(), 0, 5)).isEqualTo("%PDF-");
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+        assertThat(reportRepository.findByRunId(finalizedRun.getId()))
+                .hasValueSatisfying(report -> assertThat(etag).contains(report.getContentHash()));
+
+        // Act - repeat download returns the same stored bytes
+        ResponseEntity<byte[]> second = testRestTemplate.exchange(
+                url("/api/runs/{id}/report/pdf"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class,
+                finalizedRun.getId()
+        );
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+
+        // Act - conditional GET with the ETag is not modified
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<byte[]> conditional = testRestTemplate.exchange(
+                url("/api/runs/{id}/report/pdf"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class,
+                finalizedRun.getId()
+        );
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditional.getBody()).isNull();
+    }
+
     @Test
     public void testGetReport_ContainsMetadata() {
         // Act
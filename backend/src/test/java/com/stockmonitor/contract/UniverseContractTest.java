@@ -1,12 +1,15 @@
 package com.stockmonitor.contract;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.model.Holding;
 import com.stockmonitor.model.Portfolio;
 import com.stockmonitor.model.Universe;
 import com.stockmonitor.model.UniverseConstituent;
+import com.stockmonitor.repository.HoldingRepository;
 import com.stockmonitor.repository.PortfolioRepository;
 import com.stockmonitor.repository.UniverseConstituentRepository;
 import com.stockmonitor.repository.UniverseRepository;
@@ -40,6 +43,9 @@ class UniverseContractTest extends BaseIntegrationTest {
   @Autowired
   private PortfolioRepository portfolioRepository;
 
+  @Autowired
+  private HoldingRepository holdingRepository;
+
   @BeforeEach
   void setUpAuth() {
     authToken = generateTestToken("testuser@example.com");
@@ -128,6 +134,7 @@ class UniverseContractTest extends BaseIntegrationTest {
   void cleanupTestData() {
     // Delete in reverse dependency order (child → parent)
     universeConstituentRepository.deleteAll();
+    holdingRepository.deleteAll();
     portfolioRepository.deleteAll();
     universeRepository.deleteAll();
     userRepository.deleteAll();
@@ -230,6 +237,42 @@ class UniverseContractTest extends BaseIntegrationTest {
         .andExpect(jsonPath("$.coveragePercentage").exists());
   }
 
+  @Test
+  void testSelectUniverseForPortfolio_FlagsHoldingsInUniverse() throws Exception {
+    // Given - two of three holdings are S&P 500 constituents
+    UUID portfolioId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    testDataHelper.createTestHolding(portfolioId, "AAPL", BigDecimal.TEN, BigDecimal.valueOf(1500), "Technology");
+    testDataHelper.createTestHolding(portfolioId, "MSFT", BigDecimal.TEN, BigDecimal.valueOf(3000), "Technology");
+    testDataHelper.createTestHolding(portfolioId, "CELH", BigDecimal.TEN, BigDecimal.valueOf(500), "Consumer Staples");
+
+    // When & Then
+    mockMvc
+        .perform(
+            put("/api/portfolios/" + portfolioId + "/universe")
+                .header("Authorization", "Bearer " + authToken)
+                .param("universeId", "00000000-0000-0000-0000-000000000001"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.holdingsInUniverse").value(2))
+        .andExpect(jsonPath("$.totalHoldings").value(3));
+
+    assertThat(holdingRepository.findByPortfolioIdAndInUniverseTrue(portfolioId))
+        .extracting(Holding::getSymbol)
+        .containsExactlyInAnyOrder("AAPL", "MSFT");
+
+    // Reselecting another universe resets the flags
+    mockMvc
+        .perform(
+            put("/api/portfolios/" + portfolioId + "/universe")
+                .header("Authorization", "Bearer " + authToken)
+                .param("universeId", "00000000-0000-0000-0000-000000000003"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.holdingsInUniverse").value(1));
+
+    assertThat(holdingRepository.findByPortfolioIdAndInUniverseTrue(portfolioId))
+        .extracting(Holding::getSymbol)
+        .containsExactly("CELH");
+  }
+
   @Test
   void testSelectUniverseForPortfolio_InvalidUniverse() throws Exception {
     // Given
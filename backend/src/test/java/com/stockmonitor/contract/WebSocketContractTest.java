@@ -15,6 +15,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.*;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 
@@ -58,6 +59,7 @@ public class WebSocketContractTest extends BaseIntegrationTest {
     private WebSocketStompClient stompClient;
     private String wsUrl;
     private UUID testRunId;
+    private String testUserEmail;
     private UUID testUserId;
 
     @BeforeEach
@@ -68,7 +70,8 @@ public class WebSocketContractTest extends BaseIntegrationTest {
         wsUrl = String.format("ws://localhost:%d/ws", port);
 
         // Create test data
-        testUserId = UUID.randomUUID();
+        testUserEmail = "ws-contract-" + UUID.randomUUID() + "@example.com";
+        testUserId = createTestUserId(testUserEmail);
         RecommendationRun run = RecommendationRun.builder()
                 .userId(testUserId)
                 .portfolioId(UUID.randomUUID())
@@ -199,14 +202,15 @@ public class WebSocketContractTest extends BaseIntegrationTest {
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
         // Act
-        StompSession session = stompClient.connectAsync(wsUrl, sessionHandler)
+        StompSession session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
         // Assert
         assertThat(session.isConnected()).isTrue();
 
         // Subscribe to user notifications
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -233,10 +237,11 @@ public class WebSocketContractTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(1);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        StompSession session = stompClient.connectAsync(wsUrl, sessionHandler)
+        StompSession session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
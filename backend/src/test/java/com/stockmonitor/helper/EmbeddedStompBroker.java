@@ -0,0 +1,262 @@
+package com.stockmonitor.helper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal STOMP 1.2 broker over TCP for broker relay tests.
+ *
+ * <p>Stands in for RabbitMQ/ActiveMQ: accepts CONNECT/STOMP, SUBSCRIBE, UNSUBSCRIBE, SEND and
+ * DISCONNECT, and fans SEND frames out as MESSAGE frames to every subscription with the same
+ * destination (exact match). Receipts are honoured; heart-beats are negotiated off. Several
+ * application contexts (nodes) relaying to one instance share its subscriptions, like a real
+ * broker.
+ *
+ * <p>Destinations follow RabbitMQ's STOMP plugin: a SUBSCRIBE or SEND outside /topic/, /queue/,
+ * /exchange/ and /amq/queue/ is answered with an ERROR frame and the connection is closed.
+ * Rejected destinations are recorded so tests can assert the relay never sends one.
+ */
+public class EmbeddedStompBroker implements AutoCloseable {
+
+  private static final List<String> DESTINATION_PREFIXES =
+      List.of("/topic/", "/queue/", "/exchange/", "/amq/queue/");
+
+  private final ServerSocket serverSocket;
+  private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+  private final AtomicLong messageIds = new AtomicLong();
+  private final AtomicLong connectCount = new AtomicLong();
+  private final List<String> rejectedDestinations = new CopyOnWriteArrayList<>();
+  private final Thread acceptor;
+
+  public EmbeddedStompBroker() throws IOException {
+    serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+    acceptor = new Thread(this::acceptLoop, "embedded-stomp-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** Number of currently open STOMP connections (relay system session plus one per client). */
+  public int connectionCount() {
+    return connections.size();
+  }
+
+  /** Total CONNECT frames accepted since start. */
+  public long connectCount() {
+    return connectCount.get();
+  }
+
+  /** Number of subscriptions across all connections for a destination. */
+  public int subscriberCount(String destination) {
+    return (int)
+        connections.stream()
+            .flatMap(connection -> connection.subscriptions.values().stream())
+            .filter(destination::equals)
+            .count();
+  }
+
+  /** Destinations of SUBSCRIBE and SEND frames rejected since start. */
+  public List<String> rejectedDestinations() {
+    return List.copyOf(rejectedDestinations);
+  }
+
+  private static boolean isValidDestination(String destination) {
+    return destination != null && DESTINATION_PREFIXES.stream().anyMatch(destination::startsWith);
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Connection connection : connections) {
+      connection.close();
+    }
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        Connection connection = new Connection(socket);
+        connections.add(connection);
+        Thread reader = new Thread(connection::readLoop, "embedded-stomp-conn");
+        reader.setDaemon(true);
+        reader.start();
+      } catch (IOException e) {
+        // Closed
+      }
+    }
+  }
+
+  private void fanOut(Frame send) {
+    String destination = send.headers.get("destination");
+    for (Connection connection : connections) {
+      for (Map.Entry<String, String> subscription : connection.subscriptions.entrySet()) {
+        if (!subscription.getValue().equals(destination)) {
+          continue;
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("subscription", subscription.getKey());
+        headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+        headers.put("destination", destination);
+        if (send.headers.containsKey("content-type")) {
+          headers.put("content-type", send.headers.get("content-type"));
+        }
+        connection.write("MESSAGE", headers, send.body);
+      }
+    }
+  }
+
+  private static final class Frame {
+    private final String command;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    private Frame(String command, Map<String, String> headers, byte[] body) {
+      this.command = command;
+      this.headers = headers;
+      this.body = body;
+    }
+  }
+
+  private final class Connection {
+    private final Socket socket;
+    private final OutputStream out;
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.out = socket.getOutputStream();
+    }
+
+    private void readLoop() {
+      try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+        Frame frame;
+        while ((frame = readFrame(in)) != null) {
+          handle(frame);
+        }
+      } catch (IOException e) {
+        // Peer went away
+      } finally {
+        close();
+      }
+    }
+
+    private void handle(Frame frame) {
+      if (("SUBSCRIBE".equals(frame.command) || "SEND".equals(frame.command))
+          && !isValidDestination(frame.headers.get("destination"))) {
+        String destination = frame.headers.get("destination");
+        rejectedDestinations.add(String.valueOf(destination));
+        write(
+            "ERROR",
+            Map.of("message", "Unknown destination"),
+            ("'" + destination + "' is not a valid destination").getBytes(StandardCharsets.UTF_8));
+        close();
+        return;
+      }
+      switch (frame.command) {
+        case "CONNECT", "STOMP" -> {
+          connectCount.incrementAndGet();
+          write("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+        }
+        case "SUBSCRIBE" -> subscriptions.put(frame.headers.get("id"), frame.headers.get("destination"));
+        case "UNSUBSCRIBE" -> subscriptions.remove(frame.headers.get("id"));
+        case "SEND" -> fanOut(frame);
+        default -> {
+          // ACK, NACK, BEGIN, COMMIT, ABORT, DISCONNECT: nothing to do
+        }
+      }
+      String receipt = frame.headers.get("receipt");
+      if (receipt != null) {
+        write("RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+      }
+      if ("DISCONNECT".equals(frame.command)) {
+        close();
+      }
+    }
+
+    private synchronized void write(String command, Map<String, String> headers, byte[] body) {
+      StringBuilder head = new StringBuilder(command).append('\n');
+      headers.forEach((name, value) -> head.append(name).append(':').append(value).append('\n'));
+      head.append("content-length:").append(body.length).append("\n\n");
+      try {
+        out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+        out.write(0);
+        out.flush();
+      } catch (IOException e) {
+        close();
+      }
+    }
+
+    private void close() {
+      connections.remove(this);
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // Ignore
+      }
+    }
+  }
+
+  /** Read one frame, skipping heart-beat EOLs; null at end of stream. */
+  private static Frame readFrame(InputStream in) throws IOException {
+    String command;
+    do {
+      command = readLine(in);
+      if (command == null) {
+        return null;
+      }
+    } while (command.isEmpty());
+
+    Map<String, String> headers = new LinkedHashMap<>();
+    String line;
+    while ((line = readLine(in)) != null && !line.isEmpty()) {
+      int colon = line.indexOf(':');
+      // Repeated headers: the first occurrence wins (STOMP 1.2)
+      headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+    }
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    String contentLength = headers.get("content-length");
+    if (contentLength != null) {
+      body.write(in.readNBytes(Integer.parseInt(contentLength)));
+      in.read(); // NUL
+    } else {
+      int b;
+      while ((b = in.read()) > 0) {
+        body.write(b);
+      }
+    }
+    return new Frame(command, headers, body.toByteArray());
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != '\n') {
+      if (b < 0) {
+        return null;
+      }
+      line.write(b);
+    }
+    String text = line.toString(StandardCharsets.UTF_8);
+    return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+  }
+}
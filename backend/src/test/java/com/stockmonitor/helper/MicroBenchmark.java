@@ -0,0 +1,98 @@
+package com.stockmonitor.helper;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Minimal JMH-style harness for benchmarks under src/test (JMH is not a build dependency).
+ *
+ * <p>Runs an operation for a number of timed warmup iterations, then measurement iterations, and
+ * reports average time and allocated bytes per operation. Results are consumed into a volatile
+ * sink so the JIT cannot drop the work. Benchmark classes are named *Benchmark so surefire skips
+ * them in normal builds; run one explicitly, e.g.
+ *
+ * <pre>
+ * mvn -o test -Dtest=ExplanationRendererBenchmark
+ * </pre>
+ */
+public final class MicroBenchmark {
+
+  private static volatile int sink;
+
+  private final int warmupIterations;
+  private final int measurementIterations;
+  private final Duration iterationTime;
+
+  public MicroBenchmark(int warmupIterations, int measurementIterations, Duration iterationTime) {
+    this.warmupIterations = warmupIterations;
+    this.measurementIterations = measurementIterations;
+    this.iterationTime = iterationTime;
+  }
+
+  /** Per-operation averages across measurement iterations. */
+  public record Result(String name, double nsPerOp, double nsPerOpError, double bytesPerOp) {
+
+    public double opsPerSecond() {
+      return 1_000_000_000d / nsPerOp;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%-40s %12.1f +- %8.1f ns/op %14.0f ops/s %10.1f B/op",
+          name, nsPerOp, nsPerOpError, opsPerSecond(), bytesPerOp);
+    }
+  }
+
+  public Result run(String name, Supplier<?> operation) {
+    return run(name, 256, operation);
+  }
+
+  /**
+   * Like {@link #run(String, Supplier)}, checking the clock every {@code batchSize} operations.
+   * Use a small batch for operations that take milliseconds, so an iteration stays close to its
+   * time budget.
+   */
+  public Result run(String name, int batchSize, Supplier<?> operation) {
+    for (int i = 0; i < warmupIterations; i++) {
+      iteration(operation, batchSize);
+    }
+    double[] nsPerOp = new double[measurementIterations];
+    double bytesPerOp = 0;
+    for (int i = 0; i < measurementIterations; i++) {
+      long allocatedBefore = allocatedBytes();
+      long[] iteration = iteration(operation, batchSize);
+      bytesPerOp += (double) (allocatedBytes() - allocatedBefore) / iteration[1];
+      nsPerOp[i] = (double) iteration[0] / iteration[1];
+    }
+    double mean = Arrays.stream(nsPerOp).average().orElse(0);
+    double variance = Arrays.stream(nsPerOp).map(ns -> (ns - mean) * (ns - mean)).sum()
+        / Math.max(1, measurementIterations - 1);
+    return new Result(name, mean, Math.sqrt(variance), bytesPerOp / measurementIterations);
+  }
+
+  /** Returns elapsed nanos and operation count. */
+  private long[] iteration(Supplier<?> operation, int batchSize) {
+    long budget = iterationTime.toNanos();
+    long ops = 0;
+    int hash = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      for (int i = 0; i < batchSize; i++) {
+        hash += System.identityHashCode(operation.get());
+      }
+      ops += batchSize;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < budget);
+    sink += hash;
+    return new long[] {elapsed, ops};
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+}
@@ -1,6 +1,7 @@
 package com.stockmonitor.integration;
 
 import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.config.MetricsConfig.AuditMetrics;
 import com.stockmonitor.model.AuditLog;
 import com.stockmonitor.model.Portfolio;
 import com.stockmonitor.model.User;
@@ -8,15 +9,20 @@ import com.stockmonitor.repository.AuditLogRepository;
 import com.stockmonitor.repository.PortfolioRepository;
 import com.stockmonitor.repository.UserRepository;
 import com.stockmonitor.service.AuditLogService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,6 +33,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Audit log creation for entity modifications
  * - Before/after state tracking
  * - Security event logging
+ * - Buffered events keep their publish time
  * - Audit trail completeness and chronology
  */
 @Transactional
@@ -44,6 +51,12 @@ public class AuditLogIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private PortfolioRepository portfolioRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private User testUser;
 
     @BeforeEach
@@ -78,9 +91,64 @@ public class AuditLogIntegrationTest extends BaseIntegrationTest {
                 "User logged in successfully"
         );
 
-        // Assert - Verify log was created (currently logged only, not persisted)
-        // Note: Current implementation only logs to console
-        // Future implementation will persist to audit_log table
+        // Flushed events are committed in their own transaction
+        int written = auditLogService.flush();
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<AuditLog> logs = newTransaction.execute(status -> {
+            List<AuditLog> found = auditLogRepository.findAll().stream()
+                    .filter(log -> testUser.getId().equals(log.getUserId()))
+                    .toList();
+            auditLogRepository.deleteAll(found);
+            return found;
+        });
+
+        // Assert
+        assertThat(written).isEqualTo(1);
+        assertThat(logs).hasSize(1);
+        AuditLog securityLog = logs.get(0);
+        assertThat(securityLog.getEntityType()).isEqualTo("SECURITY");
+        assertThat(securityLog.getAction()).isEqualTo("LOGIN");
+        assertThat(securityLog.getActionDetail()).isEqualTo("User logged in successfully");
+        assertThat(securityLog.getCreatedAt()).isNotNull();
+    }
+
+    /**
+     * Test that a buffered event is stored with the time it was published, not the time it was written.
+     */
+    @Test
+    public void testPublish_BufferedEvent_KeepsOriginalCreatedAt() {
+        // Arrange
+        LocalDateTime publishedAt = LocalDateTime.now().minusMinutes(5).withNano(0);
+        AuditLog event = AuditLog.builder()
+                .userId(testUser.getId())
+                .entityType("USER")
+                .entityId(testUser.getId())
+                .action("UPDATE")
+                .beforeState("{}")
+                .afterState("{}")
+                .success(true)
+                .createdAt(publishedAt)
+                .build();
+
+        // Act
+        auditLogService.publish(event);
+        auditLogService.flush();
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<AuditLog> logs = newTransaction.execute(status -> {
+            List<AuditLog> found = auditLogRepository.findAll().stream()
+                    .filter(log -> testUser.getId().equals(log.getUserId()))
+                    .toList();
+            auditLogRepository.deleteAll(found);
+            return found;
+        });
+
+        // Assert
+        assertThat(logs).hasSize(1);
+        assertThat(logs.get(0).getCreatedAt()).isEqualTo(publishedAt);
+        assertThat(meterRegistry.timer(AuditMetrics.WRITE_LAG).max(TimeUnit.MINUTES))
+                .isGreaterThanOrEqualTo(5.0);
     }
 
     /**
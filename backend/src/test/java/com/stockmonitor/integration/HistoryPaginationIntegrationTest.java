@@ -0,0 +1,148 @@
+package com.stockmonitor.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.dto.CursorPage;
+import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.dto.PageCursor;
+import com.stockmonitor.dto.RecommendationRunDTO;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.NotificationRepository;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.service.NotificationService;
+import com.stockmonitor.service.NotificationService.NotificationMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for keyset-paginated notification and run history.
+ *
+ * Tests:
+ * - Walking notification pages returns every row once, newest first
+ * - GET /api/users/{userId}/runs pages through X-Next-Cursor and omits it on the last page
+ * - Malformed cursors are rejected with 400
+ */
+public class HistoryPaginationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private RecommendationRunRepository recommendationRunRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    public void setup() {
+        userId = testDataHelper.createTestUser("history-page-" + UUID.randomUUID() + "@example.com").getId();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        notificationRepository.deleteAll(notificationRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        recommendationRunRepository.deleteAll(recommendationRunRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    public void testNotificationPagesCoverHistoryOnce() {
+        for (int i = 0; i < 7; i++) {
+            notificationService.send(NotificationMessage.dataStale(userId));
+        }
+        List<UUID> expected = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(notification -> notification.getId())
+                .toList();
+
+        List<NotificationDTO> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<NotificationDTO> page = notificationService.getNotificationsForUser(userId, cursor, 3);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).extracting(NotificationDTO::getId).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(seen).extracting(NotificationDTO::getCreatedAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(seen.get(0).getTitle()).isNotBlank();
+    }
+
+    @Test
+    @WithMockUser(roles = "OWNER")
+    public void testRunHistoryEndpointPagesThroughCursorHeader() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            recommendationRunRepository.save(run());
+        }
+
+        MvcResult first = mockMvc.perform(get("/api/users/{userId}/runs", userId).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<RecommendationRunDTO> firstPage = runs(first);
+        String next = first.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        assertThat(firstPage).hasSize(3);
+        assertThat(next).isNotNull();
+        assertThat(firstPage).allMatch(run -> run.getDataFreshnessSnapshot() == null);
+
+        MvcResult second = mockMvc.perform(get("/api/users/{userId}/runs", userId)
+                        .param("after", next)
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<RecommendationRunDTO> secondPage = runs(second);
+        assertThat(secondPage).hasSize(2);
+        assertThat(second.getResponse().getHeader(CursorPage.NEXT_CURSOR_HEADER)).isNull();
+
+        List<UUID> all = new ArrayList<>();
+        firstPage.forEach(run -> all.add(run.getId()));
+        secondPage.forEach(run -> all.add(run.getId()));
+        assertThat(all).doesNotHaveDuplicates().hasSize(5);
+    }
+
+    @Test
+    @WithMockUser(roles = "OWNER")
+    public void testMalformedCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/users/{userId}/runs", userId).param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private RecommendationRun run() {
+        return RecommendationRun.builder()
+                .userId(userId)
+                .universeId(UUID.randomUUID())
+                .portfolioId(UUID.randomUUID())
+                .constraintSetId(UUID.randomUUID())
+                .runType("OFF_CYCLE")
+                .status("FINALIZED")
+                .recommendationCount(0)
+                .exclusionCount(0)
+                .decision("NO_TRADE")
+                .dataFreshnessCheckPassed(true)
+                .dataFreshnessSnapshot("{\"prices\": \"fresh\"}")
+                .constraintFeasibilityCheckPassed(true)
+                .build();
+    }
+
+    private List<RecommendationRunDTO> runs(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+    }
+}
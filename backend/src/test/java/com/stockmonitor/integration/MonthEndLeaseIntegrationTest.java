@@ -0,0 +1,140 @@
+package com.stockmonitor.integration;
+
+import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.repository.SchedulerLeaseRepository;
+import com.stockmonitor.service.LeaderElectionService;
+import com.stockmonitor.service.RunLeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for multi-node month-end coordination.
+ *
+ * Two nodes are simulated with separate LeaderElectionService / RunLeaseService instances
+ * sharing the database.
+ *
+ * Tests:
+ * - Only one node holds the leader lease; it can renew, and another node takes over on expiry
+ * - Nodes claim disjoint batches of runs
+ * - Runs leased by a crashed node are reclaimed after the lease expires
+ */
+public class MonthEndLeaseIntegrationTest extends BaseIntegrationTest {
+
+    private static final String LEASE = "test-month-end-leader";
+    private static final LocalDate MONTH_END = LocalDate.of(2099, 1, 31);
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration EXPIRED = Duration.ofSeconds(-1);
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private RecommendationRunRepository runRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private LeaderElectionService nodeA;
+    private LeaderElectionService nodeB;
+    private RunLeaseService leasesA;
+    private RunLeaseService leasesB;
+
+    @BeforeEach
+    public void setup() {
+        tx = new TransactionTemplate(transactionManager);
+        nodeA = new LeaderElectionService(leaseRepository, transactionManager, "node-a");
+        nodeB = new LeaderElectionService(leaseRepository, transactionManager, "node-b");
+        leasesA = new RunLeaseService(runRepository, nodeA);
+        leasesB = new RunLeaseService(runRepository, nodeB);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        leaseRepository.deleteById(LEASE);
+        runRepository.deleteAll(runRepository.findByScheduledDateAndStatus(MONTH_END, "SCHEDULED"));
+    }
+
+    @Test
+    public void testSingleLeaderWithTakeOverOnExpiry() {
+        assertThat(nodeA.tryAcquire(LEASE, TTL)).isTrue();
+        assertThat(nodeB.tryAcquire(LEASE, TTL)).isFalse();
+        assertThat(nodeA.tryAcquire(LEASE, TTL)).isTrue(); // Renewal
+
+        // Node A stops renewing (simulated by letting its lease lapse)
+        assertThat(nodeA.tryAcquire(LEASE, EXPIRED)).isTrue();
+        assertThat(nodeB.tryAcquire(LEASE, TTL)).isTrue();
+        assertThat(nodeA.tryAcquire(LEASE, TTL)).isFalse();
+        assertThat(leaseRepository.findById(LEASE)).get()
+                .extracting(lease -> lease.getOwner()).isEqualTo("node-b");
+    }
+
+    @Test
+    public void testNodesClaimDisjointBatches() {
+        createRuns(5);
+
+        List<RecommendationRun> claimedByA = claim(leasesA, 3, TTL);
+        List<RecommendationRun> claimedByB = claim(leasesB, 3, TTL);
+
+        assertThat(claimedByA).hasSize(3);
+        assertThat(claimedByB).hasSize(2);
+        Set<UUID> ids = new HashSet<>();
+        claimedByA.forEach(run -> ids.add(run.getId()));
+        claimedByB.forEach(run -> ids.add(run.getId()));
+        assertThat(ids).hasSize(5);
+
+        assertThat(claim(leasesA, 3, TTL)).isEmpty();
+        // Node A still sees node B's two runs as pending elsewhere
+        assertThat(leasesA.countPendingElsewhere(MONTH_END, "SCHEDULED")).isEqualTo(2);
+    }
+
+    @Test
+    public void testExpiredLeasesAreReclaimed() {
+        createRuns(2);
+
+        // Node A claims everything, then crashes before its lease is renewed
+        assertThat(claim(leasesA, 10, EXPIRED)).hasSize(2);
+
+        List<RecommendationRun> reclaimed = claim(leasesB, 10, TTL);
+
+        assertThat(reclaimed).hasSize(2);
+        assertThat(runRepository.findByScheduledDateAndStatus(MONTH_END, "SCHEDULED"))
+                .allMatch(run -> "node-b".equals(run.getLeaseOwner()));
+    }
+
+    private List<RecommendationRun> claim(RunLeaseService leases, int limit, Duration ttl) {
+        return tx.execute(status -> leases.claimBatch(MONTH_END, "SCHEDULED", limit, ttl));
+    }
+
+    private void createRuns(int count) {
+        List<RecommendationRun> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            runs.add(RecommendationRun.builder()
+                    .userId(UUID.randomUUID())
+                    .portfolioId(UUID.randomUUID())
+                    .universeId(UUID.randomUUID())
+                    .constraintSetId(UUID.randomUUID())
+                    .runType("SCHEDULED")
+                    .status("SCHEDULED")
+                    .scheduledDate(MONTH_END)
+                    .build());
+        }
+        runRepository.saveAll(runs);
+    }
+}
@@ -0,0 +1,79 @@
+package com.stockmonitor.integration;
+
+import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.model.User;
+import com.stockmonitor.repository.NotificationRepository;
+import com.stockmonitor.service.NotificationPreferenceCache;
+import com.stockmonitor.service.NotificationService;
+import com.stockmonitor.service.NotificationService.NotificationMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the per-user unread notification counter per FR-048.
+ *
+ * Tests:
+ * - Counter follows single and batched inserts, single reads and read-all
+ * - Re-reading an already read notification does not decrement the counter
+ * - Saving a (stale) User entity never overwrites the counter
+ */
+public class NotificationUnreadCountIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationPreferenceCache preferenceCache;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    public void setup() {
+        userId = testDataHelper.createTestUser("unread-count-" + UUID.randomUUID() + "@example.com").getId();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        notificationRepository.deleteAll(notificationRepository.findByUserIdOrderByCreatedAtDesc(userId));
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    public void testCounterTracksInsertsAndReads() {
+        User staleUser = userRepository.findById(userId).orElseThrow();
+
+        NotificationDTO first = notificationService.send(NotificationMessage.dataStale(userId));
+        notificationService.send(NotificationMessage.dataStale(userId));
+        notificationService.createNotifications(
+                List.of(NotificationMessage.t1Staged(userId, UUID.randomUUID()),
+                        NotificationMessage.tFinalized(userId, UUID.randomUUID())),
+                preferenceCache.getAll(Set.of(userId)));
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(4);
+
+        // A stale entity save (e.g. a login updating lastLoginAt) must not reset the counter
+        staleUser.setLastLoginAt(LocalDateTime.now());
+        userRepository.save(staleUser);
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(4);
+
+        notificationService.markAsRead(first.getId());
+        notificationService.markAsRead(first.getId());
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(3);
+
+        notificationService.markAllAsRead(userId);
+        assertThat(notificationService.getUnreadCount(userId)).isZero();
+        assertThat(notificationRepository.countByUserIdAndIsReadFalse(userId)).isZero();
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.*;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 
@@ -30,7 +31,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Integration tests for notification WebSocket delivery per FR-045, FR-046, FR-047, FR-048.
  *
  * Tests:
- * - Subscribe to /user/{userId}/notifications
+ * - Subscribe to /user/queue/notifications as an authenticated user
  * - Receive real-time notifications
  * - Verify notification categories and priorities
  * - Verify notification read/unread status
@@ -51,6 +52,7 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
     private WebSocketStompClient stompClient;
     private String wsUrl;
     private StompSession session;
+    private String testUserEmail;
     private UUID testUserId;
 
     @BeforeEach
@@ -59,7 +61,8 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         stompClient = createWebSocketStompClient();
 
         wsUrl = String.format("ws://localhost:%d/ws", port);
-        testUserId = UUID.randomUUID();
+        testUserEmail = "ws-notify-" + UUID.randomUUID() + "@example.com";
+        testUserId = createTestUserId(testUserEmail);
     }
 
     @AfterEach
@@ -78,12 +81,13 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
         // Act
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
         // Subscribe to user notifications
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(1);
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -111,10 +115,11 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(5);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -167,10 +172,11 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -242,10 +248,11 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -308,10 +315,11 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(5);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -381,21 +389,25 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
     @Test
     public void testNotificationWebSocket_UserIsolation() throws Exception {
         // Arrange
-        UUID user1Id = UUID.randomUUID();
-        UUID user2Id = UUID.randomUUID();
+        String user1Email = "ws-user1-" + UUID.randomUUID() + "@example.com";
+        String user2Email = "ws-user2-" + UUID.randomUUID() + "@example.com";
+        UUID user1Id = createTestUserId(user1Email);
+        UUID user2Id = createTestUserId(user2Email);
 
         BlockingQueue<NotificationDTO> user1Queue = new ArrayBlockingQueue<>(5);
         BlockingQueue<NotificationDTO> user2Queue = new ArrayBlockingQueue<>(5);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
         // Connect two sessions for different users
-        StompSession user1Session = stompClient.connectAsync(wsUrl, sessionHandler)
+        StompSession user1Session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(user1Email), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
-        StompSession user2Session = stompClient.connectAsync(wsUrl, sessionHandler)
+        StompSession user2Session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(user2Email), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
         // User 1 subscribes to their notifications
-        user1Session.subscribe("/user/" + user1Id + "/notifications", new StompFrameHandler() {
+        user1Session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -411,7 +423,7 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         Thread.sleep(500);
 
         // User 2 subscribes to their notifications
-        user2Session.subscribe("/user/" + user2Id + "/notifications", new StompFrameHandler() {
+        user2Session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -489,10 +501,11 @@ public class NotificationWebSocketIntegrationTest extends BaseIntegrationTest {
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(5);
         StompSessionHandler sessionHandler = new TestStompSessionHandler();
 
-        session = stompClient.connectAsync(wsUrl, sessionHandler)
+        session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(testUserEmail), sessionHandler)
                 .get(5, TimeUnit.SECONDS);
 
-        session.subscribe("/user/" + testUserId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -0,0 +1,269 @@
+package com.stockmonitor.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.controller.RunStatusWebSocketController;
+import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.dto.RunStatusUpdateDTO;
+import com.stockmonitor.helper.EmbeddedStompBroker;
+import com.stockmonitor.service.WebSocketNotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the STOMP broker relay mode per FR-046, FR-047.
+ *
+ * Runs this node in app.websocket.broker.mode=relay against an embedded STOMP broker. A second
+ * node is simulated by a STOMP-over-TCP client connected straight to the broker, the same way
+ * another node's relay would be.
+ *
+ * Tests:
+ * - Client subscriptions live in the broker, one broker connection per client session
+ * - Messages published on this node reach subscribers on other nodes
+ * - Messages published by another node reach this node's WebSocket clients
+ * - User notifications reach only the user's session, through destinations the broker accepts
+ */
+public class WebSocketBrokerRelayIntegrationTest extends BaseIntegrationTest {
+
+    private static final int CLIENTS = 20;
+
+    // Lives as long as the JVM: the cached relay context stays connected to it, and closing that
+    // context early would drop the shared H2 schema (create-drop) under other cached contexts
+    private static final EmbeddedStompBroker BROKER = startBroker();
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker.mode", () -> "relay");
+        registry.add("app.websocket.broker.fallback-to-simple", () -> "false");
+        registry.add("app.websocket.broker.relay.host", () -> "127.0.0.1");
+        registry.add("app.websocket.broker.relay.port", BROKER::getPort);
+        registry.add("app.websocket.broker.relay.system-heartbeat-ms", () -> "0");
+    }
+
+    @Autowired
+    private RunStatusWebSocketController runStatusController;
+
+    @Autowired
+    private WebSocketNotificationService notificationService;
+
+    @Autowired
+    @Qualifier("stompBrokerRelayMessageHandler")
+    private AbstractBrokerMessageHandler brokerRelay;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private ReactorNettyTcpStompClient otherNodeClient;
+    private StompSession otherNode;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!brokerRelay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(brokerRelay.isBrokerAvailable()).isTrue();
+
+        otherNodeClient = new ReactorNettyTcpStompClient("127.0.0.1", BROKER.getPort());
+        otherNodeClient.setMessageConverter(converter());
+        otherNodeClient.setDefaultHeartbeat(new long[]{0, 0});
+        otherNode = otherNodeClient.connectAsync(new StompSessionHandlerAdapter() {}).get(5, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        if (otherNode != null && otherNode.isConnected()) {
+            otherNode.disconnect();
+        }
+        if (otherNodeClient != null) {
+            otherNodeClient.shutdown();
+        }
+    }
+
+    @Test
+    public void testPublishOnThisNodeFansOutThroughBroker() throws Exception {
+        UUID runId = UUID.randomUUID();
+        String destination = "/topic/runs/" + runId + "/status";
+        BlockingQueue<RunStatusUpdateDTO> received = subscribeClients(destination);
+        BlockingQueue<RunStatusUpdateDTO> receivedOnOtherNode = new LinkedBlockingQueue<>();
+        otherNode.subscribe(destination, handler(receivedOnOtherNode));
+        awaitSubscribers(destination, CLIENTS + 1);
+
+        // Subscriptions are held by the broker, not this JVM: one relayed connection per client
+        assertThat(BROKER.connectionCount()).isGreaterThanOrEqualTo(CLIENTS + 2);
+
+        runStatusController.broadcastRunStatus(runId, update(runId, 40));
+
+        for (int i = 0; i < CLIENTS; i++) {
+            RunStatusUpdateDTO update = received.poll(5, TimeUnit.SECONDS);
+            assertThat(update).isNotNull();
+            assertThat(update.getProgress()).isEqualTo(40);
+        }
+        assertThat(receivedOnOtherNode.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    public void testPublishOnOtherNodeReachesLocalClients() throws Exception {
+        UUID runId = UUID.randomUUID();
+        String destination = "/topic/runs/" + runId + "/status";
+        BlockingQueue<RunStatusUpdateDTO> received = subscribeClients(destination);
+        awaitSubscribers(destination, CLIENTS);
+
+        otherNode.send(destination, update(runId, 75));
+
+        for (int i = 0; i < CLIENTS; i++) {
+            RunStatusUpdateDTO update = received.poll(5, TimeUnit.SECONDS);
+            assertThat(update).isNotNull();
+            assertThat(update.getRunId()).isEqualTo(runId);
+            assertThat(update.getProgress()).isEqualTo(75);
+        }
+    }
+
+    @Test
+    public void testUserNotificationUsesBrokerDestinations() throws Exception {
+        String userEmail = "ws-relay-" + UUID.randomUUID() + "@example.com";
+        String otherEmail = "ws-relay-other-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
+        createTestUserId(otherEmail);
+        BlockingQueue<NotificationDTO> received = subscribeNotifications(userEmail);
+        BlockingQueue<NotificationDTO> receivedByOther = subscribeNotifications(otherEmail);
+
+        // Resolved to /queue/notifications-user{sessionId}; retry until the relayed SUBSCRIBE lands
+        NotificationDTO notification = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (notification == null && System.currentTimeMillis() < deadline) {
+            notificationService.broadcastNotification(userId, notification(userId));
+            notification = received.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(notification).isNotNull();
+        assertThat(notification.getUserId()).isEqualTo(userId);
+        assertThat(receivedByOther.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(BROKER.rejectedDestinations()).isEmpty();
+    }
+
+    private BlockingQueue<NotificationDTO> subscribeNotifications(String userEmail) throws Exception {
+        WebSocketStompClient stompClient = createWebSocketStompClient();
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        BlockingQueue<NotificationDTO> received = new LinkedBlockingQueue<>();
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(),
+                        stompAuthHeaders(userEmail), new StompSessionHandlerAdapter() {})
+                .get(5, TimeUnit.SECONDS);
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return NotificationDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((NotificationDTO) payload);
+            }
+        });
+        sessions.add(session);
+        return received;
+    }
+
+    private BlockingQueue<RunStatusUpdateDTO> subscribeClients(String destination) throws Exception {
+        WebSocketStompClient stompClient = createWebSocketStompClient();
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        BlockingQueue<RunStatusUpdateDTO> received = new LinkedBlockingQueue<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            StompSession session = stompClient
+                    .connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {})
+                    .get(5, TimeUnit.SECONDS);
+            session.subscribe(destination, handler(received));
+            sessions.add(session);
+        }
+        return received;
+    }
+
+    private static void awaitSubscribers(String destination, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (BROKER.subscriberCount(destination) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(BROKER.subscriberCount(destination)).isEqualTo(expected);
+    }
+
+    private static StompFrameHandler handler(BlockingQueue<RunStatusUpdateDTO> received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return RunStatusUpdateDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((RunStatusUpdateDTO) payload);
+            }
+        };
+    }
+
+    private static RunStatusUpdateDTO update(UUID runId, int progress) {
+        return RunStatusUpdateDTO.builder()
+                .runId(runId)
+                .status("RUNNING")
+                .progress(progress)
+                .stage("Processing")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static NotificationDTO notification(UUID userId) {
+        return NotificationDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .category("T_FINALIZED")
+                .priority("HIGH")
+                .title("Relayed")
+                .message("Delivered through the broker")
+                .isRead(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static MappingJackson2MessageConverter converter() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(mapper);
+        return converter;
+    }
+
+    private static EmbeddedStompBroker startBroker() {
+        try {
+            return new EmbeddedStompBroker();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
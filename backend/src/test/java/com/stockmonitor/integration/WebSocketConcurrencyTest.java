@@ -1,10 +1,14 @@
 package com.stockmonitor.integration;
 
 import com.stockmonitor.BaseIntegrationTest;
+import com.stockmonitor.config.MetricsConfig.WebSocketMetrics;
+import com.stockmonitor.config.WebSocketSessionMetrics;
 import com.stockmonitor.controller.RunStatusWebSocketController;
 import com.stockmonitor.dto.NotificationDTO;
 import com.stockmonitor.dto.RunStatusUpdateDTO;
 import com.stockmonitor.service.WebSocketNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +18,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.*;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 
@@ -21,6 +26,7 @@ import java.lang.reflect.Type;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +39,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Message isolation between connections
  * - Concurrent run status subscriptions
  * - No cross-contamination between users
+ * - Load: hundreds of clients on one run topic all converge on the latest update, with bounded
+ *   send queues and no slow-consumer disconnects
  *
  * Test-First: These tests verify WebSocket behavior under concurrent load.
  */
@@ -49,6 +57,12 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
     @Autowired
     private RunStatusWebSocketController runStatusController;
 
+    @Autowired
+    private WebSocketSessionMetrics sessionMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private WebSocketStompClient stompClient;
     private String wsUrl;
     private List<StompSession> activeSessions;
@@ -108,17 +122,19 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
         Map<UUID, StompSession> userSessions = new HashMap<>();
 
         for (int i = 0; i < userCount; i++) {
-            UUID userId = UUID.randomUUID();
+            String userEmail = "ws-isolation-" + UUID.randomUUID() + "@example.com";
+            UUID userId = createTestUserId(userEmail);
             BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
             userQueues.put(userId, queue);
 
-            StompSession session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
+            StompSession session = stompClient
+                    .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(userEmail), new TestStompSessionHandler())
                     .get(5, TimeUnit.SECONDS);
             activeSessions.add(session);
             userSessions.put(userId, session);
 
             // Subscribe to user-specific notifications
-            session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+            session.subscribe("/user/queue/notifications", new StompFrameHandler() {
                 @Override
                 public Type getPayloadType(StompHeaders headers) {
                     return NotificationDTO.class;
@@ -130,6 +146,9 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
                 }
             });
         }
+        for (Map.Entry<UUID, BlockingQueue<NotificationDTO>> entry : userQueues.entrySet()) {
+            awaitSubscribed(List.of(entry.getValue()), () -> sendProbe(entry.getKey()));
+        }
 
         // Act - Send notification to each user
         List<UUID> userIds = new ArrayList<>(userQueues.keySet());
@@ -205,6 +224,7 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
                 }
             });
         }
+        awaitSubscribed(queues, () -> runStatusController.sendStatusUpdate(runId, "RUNNING", 0, "Probe"));
 
         // Act - Broadcast single run status update
         runStatusController.sendStatusUpdate(runId, "RUNNING", 50, "Processing");
@@ -259,6 +279,10 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
                 }
             });
         }
+        for (Map.Entry<UUID, BlockingQueue<RunStatusUpdateDTO>> entry : runQueues.entrySet()) {
+            awaitSubscribed(List.of(entry.getValue()),
+                    () -> runStatusController.sendStatusUpdate(entry.getKey(), "RUNNING", 0, "Probe"));
+        }
 
         // Act - Send status updates to each run with different progress
         List<UUID> runIds = new ArrayList<>(runQueues.keySet());
@@ -292,14 +316,16 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
     @Test
     public void testWebSocketConcurrency_HighVolumeMessages() throws Exception {
         // Arrange
-        UUID userId = UUID.randomUUID();
+        String userEmail = "ws-volume-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(100);
 
-        StompSession session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
+        StompSession session = stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(userEmail), new TestStompSessionHandler())
                 .get(5, TimeUnit.SECONDS);
         activeSessions.add(session);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -310,6 +336,7 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
                 queue.add((NotificationDTO) payload);
             }
         });
+        awaitSubscribed(List.of(queue), () -> sendProbe(userId));
 
         // Act - Send 50 notifications rapidly
         int messageCount = 50;
@@ -412,6 +439,129 @@ public class WebSocketConcurrencyTest extends BaseIntegrationTest {
         assertThat(true).isTrue();
     }
 
+    /**
+     * Load scenario: 300 clients subscribe to the same run and receive a burst of status updates.
+     * Every client must end on the final update without any session being disconnected, and the
+     * per-session send queues must drain.
+     */
+    @Test
+    public void testWebSocketConcurrency_HundredsOfClientsLoad() throws Exception {
+        // Arrange - Connect all clients in parallel
+        int clientCount = 300;
+        int updateCount = 20;
+        UUID runId = UUID.randomUUID();
+        double disconnectsBefore = disconnectCount();
+        AtomicIntegerArray highestProgress = new AtomicIntegerArray(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            highestProgress.set(i, -1);
+        }
+
+        List<CompletableFuture<StompSession>> connecting = new ArrayList<>();
+        for (int i = 0; i < clientCount; i++) {
+            connecting.add(stompClient.connectAsync(wsUrl, new TestStompSessionHandler()));
+        }
+        for (int i = 0; i < clientCount; i++) {
+            StompSession session = connecting.get(i).get(30, TimeUnit.SECONDS);
+            activeSessions.add(session);
+            int client = i;
+            session.subscribe("/topic/runs/" + runId + "/status", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return RunStatusUpdateDTO.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    // Outbound threads may deliver a burst out of order: keep the highest seen
+                    highestProgress.accumulateAndGet(client, ((RunStatusUpdateDTO) payload).getProgress(), Math::max);
+                }
+            });
+        }
+        assertThat(sessionMetrics.activeSessions()).isGreaterThanOrEqualTo(clientCount);
+
+        // Subscriptions are registered asynchronously: probe until every client has one
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (countAtLeast(highestProgress, 0) < clientCount && System.currentTimeMillis() < deadline) {
+            runStatusController.sendStatusUpdate(runId, "RUNNING", 0, "Probe");
+            Thread.sleep(100);
+        }
+        assertThat(countAtLeast(highestProgress, 0)).isEqualTo(clientCount);
+
+        // Act - Burst of updates, fanned out to every client
+        for (int progress = 1; progress <= updateCount; progress++) {
+            runStatusController.sendStatusUpdate(runId, "RUNNING", progress, "Step " + progress);
+        }
+
+        // Assert - Every client converges on the final update
+        deadline = System.currentTimeMillis() + 20_000;
+        while (countAtLeast(highestProgress, updateCount) < clientCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(countAtLeast(highestProgress, updateCount)).isEqualTo(clientCount);
+
+        deadline = System.currentTimeMillis() + 5_000;
+        while (sessionMetrics.queueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(sessionMetrics.queueDepth()).isZero();
+        assertThat(disconnectCount()).isEqualTo(disconnectsBefore);
+
+        // Closed sessions leave the session gauge
+        cleanup();
+        deadline = System.currentTimeMillis() + 10_000;
+        while (sessionMetrics.activeSessions() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(sessionMetrics.activeSessions()).isZero();
+    }
+
+    /**
+     * The simple broker registers a SUBSCRIBE asynchronously and sends no RECEIPT for it, so
+     * anything published right after subscribe() can reach the broker first and is never routed to
+     * the session. Publish probes until every queue has one, then discard the probes.
+     */
+    private static <T> void awaitSubscribed(List<? extends BlockingQueue<T>> queues, Runnable probe)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (queues.stream().anyMatch(Queue::isEmpty)) {
+            assertThat(System.currentTimeMillis()).as("subscriptions registered").isLessThan(deadline);
+            probe.run();
+            Thread.sleep(100);
+        }
+        // A probe published just before the last one received may still be in flight
+        Thread.sleep(200);
+        queues.forEach(Queue::clear);
+    }
+
+    private void sendProbe(UUID userId) {
+        notificationService.broadcastNotification(userId, NotificationDTO.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .category("PROBE")
+                .priority("LOW")
+                .title("Probe")
+                .message("Probe")
+                .isRead(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static int countAtLeast(AtomicIntegerArray values, int minimum) {
+        int count = 0;
+        for (int i = 0; i < values.length(); i++) {
+            if (values.get(i) >= minimum) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double disconnectCount() {
+        return meterRegistry.find(WebSocketMetrics.SESSIONS_DISCONNECTED).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
     /**
      * Helper class for STOMP session handling.
      */
@@ -12,6 +12,7 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.simp.stomp.*;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 
@@ -98,14 +99,14 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
     @Test
     public void testWebSocketReconnection_SubscriptionReestablishment() throws Exception {
         // Arrange
-        UUID userId = UUID.randomUUID();
+        String userEmail = "ws-reconnect-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
 
         // Initial connection and subscription
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -133,10 +134,9 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
         Thread.sleep(500);
 
         // Reconnect and resubscribe
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -210,14 +210,14 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
     @Test
     public void testWebSocketReconnection_MessageDeliveryAfterReconnect() throws Exception {
         // Arrange
-        UUID userId = UUID.randomUUID();
+        String userEmail = "ws-reconnect-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
 
         // Connect and subscribe
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -240,10 +240,9 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
         notificationService.broadcastNotification(userId, createTestNotification(userId, "Lost Message"));
 
         // Reconnect
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -302,14 +301,14 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
     @Test
     public void testWebSocketReconnection_GracefulFailureHandling() throws Exception {
         // Arrange
-        UUID userId = UUID.randomUUID();
+        String userEmail = "ws-reconnect-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
         List<NotificationDTO> receivedMessages = new ArrayList<>();
 
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -339,10 +338,9 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
         notificationService.broadcastNotification(userId, createTestNotification(userId, "Lost Message"));
 
         // Reconnect
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -431,14 +429,14 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
     @Test
     public void testWebSocketReconnection_SubscriptionDoesNotPersist() throws Exception {
         // Arrange
-        UUID userId = UUID.randomUUID();
+        String userEmail = "ws-reconnect-" + UUID.randomUUID() + "@example.com";
+        UUID userId = createTestUserId(userEmail);
         BlockingQueue<NotificationDTO> queue = new ArrayBlockingQueue<>(10);
 
         // Connect and subscribe
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
-        session.subscribe("/user/" + userId + "/notifications", new StompFrameHandler() {
+        session.subscribe("/user/queue/notifications", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return NotificationDTO.class;
@@ -461,8 +459,7 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
         session.disconnect();
         Thread.sleep(500);
 
-        session = stompClient.connectAsync(wsUrl, new TestStompSessionHandler())
-                .get(5, TimeUnit.SECONDS);
+        session = connectAs(userEmail);
 
         // Send message WITHOUT resubscribing
         notificationService.broadcastNotification(userId, createTestNotification(userId, "After Reconnect"));
@@ -472,6 +469,15 @@ public class WebSocketReconnectionTest extends BaseIntegrationTest {
         assertThat(notReceived).isNull();
     }
 
+    /**
+     * Helper method to connect authenticated as a user, so /user/queue/notifications resolves.
+     */
+    private StompSession connectAs(String userEmail) throws Exception {
+        return stompClient
+                .connectAsync(wsUrl, new WebSocketHttpHeaders(), stompAuthHeaders(userEmail), new TestStompSessionHandler())
+                .get(5, TimeUnit.SECONDS);
+    }
+
     /**
      * Helper method to create test notification.
      */
@@ -0,0 +1,180 @@
+package com.stockmonitor.scheduler;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.MetricsConfig.MonthEndMetrics;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for MonthEndFanOut.
+ *
+ * Tests:
+ * - Items are saved in batches and follow-up runs once per batch with the saved runs
+ * - A failing item does not affect the rest of its batch
+ * - A failed batch save falls back to per-run saves
+ * - Follow-up runs in the saving transaction; if it fails the batch is rolled back and retried per run
+ * - Stage and item metrics are recorded
+ */
+public class MonthEndFanOutTest extends BaseUnitTest {
+
+    @Mock
+    private RecommendationRunRepository runRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private MonthEndFanOut fanOut;
+
+    @BeforeEach
+    public void setup() {
+        fanOut = new MonthEndFanOut(runRepository, transactionManager, executor, meterRegistry, 10);
+        lenient().when(runRepository.saveAll(anyList())).thenAnswer(inv -> new ArrayList<>(inv.getArgument(0)));
+        lenient().when(runRepository.save(any(RecommendationRun.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSavesInBatchesAndRunsFollowUpPerRun() {
+        List<UUID> ids = ids(25);
+        List<UUID> notified = new ArrayList<>();
+        AtomicInteger batches = new AtomicInteger();
+
+        MonthEndFanOut.StageResult result = fanOut.process("T-3", ids, id -> id,
+                this::run, null, saved -> {
+                    synchronized (notified) {
+                        saved.forEach(run -> notified.add(run.getPortfolioId()));
+                    }
+                    batches.incrementAndGet();
+                });
+
+        assertThat(result.saved()).isEqualTo(25);
+        assertThat(result.failed()).isZero();
+        assertThat(notified).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(batches.get()).isEqualTo(3);
+        verify(runRepository, times(3)).saveAll(anyList()); // 10 + 10 + 5
+    }
+
+    @Test
+    public void testFailingItemIsIsolated() {
+        List<UUID> ids = ids(5);
+        UUID broken = ids.get(2);
+        List<RecommendationRun> failedRuns = new ArrayList<>();
+
+        MonthEndFanOut.StageResult result = fanOut.process("T", ids, id -> id,
+                id -> {
+                    if (id.equals(broken)) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return run(id);
+                },
+                id -> {
+                    RecommendationRun failed = run(id);
+                    failed.setStatus("FAILED");
+                    failedRuns.add(failed);
+                    return failed;
+                },
+                saved -> { });
+
+        assertThat(result.saved()).isEqualTo(4);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(failedRuns).extracting(RecommendationRun::getPortfolioId).containsExactly(broken);
+        assertThat(meterRegistry.counter(MonthEndMetrics.ITEM_FAILURES, "stage", "T").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFallsBackToIndividualSavesWhenBatchSaveFails() {
+        List<UUID> ids = ids(3);
+        UUID rejected = ids.get(1);
+        when(runRepository.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violation"));
+        when(runRepository.save(any(RecommendationRun.class))).thenAnswer(inv -> {
+            RecommendationRun run = inv.getArgument(0);
+            if (run.getPortfolioId().equals(rejected)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return run;
+        });
+        List<UUID> notified = new ArrayList<>();
+
+        MonthEndFanOut.StageResult result = fanOut.process("T-1", ids, id -> id,
+                this::run, null, saved -> saved.forEach(run -> notified.add(run.getPortfolioId())));
+
+        assertThat(result.saved()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(notified).doesNotContain(rejected);
+    }
+
+    @Test
+    public void testFailedFollowUpRollsBackBatchAndRetriesPerRun() {
+        List<UUID> ids = ids(3);
+        UUID unnotifiable = ids.get(0);
+        List<UUID> notified = new ArrayList<>();
+
+        MonthEndFanOut.StageResult result = fanOut.process("T", ids, id -> id, this::run, null, saved -> {
+            if (saved.stream().anyMatch(run -> run.getPortfolioId().equals(unnotifiable))) {
+                throw new IllegalStateException("outbox insert failed");
+            }
+            saved.forEach(run -> notified.add(run.getPortfolioId()));
+        });
+
+        assertThat(result.saved()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(notified).containsExactlyInAnyOrder(ids.get(1), ids.get(2));
+        // The batch and the unnotifiable run's own transaction are rolled back
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void testRecordsStageAndItemTimers() {
+        fanOut.process("T-3", ids(12), id -> id, this::run, null, saved -> { });
+
+        assertThat(meterRegistry.get(MonthEndMetrics.STAGE_DURATION).tag("stage", "T-3").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(MonthEndMetrics.ITEM_LATENCY).tag("stage", "T-3").timer().count())
+                .isEqualTo(12);
+    }
+
+    private RecommendationRun run(UUID portfolioId) {
+        return RecommendationRun.builder()
+                .portfolioId(portfolioId)
+                .userId(UUID.randomUUID())
+                .status("SCHEDULED")
+                .build();
+    }
+
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stockmonitor.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit test for AuthenticatedPrincipalCache.
+ *
+ * Tests:
+ * - A token with roles and version is checked against the current version once, then served from cache
+ * - A token with an outdated version is rejected
+ * - Invalidating a subject makes the next request check the version again
+ * - A token without a version loads the user once, and the cached principal has no password
+ */
+class AuthenticatedPrincipalCacheTest extends BaseUnitTest {
+
+  private static final String EMAIL = "owner@example.com";
+
+  @Mock private UserRepository userRepository;
+  @Mock private UserDetailsService userDetailsService;
+
+  private JwtService jwtService;
+  private AuthenticatedPrincipalCache cache;
+  private UserDetails owner;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(
+        jwtService, "secretKey", "dGVzdC1zZWNyZXQta2V5LWZvci1qd3QtdG9rZW4tdGhpcy1pcy1vbmx5LWZvci10ZXN0aW5n");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+    cache = new AuthenticatedPrincipalCache(userRepository, userDetailsService, Duration.ofMinutes(1), 100);
+    owner = User.withUsername(EMAIL).password("hash").roles("OWNER").build();
+  }
+
+  @Test
+  void testVersionedTokenCachedAfterVersionCheck() {
+    when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(2));
+    Claims claims = jwtService.parseClaims(jwtService.generateToken(owner, 2));
+
+    Optional<UserDetails> first = cache.get(claims);
+    Optional<UserDetails> second = cache.get(claims);
+
+    assertThat(first).isPresent();
+    assertThat(first.get().getUsername()).isEqualTo(EMAIL);
+    assertThat(first.get().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_OWNER");
+    assertThat(second).containsSame(first.get());
+    verify(userRepository, times(1)).findTokenVersionByEmail(EMAIL);
+    verifyNoInteractions(userDetailsService);
+  }
+
+  @Test
+  void testOutdatedVersionRejected() {
+    when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(3));
+
+    assertThat(cache.get(jwtService.parseClaims(jwtService.generateToken(owner, 2)))).isEmpty();
+  }
+
+  @Test
+  void testInvalidateChecksVersionAgain() {
+    when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(2), Optional.of(3));
+    Claims claims = jwtService.parseClaims(jwtService.generateToken(owner, 2));
+
+    assertThat(cache.get(claims)).isPresent();
+    cache.invalidate(EMAIL);
+
+    assertThat(cache.get(claims)).isEmpty();
+    verify(userRepository, times(2)).findTokenVersionByEmail(EMAIL);
+  }
+
+  @Test
+  void testUnversionedTokenLoadsUserOnce() {
+    when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(owner);
+    Claims claims = jwtService.parseClaims(jwtService.generateToken(owner));
+
+    Optional<UserDetails> first = cache.get(claims);
+    cache.get(claims);
+
+    assertThat(first).isPresent();
+    assertThat(first.get().getPassword()).isEmpty();
+    assertThat(first.get().getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_OWNER");
+    verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    verifyNoInteractions(userRepository);
+  }
+}
@@ -1,15 +1,19 @@
 package com.stockmonitor.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
 import com.stockmonitor.BaseUnitTest;
+import io.jsonwebtoken.Claims;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -93,4 +97,18 @@ class JwtServiceTest extends BaseUnitTest {
     assertThat(token).isNotNull();
     assertThat(jwtService.extractUsername(token)).isEqualTo("test@example.com");
   }
+
+  @Test
+  void testGenerateTokenWithRolesAndVersion() {
+    // Given
+    doReturn(List.of(new SimpleGrantedAuthority("ROLE_OWNER"))).when(userDetails).getAuthorities();
+
+    // When
+    Claims claims = jwtService.parseClaims(jwtService.generateToken(userDetails, 3));
+
+    // Then
+    assertThat(claims.getSubject()).isEqualTo("test@example.com");
+    assertThat(claims.get(JwtService.ROLES_CLAIM, List.class)).containsExactly("ROLE_OWNER");
+    assertThat(claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class)).isEqualTo(3);
+  }
 }
@@ -0,0 +1,136 @@
+package com.stockmonitor.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.stockmonitor.security.RateLimitFilter.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark: rate limiter overhead per request under contention.
+ *
+ * Eight threads take tokens from local buckets, all from one hot bucket (worst-case CAS
+ * contention) and each from its own bucket, with limits high enough that nothing is rejected.
+ * A full pass through the filter is compared with the filter disabled. Not part of the regular
+ * build; run with {@code mvn -o test -Dtest=RateLimitFilterBenchmark}.
+ */
+public class RateLimitFilterBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 500_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    public void benchmarkRateLimiter() throws Exception {
+        RateLimitFilter limiter = filter(true);
+        RateLimitFilter disabled = filter(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/runs");
+
+        double sharedNanos = 0;
+        double perThreadNanos = 0;
+        double filterNanos = 0;
+        double disabledNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            // First round is warm-up
+            double shared = nanosPerOp(thread -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    assertThat(limiter.tryAcquire("user:hot", EndpointClass.STANDARD)).isZero();
+                }
+            });
+            double perThread = nanosPerOp(thread -> {
+                String caller = "user:" + thread;
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    limiter.tryAcquire(caller, EndpointClass.STANDARD);
+                }
+            });
+            double throughFilter = nanosPerOp(thread -> doFilter(limiter, request));
+            double throughDisabled = nanosPerOp(thread -> doFilter(disabled, request));
+            if (round > 0) {
+                sharedNanos += shared / (ROUNDS - 1);
+                perThreadNanos += perThread / (ROUNDS - 1);
+                filterNanos += throughFilter / (ROUNDS - 1);
+                disabledNanos += throughDisabled / (ROUNDS - 1);
+            }
+        }
+
+        System.out.printf("%-40s %10.1f ns/request%n", "tryAcquire, one shared bucket", sharedNanos);
+        System.out.printf("%-40s %10.1f ns/request%n", "tryAcquire, bucket per thread", perThreadNanos);
+        System.out.printf("%-40s %10.1f ns/request%n", "Filter, rate limiting enabled", filterNanos);
+        System.out.printf("%-40s %10.1f ns/request%n", "Filter, rate limiting disabled", disabledNanos);
+        System.out.printf("Overhead: %.1f ns/request%n", filterNanos - disabledNanos);
+    }
+
+    private static void doFilter(RateLimitFilter filter, MockHttpServletRequest request) {
+        try {
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Run the work on every thread at once; wall time per operation across all threads. */
+    private static double nanosPerOp(IntConsumer work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                work.accept(thread);
+            });
+            worker.start();
+            threads.add(worker);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : threads) {
+            worker.join();
+        }
+        return (double) (System.nanoTime() - begin) / ((long) THREADS * OPS_PER_THREAD);
+    }
+
+    private static RateLimitFilter filter(boolean enabled) {
+        ObjectProvider<StringRedisTemplate> noRedis = new ObjectProvider<>() {
+            @Override
+            public StringRedisTemplate getObject(Object... args) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public StringRedisTemplate getIfAvailable() {
+                return null;
+            }
+
+            @Override
+            public StringRedisTemplate getIfUnique() {
+                return null;
+            }
+
+            @Override
+            public StringRedisTemplate getObject() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        // One token per 60 ns keeps every request admitted
+        return new RateLimitFilter(enabled, "local", 1_000_000_000, 1_000_000_000, 1000,
+                noRedis, new SimpleMeterRegistry(), Ticker.systemTicker());
+    }
+}
@@ -0,0 +1,126 @@
+package com.stockmonitor.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.MetricsConfig.SecurityMetrics;
+import com.stockmonitor.security.RateLimitFilter.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit test for RateLimitFilter.
+ *
+ * Tests:
+ * - A caller gets a full minute's burst, then 429 with Retry-After, and is admitted again as the bucket refills
+ * - Callers and endpoint classes have separate buckets
+ * - Disabled limiting and non-API paths pass through
+ * - Redis mode uses the script's answer and falls back to local buckets while Redis is down
+ */
+class RateLimitFilterTest extends BaseUnitTest {
+
+  @Mock private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void testBurstThenRetryAfterThenRefill() throws Exception {
+    RateLimitFilter filter = filter(true, "local");
+
+    for (int i = 0; i < 60; i++) {
+      assertThat(send(filter, "GET", "/api/runs", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+    MockHttpServletResponse rejected = send(filter, "GET", "/api/runs", "10.0.0.1");
+
+    assertThat(rejected.getStatus()).isEqualTo(429);
+    assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(registry.counter(SecurityMetrics.RATE_LIMIT_REJECTED, "endpoint", "standard").count()).isEqualTo(1);
+
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThat(send(filter, "GET", "/api/runs", "10.0.0.1").getStatus()).isEqualTo(200);
+    assertThat(send(filter, "GET", "/api/runs", "10.0.0.1").getStatus()).isEqualTo(429);
+  }
+
+  @Test
+  void testSeparateBucketsPerCallerAndEndpointClass() {
+    RateLimitFilter filter = filter(true, "local");
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(filter.tryAcquire("user:a", EndpointClass.EXPENSIVE)).isZero();
+    }
+    long wait = filter.tryAcquire("user:a", EndpointClass.EXPENSIVE);
+
+    assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(6));
+    assertThat(filter.tryAcquire("user:b", EndpointClass.EXPENSIVE)).isZero();
+    assertThat(filter.tryAcquire("user:a", EndpointClass.STANDARD)).isZero();
+    assertThat(RateLimitFilter.classify("POST", "/api/portfolios/123/constraints/preview"))
+        .isEqualTo(EndpointClass.EXPENSIVE);
+    assertThat(RateLimitFilter.classify("POST", "/api/backtests")).isEqualTo(EndpointClass.EXPENSIVE);
+    assertThat(RateLimitFilter.classify("GET", "/api/backtests")).isEqualTo(EndpointClass.STANDARD);
+  }
+
+  @Test
+  void testDisabledAndNonApiPathsPassThrough() throws Exception {
+    RateLimitFilter disabled = filter(false, "local");
+    RateLimitFilter enabled = filter(true, "local");
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(send(disabled, "POST", "/api/backtests", "10.0.0.1").getStatus()).isEqualTo(200);
+      assertThat(send(enabled, "GET", "/actuator/health", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testRedisModeUsesScriptAndFallsBackWhenDown() {
+    when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString()))
+        .thenReturn(1_500_000L)
+        .thenThrow(new RedisConnectionFailureException("down"));
+    RateLimitFilter filter = filter(true, "redis");
+
+    assertThat(filter.tryAcquire("user:a", EndpointClass.STANDARD)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1500));
+    // Redis fails: local bucket answers, and Redis is not retried until the back-off passes
+    assertThat(filter.tryAcquire("user:a", EndpointClass.STANDARD)).isZero();
+    assertThat(filter.tryAcquire("user:a", EndpointClass.STANDARD)).isZero();
+
+    verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), anyString(), anyString());
+  }
+
+  private RateLimitFilter filter(boolean enabled, String mode) {
+    return new RateLimitFilter(enabled, mode, 60, 10, 1000, redisTemplateProvider, registry, nanos::get);
+  }
+
+  private static MockHttpServletResponse send(RateLimitFilter filter, String method, String path, String address)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+    request.setRemoteAddr(address);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
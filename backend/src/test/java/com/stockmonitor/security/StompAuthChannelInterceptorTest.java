@@ -0,0 +1,118 @@
+package com.stockmonitor.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.repository.UserRepository;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit test for StompAuthChannelInterceptor.
+ *
+ * Tests:
+ * - CONNECT with a valid bearer token gets a principal named by the user id
+ * - CONNECT without a token stays anonymous
+ * - CONNECT with a forged or revoked token is rejected
+ * - Frames other than CONNECT are not inspected
+ */
+class StompAuthChannelInterceptorTest extends BaseUnitTest {
+
+  private static final String EMAIL = "owner@example.com";
+
+  @Mock private AuthenticatedPrincipalCache principalCache;
+  @Mock private UserRepository userRepository;
+
+  private final MessageChannel channel = mock(MessageChannel.class);
+  private JwtService jwtService;
+  private StompAuthChannelInterceptor interceptor;
+  private UserDetails owner;
+
+  @BeforeEach
+  void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(
+        jwtService, "secretKey", "dGVzdC1zZWNyZXQta2V5LWZvci1qd3QtdG9rZW4tdGhpcy1pcy1vbmx5LWZvci10ZXN0aW5n");
+    ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+    interceptor = new StompAuthChannelInterceptor(jwtService, principalCache, userRepository);
+    owner = User.withUsername(EMAIL).password("").roles("OWNER").build();
+  }
+
+  @Test
+  void testValidTokenSetsUserIdPrincipal() {
+    UUID userId = UUID.randomUUID();
+    when(principalCache.get(any())).thenReturn(Optional.of(owner));
+    when(userRepository.findIdByEmail(EMAIL)).thenReturn(Optional.of(userId));
+
+    Message<?> message = connect("Bearer " + jwtService.generateToken(owner, 1));
+    interceptor.preSend(message, channel);
+
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    assertThat(accessor.getUser()).isNotNull();
+    assertThat(accessor.getUser().getName()).isEqualTo(userId.toString());
+  }
+
+  @Test
+  void testConnectWithoutTokenStaysAnonymous() {
+    Message<?> message = connect(null);
+    interceptor.preSend(message, channel);
+
+    assertThat(StompHeaderAccessor.wrap(message).getUser()).isNull();
+    verifyNoInteractions(principalCache, userRepository);
+  }
+
+  @Test
+  void testForgedTokenRejected() {
+    Message<?> message = connect("Bearer not-a-jwt");
+
+    assertThatThrownBy(() -> interceptor.preSend(message, channel))
+        .isInstanceOf(MessageDeliveryException.class);
+    verifyNoInteractions(principalCache, userRepository);
+  }
+
+  @Test
+  void testRevokedTokenRejected() {
+    when(principalCache.get(any())).thenReturn(Optional.empty());
+    Message<?> message = connect("Bearer " + jwtService.generateToken(owner, 1));
+
+    assertThatThrownBy(() -> interceptor.preSend(message, channel))
+        .isInstanceOf(MessageDeliveryException.class);
+  }
+
+  @Test
+  void testOtherFramesNotInspected() {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+    accessor.setNativeHeader("Authorization", "Bearer not-a-jwt");
+    accessor.setLeaveMutable(true);
+    Message<?> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+    assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    verifyNoInteractions(principalCache, userRepository);
+  }
+
+  private static Message<?> connect(String authorization) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+    if (authorization != null) {
+      accessor.setNativeHeader("Authorization", authorization);
+    }
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,195 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.MetricsConfig.AuditMetrics;
+import com.stockmonitor.model.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for AuditLogService and AuditRingBuffer.
+ *
+ * Tests:
+ * - Published events are written by flush in batches, not by the caller
+ * - Full buffer: write-through writes synchronously, block and drop policies drop and count
+ * - Failed batches are retried and dropped after max attempts
+ * - Security events from non-UUID principals keep the principal in the detail
+ * - Concurrent producers lose and duplicate no events
+ */
+public class AuditLogServiceTest extends BaseUnitTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+    }
+
+    @Test
+    public void testFlushWritesPublishedEventsInBatches() {
+        AuditLogService service = service(16, 2, "drop");
+
+        for (int i = 0; i < 5; i++) {
+            service.publish(event());
+        }
+        verify(entityManager, never()).persist(any());
+        assertThat(meterRegistry.get(AuditMetrics.BUFFER_DEPTH).gauge().value()).isEqualTo(5);
+
+        assertThat(service.flush()).isEqualTo(5);
+
+        verify(entityManager, times(5)).persist(any(AuditLog.class));
+        verify(entityManager, times(3)).flush();
+        verify(session, times(3)).setJdbcBatchSize(2);
+        assertThat(meterRegistry.get(AuditMetrics.EVENTS_WRITTEN).counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(AuditMetrics.WRITE_LAG).timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(AuditMetrics.BUFFER_DEPTH).gauge().value()).isZero();
+        assertThat(service.flush()).isZero();
+    }
+
+    @Test
+    public void testFullBufferOverflowPolicies() {
+        AuditLogService writeThrough = service(2, 10, "write-through");
+        writeThrough.publish(event());
+        writeThrough.publish(event());
+        writeThrough.publish(event());
+        verify(entityManager, times(1)).persist(any(AuditLog.class));
+        assertThat(writeThrough.flush()).isEqualTo(2);
+
+        AuditLogService drop = service(2, 10, "drop");
+        for (int i = 0; i < 3; i++) {
+            drop.publish(event());
+        }
+        AuditLogService block = service(2, 10, "block");
+        for (int i = 0; i < 3; i++) {
+            block.publish(event());
+        }
+        assertThat(meterRegistry.get(AuditMetrics.EVENTS_DROPPED).tag("reason", "buffer-full").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedThenDropped() {
+        AuditLogService service = service(16, 10, "drop");
+        service.publish(event());
+        service.publish(event());
+        doThrow(new IllegalStateException("database down")).when(entityManager).flush();
+
+        assertThat(service.flush()).isZero();
+        assertThat(service.flush()).isZero();
+        assertThat(service.flush()).isZero();
+
+        verify(entityManager, times(6)).persist(any(AuditLog.class));
+        assertThat(meterRegistry.get(AuditMetrics.EVENTS_DROPPED).tag("reason", "write-failed").counter().count())
+                .isEqualTo(2);
+        assertThat(service.flush()).isZero();
+        verify(entityManager, times(6)).persist(any(AuditLog.class));
+    }
+
+    @Test
+    public void testSecurityEventFromNonUuidPrincipal() {
+        AuditLogService service = service(16, 10, "drop");
+
+        service.logSecurityEvent("scheduler", "API_KEY_AUTHENTICATION_FAILED", "Invalid key");
+        service.flush();
+
+        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
+        verify(entityManager).persist(captor.capture());
+        AuditLog event = captor.getValue();
+        assertThat(event.getUserId()).isNull();
+        assertThat(event.getEntityId()).isEqualTo(new UUID(0, 0));
+        assertThat(event.getEntityType()).isEqualTo(AuditLogService.SECURITY_ENTITY_TYPE);
+        assertThat(event.getAction()).hasSize(20);
+        assertThat(event.getActionDetail()).isEqualTo("scheduler: Invalid key");
+        assertThat(event.getSuccess()).isTrue();
+        assertThat(event.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    public void testRingBufferConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Set<Integer> received = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 500);
+            for (Integer value : batch) {
+                assertThat(received.add(value)).isTrue();
+            }
+        }
+        executor.shutdown();
+
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.capacity()).isEqualTo(1024);
+    }
+
+    private AuditLogService service(int bufferSize, int batchSize, String overflowPolicy) {
+        return new AuditLogService(entityManager, transactionManager, meterRegistry,
+                bufferSize, batchSize, 3, overflowPolicy, Duration.ofMillis(5));
+    }
+
+    private static AuditLog event() {
+        return AuditLog.builder()
+                .entityType("PORTFOLIO")
+                .entityId(UUID.randomUUID())
+                .action("UPDATE")
+                .beforeState("{}")
+                .afterState("{}")
+                .success(true)
+                .build();
+    }
+}
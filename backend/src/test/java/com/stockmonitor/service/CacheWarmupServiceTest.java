@@ -0,0 +1,173 @@
+package com.stockmonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.dto.CacheCoverageReport;
+import com.stockmonitor.dto.FactorScoreDTO;
+import com.stockmonitor.engine.FactorCalculationService;
+import com.stockmonitor.integration.AlphaVantageClient;
+import com.stockmonitor.integration.DataFeedRetryHandler;
+import com.stockmonitor.model.UniverseConstituent;
+import com.stockmonitor.repository.HoldingRepository;
+import com.stockmonitor.repository.UniverseConstituentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for CacheWarmupService.
+ *
+ * Tests:
+ * - Constituent union is de-duplicated across universes
+ * - Factor scores and FX rates land under the keys FactorService and FxRateService read
+ * - Coverage report reflects what is actually in the cache
+ */
+public class CacheWarmupServiceTest extends BaseUnitTest {
+
+    private static final LocalDate MONTH_END = LocalDate.of(2026, 10, 30);
+
+    @Mock
+    private UniverseConstituentRepository constituentRepository;
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private AlphaVantageClient priceClient;
+
+    @Mock
+    private DataFeedRetryHandler retryHandler;
+
+    @Mock
+    private DataFeedCacheService cacheService;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final Map<String, Object> cache = new HashMap<>();
+
+    private RefreshAheadCacheService refreshAheadCache;
+    private CacheWarmupService warmupService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        // Local tier only: no Redis in unit tests
+        lenient().when(redisTemplateProvider.getIfAvailable()).thenReturn(null);
+        refreshAheadCache = new RefreshAheadCacheService(
+                new ObjectMapper(), redisTemplateProvider, Runnable::run, System::nanoTime);
+        FactorService factorService =
+                new FactorService(holdingRepository, new FactorCalculationService(), refreshAheadCache);
+        warmupService = new CacheWarmupService(constituentRepository, holdingRepository, priceClient,
+                retryHandler, cacheService, refreshAheadCache, factorService, new FxRateService(refreshAheadCache));
+
+        lenient().when(constituentRepository.findActiveConstituentsOfActiveUniverses()).thenReturn(List.of(
+                constituent("AAPL", "Technology", 1),
+                constituent("AAPL", "Technology", 1), // Same symbol in a second universe
+                constituent("XOM", "Energy", 2)));
+
+        lenient().doAnswer(inv -> {
+            cache.putAll(inv.getArgument(0));
+            return null;
+        }).when(cacheService).cacheAll(any(Map.class), any(Duration.class));
+        lenient().when(cacheService.getAll(anyList())).thenAnswer(inv ->
+                inv.<List<String>>getArgument(0).stream().map(cache::get).toList());
+        lenient().when(retryHandler.executeWithRetry(any(Supplier.class), anyInt()))
+                .thenAnswer(inv -> inv.<Supplier<Object>>getArgument(0).get());
+    }
+
+    @Test
+    public void testWarmPricesCachesEachSymbolOnce() {
+        when(priceClient.getPrice(any(), eq(MONTH_END))).thenReturn(new BigDecimal("150.00"));
+
+        int cached = warmupService.warmPrices(MONTH_END);
+
+        assertThat(cached).isEqualTo(2);
+        assertThat(cache).containsKeys(
+                CacheWarmupService.cacheKey(MONTH_END, "price", "AAPL"),
+                CacheWarmupService.cacheKey(MONTH_END, "price", "XOM"));
+        verify(cacheService).cacheAll(any(Map.class), eq(CacheWarmupService.WARMUP_TTL));
+    }
+
+    @Test
+    public void testWarmFactorScoresFillsFactorServiceCache() {
+        int cached = warmupService.warmFactorScores(MONTH_END);
+
+        assertThat(cached).isEqualTo(2);
+        FactorScoreDTO aapl = refreshAheadCache.get(FactorService.CACHE_NAME,
+                FactorService.rawScoresKey("AAPL", "Technology"), FactorScoreDTO.class,
+                () -> fail("factor scores were not warmed"));
+        assertThat(aapl.getSymbol()).isEqualTo("AAPL");
+        assertThat(aapl.getSector()).isEqualTo("Technology");
+    }
+
+    @Test
+    public void testWarmFxRatesFillsFxRateServiceCache() {
+        when(holdingRepository.findDistinctCurrencies()).thenReturn(List.of("USD", "EUR", "GBP"));
+
+        int cached = warmupService.warmFxRates(MONTH_END);
+
+        // USD is the base currency and needs no rate
+        assertThat(cached).isEqualTo(2);
+        BigDecimal eur = refreshAheadCache.get(FxRateService.CACHE_NAME,
+                FxRateService.rateKey("EUR", "USD", MONTH_END), BigDecimal.class,
+                () -> fail("FX rate was not warmed"));
+        assertThat(eur).isEqualByComparingTo(new FxRateService(refreshAheadCache).getRate("EUR", "USD", MONTH_END));
+    }
+
+    @Test
+    public void testCoverageReportCountsCachedEntries() {
+        when(priceClient.getPrice(any(), eq(MONTH_END))).thenReturn(new BigDecimal("150.00"));
+
+        warmupService.warmPrices(MONTH_END);
+        warmupService.warmClassifications(MONTH_END);
+
+        ArgumentCaptor<Object> reportCaptor = ArgumentCaptor.forClass(Object.class);
+        CacheCoverageReport report = warmupService.recordCoverageReport(MONTH_END);
+        verify(cacheService).cache(any(), reportCaptor.capture(), eq(CacheWarmupService.WARMUP_TTL));
+
+        // 2 symbols x 4 categories, factor scores not warmed yet
+        assertThat(report.getExpectedEntries()).isEqualTo(8);
+        assertThat(report.getCachedEntries()).isEqualTo(6);
+        assertThat(report.getCachedByCategory()).containsEntry("factors", 0).containsEntry("price", 2);
+        assertThat(report.getHitRate()).isLessThan(CacheWarmupService.MIN_HIT_RATE);
+
+        when(cacheService.get(any())).thenReturn(reportCaptor.getValue());
+        warmupService.warmFactorScores(MONTH_END);
+
+        CacheCoverageReport verified = warmupService.verifyCoverage(MONTH_END);
+
+        assertThat(verified.getCachedByCategory()).containsEntry("factors", 2);
+        assertThat(verified.getHitRate()).isEqualTo(1.0);
+    }
+
+    private static UniverseConstituent constituent(String symbol, String sector, int liquidityTier) {
+        return UniverseConstituent.builder()
+                .symbol(symbol)
+                .sector(sector)
+                .liquidityTier(liquidityTier)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ConstraintSetDTO;
+import com.stockmonitor.helper.MicroBenchmark;
+import com.stockmonitor.helper.MicroBenchmark.Result;
+import com.stockmonitor.model.Holding;
+import com.stockmonitor.model.Portfolio;
+import com.stockmonitor.model.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark: constraint preview simulation latency.
+ *
+ * Simulates a 5,000-name universe against a 2,000-holding portfolio with a turnover cap that forces
+ * trimming, once with the simulation that recomputed turnover after every trimmed pick and once
+ * with the incremental ConstraintPreviewService simulation. Equivalence is checked by
+ * ConstraintPreviewSimulationTest. Not part of the regular build; run with
+ * {@code mvn -o test -Dtest=ConstraintPreviewBenchmark}.
+ */
+public class ConstraintPreviewBenchmark {
+
+    private static final int NAMES = 5_000;
+    private static final int HOLDINGS = 2_000;
+
+    @Test
+    public void benchmarkPreviewSimulation() {
+        Random random = new Random(1);
+        String[] sectors = {"Technology", "Healthcare", "Finance", "Consumer", "Energy",
+                "Industrials", "Utilities", "Materials", "Real Estate", "Communication"};
+        List<Recommendation> recommendations = new ArrayList<>();
+        for (int i = 0; i < NAMES; i++) {
+            Recommendation rec = new Recommendation();
+            rec.setSymbol("S" + i);
+            rec.setRank(i + 1);
+            rec.setSector(sectors[random.nextInt(sectors.length)]);
+            recommendations.add(rec);
+        }
+        List<Holding> holdings = new ArrayList<>();
+        for (int i = 0; i < HOLDINGS; i++) {
+            Holding holding = new Holding();
+            holding.setSymbol("S" + (NAMES - HOLDINGS / 2 + i));
+            holding.setCurrentMarketValue(BigDecimal.valueOf(1 + random.nextInt(100_000), 2));
+            holdings.add(holding);
+        }
+        Portfolio portfolio = new Portfolio();
+        portfolio.setTotalMarketValue(BigDecimal.valueOf(1_000_000));
+        portfolio.setCashBalance(BigDecimal.valueOf(50_000));
+        ConstraintSetDTO constraints = ConstraintSetDTO.builder()
+                .maxSectorExposurePct(BigDecimal.valueOf(100))
+                .turnoverCapPct(BigDecimal.valueOf(5))
+                .build();
+
+        // Each operation runs one preview simulation
+        MicroBenchmark benchmark = new MicroBenchmark(3, 5, Duration.ofSeconds(2));
+        Result recomputed = benchmark.run("Recomputed turnover", 1, () ->
+                LegacyConstraintPreviewSimulation.simulate(recommendations, holdings, constraints, portfolio));
+        Result incremental = benchmark.run("Incremental simulation", 1, () ->
+                ConstraintPreviewService.simulateWithNewConstraints(recommendations, holdings, constraints, portfolio));
+
+        System.out.println(recomputed);
+        System.out.println(incremental);
+        System.out.printf("Speedup: %.1fx, allocation: %.1fx less%n",
+                recomputed.nsPerOp() / incremental.nsPerOp(), recomputed.bytesPerOp() / incremental.bytesPerOp());
+    }
+}
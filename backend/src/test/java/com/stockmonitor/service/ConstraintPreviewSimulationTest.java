@@ -0,0 +1,113 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ConstraintSetDTO;
+import com.stockmonitor.model.Holding;
+import com.stockmonitor.model.Portfolio;
+import com.stockmonitor.model.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for the ConstraintPreviewService simulation.
+ *
+ * Tests:
+ * - Incremental simulation selects the same picks and turnover as recomputing turnover after
+ *   every trimmed pick, including duplicate symbols, unpicked holdings and binding caps
+ * - Trimming to the turnover cap stops at ten picks
+ */
+public class ConstraintPreviewSimulationTest {
+
+    private static final String[] SECTORS =
+            {"Technology", "Healthcare", "Finance", "Consumer", "Energy", "Utilities"};
+
+    @Test
+    public void testIncrementalSimulationMatchesFullRecomputation() {
+        Random random = new Random(7);
+        Portfolio portfolio = portfolio();
+
+        for (int round = 0; round < 300; round++) {
+            int names = 20 + random.nextInt(300);
+            List<Recommendation> recommendations = new ArrayList<>();
+            for (int i = 0; i < names; i++) {
+                recommendations.add(recommendation("S" + random.nextInt(names), i + 1,
+                        SECTORS[random.nextInt(SECTORS.length)])); // Occasional duplicate symbols
+            }
+            List<Holding> holdings = new ArrayList<>();
+            int holdingCount = random.nextInt(80);
+            for (int i = 0; i < holdingCount; i++) {
+                holdings.add(holding("S" + random.nextInt(names * 2), random.nextInt(5_000_000)));
+            }
+            ConstraintSetDTO constraints = ConstraintSetDTO.builder()
+                    .maxNameWeightLargeCapPct(cap(random))
+                    .maxSectorExposurePct(cap(random))
+                    .turnoverCapPct(BigDecimal.valueOf(random.nextInt(12_000), 2))
+                    .build();
+
+            ConstraintPreviewService.SimulationResult expected =
+                    LegacyConstraintPreviewSimulation.simulate(recommendations, holdings, constraints, portfolio);
+            ConstraintPreviewService.SimulationResult actual =
+                    ConstraintPreviewService.simulateWithNewConstraints(
+                            recommendations, holdings, constraints, portfolio);
+
+            assertThat(actual.selectedSymbols).as("picks in round %d", round).isEqualTo(expected.selectedSymbols);
+            assertThat(actual.turnover).as("turnover in round %d", round).isEqualTo(expected.turnover);
+        }
+    }
+
+    @Test
+    public void testTurnoverCapTrimsToTenPicks() {
+        List<Recommendation> recommendations = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            recommendations.add(recommendation("S" + i, i + 1, SECTORS[i % SECTORS.length]));
+        }
+        ConstraintSetDTO constraints = ConstraintSetDTO.builder()
+                .maxSectorExposurePct(BigDecimal.valueOf(100))
+                .turnoverCapPct(BigDecimal.ONE)
+                .build();
+
+        ConstraintPreviewService.SimulationResult result = ConstraintPreviewService.simulateWithNewConstraints(
+                recommendations, List.of(holding("HELD", 10_000_000)), constraints, portfolio());
+
+        assertThat(result.selectedSymbols).hasSize(10).startsWith("S0", "S1").endsWith("S9");
+        // Sells the 100,000 holding and buys the whole 1,000,000 portfolio
+        assertThat(result.turnover).isEqualByComparingTo("110");
+    }
+
+    /** Mostly caps that admit picks (the first pick is 100% of the portfolio), sometimes none. */
+    private static BigDecimal cap(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> null;
+            case 1 -> BigDecimal.valueOf(100);
+            case 2 -> BigDecimal.valueOf(random.nextInt(10_000), 2);
+            default -> BigDecimal.valueOf(10_000 + random.nextInt(5_000), 2);
+        };
+    }
+
+    private static Portfolio portfolio() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setTotalMarketValue(BigDecimal.valueOf(900_000));
+        portfolio.setCashBalance(BigDecimal.valueOf(100_000));
+        return portfolio;
+    }
+
+    private static Recommendation recommendation(String symbol, int rank, String sector) {
+        Recommendation rec = new Recommendation();
+        rec.setSymbol(symbol);
+        rec.setRank(rank);
+        rec.setSector(sector);
+        return rec;
+    }
+
+    private static Holding holding(String symbol, long marketValueCents) {
+        Holding holding = new Holding();
+        holding.setSymbol(symbol);
+        holding.setCurrentMarketValue(BigDecimal.valueOf(marketValueCents, 2));
+        return holding;
+    }
+}
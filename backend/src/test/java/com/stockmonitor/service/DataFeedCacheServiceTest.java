@@ -0,0 +1,156 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for DataFeedCacheService invalidation.
+ *
+ * Redis is replaced by an in-memory stand-in wired into a mocked RedisTemplate so SCAN paging,
+ * pipelined UNLINK batches and namespace versioning can be verified without a server.
+ */
+public class DataFeedCacheServiceTest extends BaseUnitTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private final Map<String, Object> store = new ConcurrentHashMap<>();
+    private final AtomicInteger pipelineRoundTrips = new AtomicInteger();
+    private final List<Integer> unlinkSizes = new ArrayList<>();
+
+    private DataFeedCacheService cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        cacheService = new DataFeedCacheService(redisTemplate);
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().doAnswer(inv -> {
+            store.put(inv.getArgument(0), inv.getArgument(1));
+            return null;
+        }).when(valueOperations).set(anyString(), any(), any(Duration.class));
+        lenient().when(valueOperations.get(anyString())).thenAnswer(inv -> store.get(inv.<String>getArgument(0)));
+        lenient().when(valueOperations.increment(anyString(), anyLong())).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            long delta = inv.getArgument(1);
+            return (Long) store.merge(key, delta, (a, b) -> (Long) a + (Long) b);
+        });
+        lenient().when(valueOperations.increment(anyString())).thenAnswer(inv ->
+                (Long) store.merge(inv.getArgument(0), 1L, (a, b) -> (Long) a + (Long) b));
+
+        lenient().when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(inv -> {
+            ScanOptions options = inv.getArgument(0);
+            String prefix = options.getPattern().replace("*", "");
+            List<String> matches = store.keySet().stream().filter(k -> k.startsWith(prefix)).toList();
+            return listCursor(matches);
+        });
+
+        RedisOperations<String, Object> pipelineOps = mock(RedisOperations.class);
+        List<Object> pipelineResults = new ArrayList<>();
+        lenient().when(pipelineOps.unlink(any(Collection.class))).thenAnswer(inv -> {
+            Collection<String> keys = inv.getArgument(0);
+            unlinkSizes.add(keys.size());
+            long removed = keys.stream().filter(k -> store.remove(k) != null).count();
+            pipelineResults.add(removed);
+            return null; // Results are only available once the pipeline closes
+        });
+        lenient().when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(inv -> {
+            pipelineRoundTrips.incrementAndGet();
+            pipelineResults.clear();
+            inv.<SessionCallback<Object>>getArgument(0).execute(pipelineOps);
+            return new ArrayList<>(pipelineResults);
+        });
+    }
+
+    @Test
+    public void testInvalidateRemovesOnlyMatchingKeys() {
+        store.put("marketData::AAPL", 1);
+        store.put("marketData::MSFT", 2);
+        store.put("factorScores::AAPL", 3);
+
+        long removed = cacheService.invalidate("marketData::*");
+
+        assertThat(removed).isEqualTo(2);
+        assertThat(store).containsOnlyKeys("factorScores::AAPL");
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    public void testInvalidateSplitsLargeKeySetsIntoBoundedPipelinedBatches() {
+        int keyCount = DataFeedCacheService.UNLINK_BATCH_SIZE * DataFeedCacheService.PIPELINE_DEPTH + 750;
+        for (int i = 0; i < keyCount; i++) {
+            store.put("marketData::SYM" + i, i);
+        }
+
+        long removed = cacheService.invalidate("marketData::*");
+
+        assertThat(removed).isEqualTo(keyCount);
+        assertThat(store).isEmpty();
+        assertThat(pipelineRoundTrips.get()).isEqualTo(2);
+        assertThat(unlinkSizes).allMatch(size -> size <= DataFeedCacheService.UNLINK_BATCH_SIZE);
+    }
+
+    @Test
+    public void testInvalidateWithNoMatchesSkipsPipeline() {
+        store.put("factorScores::AAPL", 3);
+
+        long removed = cacheService.invalidate("marketData::*");
+
+        assertThat(removed).isZero();
+        assertThat(pipelineRoundTrips.get()).isZero();
+    }
+
+    @Test
+    public void testInvalidateNamespaceHidesPreviousGeneration() {
+        cacheService.cacheNamespaced("prices", "AAPL", 189.5, Duration.ofMinutes(15));
+        assertThat(cacheService.getNamespaced("prices", "AAPL")).isEqualTo(189.5);
+
+        long version = cacheService.invalidateNamespace("prices");
+
+        assertThat(version).isEqualTo(1L);
+        assertThat(cacheService.getNamespaced("prices", "AAPL")).isNull();
+        assertThat(cacheService.namespacedKey("prices", "AAPL")).isEqualTo("prices:v1:AAPL");
+
+        cacheService.cacheNamespaced("prices", "AAPL", 190.0, Duration.ofMinutes(15));
+        assertThat(cacheService.getNamespaced("prices", "AAPL")).isEqualTo(190.0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<String> listCursor(List<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        lenient().when(cursor.hasNext()).thenAnswer(inv -> iterator.hasNext());
+        lenient().when(cursor.next()).thenAnswer(inv -> iterator.next());
+        return cursor;
+    }
+}
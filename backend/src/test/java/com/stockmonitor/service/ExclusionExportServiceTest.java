@@ -0,0 +1,79 @@
+package com.stockmonitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.dto.ExclusionDTO;
+import com.stockmonitor.dto.ExclusionExportRow;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.repository.ExclusionRepository;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+/**
+ * Unit test for ExclusionExportService.
+ *
+ * Tests:
+ * - Rows are written as quoted CSV with embedded quotes doubled and the run date on each row
+ * - The exclusion cursor is closed after the export
+ * - A run without exclusions exports only the header
+ */
+public class ExclusionExportServiceTest extends BaseUnitTest {
+
+    @Mock
+    private ExclusionRepository exclusionRepository;
+
+    @Mock
+    private RecommendationRunRepository recommendationRunRepository;
+
+    private ExclusionExportService service;
+    private UUID runId;
+
+    @BeforeEach
+    public void setup() {
+        service = new ExclusionExportService(
+                exclusionRepository, recommendationRunRepository, new ExclusionReasonService(null, null));
+        runId = UUID.randomUUID();
+        lenient().when(recommendationRunRepository.findById(runId)).thenReturn(Optional.of(
+                RecommendationRun.builder().id(runId).scheduledDate(LocalDate.of(2024, 1, 31)).build()));
+    }
+
+    @Test
+    public void testWritesQuotedRows() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(exclusionRepository.streamExportRowsByRunId(runId)).thenReturn(Stream.of(
+                new ExclusionExportRow("AAPL", ExclusionDTO.ReasonCode.LIQUIDITY_FLOOR),
+                new ExclusionExportRow("BRK\"B", "UNKNOWN"))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.writeCsv(runId, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                ExclusionExportService.HEADER
+                        + "\"AAPL\",\"AAPL\",\"LIQUIDITY_FLOOR\",\"Liquidity tier below minimum threshold\",\"2024-01-31\"\r\n"
+                        + "\"BRK\"\"B\",\"BRK\"\"B\",\"UNKNOWN\",\"Stock excluded\",\"2024-01-31\"\r\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    public void testEmptyRunWritesHeaderOnly() {
+        when(exclusionRepository.streamExportRowsByRunId(runId)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(service.writeCsv(runId, out)).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(ExclusionExportService.HEADER);
+    }
+}
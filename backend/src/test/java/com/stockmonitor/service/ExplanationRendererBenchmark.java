@@ -0,0 +1,76 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.helper.MicroBenchmark;
+import com.stockmonitor.helper.MicroBenchmark.Result;
+import com.stockmonitor.model.FactorScore;
+import com.stockmonitor.service.ExplanationService.FactorDriver;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark: precompiled ExplanationRenderer against the String.format-based explanation.
+ *
+ * Renders a fixed set of 1,000 recommendations (five factors, three drivers, a mix of constraint
+ * notes) round-robin. Output equivalence is checked by ExplanationRendererTest. Not part of the
+ * regular build; run with {@code mvn -o test -Dtest=ExplanationRendererBenchmark}.
+ */
+public class ExplanationRendererBenchmark {
+
+    private static final String[] FACTORS = {"VALUE", "MOMENTUM", "QUALITY", "SIZE", "VOLATILITY"};
+
+    private final ExplanationService explanationService = new ExplanationService();
+
+    private record Input(int rank, Map<String, FactorScore> scores, List<FactorDriver> drivers, String notes) {
+    }
+
+    @Test
+    public void benchmarkExplanationRendering() {
+        List<Input> inputs = inputs(1_000);
+
+        MicroBenchmark benchmark = new MicroBenchmark(5, 10, Duration.ofSeconds(1));
+        int[] next = {0, 0};
+        Result legacy = benchmark.run("String.format explanation",
+                () -> renderLegacy(inputs.get(next[0]++ % inputs.size())));
+        Result precompiled = benchmark.run("ExplanationRenderer",
+                () -> render(inputs.get(next[1]++ % inputs.size())));
+
+        System.out.println(legacy);
+        System.out.println(precompiled);
+        System.out.printf("Speedup: %.2fx, allocation: %.2fx less%n",
+                legacy.nsPerOp() / precompiled.nsPerOp(), legacy.bytesPerOp() / precompiled.bytesPerOp());
+    }
+
+    private String render(Input input) {
+        return explanationService.generateExplanation("SYM", input.rank(), input.scores(), input.drivers(), input.notes());
+    }
+
+    private static String renderLegacy(Input input) {
+        return LegacyExplanationFormat.generateExplanation(input.rank(), input.scores(), input.drivers(), input.notes());
+    }
+
+    private List<Input> inputs(int count) {
+        Random random = new Random(1);
+        List<Input> inputs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, FactorScore> scores = new LinkedHashMap<>();
+            for (String factor : FACTORS) {
+                scores.put(factor, FactorScore.builder()
+                        .factorType(factor)
+                        .sectorNormalizedScore(BigDecimal.valueOf(random.nextGaussian()).setScale(6, RoundingMode.HALF_UP))
+                        .percentileRankUniverse(BigDecimal.valueOf(random.nextDouble() * 100).setScale(2, RoundingMode.HALF_UP))
+                        .build());
+            }
+            String notes = i % 4 == 0 ? "Sector cap applied" : null;
+            inputs.add(new Input(i + 1, scores, explanationService.identifyTopDrivers(scores), notes));
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,121 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.model.FactorScore;
+import com.stockmonitor.service.ExplanationRenderer.CompiledFormat;
+import com.stockmonitor.service.ExplanationService.FactorDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for ExplanationRenderer.
+ *
+ * Tests:
+ * - Output is identical to the String.format-based explanation for random factor scores
+ * - Rounding edge cases (HALF_UP, carries, negative zero, scales beyond the precision)
+ * - Strength bands match the double comparison at and around the thresholds
+ * - Localized digits and decimal separator follow the default FORMAT locale
+ * - Unsupported patterns are rejected at compile time
+ */
+public class ExplanationRendererTest extends BaseUnitTest {
+
+    private static final String[] FACTORS = {"VALUE", "MOMENTUM", "QUALITY", "SIZE", "VOLATILITY"};
+    private static final String[] NOTES = {null, "", "Sector cap applied", "  Liquidity tier 3  ", "Max 10%"};
+
+    private final ExplanationService explanationService = new ExplanationService();
+    private final Locale originalFormatLocale = Locale.getDefault(Locale.Category.FORMAT);
+
+    @AfterEach
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, originalFormatLocale);
+    }
+
+    @Test
+    public void testMatchesStringFormatForRandomScores() {
+        assertMatchesLegacy(new Random(42), 5_000);
+    }
+
+    @Test
+    public void testMatchesStringFormatInOtherLocales() {
+        for (Locale locale : List.of(Locale.GERMANY, Locale.FRANCE, Locale.forLanguageTag("ar-SA-u-nu-arab"))) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            assertMatchesLegacy(new Random(7), 500);
+        }
+    }
+
+    @Test
+    public void testFixedDecimalRoundingEdgeCases() {
+        CompiledFormat twoDecimals = CompiledFormat.compile("(%.2f)");
+        CompiledFormat noDecimals = CompiledFormat.compile("%.0f%%");
+        for (String value : List.of("0", "0.005", "0.004", "-0.004", "-0.005", "9.995", "-9.995", "1.5",
+                "2.000001", "123456789.125", "1E+3", "-1E-10", "99999999999999999.995", "0.000000")) {
+            BigDecimal number = new BigDecimal(value);
+            assertThat(twoDecimals.format(number)).as(value).isEqualTo(String.format("(%.2f)", number));
+            assertThat(noDecimals.format(number)).as(value).isEqualTo(String.format("%.0f%%", number));
+        }
+        assertThat(twoDecimals.format((BigDecimal) null)).isEqualTo(String.format("(%.2f)", (BigDecimal) null));
+        assertThat(CompiledFormat.compile("#%d.").format(Integer.MIN_VALUE))
+                .isEqualTo(String.format("#%d.", Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testStrengthBandsMatchDoubleComparison() {
+        for (String threshold : List.of("2", "1", "0.5", "-0.5", "-1")) {
+            BigDecimal t = new BigDecimal(threshold);
+            for (String delta : List.of("0", "0.000001", "0.00000000000001", "0.0000000000000000000001")) {
+                for (BigDecimal score : List.of(t.add(new BigDecimal(delta)), t.subtract(new BigDecimal(delta)))) {
+                    assertThat(ExplanationRenderer.strengthDescription(score))
+                            .as(score.toPlainString())
+                            .isEqualTo(LegacyExplanationFormat.getStrengthDescription(score));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedPatternIsRejected() {
+        assertThatThrownBy(() -> CompiledFormat.compile("%x")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledFormat.compile("%.f")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledFormat.compile("100%")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertMatchesLegacy(Random random, int samples) {
+        for (int i = 0; i < samples; i++) {
+            Map<String, FactorScore> scores = randomScores(random);
+            List<FactorDriver> drivers = explanationService.identifyTopDrivers(scores);
+            int rank = 1 + random.nextInt(500);
+            String notes = NOTES[random.nextInt(NOTES.length)];
+
+            assertThat(explanationService.generateExplanation("SYM" + i, rank, scores, drivers, notes))
+                    .isEqualTo(LegacyExplanationFormat.generateExplanation(rank, scores, drivers, notes));
+        }
+    }
+
+    private static Map<String, FactorScore> randomScores(Random random) {
+        Map<String, FactorScore> scores = new LinkedHashMap<>();
+        int factorCount = random.nextInt(FACTORS.length + 1);
+        for (int f = 0; f < factorCount; f++) {
+            scores.put(FACTORS[f], FactorScore.builder()
+                    .factorType(FACTORS[f])
+                    .sectorNormalizedScore(decimal(random, -3.5, 3.5, 6))
+                    .percentileRankUniverse(decimal(random, 0, 100, 2))
+                    .build());
+        }
+        return scores;
+    }
+
+    private static BigDecimal decimal(Random random, double min, double max, int scale) {
+        return BigDecimal.valueOf(min + random.nextDouble() * (max - min)).setScale(scale, RoundingMode.HALF_EVEN);
+    }
+}
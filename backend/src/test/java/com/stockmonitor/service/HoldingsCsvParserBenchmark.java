@@ -0,0 +1,60 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.helper.MicroBenchmark;
+import com.stockmonitor.helper.MicroBenchmark.Result;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Benchmark: holdings upload parsing throughput in rows per second.
+ *
+ * Parses a 100,000-lot file (plain fields, one row in fifty with an invalid quantity) with the
+ * line-splitting parser it replaced and with the streaming HoldingsCsvParser, which passes rows to
+ * a counting sink. Output equivalence is checked by HoldingsCsvParserTest. Not part of the regular
+ * build; run with {@code mvn -o test -Dtest=HoldingsCsvParserBenchmark}.
+ */
+public class HoldingsCsvParserBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Test
+    public void benchmarkHoldingsParsing() {
+        byte[] csv = csv(ROWS);
+        HoldingsCsvParser parser = new HoldingsCsvParser();
+        LegacyHoldingsCsvParser legacy = new LegacyHoldingsCsvParser();
+        long[] received = {0};
+
+        // Each operation parses the whole file
+        MicroBenchmark benchmark = new MicroBenchmark(3, 5, Duration.ofSeconds(2));
+        Result lineSplitting = benchmark.run("Line-splitting parser", 1,
+                () -> legacy.parse(new ByteArrayInputStream(csv)));
+        Result streaming = benchmark.run("Streaming HoldingsCsvParser", 1,
+                () -> parser.parse(new ByteArrayInputStream(csv), holding -> received[0]++));
+
+        System.out.println(lineSplitting);
+        System.out.println(streaming);
+        System.out.printf("%-40s %12.0f rows/s%n", lineSplitting.name(), ROWS * lineSplitting.opsPerSecond());
+        System.out.printf("%-40s %12.0f rows/s%n", streaming.name(), ROWS * streaming.opsPerSecond());
+        System.out.printf("Speedup: %.2fx, allocation: %.2fx less%n",
+                lineSplitting.nsPerOp() / streaming.nsPerOp(), lineSplitting.bytesPerOp() / streaming.bytesPerOp());
+    }
+
+    private static byte[] csv(int rows) {
+        Random random = new Random(1);
+        String[] currencies = {"USD", "EUR", "GBP", "JPY"};
+        StringBuilder csv = new StringBuilder("ticker,quantity,cost_basis,currency\n");
+        for (int i = 0; i < rows; i++) {
+            String quantity = i % 50 == 49 ? "-1" : String.valueOf(1 + random.nextInt(10_000));
+            csv.append('T').append(i % 100_000)
+                    .append(',').append(quantity)
+                    .append(',').append(String.format("%.2f", 1 + random.nextDouble() * 500))
+                    .append(',').append(currencies[i % currencies.length])
+                    .append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -9,7 +9,10 @@ import org.springframework.mock.web.MockMultipartFile;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
@@ -23,6 +26,9 @@ import static org.assertj.core.api.Assertions.within;
  * - Valid CSV parsing
  * - Invalid formats (missing columns, wrong types)
  * - Edge cases (empty file, negative quantities, special characters)
+ * - RFC 4180 quoting, line endings and byte order mark
+ * - Error cap and streaming of valid rows to a sink
+ * - Same holdings and errors as the line-splitting parser it replaced, on files that parser handled
  */
 public class HoldingsCsvParserTest extends BaseUnitTest {
 
@@ -274,4 +280,174 @@ public class HoldingsCsvParserTest extends BaseUnitTest {
         assertThat(result.getErrors()).hasSize(1);
         assertThat(result.getErrors().get(0).getMessage()).contains("Invalid currency");
     }
+
+    @Test
+    public void testParseQuotedFields() {
+        String csvContent = "ticker,quantity,cost_basis,currency\r\n"
+                + "\"BRK.B\",\"1,000\",350.25,USD\r\n"
+                + "\"AAPL\",\"100\",\"150.50\",\"USD\"\r\n";
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent);
+
+        // "1,000" is one field, so the row has four columns and an invalid quantity
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getErrorCode()).isEqualTo("INVALID_NUMBER");
+        assertThat(result.getErrors().get(0).getMessage()).contains("Invalid quantity '1,000'");
+        assertThat(result.getHoldings()).hasSize(1);
+        assertThat(result.getHoldings().get(0).getTicker()).isEqualTo("AAPL");
+        assertThat(result.getHoldings().get(0).getCostBasis()).isEqualTo(150.50);
+    }
+
+    @Test
+    public void testParseEscapedQuotesAndQuotedLineBreaks() {
+        String csvContent = "ticker,quantity,cost_basis,currency,note\n"
+                + "AAPL,100,150.50,USD,\"said \"\"hold\"\", then\nsold\"\n"
+                + "MSFT,50,250.75,USD,\n";
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent);
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getHoldings()).extracting("ticker").containsExactly("AAPL", "MSFT");
+    }
+
+    @Test
+    public void testParseHeaderWithByteOrderMarkAndReorderedColumns() {
+        String csvContent = "\uFEFFCurrency,Ticker,Cost_Basis,Quantity\rUSD,AAPL,150.50,100\r";
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent);
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getHoldings()).hasSize(1);
+        assertThat(result.getHoldings().get(0).getQuantity()).isEqualTo(100);
+        assertThat(result.getHoldings().get(0).getCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    public void testParseUnterminatedQuoteAndColumnMismatch() {
+        String csvContent = "ticker,quantity,cost_basis,currency\n"
+                + "AAPL,100\n"
+                + "MSFT,50,250.75,\"USD\n";
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent);
+
+        assertThat(result.getErrors()).extracting("errorCode").containsExactly("COLUMN_MISMATCH", "MALFORMED_ROW");
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Row 2: Expected 4 columns, found 2");
+        assertThat(result.getErrors().get(1).getRow()).isEqualTo(3);
+    }
+
+    @Test
+    public void testParseNonFiniteNumbersAreInvalid() {
+        String csvContent = "ticker,quantity,cost_basis,currency\n"
+                + "AAPL,NaN,150.50,USD\n"
+                + "MSFT,50,Infinity,USD\n";
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent);
+
+        assertThat(result.getHoldings()).isEmpty();
+        assertThat(result.getErrors()).extracting("errorCode").containsExactly("INVALID_NUMBER", "INVALID_NUMBER");
+    }
+
+    @Test
+    public void testErrorsAreCappedWithSummary() {
+        StringBuilder csvContent = new StringBuilder("ticker,quantity,cost_basis,currency\n");
+        int invalidRows = HoldingsCsvParser.MAX_ERRORS + 250;
+        for (int i = 0; i < invalidRows; i++) {
+            csvContent.append("AAPL,-1,150.50,USD\n");
+        }
+
+        HoldingsCsvParser.ParseResult result = parse(csvContent.toString());
+
+        assertThat(result.getErrors()).hasSize(HoldingsCsvParser.MAX_ERRORS + 1);
+        var summary = result.getErrors().get(HoldingsCsvParser.MAX_ERRORS);
+        assertThat(summary.getErrorCode()).isEqualTo("TOO_MANY_ERRORS");
+        assertThat(summary.getMessage()).startsWith("250 more validation errors not shown");
+        assertThat(summary.getRow()).isEqualTo(invalidRows + 1);
+    }
+
+    @Test
+    public void testSinkReceivesValidRowsUntilFirstError() {
+        String csvContent = "ticker,quantity,cost_basis,currency\n"
+                + "AAPL,100,150.50,USD\n"
+                + "MSFT,50,250.75,USD\n"
+                + "GOOGL,-25,2500.00,USD\n"
+                + "AMZN,10,3300.00,USD\n";
+        List<String> received = new ArrayList<>();
+
+        HoldingsCsvParser.ParseResult result = csvParser.parse(
+                new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)),
+                holding -> received.add(holding.getTicker()));
+
+        assertThat(received).containsExactly("AAPL", "MSFT");
+        assertThat(result.getValidRows()).isEqualTo(3);
+        assertThat(result.getHoldings()).isEmpty();
+        assertThat(result.getErrors()).hasSize(1);
+    }
+
+    @Test
+    public void testTickerAndCurrencyValidators() {
+        assertThat(HoldingsCsvParser.isValidTicker("A")).isTrue();
+        assertThat(HoldingsCsvParser.isValidTicker("BRK.B")).isTrue();
+        assertThat(HoldingsCsvParser.isValidTicker("RDS-A")).isTrue();
+        assertThat(HoldingsCsvParser.isValidTicker("ABCDEFGHIJ")).isTrue();
+        assertThat(HoldingsCsvParser.isValidTicker("ABCDEFGHIJK")).isFalse();
+        assertThat(HoldingsCsvParser.isValidTicker("1AB")).isFalse();
+        assertThat(HoldingsCsvParser.isValidTicker("aapl")).isFalse();
+        assertThat(HoldingsCsvParser.isValidTicker("AA PL")).isFalse();
+        assertThat(HoldingsCsvParser.isValidCurrency("USD")).isTrue();
+        assertThat(HoldingsCsvParser.isValidCurrency("usd")).isFalse();
+        assertThat(HoldingsCsvParser.isValidCurrency("USDX")).isFalse();
+    }
+
+    @Test
+    public void testMatchesLineSplittingParserOnUnquotedFiles() {
+        Random random = new Random(11);
+        LegacyHoldingsCsvParser legacy = new LegacyHoldingsCsvParser();
+
+        for (int round = 0; round < 200; round++) {
+            String csvContent = randomUnquotedCsv(random, 1 + random.nextInt(60));
+
+            HoldingsCsvParser.ParseResult expected =
+                    legacy.parse(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+            HoldingsCsvParser.ParseResult actual = parse(csvContent);
+
+            assertThat(actual.getHoldings()).as("holdings in round %d", round).isEqualTo(expected.getHoldings());
+            assertThat(actual.getErrors()).as("errors in round %d", round).isEqualTo(expected.getErrors());
+        }
+    }
+
+    /**
+     * Files the line-splitting parser handled: no quoting and finite numbers, with a mix of valid
+     * rows, invalid values, surrounding spaces, blank lines and wrong column counts.
+     */
+    private static String randomUnquotedCsv(Random random, int rows) {
+        String[] tickers = {"AAPL", "BRK.B", "RDS-A", " MSFT ", "", "aapl", "1AB", "ABCDEFGHIJK"};
+        String[] quantities = {"100", "2.5", " 10 ", "0", "-3", "", "abc", "1e3"};
+        String[] costBases = {"150.50", "0", " 99.9 ", "-1", "", "x", "2500"};
+        String[] currencies = {"USD", "EUR", " GBP ", "", "usd", "US", "JPY"};
+        StringBuilder csv = new StringBuilder(random.nextBoolean()
+                ? "ticker,quantity,cost_basis,currency\n"
+                : "currency,ticker,cost_basis,quantity\n");
+        boolean reordered = csv.charAt(0) == 'c';
+        for (int i = 0; i < rows; i++) {
+            switch (random.nextInt(12)) {
+                case 0 -> csv.append("\n");
+                case 1 -> csv.append("AAPL,100,150.50\n");
+                case 2 -> csv.append("AAPL,100,150.50,USD,extra\n");
+                default -> {
+                    String ticker = tickers[random.nextInt(tickers.length)];
+                    String quantity = quantities[random.nextInt(quantities.length)];
+                    String costBasis = costBases[random.nextInt(costBases.length)];
+                    String currency = currencies[random.nextInt(currencies.length)];
+                    csv.append(reordered
+                            ? String.join(",", currency, ticker, costBasis, quantity)
+                            : String.join(",", ticker, quantity, costBasis, currency)).append('\n');
+                }
+            }
+        }
+        return csv.toString();
+    }
+
+    private HoldingsCsvParser.ParseResult parse(String csvContent) {
+        return csvParser.parse(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,164 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ConstraintSetDTO;
+import com.stockmonitor.model.Holding;
+import com.stockmonitor.model.Portfolio;
+import com.stockmonitor.model.Recommendation;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Preview simulation that recomputed turnover from scratch after every trimmed pick, replaced by
+ * the incremental ConstraintPreviewService simulation; kept as the baseline for the equivalence
+ * test and the preview benchmark.
+ */
+final class LegacyConstraintPreviewSimulation {
+
+    private LegacyConstraintPreviewSimulation() {
+    }
+
+    /**
+     * Simulate optimizer with new constraints using last run's factor scores
+     */
+    static ConstraintPreviewService.SimulationResult simulate(
+            List<Recommendation> lastRecommendations,
+            List<Holding> currentHoldings,
+            ConstraintSetDTO newConstraints,
+            Portfolio portfolio) {
+
+        // Sort by rank (factor scores from last run)
+        List<Recommendation> rankedByFactors =
+                lastRecommendations.stream()
+                        .sorted(Comparator.comparingInt(Recommendation::getRank))
+                        .collect(Collectors.toList());
+
+        // Apply new constraints
+        List<String> selectedSymbols = new ArrayList<>();
+        Map<String, Integer> sectorCounts = new HashMap<>();
+        BigDecimal totalWeight = BigDecimal.ZERO;
+        int maxPicks = 50; // Maximum possible picks
+
+        for (Recommendation rec : rankedByFactors) {
+            if (selectedSymbols.size() >= maxPicks) break;
+
+            // Check position size constraint (using large cap limit as proxy)
+            BigDecimal proposedWeight = calculateProposedWeight(selectedSymbols.size() + 1);
+            if (newConstraints.getMaxNameWeightLargeCapPct() != null
+                    && proposedWeight.compareTo(newConstraints.getMaxNameWeightLargeCapPct()) > 0) {
+                continue; // Skip this stock
+            }
+
+            // Check sector exposure constraint
+            String sector = rec.getSector();
+            int sectorCount = sectorCounts.getOrDefault(sector, 0);
+            BigDecimal sectorExposure =
+                    BigDecimal.valueOf(sectorCount + 1)
+                            .divide(
+                                    BigDecimal.valueOf(selectedSymbols.size() + 1), 4, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(100));
+
+            if (newConstraints.getMaxSectorExposurePct() != null
+                    && sectorExposure.compareTo(newConstraints.getMaxSectorExposurePct()) > 0) {
+                continue; // Skip due to sector cap
+            }
+
+            // Liquidity constraint check
+            if (newConstraints.getLiquidityFloorAdvUsd() != null) {
+                // In real implementation, would check actual liquidity
+                // For simulation, assume stocks passed if they were in last run
+            }
+
+            // Add to selected
+            selectedSymbols.add(rec.getSymbol());
+            sectorCounts.put(sector, sectorCount + 1);
+            totalWeight = totalWeight.add(proposedWeight);
+        }
+
+        // Calculate turnover
+        BigDecimal turnover = calculateTurnover(selectedSymbols, currentHoldings, portfolio);
+
+        // Apply turnover constraint
+        if (newConstraints.getTurnoverCapPct() != null
+                && turnover.compareTo(newConstraints.getTurnoverCapPct()) > 0) {
+            // Reduce picks to stay within turnover cap
+            while (turnover.compareTo(newConstraints.getTurnoverCapPct()) > 0
+                    && selectedSymbols.size() > 10) {
+                selectedSymbols.remove(selectedSymbols.size() - 1);
+                turnover = calculateTurnover(selectedSymbols, currentHoldings, portfolio);
+            }
+        }
+
+        return new ConstraintPreviewService.SimulationResult(selectedSymbols, turnover);
+    }
+
+    /**
+     * Calculate proposed weight for a position
+     */
+    private static BigDecimal calculateProposedWeight(int numberOfPicks) {
+        if (numberOfPicks == 0) return BigDecimal.ZERO;
+        return BigDecimal.valueOf(100.0)
+                .divide(BigDecimal.valueOf(numberOfPicks), 4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculate turnover from current holdings to new recommendations
+     */
+    private static BigDecimal calculateTurnover(
+            List<String> newSymbols, List<Holding> currentHoldings, Portfolio portfolio) {
+
+        Set<String> currentSymbols =
+                currentHoldings.stream().map(Holding::getSymbol).collect(Collectors.toSet());
+
+        Set<String> newSymbolSet = new HashSet<>(newSymbols);
+
+        // Symbols to sell (in current but not in new)
+        Set<String> toSell = new HashSet<>(currentSymbols);
+        toSell.removeAll(newSymbolSet);
+
+        // Symbols to buy (in new but not in current)
+        Set<String> toBuy = new HashSet<>(newSymbolSet);
+        toBuy.removeAll(currentSymbols);
+
+        // Handle edge case: no new symbols selected
+        if (newSymbols.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        // Turnover = (sum of sells + sum of buys) / 2 / portfolio value
+        BigDecimal totalPortfolioValue =
+                portfolio.getTotalMarketValue().add(portfolio.getCashBalance());
+
+        BigDecimal sellValue = BigDecimal.ZERO;
+        for (String symbol : toSell) {
+            Holding holding =
+                    currentHoldings.stream()
+                            .filter(h -> h.getSymbol().equals(symbol))
+                            .findFirst()
+                            .orElse(null);
+            if (holding != null) {
+                sellValue = sellValue.add(holding.getCurrentMarketValue());
+            }
+        }
+
+        BigDecimal buyValue =
+                BigDecimal.valueOf(toBuy.size())
+                        .multiply(totalPortfolioValue)
+                        .divide(BigDecimal.valueOf(newSymbols.size()), 4, RoundingMode.HALF_UP);
+
+        BigDecimal totalTurnover = sellValue.add(buyValue);
+        BigDecimal turnoverPct =
+                totalTurnover
+                        .divide(totalPortfolioValue, 4, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(100));
+
+        return turnoverPct;
+    }
+}
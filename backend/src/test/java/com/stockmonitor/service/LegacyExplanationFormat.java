@@ -0,0 +1,89 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.model.FactorScore;
+import com.stockmonitor.service.ExplanationService.FactorDriver;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * String.format-based explanation builder that ExplanationRenderer replaced, kept as the reference
+ * for output equivalence tests and the renderer benchmark.
+ */
+final class LegacyExplanationFormat {
+
+    private LegacyExplanationFormat() {
+    }
+
+    static String generateExplanation(
+            int rank,
+            Map<String, FactorScore> factorScores,
+            List<FactorDriver> topDrivers,
+            String constraintNotes) {
+
+        StringBuilder explanation = new StringBuilder();
+
+        explanation.append(String.format("Ranked #%d. ", rank));
+
+        if (!topDrivers.isEmpty()) {
+            explanation.append("Primary drivers: ");
+            List<String> driverDescriptions = new ArrayList<>();
+
+            for (FactorDriver driver : topDrivers.subList(0, Math.min(3, topDrivers.size()))) {
+                String strength = getStrengthDescription(driver.score());
+                driverDescriptions.add(
+                        String.format("%s %s (%.2f)", strength, driver.factorName(), driver.score()));
+            }
+
+            explanation.append(String.join(", ", driverDescriptions));
+            explanation.append(". ");
+        }
+
+        if (!factorScores.isEmpty()) {
+            List<String> percentileNotes = new ArrayList<>();
+
+            for (Map.Entry<String, FactorScore> entry : factorScores.entrySet()) {
+                FactorScore score = entry.getValue();
+                BigDecimal percentile = score.getPercentileRankUniverse();
+
+                if (percentile.compareTo(BigDecimal.valueOf(80)) > 0) {
+                    percentileNotes.add(
+                            String.format(
+                                    "%s in top %.0f%% of universe",
+                                    entry.getKey(), BigDecimal.valueOf(100).subtract(percentile)));
+                }
+            }
+
+            if (!percentileNotes.isEmpty()) {
+                explanation.append(String.join(", ", percentileNotes));
+                explanation.append(". ");
+            }
+        }
+
+        if (constraintNotes != null && !constraintNotes.isEmpty()) {
+            explanation.append("Note: ").append(constraintNotes);
+        }
+
+        return explanation.toString().trim();
+    }
+
+    static String getStrengthDescription(BigDecimal score) {
+        double scoreValue = score.doubleValue();
+
+        if (scoreValue > 2.0) {
+            return "Very strong";
+        } else if (scoreValue > 1.0) {
+            return "Strong";
+        } else if (scoreValue > 0.5) {
+            return "Moderate";
+        } else if (scoreValue > -0.5) {
+            return "Neutral";
+        } else if (scoreValue > -1.0) {
+            return "Weak";
+        } else {
+            return "Very weak";
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.model.Notification;
+import com.stockmonitor.model.NotificationOutboxEntry;
+import com.stockmonitor.repository.NotificationOutboxRepository;
+import com.stockmonitor.repository.NotificationRepository;
+import com.stockmonitor.service.NotificationPreferenceCache.Snapshot;
+import com.stockmonitor.service.NotificationService.NotificationMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for NotificationOutbox.
+ *
+ * Tests:
+ * - Enqueueing writes all entries with one batched save
+ * - Dispatch writes in-app notifications in one batch, broadcasts them and deletes delivered entries
+ * - Failed deliveries are retried with back-off and give up after max attempts
+ * - Retries do not repeat channels that already succeeded
+ */
+public class NotificationOutboxTest extends BaseUnitTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPreferenceCache preferenceCache;
+
+    @Mock
+    private WebSocketNotificationService webSocketService;
+
+    @Mock
+    private EmailNotificationSender emailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationOutbox outbox;
+    private Snapshot recipient;
+
+    @BeforeEach
+    public void setup() {
+        outbox = new NotificationOutbox(outboxRepository, notificationService, notificationRepository,
+                preferenceCache, webSocketService, emailSender, transactionManager,
+                200, 3, Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofMinutes(5));
+
+        recipient = Snapshot.allEnabled(UUID.randomUUID(), "owner@example.com");
+        lenient().when(preferenceCache.getAll(any())).thenReturn(Map.of(recipient.userId(), recipient));
+    }
+
+    @Test
+    public void testEnqueueAllSavesInOneBatch() {
+        UUID runId = UUID.randomUUID();
+
+        outbox.enqueueAll(List.of(
+                NotificationMessage.t1Staged(recipient.userId(), runId),
+                NotificationMessage.dataStale(recipient.userId())));
+
+        ArgumentCaptor<List<NotificationOutboxEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2)
+                .allMatch(entry -> "PENDING".equals(entry.getStatus()) && entry.getNextAttemptAt() != null);
+        assertThat(captor.getValue()).extracting(NotificationOutboxEntry::getCategory)
+                .containsExactly("T-1_STAGED", "DATA_STALE");
+    }
+
+    @Test
+    public void testDispatchDeliversAndDeletesEntries() {
+        List<NotificationOutboxEntry> entries = List.of(entry(), entry());
+        when(outboxRepository.findDue(any(), any())).thenReturn(entries);
+        when(notificationService.createNotifications(anyList(), anyMap())).thenAnswer(inv -> saved(inv.getArgument(0)));
+
+        int delivered = outbox.dispatch();
+
+        assertThat(delivered).isEqualTo(2);
+        verify(notificationService).createNotifications(anyList(), anyMap());
+        verify(webSocketService, times(2)).broadcastNotification(eq(recipient.userId()), any());
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(entries.get(0).getId(), entries.get(1).getId()));
+        assertThat(entries).allMatch(entry -> entry.getNotificationId() != null && entry.getWebSocketSent());
+    }
+
+    @Test
+    public void testDispatchDropsEntriesForOptedOutUsers() {
+        NotificationOutboxEntry entry = entry();
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry));
+        List<Notification> optedOut = new ArrayList<>();
+        optedOut.add(null);
+        when(notificationService.createNotifications(anyList(), anyMap())).thenReturn(optedOut);
+
+        assertThat(outbox.dispatch()).isZero();
+
+        verify(outboxRepository).deleteAll(ArgumentMatchers.<Iterable<NotificationOutboxEntry>>argThat(
+                dropped -> dropped.iterator().next() == entry));
+        verify(webSocketService, never()).broadcastNotification(any(), any());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedWithBackoff() {
+        NotificationOutboxEntry entry = entry();
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry));
+        when(notificationService.createNotifications(anyList(), anyMap())).thenAnswer(inv -> saved(inv.getArgument(0)));
+        doThrow(new IllegalStateException("broker down")).when(webSocketService).broadcastNotification(any(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(outbox.dispatch()).isZero();
+
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getStatus()).isEqualTo("PENDING");
+        assertThat(entry.getLastError()).contains("broker down");
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(entry.getNotificationId()).isNotNull(); // Not re-created on retry
+        verify(outboxRepository).saveAll(List.of(entry));
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        NotificationOutboxEntry entry = entry();
+        entry.setAttempts(2);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry));
+        when(notificationService.createNotifications(anyList(), anyMap())).thenAnswer(inv -> saved(inv.getArgument(0)));
+        doThrow(new IllegalStateException("broker down")).when(webSocketService).broadcastNotification(any(), any());
+
+        outbox.dispatch();
+
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        assertThat(entry.getStatus()).isEqualTo("FAILED");
+    }
+
+    @Test
+    public void testRetryOnlyRepeatsFailedChannel() {
+        Notification notification = Notification.builder().id(UUID.randomUUID()).userId(recipient.userId()).build();
+        NotificationOutboxEntry entry = entry();
+        entry.setPriority("HIGH");
+        entry.setNotificationId(notification.getId());
+        entry.setWebSocketSent(true);
+        entry.setAttempts(1);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(entry));
+        when(notificationRepository.findAllById(any())).thenReturn(List.of(notification));
+        when(emailSender.isRequired(entry)).thenReturn(true);
+
+        assertThat(outbox.dispatch()).isEqualTo(1);
+
+        verify(notificationService).createNotifications(List.of(), Map.of(recipient.userId(), recipient));
+        verify(webSocketService, never()).broadcastNotification(any(), any());
+        verify(emailSender).send("owner@example.com", entry);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(entry.getId()));
+    }
+
+    @Test
+    public void testBackoffDoublesUpToCap() {
+        assertThat(outbox.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(outbox.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(outbox.backoff(4)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(outbox.backoff(10)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private NotificationOutboxEntry entry() {
+        return NotificationOutboxEntry.builder()
+                .id(UUID.randomUUID())
+                .userId(recipient.userId())
+                .title("Month-End Recommendations Ready!")
+                .message("Your month-end portfolio recommendations are now available.")
+                .category("T_FINALIZED")
+                .priority("MEDIUM")
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<Notification> saved(List<NotificationMessage> messages) {
+        return messages.stream()
+                .map(message -> Notification.builder()
+                        .id(UUID.randomUUID())
+                        .userId(message.userId())
+                        .category(message.category())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.stockmonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.repository.UserRepository;
+import com.stockmonitor.repository.UserRepository.NotificationSettings;
+import com.stockmonitor.service.NotificationPreferenceCache.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for NotificationPreferenceCache.
+ *
+ * Tests:
+ * - Preferences JSON is parsed into category bits; unknown and unreadable preferences are handled
+ * - Snapshots are cached per user
+ * - Bulk lookups load only missing users, in one query
+ * - Invalidation forces a reload
+ */
+public class NotificationPreferenceCacheTest extends BaseUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private NotificationPreferenceCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new NotificationPreferenceCache(userRepository, new ObjectMapper(), Duration.ofMinutes(5), 1000);
+    }
+
+    @Test
+    public void testParsesOptOutsIntoBits() {
+        Snapshot snapshot = cache.parse(settings(UUID.randomUUID(),
+                "{\"T-3_PRECOMPUTE\": false, \"T_FINALIZED\": true, \"DATA_STALE\": false, \"WEEKLY_DIGEST\": false}"));
+
+        assertThat(snapshot.allows("T-3_PRECOMPUTE")).isFalse();
+        assertThat(snapshot.allows("DATA_STALE")).isFalse();
+        assertThat(snapshot.allows("T_FINALIZED")).isTrue();
+        assertThat(snapshot.allows("RUN_FAILED")).isTrue(); // Not mentioned: enabled
+        assertThat(snapshot.allows("WEEKLY_DIGEST")).isFalse();
+        assertThat(snapshot.disabledOther()).containsExactly("WEEKLY_DIGEST");
+    }
+
+    @Test
+    public void testMissingOrInvalidPreferencesEnableEverything() {
+        for (String json : new String[] {null, "", "{}", "not json"}) {
+            Snapshot snapshot = cache.parse(settings(UUID.randomUUID(), json));
+            assertThat(snapshot.disabled()).isZero();
+            assertThat(NotificationPreferenceCache.CATEGORIES).allMatch(snapshot::allows);
+        }
+    }
+
+    @Test
+    public void testCachesPerUser() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findNotificationSettingsByIdIn(anyCollection()))
+                .thenReturn(List.of(settings(userId, "{\"RUN_FAILED\": false}")));
+
+        assertThat(cache.get(userId).allows("RUN_FAILED")).isFalse();
+        assertThat(cache.get(userId).email()).isEqualTo(userId + "@example.com");
+
+        verify(userRepository, times(1)).findNotificationSettingsByIdIn(anyCollection());
+    }
+
+    @Test
+    public void testGetAllLoadsOnlyMissesInOneQuery() {
+        UUID cached = UUID.randomUUID();
+        UUID missingA = UUID.randomUUID();
+        UUID missingB = UUID.randomUUID();
+        when(userRepository.findNotificationSettingsByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return ids.stream().map(id -> settings(id, "{}")).toList();
+        });
+        cache.get(cached);
+
+        Map<UUID, Snapshot> snapshots = cache.getAll(List.of(cached, missingA, missingB));
+
+        assertThat(snapshots).containsOnlyKeys(cached, missingA, missingB);
+        verify(userRepository).findNotificationSettingsByIdIn(Set.of(cached));
+        verify(userRepository).findNotificationSettingsByIdIn(Set.of(missingA, missingB));
+    }
+
+    @Test
+    public void testInvalidateForcesReload() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findNotificationSettingsByIdIn(anyCollection()))
+                .thenReturn(List.of(settings(userId, "{}")))
+                .thenReturn(List.of(settings(userId, "{\"T_FINALIZED\": false}")));
+
+        assertThat(cache.get(userId).allows("T_FINALIZED")).isTrue();
+        cache.invalidate(userId);
+
+        assertThat(cache.get(userId).allows("T_FINALIZED")).isFalse();
+    }
+
+    private static NotificationSettings settings(UUID id, String preferences) {
+        return new NotificationSettings() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return id + "@example.com";
+            }
+
+            @Override
+            public String getNotificationPreferences() {
+                return preferences;
+            }
+        };
+    }
+}
@@ -1,17 +1,20 @@
 package com.stockmonitor.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.stockmonitor.dto.CursorPage;
 import com.stockmonitor.dto.NotificationDTO;
+import com.stockmonitor.dto.PageCursor;
 import com.stockmonitor.model.Notification;
 import com.stockmonitor.model.User;
 import com.stockmonitor.repository.NotificationRepository;
 import com.stockmonitor.repository.UserRepository;
+import com.stockmonitor.service.NotificationPreferenceCache.Snapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -21,6 +24,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -46,10 +50,10 @@ public class NotificationServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private WebSocketNotificationService webSocketService;
+    private NotificationPreferenceCache preferenceCache;
 
     @Mock
-    private com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private WebSocketNotificationService webSocketService;
 
     private NotificationService notificationService;
 
@@ -61,8 +65,8 @@ public class NotificationServiceTest {
         notificationService = new NotificationService(
                 notificationRepository,
                 userRepository,
-                webSocketService,
-                objectMapper
+                preferenceCache,
+                webSocketService
         );
 
         testUserId = UUID.randomUUID();
@@ -99,7 +103,7 @@ public class NotificationServiceTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
 
         // Act
@@ -117,6 +121,7 @@ public class NotificationServiceTest {
         assertThat(result.getIsRead()).isFalse();
 
         verify(notificationRepository).save(any(Notification.class));
+        verify(userRepository).adjustUnreadNotificationCount(testUserId, 1);
         verify(webSocketService).broadcastNotification(eq(testUserId), any(NotificationDTO.class));
     }
 
@@ -136,7 +141,7 @@ public class NotificationServiceTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class))).thenReturn(savedNotification);
 
         // Act
@@ -149,26 +154,43 @@ public class NotificationServiceTest {
     }
 
     @Test
-    public void testGetNotificationsForUser_ReturnsUserNotifications() {
+    public void testGetNotificationsForUser_ReturnsFirstPage() {
         // Arrange
-        List<Notification> notifications = Arrays.asList(
-                createTestNotification(testUserId, "T_FINALIZED", false),
-                createTestNotification(testUserId, "T-1_STAGED", false),
-                createTestNotification(testUserId, "T-3_PRECOMPUTE", true)
+        List<NotificationDTO> rows = Arrays.asList(
+                notificationService.toDTO(createTestNotification(testUserId, "T_FINALIZED", false)),
+                notificationService.toDTO(createTestNotification(testUserId, "T-1_STAGED", false)),
+                notificationService.toDTO(createTestNotification(testUserId, "T-3_PRECOMPUTE", true))
         );
 
-        when(notificationRepository.findByUserIdOrderByCreatedAtDesc(testUserId)).thenReturn(notifications);
+        when(notificationRepository.findPageByUserId(testUserId, PageRequest.ofSize(3))).thenReturn(rows);
 
         // Act
-        List<NotificationDTO> result = notificationService.getNotificationsForUser(testUserId);
+        CursorPage<NotificationDTO> result = notificationService.getNotificationsForUser(testUserId, null, 2);
 
-        // Assert
-        assertThat(result).hasSize(3);
-        assertThat(result.get(0).getCategory()).isEqualTo("T_FINALIZED");
-        assertThat(result.get(1).getCategory()).isEqualTo("T-1_STAGED");
-        assertThat(result.get(2).getCategory()).isEqualTo("T-3_PRECOMPUTE");
+        // Assert: one extra row is fetched to detect the next page, but not returned
+        assertThat(result.items()).extracting(NotificationDTO::getCategory)
+                .containsExactly("T_FINALIZED", "T-1_STAGED");
+        assertThat(result.nextCursor()).isEqualTo(
+                new PageCursor(rows.get(1).getCreatedAt(), rows.get(1).getId()));
+    }
+
+    @Test
+    public void testGetNotificationsForUser_ContinuesAfterCursor() {
+        // Arrange
+        PageCursor after = new PageCursor(LocalDateTime.now(), UUID.randomUUID());
+        List<NotificationDTO> rows = List.of(
+                notificationService.toDTO(createTestNotification(testUserId, "DATA_STALE", false)));
+
+        when(notificationRepository.findPageByUserIdAfter(
+                testUserId, after.createdAt(), after.id(), PageRequest.ofSize(CursorPage.MAX_LIMIT + 1)))
+                .thenReturn(rows);
 
-        verify(notificationRepository).findByUserIdOrderByCreatedAtDesc(testUserId);
+        // Act: oversized limits are clamped
+        CursorPage<NotificationDTO> result = notificationService.getNotificationsForUser(testUserId, after, 10_000);
+
+        // Assert
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.nextCursor()).isNull();
     }
 
     @Test
@@ -200,18 +222,31 @@ public class NotificationServiceTest {
         notification.setId(notificationId);
 
         when(notificationRepository.findById(notificationId)).thenReturn(Optional.of(notification));
-        when(notificationRepository.save(any(Notification.class))).thenReturn(notification);
+        when(notificationRepository.markRead(eq(notificationId), any(LocalDateTime.class))).thenReturn(1);
 
         // Act
         notificationService.markAsRead(notificationId);
 
-        // Assert
-        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository).save(captor.capture());
+        // Assert - Conditional update, and the unread counter goes down by one
+        verify(notificationRepository).markRead(eq(notificationId), any(LocalDateTime.class));
+        verify(userRepository).adjustUnreadNotificationCount(testUserId, -1);
+    }
 
-        Notification savedNotification = captor.getValue();
-        assertThat(savedNotification.getIsRead()).isTrue();
-        assertThat(savedNotification.getReadAt()).isNotNull();
+    @Test
+    public void testMarkAsRead_AlreadyRead_DoesNotDecrementCounter() {
+        // Arrange
+        UUID notificationId = UUID.randomUUID();
+        Notification notification = createTestNotification(testUserId, "T_FINALIZED", true);
+        notification.setId(notificationId);
+
+        when(notificationRepository.findById(notificationId)).thenReturn(Optional.of(notification));
+        when(notificationRepository.markRead(eq(notificationId), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act
+        notificationService.markAsRead(notificationId);
+
+        // Assert
+        verify(userRepository, never()).adjustUnreadNotificationCount(any(), anyInt());
     }
 
     @Test
@@ -225,56 +260,42 @@ public class NotificationServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("not found");
 
-        verify(notificationRepository, never()).save(any());
+        verify(notificationRepository, never()).markRead(any(), any());
     }
 
     @Test
     public void testMarkAllAsRead_UpdatesAllUserNotifications() {
         // Arrange
-        List<Notification> notifications = Arrays.asList(
-                createTestNotification(testUserId, "T_FINALIZED", false),
-                createTestNotification(testUserId, "T-1_STAGED", false)
-        );
-
-        when(notificationRepository.findByUserIdAndIsReadFalse(testUserId)).thenReturn(notifications);
+        when(notificationRepository.markAllRead(eq(testUserId), any(LocalDateTime.class))).thenReturn(2);
 
         // Act
         notificationService.markAllAsRead(testUserId);
 
-        // Assert
-        verify(notificationRepository).saveAll(anyList());
-
-        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
-        verify(notificationRepository).saveAll(captor.capture());
-
-        List<Notification> savedNotifications = captor.getValue();
-        assertThat(savedNotifications).allMatch(n -> n.getIsRead());
+        // Assert - One bulk UPDATE, no entity loads, counter reduced by the rows changed
+        verify(notificationRepository).markAllRead(eq(testUserId), any(LocalDateTime.class));
+        verify(notificationRepository, never()).findByUserIdAndIsReadFalse(any());
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(userRepository).adjustUnreadNotificationCount(testUserId, -2);
     }
 
     @Test
     public void testGetUnreadCount_ReturnsCorrectCount() {
         // Arrange
-        when(notificationRepository.countByUserIdAndIsReadFalse(testUserId)).thenReturn(5L);
+        when(userRepository.findUnreadNotificationCount(testUserId)).thenReturn(Optional.of(5));
 
         // Act
         long count = notificationService.getUnreadCount(testUserId);
 
-        // Assert
+        // Assert - Read from the counter, never counted from the notification table
         assertThat(count).isEqualTo(5);
-        verify(notificationRepository).countByUserIdAndIsReadFalse(testUserId);
+        verify(notificationRepository, never()).countByUserIdAndIsReadFalse(any());
     }
 
     @Test
-    public void testCreateNotification_RespectsUserPreferences() throws Exception {
+    public void testCreateNotification_RespectsUserPreferences() {
         // Arrange - User has opted out of T-3_PRECOMPUTE notifications
-        testUser.setNotificationPreferences("{\"T-3_PRECOMPUTE\": false}");
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
-
-        // Mock objectMapper to parse the preferences correctly
-        Map<String, Boolean> preferences = new HashMap<>();
-        preferences.put("T-3_PRECOMPUTE", false);
-        when(objectMapper.readValue(eq("{\"T-3_PRECOMPUTE\": false}"), any(TypeReference.class)))
-                .thenReturn(preferences);
+        when(preferenceCache.get(testUserId)).thenReturn(new Snapshot(
+                testUserId, testUser.getEmail(), 1L << NotificationPreferenceCache.CATEGORIES.indexOf("T-3_PRECOMPUTE"), Set.of()));
 
         // Act
         NotificationDTO result = notificationService.createNotification(
@@ -291,7 +312,7 @@ public class NotificationServiceTest {
     public void testSendT3PreComputeNotification_CreatesCorrectNotification() {
         // Arrange
         UUID runId = UUID.randomUUID();
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
@@ -312,7 +333,7 @@ public class NotificationServiceTest {
     public void testSendT1StagedNotification_CreatesCorrectNotification() {
         // Arrange
         UUID runId = UUID.randomUUID();
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
@@ -333,7 +354,7 @@ public class NotificationServiceTest {
     public void testSendTFinalizedNotification_CreatesHighPriorityNotification() {
         // Arrange
         UUID runId = UUID.randomUUID();
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
@@ -353,7 +374,7 @@ public class NotificationServiceTest {
     @Test
     public void testSendDataStaleNotification_CreatesHighPriorityNotification() {
         // Arrange
-        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(preferenceCache.get(testUserId)).thenReturn(Snapshot.allEnabled(testUserId, testUser.getEmail()));
         when(notificationRepository.save(any(Notification.class)))
                 .thenAnswer(i -> i.getArgument(0));
 
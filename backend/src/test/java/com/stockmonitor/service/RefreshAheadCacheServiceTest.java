@@ -0,0 +1,200 @@
+package com.stockmonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for RefreshAheadCacheService.
+ *
+ * Tests:
+ * - Single loader per key on concurrent cold misses
+ * - A slow load does not block loads of other keys
+ * - Stale value served while an entry near expiry is reloaded
+ * - Hard expiry after the TTL
+ * - Local fallback when Redis is unreachable
+ * - Warmed entries are served without loading, for their own TTL, and are counted as cached
+ */
+public class RefreshAheadCacheServiceTest extends BaseUnitTest {
+
+    private static final String CACHE = "marketData";
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+
+    private RefreshAheadCacheService cacheService;
+
+    @BeforeEach
+    public void setup() {
+        lenient().when(redisTemplateProvider.getIfAvailable()).thenReturn(null);
+        cacheService = new RefreshAheadCacheService(
+                new ObjectMapper(), redisTemplateProvider, pendingRefreshes::add, nanos::get);
+    }
+
+    @Test
+    public void testConcurrentColdMissesRunLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<BigDecimal>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cacheService.get(CACHE, "fx:EUR-USD", BigDecimal.class, () -> {
+                        loads.incrementAndGet();
+                        sleepQuietly(100);
+                        return new BigDecimal("1.08");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<BigDecimal> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("1.08");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSlowLoadDoesNotBlockOtherKeys() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> slow = pool.submit(() -> cacheService.get(CACHE, "slow", Integer.class, () -> {
+                awaitQuietly(release);
+                return 0;
+            }));
+
+            // Keys that would share the slow key's map bin must still load immediately
+            for (int i = 0; i < 256; i++) {
+                int value = i;
+                assertThat(cacheService.get(CACHE, "key-" + i, Integer.class, () -> value)).isEqualTo(value);
+            }
+            assertThat(slow.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isZero();
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testServesStaleValueWhileRefreshingAhead() {
+        Duration ttl = CacheConfig.ttlFor(CACHE);
+        AtomicInteger version = new AtomicInteger(1);
+
+        assertThat(get(version)).isEqualTo(1);
+
+        version.set(2);
+        nanos.addAndGet((long) (ttl.toNanos() * 0.85));
+
+        // Past the refresh point: old value is returned and exactly one reload is queued
+        assertThat(get(version)).isEqualTo(1);
+        assertThat(get(version)).isEqualTo(1);
+        assertThat(pendingRefreshes).hasSize(1);
+
+        pendingRefreshes.remove(0).run();
+
+        assertThat(get(version)).isEqualTo(2);
+    }
+
+    @Test
+    public void testEntryExpiresAfterTtl() {
+        AtomicInteger version = new AtomicInteger(1);
+        assertThat(get(version)).isEqualTo(1);
+
+        version.set(2);
+        nanos.addAndGet(CacheConfig.ttlFor(CACHE).toNanos() + 1);
+
+        assertThat(get(version)).isEqualTo(2);
+        assertThat(pendingRefreshes).isEmpty();
+    }
+
+    @Test
+    public void testFallsBackToLocalLoadingWhenRedisUnavailable() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("refused"));
+
+        AtomicInteger version = new AtomicInteger(7);
+
+        assertThat(get(version)).isEqualTo(7);
+        assertThat(get(version)).isEqualTo(7);
+    }
+
+    @Test
+    public void testPutAllServesWarmEntriesWithoutLoading() {
+        Duration warmTtl = Duration.ofDays(7);
+        AtomicInteger version = new AtomicInteger(2);
+
+        cacheService.putAll(CACHE, Map.of("key", 1, "other", 5), warmTtl);
+
+        assertThat(cacheService.countCached(CACHE, List.of("key", "other", "missing"))).isEqualTo(2);
+        assertThat(get(version)).isEqualTo(1);
+
+        // Outlives the cache's own TTL; past its refresh point it is reloaded in the background
+        nanos.addAndGet(CacheConfig.ttlFor(CACHE).toNanos() + 1);
+        assertThat(get(version)).isEqualTo(1);
+        nanos.addAndGet((long) (warmTtl.toNanos() * 0.85));
+        assertThat(get(version)).isEqualTo(1);
+        assertThat(pendingRefreshes).hasSize(1);
+
+        pendingRefreshes.remove(0).run();
+
+        assertThat(get(version)).isEqualTo(2);
+    }
+
+    private Integer get(AtomicInteger version) {
+        return cacheService.get(CACHE, "key", Integer.class, version::get);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
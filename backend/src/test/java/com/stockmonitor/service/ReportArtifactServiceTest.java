@@ -0,0 +1,243 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.dto.ReportDTO;
+import com.stockmonitor.model.RecommendationRun;
+import com.stockmonitor.model.Report;
+import com.stockmonitor.repository.RecommendationRunRepository;
+import com.stockmonitor.repository.ReportRepository;
+import com.stockmonitor.service.ReportArtifactService.BulkRenderResult;
+import com.stockmonitor.service.ReportArtifactService.ReportArtifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for ReportArtifactService.
+ *
+ * Tests:
+ * - A finalized run is rendered once, stored under its content hash and recorded on the Report
+ * - Later requests are served from storage without rendering
+ * - A missing stored file is re-rendered
+ * - Runs that are not finalized are not cached
+ * - Concurrent first requests share one render
+ * - Bulk rendering stores a chunk, skips stored runs and counts failures without aborting
+ */
+public class ReportArtifactServiceTest extends BaseUnitTest {
+
+    private static final byte[] PDF = "%PDF-1.4 test".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private ReportGenerationService reportGenerationService;
+
+    @Mock
+    private ReportRenderingService reportRenderingService;
+
+    @Mock
+    private RecommendationRunRepository runRepository;
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @TempDir
+    Path storageDir;
+
+    private ReportArtifactService service;
+    private RecommendationRun run;
+    private final Map<UUID, Report> savedReports = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setup() {
+        service = new ReportArtifactService(
+                reportGenerationService, reportRenderingService, runRepository, reportRepository,
+                storageDir.toString());
+
+        run = RecommendationRun.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .runType("SCHEDULED")
+                .status("FINALIZED")
+                .build();
+        lenient().when(runRepository.findById(run.getId())).thenReturn(Optional.of(run));
+
+        lenient().when(reportRepository.findByRunId(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(savedReports.get(invocation.<UUID>getArgument(0))));
+        lenient().when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> {
+            Report report = invocation.getArgument(0);
+            savedReports.put(report.getRunId(), report);
+            return report;
+        });
+        lenient().when(reportGenerationService.generateReport(run.getId())).thenReturn(report());
+        lenient().when(reportRenderingService.renderPDF(any())).thenReturn(PDF);
+        lenient().when(reportRenderingService.renderAsync(any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(PDF));
+    }
+
+    @Test
+    public void testFinalizedRunIsRenderedAndStored() throws Exception {
+        Optional<ReportArtifact> artifact = service.findOrRenderPdf(run.getId());
+
+        assertThat(artifact).isPresent();
+        String expectedHash = ReportArtifactService.sha256(PDF);
+        assertThat(artifact.get().etag()).isEqualTo(expectedHash).hasSize(64);
+        assertThat(artifact.get().path()).isEqualTo(storageDir.resolve(expectedHash + ".pdf"));
+        assertThat(Files.readAllBytes(artifact.get().path())).isEqualTo(PDF);
+        assertThat(artifact.get().sizeBytes()).isEqualTo(PDF.length);
+
+        Report report = savedReports.get(run.getId());
+        assertThat(report.getRunId()).isEqualTo(run.getId());
+        assertThat(report.getUserId()).isEqualTo(run.getUserId());
+        assertThat(report.getFormat()).isEqualTo("PDF");
+        assertThat(report.getContentHash()).isEqualTo(expectedHash);
+        assertThat(report.getRecommendationCount()).isEqualTo(3);
+        assertThat(report.getDisclaimerText()).contains("NOT FINANCIAL ADVICE");
+        try (var files = Files.list(storageDir)) {
+            assertThat(files).hasSize(1); // no leftover temp file
+        }
+    }
+
+    @Test
+    public void testStoredArtifactIsServedWithoutRendering() {
+        ReportArtifact first = service.findOrRenderPdf(run.getId()).orElseThrow();
+        ReportArtifact second = service.findOrRenderPdf(run.getId()).orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        verify(reportRenderingService, times(1)).renderPDF(any());
+        verify(reportRepository, times(1)).save(any());
+    }
+
+    @Test
+    public void testMissingFileIsRerendered() throws Exception {
+        ReportArtifact first = service.findOrRenderPdf(run.getId()).orElseThrow();
+        Files.delete(first.path());
+
+        ReportArtifact second = service.findOrRenderPdf(run.getId()).orElseThrow();
+
+        assertThat(Files.exists(second.path())).isTrue();
+        verify(reportRenderingService, times(2)).renderPDF(any());
+    }
+
+    @Test
+    public void testCompletedRunIsNotCached() {
+        run.setStatus("COMPLETED");
+
+        assertThat(service.findOrRenderPdf(run.getId())).isEmpty();
+        verify(reportRenderingService, never()).renderPDF(any());
+        verify(reportRepository, never()).save(any());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneRender() throws Exception {
+        CountDownLatch renderStarted = new CountDownLatch(1);
+        CountDownLatch releaseRender = new CountDownLatch(1);
+        when(reportRenderingService.renderPDF(any())).thenAnswer(invocation -> {
+            renderStarted.countDown();
+            releaseRender.await(5, TimeUnit.SECONDS);
+            return PDF;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<ReportArtifact>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> service.findOrRenderPdf(run.getId())));
+            assertThat(renderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> service.findOrRenderPdf(run.getId())));
+            }
+            Thread.sleep(100);
+            releaseRender.countDown();
+
+            for (Future<Optional<ReportArtifact>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(reportRenderingService, times(1)).renderPDF(any());
+    }
+
+    @Test
+    public void testRenderAllStoresChunkAndSkipsStoredRuns() {
+        service.findOrRenderPdf(run.getId());
+        List<RecommendationRun> others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecommendationRun other = RecommendationRun.builder()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .status("FINALIZED")
+                    .build();
+            when(reportGenerationService.generateReport(other.getId())).thenReturn(report());
+            others.add(other);
+        }
+        List<RecommendationRun> chunk = new ArrayList<>(others);
+        chunk.add(run);
+
+        BulkRenderResult result = service.renderAll(chunk);
+
+        assertThat(result.rendered()).isEqualTo(3);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.failed()).isZero();
+        assertThat(result.pdfsPerSecond()).isPositive();
+        verify(reportRenderingService, times(3)).renderAsync(any());
+        verify(reportRepository, times(4)).save(any());
+    }
+
+    @Test
+    public void testRenderAllCountsFailuresAndContinues() {
+        RecommendationRun broken = RecommendationRun.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .status("FINALIZED")
+                .build();
+        when(reportGenerationService.generateReport(broken.getId()))
+                .thenThrow(new IllegalStateException("Run is not completed"));
+
+        BulkRenderResult result = service.renderAll(List.of(broken, run));
+
+        assertThat(result.rendered()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(savedReports).containsOnlyKeys(run.getId());
+    }
+
+    private ReportDTO report() {
+        return ReportDTO.builder()
+                .runId(run.getId())
+                .reportVersion("1.0")
+                .generatedAt(LocalDateTime.now())
+                .summary(ReportDTO.SummarySection.builder()
+                        .totalRecommendations(3)
+                        .buyCount(2)
+                        .sellCount(1)
+                        .holdCount(0)
+                        .build())
+                .exclusions(List.of())
+                .disclaimers(List.of("NOT FINANCIAL ADVICE"))
+                .build();
+    }
+}
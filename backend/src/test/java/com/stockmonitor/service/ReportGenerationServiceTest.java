@@ -5,6 +5,7 @@ import com.stockmonitor.model.Recommendation;
 import com.stockmonitor.model.RecommendationRun;
 import com.stockmonitor.repository.RecommendationRepository;
 import com.stockmonitor.repository.RecommendationRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -57,7 +58,9 @@ public class ReportGenerationServiceTest {
 
     @BeforeEach
     public void setup() {
-        reportGenerationService = new ReportGenerationService(runRepository, recommendationRepository, templateEngine);
+        ReportRenderingService renderingService = new ReportRenderingService(
+                templateEngine, Runnable::run, new SimpleMeterRegistry(), 2_000_000, 20_971_520, false);
+        reportGenerationService = new ReportGenerationService(runRepository, recommendationRepository, renderingService);
 
         // Setup test data
         testRunId = UUID.randomUUID();
@@ -0,0 +1,135 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.dto.ReportDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark: month-end report rendering throughput in PDFs per second.
+ *
+ * Compares the previous serial path (template + fresh ITextRenderer per PDF on one thread) with
+ * ReportRenderingService on a render pool sized to the available cores, fed in chunks of 32 like
+ * the generateReports step. Each report has ten top picks. Not part of the regular build; run with
+ * {@code mvn -o test -Dtest=ReportRenderingBenchmark}.
+ */
+public class ReportRenderingBenchmark {
+
+    private static final int REPORTS = 200;
+    private static final int CHUNK_SIZE = 32;
+    private static final int ROUNDS = 3;
+
+    private final TemplateEngine templateEngine = ReportRenderingServiceTest.templateEngine();
+
+    @Test
+    public void benchmarkReportRendering() {
+        List<ReportDTO> reports = reports(REPORTS);
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.setThreadNamePrefix("report-render-");
+        pool.initialize();
+        ReportRenderingService service = new ReportRenderingService(
+                templateEngine, pool, new SimpleMeterRegistry(), 2_000_000, 20_971_520, false);
+        try {
+            double serial = 0;
+            double pooled = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                // First round is warm-up
+                double serialRound = serial(reports);
+                double pooledRound = pooled(service, reports);
+                if (round > 0) {
+                    serial += serialRound / (ROUNDS - 1);
+                    pooled += pooledRound / (ROUNDS - 1);
+                }
+            }
+            System.out.printf("%-50s %8.1f PDFs/s%n", "Serial, fresh renderer per PDF", serial);
+            System.out.printf("%-50s %8.1f PDFs/s%n", "ReportRenderingService, " + threads + " worker(s)", pooled);
+            System.out.printf("Speedup: %.2fx%n", pooled / serial);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double serial(List<ReportDTO> reports) {
+        long start = System.nanoTime();
+        for (ReportDTO report : reports) {
+            assertThat(renderLegacy(report)).isNotEmpty();
+        }
+        return reports.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static double pooled(ReportRenderingService service, List<ReportDTO> reports) {
+        long start = System.nanoTime();
+        for (int from = 0; from < reports.size(); from += CHUNK_SIZE) {
+            List<CompletableFuture<byte[]>> chunk = new ArrayList<>();
+            for (ReportDTO report : reports.subList(from, Math.min(from + CHUNK_SIZE, reports.size()))) {
+                chunk.add(service.renderAsync(report));
+            }
+            chunk.forEach(render -> assertThat(render.join()).isNotEmpty());
+        }
+        return reports.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    /** The rendering path before the render pool, kept as the baseline. */
+    private byte[] renderLegacy(ReportDTO report) {
+        Context context = new Context();
+        context.setVariable("report", report);
+        context.setVariable("generatedDate", LocalDateTime.now());
+        String html = templateEngine.process("report", context);
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            ITextRenderer renderer = new ITextRenderer();
+            renderer.setDocumentFromString(html);
+            renderer.layout();
+            renderer.createPDF(outputStream);
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<ReportDTO> reports(int count) {
+        List<ReportDTO> reports = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ReportDTO report = ReportRenderingService.sampleReport();
+            report.setRunId(UUID.randomUUID());
+            List<ReportDTO.RecommendationSummary> picks = new ArrayList<>();
+            for (int rank = 1; rank <= 10; rank++) {
+                picks.add(ReportDTO.RecommendationSummary.builder()
+                        .rank(rank)
+                        .symbol("SYM" + (i * 10 + rank))
+                        .action(rank % 3 == 0 ? "SELL" : "BUY")
+                        .targetWeightPct(BigDecimal.valueOf(rank))
+                        .currentWeightPct(BigDecimal.valueOf(rank - 1))
+                        .weightChangePct(BigDecimal.ONE)
+                        .confidenceScore(50 + rank)
+                        .expectedAlphaBps(BigDecimal.valueOf(25 - rank))
+                        .sector("Sector " + rank % 4)
+                        .marketCapTier("LARGE")
+                        .liquidityTier(1 + rank % 3)
+                        .explanation("Ranked #" + rank + ". Primary drivers: Strong VALUE (1.25).")
+                        .factorScores(Map.of("VALUE", BigDecimal.ONE, "MOMENTUM", BigDecimal.TEN))
+                        .changeIndicator("NEW")
+                        .build());
+            }
+            report.setTopPicks(picks);
+            reports.add(report);
+        }
+        return reports;
+    }
+}
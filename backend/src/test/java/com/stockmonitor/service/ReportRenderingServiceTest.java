@@ -0,0 +1,144 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.config.MetricsConfig.ReportMetrics;
+import com.stockmonitor.service.ReportRenderingService.ReportTooLargeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit test for ReportRenderingService, rendering the real report template.
+ *
+ * Tests:
+ * - A report renders to a valid PDF, repeatedly with the worker's reused renderer
+ * - Reports rendered in parallel on the pool are all valid
+ * - A report streamed to an output stream is a complete PDF and the stream is left open
+ * - The HTML and PDF size limits fail the render, and the worker recovers afterwards
+ */
+public class ReportRenderingServiceTest {
+
+    private SpringTemplateEngine templateEngine;
+    private SimpleMeterRegistry registry;
+    private ThreadPoolTaskExecutor pool;
+
+    @BeforeEach
+    public void setup() {
+        templateEngine = templateEngine();
+        registry = new SimpleMeterRegistry();
+        pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(2);
+        pool.setMaxPoolSize(2);
+        pool.setThreadNamePrefix("report-render-test-");
+        pool.initialize();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRendersValidPdfWithReusedRenderer() {
+        ReportRenderingService service = service(2_000_000, 20_971_520);
+
+        byte[] first = service.renderPDF(ReportRenderingService.sampleReport());
+        byte[] second = service.renderPDF(ReportRenderingService.sampleReport());
+
+        assertThat(pdfHeader(first)).isEqualTo("%PDF-");
+        assertThat(pdfHeader(second)).isEqualTo("%PDF-");
+        assertThat(second.length).isCloseTo(first.length, within(first.length / 20));
+        assertThat(registry.timer(ReportMetrics.RENDER_DURATION).count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testParallelRendersOnPoolAreValid() throws Exception {
+        ReportRenderingService service = service(2_000_000, 20_971_520);
+
+        List<CompletableFuture<byte[]>> renders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            renders.add(service.renderAsync(ReportRenderingService.sampleReport()));
+        }
+
+        for (CompletableFuture<byte[]> render : renders) {
+            assertThat(pdfHeader(render.get(30, TimeUnit.SECONDS))).isEqualTo("%PDF-");
+        }
+    }
+
+    @Test
+    public void testStreamsPdfToOutputStream() {
+        ReportRenderingService service = service(2_000_000, 20_971_520);
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        long written = service.renderPDF(ReportRenderingService.sampleReport(), out);
+
+        byte[] pdf = out.toByteArray();
+        assertThat(written).isEqualTo(pdf.length);
+        assertThat(pdfHeader(pdf)).isEqualTo("%PDF-");
+        assertThat(new String(pdf, StandardCharsets.ISO_8859_1).stripTrailing()).endsWith("%%EOF");
+        assertThat(closed).isFalse();
+    }
+
+    @Test
+    public void testHtmlLimitRejectsReport() {
+        ReportRenderingService service = service(100, 20_971_520);
+
+        assertThatThrownBy(() -> service.renderPDF(ReportRenderingService.sampleReport()))
+                .isInstanceOf(ReportTooLargeException.class)
+                .hasMessageContaining("HTML");
+        assertThat(registry.counter(ReportMetrics.RENDER_FAILURES, "reason", "too-large").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPdfLimitRejectsReportAndWorkerRecovers() {
+        ReportRenderingService limited = service(2_000_000, 1_000);
+
+        assertThatThrownBy(() -> limited.renderPDF(ReportRenderingService.sampleReport()))
+                .isInstanceOf(ReportTooLargeException.class)
+                .hasMessageContaining("byte limit");
+
+        ReportRenderingService unlimited = service(2_000_000, 20_971_520);
+        assertThat(pdfHeader(unlimited.renderPDF(ReportRenderingService.sampleReport()))).isEqualTo("%PDF-");
+    }
+
+    private ReportRenderingService service(int maxHtmlChars, long maxPdfBytes) {
+        return new ReportRenderingService(templateEngine, pool, registry, maxHtmlChars, maxPdfBytes, false);
+    }
+
+    static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private static String pdfHeader(byte[] pdf) {
+        return new String(pdf, 0, Math.min(5, pdf.length), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,145 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.controller.RunStatusWebSocketController;
+import com.stockmonitor.dto.RunStatusUpdateDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for RunProgressPublisher.
+ *
+ * Tests:
+ * - Progress updates of a run are coalesced to the latest one per flush
+ * - Terminal states are sent without waiting for the next flush
+ * - Terminal states published inside a transaction are sent after it completes
+ * - Success states are only sent if their transaction commits, FAILED otherwise
+ */
+public class RunProgressPublisherTest extends BaseUnitTest {
+
+    @Mock
+    private RunStatusWebSocketController runStatusWebSocketController;
+
+    private RunProgressPublisher publisher;
+
+    @BeforeEach
+    public void setup() {
+        // Interval long enough that only explicit flushes send progress updates
+        publisher = new RunProgressPublisher(runStatusWebSocketController, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    public void testProgressUpdatesAreCoalescedPerRun() {
+        UUID runA = UUID.randomUUID();
+        UUID runB = UUID.randomUUID();
+        for (int progress = 0; progress <= 60; progress += 10) {
+            publisher.publish(runA, "RUNNING", progress, "Step " + progress);
+        }
+        publisher.publish(runB, "RUNNING", 5, "Starting");
+
+        verify(runStatusWebSocketController, never()).broadcastRunStatus(any(), any());
+        assertThat(publisher.pendingCount()).isEqualTo(2);
+
+        publisher.flush();
+
+        ArgumentCaptor<RunStatusUpdateDTO> captor = ArgumentCaptor.forClass(RunStatusUpdateDTO.class);
+        verify(runStatusWebSocketController).broadcastRunStatus(eq(runA), captor.capture());
+        assertThat(captor.getValue().getProgress()).isEqualTo(60);
+        verify(runStatusWebSocketController).broadcastRunStatus(eq(runB), any());
+        assertThat(publisher.pendingCount()).isZero();
+
+        // Nothing new: the next flush sends nothing
+        publisher.flush();
+        verify(runStatusWebSocketController, times(2)).broadcastRunStatus(any(), any());
+    }
+
+    @Test
+    public void testTerminalStateIsSentImmediately() {
+        UUID runId = UUID.randomUUID();
+        publisher.publish(runId, "RUNNING", 90, "Almost done");
+        publisher.publish(runId, "COMPLETED", 100, "Run completed");
+
+        ArgumentCaptor<RunStatusUpdateDTO> captor = ArgumentCaptor.forClass(RunStatusUpdateDTO.class);
+        verify(runStatusWebSocketController, timeout(1000)).broadcastRunStatus(eq(runId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    public void testTerminalStateInTransactionIsSentAfterCompletion() {
+        UUID runId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publishError(runId, "Factor data unavailable");
+            verify(runStatusWebSocketController, never()).broadcastRunStatus(any(), any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<RunStatusUpdateDTO> captor = ArgumentCaptor.forClass(RunStatusUpdateDTO.class);
+        verify(runStatusWebSocketController, timeout(1000)).broadcastRunStatus(eq(runId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo("FAILED");
+        assertThat(captor.getValue().getErrorMessage()).isEqualTo("Factor data unavailable");
+    }
+
+    @Test
+    public void testSuccessStateInTransactionIsSentAfterCommit() {
+        UUID runId = UUID.randomUUID();
+        completeTransaction(() -> publisher.publish(runId, "COMPLETED", 100, "Run completed"),
+                TransactionSynchronization.STATUS_COMMITTED);
+
+        ArgumentCaptor<RunStatusUpdateDTO> captor = ArgumentCaptor.forClass(RunStatusUpdateDTO.class);
+        verify(runStatusWebSocketController, timeout(1000)).broadcastRunStatus(eq(runId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    public void testSuccessStateInRolledBackTransactionIsSentAsFailed() {
+        UUID runId = UUID.randomUUID();
+        completeTransaction(() -> publisher.publish(runId, "COMPLETED", 100, "Run completed"),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        ArgumentCaptor<RunStatusUpdateDTO> captor = ArgumentCaptor.forClass(RunStatusUpdateDTO.class);
+        verify(runStatusWebSocketController, timeout(1000)).broadcastRunStatus(eq(runId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo("FAILED");
+        assertThat(captor.getValue().getErrorMessage()).isEqualTo("Run was rolled back");
+    }
+
+    private void completeTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            verify(runStatusWebSocketController, never()).broadcastRunStatus(any(), any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.stockmonitor.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.model.ServiceApiKey;
+import com.stockmonitor.repository.ServiceApiKeyRepository;
+import com.stockmonitor.service.ServiceApiKeyService.ApiKeyResponse;
+import com.stockmonitor.service.ServiceApiKeyService.VerifiedKey;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit test for ServiceApiKeyService and ServiceApiKeyUsageTracker.
+ *
+ * Tests:
+ * - Generated keys carry their stored lookup prefix and are verified with a single hash check
+ * - Repeated verifications are served from the cache until the key is revoked
+ * - Keys issued without a prefix are still found among the unprefixed keys
+ * - Expired and unknown keys are rejected
+ * - Last-use times are written per key on flush and kept for the next flush if the write fails
+ */
+public class ServiceApiKeyServiceTest extends BaseUnitTest {
+
+    @Mock
+    private ServiceApiKeyRepository serviceApiKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger hashChecks = new AtomicInteger();
+    private ServiceApiKeyService service;
+
+    @BeforeEach
+    public void setup() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordEncoder countingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashChecks.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        service = new ServiceApiKeyService(serviceApiKeyRepository, countingEncoder, Duration.ofMinutes(1), 100);
+        lenient().when(serviceApiKeyRepository.save(any(ServiceApiKey.class))).thenAnswer(invocation -> {
+            ServiceApiKey key = invocation.getArgument(0);
+            if (key.getId() == null) {
+                key.setId(UUID.randomUUID());
+            }
+            return key;
+        });
+    }
+
+    @Test
+    public void testGeneratedKeyVerifiedByPrefix() {
+        ServiceApiKey stored = generate(null).stored();
+
+        assertThat(stored.getKeyPrefix()).startsWith(ServiceApiKeyService.KEY_PREFIX_MARKER).hasSize(16);
+        assertThat(stored.getKeyHash()).doesNotContain(stored.getKeyPrefix());
+    }
+
+    @Test
+    public void testVerificationIsCachedUntilRevoked() {
+        Issued issued = generate(null);
+        ServiceApiKey stored = issued.stored();
+        String plaintextKey = issued.plaintextKey();
+        when(serviceApiKeyRepository.findByKeyPrefix(stored.getKeyPrefix())).thenReturn(Optional.of(stored));
+        when(serviceApiKeyRepository.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        Optional<VerifiedKey> first = service.verify(plaintextKey);
+        Optional<VerifiedKey> second = service.verify(plaintextKey);
+
+        assertThat(first).map(VerifiedKey::id).contains(stored.getId());
+        assertThat(second).isEqualTo(first);
+        assertThat(hashChecks).hasValue(1);
+        verify(serviceApiKeyRepository, never()).findByIsActiveTrueAndKeyPrefixIsNull();
+
+        service.revoke(stored.getId());
+
+        assertThat(service.verify(plaintextKey)).isEmpty();
+        verify(serviceApiKeyRepository, times(2)).findByKeyPrefix(stored.getKeyPrefix());
+    }
+
+    @Test
+    public void testUnprefixedKeyFoundByScan() {
+        String legacyKey = "VGhpcy1pcy1hLWtleS1pc3N1ZWQtYmVmb3JlLXByZWZpeGVz";
+        ServiceApiKey other = ServiceApiKey.builder().id(UUID.randomUUID()).name("other")
+                .keyHash(new BCryptPasswordEncoder(4).encode("something-else")).build();
+        ServiceApiKey legacy = ServiceApiKey.builder().id(UUID.randomUUID()).name("legacy")
+                .keyHash(new BCryptPasswordEncoder(4).encode(legacyKey)).build();
+        when(serviceApiKeyRepository.findByIsActiveTrueAndKeyPrefixIsNull()).thenReturn(List.of(other, legacy));
+
+        assertThat(service.verify(legacyKey)).map(VerifiedKey::name).contains("legacy");
+        verify(serviceApiKeyRepository, never()).findByKeyPrefix(anyString());
+    }
+
+    @Test
+    public void testExpiredAndUnknownKeysRejected() {
+        Issued issued = generate(LocalDateTime.now().minusDays(1));
+        ServiceApiKey stored = issued.stored();
+        when(serviceApiKeyRepository.findByKeyPrefix(anyString())).thenReturn(Optional.empty());
+        when(serviceApiKeyRepository.findByKeyPrefix(stored.getKeyPrefix())).thenReturn(Optional.of(stored));
+
+        assertThat(service.verify(issued.plaintextKey())).isEmpty();
+        assertThat(service.verify(stored.getKeyPrefix() + ".wrong-secret")).isEmpty();
+        assertThat(service.verify("smk_unknownprefix.secret")).isEmpty();
+    }
+
+    @Test
+    public void testUsageTrackerFlushesLatestUsePerKey() {
+        ServiceApiKeyUsageTracker tracker = new ServiceApiKeyUsageTracker(serviceApiKeyRepository, transactionManager);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        tracker.recordUse(first);
+        tracker.recordUse(second);
+        tracker.recordUse(first);
+
+        assertThat(tracker.flush()).isEqualTo(2);
+        verify(serviceApiKeyRepository).updateLastUsedAt(eq(first), any(LocalDateTime.class));
+        verify(serviceApiKeyRepository).updateLastUsedAt(eq(second), any(LocalDateTime.class));
+        assertThat(tracker.flush()).isZero();
+    }
+
+    @Test
+    public void testUsageTrackerKeepsTimesWhenWriteFails() {
+        ServiceApiKeyUsageTracker tracker = new ServiceApiKeyUsageTracker(serviceApiKeyRepository, transactionManager);
+        UUID keyId = UUID.randomUUID();
+        tracker.recordUse(keyId);
+        doThrow(new IllegalStateException("database down"))
+                .doReturn(1)
+                .when(serviceApiKeyRepository).updateLastUsedAt(any(UUID.class), any(LocalDateTime.class));
+
+        assertThat(tracker.flush()).isZero();
+        assertThat(tracker.flush()).isEqualTo(1);
+    }
+
+    private Issued generate(LocalDateTime expiresAt) {
+        ApiKeyResponse response = service.generate("scheduler", null, null, "admin");
+        ArgumentCaptor<ServiceApiKey> saved = ArgumentCaptor.forClass(ServiceApiKey.class);
+        verify(serviceApiKeyRepository).save(saved.capture());
+        ServiceApiKey stored = saved.getValue();
+        stored.setExpiresAt(expiresAt);
+        assertThat(response.plaintextKey()).startsWith(stored.getKeyPrefix() + ".");
+        return new Issued(stored, response.plaintextKey());
+    }
+
+    private record Issued(ServiceApiKey stored, String plaintextKey) {}
+}
@@ -0,0 +1,99 @@
+package com.stockmonitor.service;
+
+import com.stockmonitor.BaseUnitTest;
+import com.stockmonitor.dto.ConstituentVersion;
+import com.stockmonitor.dto.UniverseMembership;
+import com.stockmonitor.repository.UniverseConstituentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for UniverseMembershipIndex.
+ *
+ * Tests:
+ * - Universe symbols come from the bitmap in alphabetical order
+ * - Coverage intersects candidate symbols with the universe, ignoring unknown symbols
+ * - The index is rebuilt only when the constituent fingerprint changes
+ */
+public class UniverseMembershipIndexTest extends BaseUnitTest {
+
+    private static final UUID LARGE_CAP = UUID.randomUUID();
+    private static final UUID SMALL_CAP = UUID.randomUUID();
+
+    @Mock
+    private UniverseConstituentRepository constituentRepository;
+
+    private UniverseMembershipIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new UniverseMembershipIndex(constituentRepository);
+    }
+
+    @Test
+    public void testSymbolsPerUniverse() {
+        givenConstituents(version(5), List.of(
+                new UniverseMembership(LARGE_CAP, "AAPL"),
+                new UniverseMembership(SMALL_CAP, "CELH"),
+                new UniverseMembership(LARGE_CAP, "GOOGL"),
+                new UniverseMembership(LARGE_CAP, "MSFT"),
+                new UniverseMembership(SMALL_CAP, "MSFT")));
+
+        UniverseMembershipIndex.Snapshot snapshot = index.current();
+
+        assertThat(snapshot.symbols(LARGE_CAP)).containsExactly("AAPL", "GOOGL", "MSFT");
+        assertThat(snapshot.symbols(SMALL_CAP)).containsExactly("CELH", "MSFT");
+        assertThat(snapshot.symbols(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    public void testIntersectIgnoresUnknownSymbols() {
+        givenConstituents(version(3), List.of(
+                new UniverseMembership(LARGE_CAP, "AAPL"),
+                new UniverseMembership(SMALL_CAP, "CELH"),
+                new UniverseMembership(LARGE_CAP, "MSFT")));
+
+        UniverseMembershipIndex.Snapshot snapshot = index.current();
+
+        assertThat(snapshot.intersect(LARGE_CAP, List.of("MSFT", "CELH", "XYZ", "AAPL")))
+                .containsExactly("AAPL", "MSFT");
+        assertThat(snapshot.intersect(SMALL_CAP, List.of("AAPL"))).isEmpty();
+        assertThat(snapshot.intersect(UUID.randomUUID(), List.of("AAPL"))).isEmpty();
+    }
+
+    @Test
+    public void testRebuiltOnlyWhenFingerprintChanges() {
+        ConstituentVersion first = version(1);
+        givenConstituents(first, List.of(new UniverseMembership(LARGE_CAP, "AAPL")));
+
+        UniverseMembershipIndex.Snapshot snapshot = index.current();
+        when(constituentRepository.findVersion()).thenReturn(version(1));
+        assertThat(index.current()).isSameAs(snapshot);
+        verify(constituentRepository, times(1)).findActiveMemberships();
+
+        givenConstituents(version(2), List.of(
+                new UniverseMembership(LARGE_CAP, "AAPL"),
+                new UniverseMembership(LARGE_CAP, "NVDA")));
+        assertThat(index.current().symbols(LARGE_CAP)).containsExactly("AAPL", "NVDA");
+        verify(constituentRepository, times(2)).findActiveMemberships();
+    }
+
+    private void givenConstituents(ConstituentVersion version, List<UniverseMembership> memberships) {
+        when(constituentRepository.findVersion()).thenReturn(version);
+        when(constituentRepository.findActiveMemberships()).thenReturn(memberships);
+    }
+
+    private static ConstituentVersion version(long count) {
+        return new ConstituentVersion(count, LocalDateTime.of(2024, 1, 31, 0, 0));
+    }
+}
@@ -2,6 +2,7 @@ import { useEffect, useRef, useState, useCallback } from 'react';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { Notification } from '../types';
+import { useAuth } from './useAuth';
 
 interface UseNotificationWebSocketOptions {
   userId: string;
@@ -28,6 +29,7 @@ export default function useNotificationWebSocket({
   const [isConnected, setIsConnected] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const clientRef = useRef<Client | null>(null);
+  const token = useAuth((state) => state.token);
 
   const connect = useCallback(() => {
     if (clientRef.current?.connected) {
@@ -40,6 +42,8 @@ export default function useNotificationWebSocket({
 
     const client = new Client({
       webSocketFactory: () => new SockJS(import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws'),
+      // The session is authenticated on CONNECT; notifications are routed to its user
+      connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
       debug: (str) => {
         if (import.meta.env.DEV) {
           console.log('STOMP:', str);
@@ -53,8 +57,8 @@ export default function useNotificationWebSocket({
         setIsConnected(true);
         setError(null);
 
-        // Subscribe to user's notification channel
-        client.subscribe(`/user/${userId}/notifications`, (message) => {
+        // Subscribe to the authenticated user's notification queue
+        client.subscribe('/user/queue/notifications', (message) => {
           try {
             const notification: Notification = JSON.parse(message.body);
             console.log('Received notification:', notification);
@@ -93,7 +97,7 @@ export default function useNotificationWebSocket({
 
     client.activate();
     clientRef.current = client;
-  }, [userId, onNotificationReceived]);
+  }, [userId, token, onNotificationReceived]);
 
   const disconnect = useCallback(() => {
     if (clientRef.current) {